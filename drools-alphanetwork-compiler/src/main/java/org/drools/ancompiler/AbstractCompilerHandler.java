@@ -17,6 +17,7 @@
 package org.drools.ancompiler;
 
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.Sink;
@@ -96,6 +97,20 @@ abstract class AbstractCompilerHandler extends NetworkHandlerAdaptor {
         return getVariableName(AlphaNode.class, alphaNode.getId());
     }
 
+    /**
+     * Hashed values of these types are used directly as the labels of the switch dispatching to the hashed alphas
+     */
+    protected static boolean canInlineValue(Class<?> fieldType) {
+        return Stream.of(String.class, Integer.class, int.class).anyMatch(c -> c.isAssignableFrom(fieldType));
+    }
+
+    /**
+     * Hashed enum values are dispatched with a switch on their ordinal
+     */
+    protected static boolean canSwitchOnOrdinal(Class<?> fieldType) {
+        return fieldType.isEnum();
+    }
+
     protected String getRangeIndexVariableName(AlphaRangeIndex alphaRangeIndex, int minId) {
         return RANGE_INDEX_VARIABLE_NAME_PREFIX + minId + "_" + alphaRangeIndex.getFieldIndex().getIndex();
     }
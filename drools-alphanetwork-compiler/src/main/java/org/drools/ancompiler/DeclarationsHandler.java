@@ -138,8 +138,10 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
 
         // we create a new hashed alpha that will be used to keep track of the hashes values to node ID for each
         // class field reader.
+        final Class<?> fieldType = indexableConstraint.getFieldExtractor().getExtractToClass();
         currentHashedAlpha = new HashedAlphasDeclaration(variableName,
-                                                         ValueType.STRING_TYPE);
+                                                         ValueType.STRING_TYPE,
+                                                         !canInlineValue(fieldType) && !canSwitchOnOrdinal(fieldType));
 
         // add the new declaration
         hashedAlphaDeclarations.add(currentHashedAlpha);
@@ -39,15 +39,25 @@ public class HashedAlphasDeclaration {
      */
     private final Map<Object, String> hashedValuesToNodeIds = new HashMap<>();
 
-    HashedAlphasDeclaration(String variableName,ValueType valueType) {
+    /**
+     * False when the hashed values are dispatched by a switch on their value, so the map doesn't need to be filled
+     */
+    private final boolean valuesMapRequired;
+
+    HashedAlphasDeclaration(String variableName, ValueType valueType, boolean valuesMapRequired) {
         this.variableName = variableName;
         this.valueType = valueType;
+        this.valuesMapRequired = valuesMapRequired;
     }
 
     public ValueType getValueType() {
         return valueType;
     }
 
+    public boolean isValuesMapRequired() {
+        return valuesMapRequired;
+    }
+
     public String getVariableName() {
         return variableName;
     }
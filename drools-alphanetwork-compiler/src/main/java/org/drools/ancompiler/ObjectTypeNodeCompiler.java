@@ -250,6 +250,10 @@ public class ObjectTypeNodeCompiler {
         builder.append("this.readAccessor = readAccessor;\n");
         // for each hashed alpha, we need to fill in the map member variable with the hashed values to node Ids
         for (HashedAlphasDeclaration declaration : hashedAlphaDeclarations) {
+            if (!declaration.isValuesMapRequired()) {
+                // values dispatched by a switch on the value itself, the map is never read
+                continue;
+            }
             String mapVariableName = declaration.getVariableName();
 
             for (Object hashedValue : declaration.getHashedValues()) {
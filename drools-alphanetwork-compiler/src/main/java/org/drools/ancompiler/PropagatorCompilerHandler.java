@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.Modifier;
@@ -44,7 +43,7 @@ import com.github.javaparser.ast.expr.VariableDeclarationExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.BreakStmt;
 import com.github.javaparser.ast.stmt.ExpressionStmt;
-import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.stmt.SwitchEntry;
@@ -88,8 +87,26 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
     protected static final String MODIFY_PREVIOUS_TUPLE_PARAM_NAME = "modifyPreviousTuples";
     protected static final String LOCAL_FACT_VAR_NAME = "fact";
 
+    /**
+     * Above this number of entries the switch dispatching a set of hashed alphas is split in buckets, each one
+     * dispatched by a separate method, so that the generated methods stay within the JVM code size limit
+     */
+    static final int MAX_SWITCH_ENTRIES = 1024;
+
+    // average number of entries of each bucket when a switch is split
+    private static final int BUCKET_ENTRIES = 256;
+
+    private static final int MAX_BUCKET_BITS = 16;
+
+    // multiplier of the Fibonacci hashing used to spread the hashed values among the buckets
+    private static final int BUCKET_HASH_MULTIPLIER = 0x9E3779B9;
+
+    private static final String SWITCH_VALUE_PARAM_NAME = "switchValue";
+
     private Class<?> fieldType;
 
+    private final List<HashedSwitch> hashedSwitches = new ArrayList<>();
+
     protected BlockStmt allStatements = new BlockStmt();
     protected Deque<Node> currentStatement = new ArrayDeque<>();
     protected List<MethodDeclaration> extractedMethods = new ArrayList<>();
@@ -159,12 +176,17 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
 
         final SwitchStmt switchStmt;
         final Statement nullCheck;
+        final HashedSwitch hashedSwitch;
         if (canInlineValue(fieldType)) {
 
             String switchVariableName = "switchVar";
+            // avoid boxing the value of primitive fields
+            MethodCallExpr valueExpr = fieldType == int.class ?
+                    parseExpression("readAccessor.getIntValue(" + WORKING_MEMORY_PARAM_NAME + ", fact)") :
+                    parseExpression("readAccessor.getValue(fact)");
             ExpressionStmt switchVariable = localVariableWithCastInitializer(toJPType(fieldType),
                                                                              switchVariableName,
-                                                                             parseExpression("readAccessor.getValue(fact)"));
+                                                                             valueExpr);
 
             this.allStatements.addStatement(switchVariable);
             switchStmt = new SwitchStmt().setSelector(new NameExpr(switchVariableName));
@@ -176,6 +198,25 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
                         .setCondition(new BinaryExpr(new NameExpr(switchVariableName), new NullLiteralExpr(), BinaryExpr.Operator.NOT_EQUALS))
                         .setThenStmt(switchStmt);
             }
+
+            hashedSwitch = fieldType == String.class ?
+                    new HashedSwitch(switchStmt, parseType("java.lang.String"), switchVariableName + ".hashCode()") :
+                    new HashedSwitch(switchStmt, parseType("int"), switchVariableName);
+        } else if (canSwitchOnOrdinal(fieldType)) {
+
+            String switchVariableName = "switchVar";
+            ExpressionStmt switchVariable = localVariableWithCastInitializer(parseType("java.lang.Enum<?>"),
+                                                                             switchVariableName,
+                                                                             parseExpression("readAccessor.getValue(fact)"));
+
+            this.allStatements.addStatement(switchVariable);
+            switchStmt = new SwitchStmt().setSelector(new MethodCallExpr(new NameExpr(switchVariableName), "ordinal", nodeList()));
+
+            nullCheck = new IfStmt()
+                    .setCondition(new BinaryExpr(new NameExpr(switchVariableName), new NullLiteralExpr(), BinaryExpr.Operator.NOT_EQUALS))
+                    .setThenStmt(switchStmt);
+
+            hashedSwitch = new HashedSwitch(switchStmt, parseType("int"), switchVariableName + ".ordinal()");
         } else { // Hashable but not inlinable
 
             String localVariableName = "NodeId";
@@ -192,14 +233,13 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
             nullCheck = new IfStmt()
                     .setCondition(new BinaryExpr(new NameExpr(localVariableName), new NullLiteralExpr(), BinaryExpr.Operator.NOT_EQUALS))
                     .setThenStmt(switchStmt);
+
+            hashedSwitch = new HashedSwitch(switchStmt, parseType("int"), localVariableName + ".intValue()");
         }
 
         this.allStatements.addStatement(nullCheck);
         this.currentStatement.push(switchStmt);
-    }
-
-    protected boolean canInlineValue(Class<?> fieldType) {
-        return Stream.of(String.class, Integer.class, int.class).anyMatch(c -> c.isAssignableFrom(fieldType));
+        this.hashedSwitches.add(hashedSwitch);
     }
 
     @Override
@@ -216,6 +256,8 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
                 quotedHashedValue = new IntegerLiteralExpr((Integer) hashedValue);
             }
             newSwitchEntry.setLabels(nodeList(quotedHashedValue));
+        } else if (canSwitchOnOrdinal(fieldType)) {
+            newSwitchEntry.setLabels(nodeList(new IntegerLiteralExpr(String.valueOf(((Enum<?>) hashedValue).ordinal()))));
         } else {
             newSwitchEntry.setLabels(nodeList(new IntegerLiteralExpr(hashedAlpha.getId())));
         }
@@ -231,26 +273,37 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
     @Override
     public void startRangeIndex(AlphaRangeIndex alphaRangeIndex) {
         String rangeIndexVariableName = getRangeIndexVariableName(alphaRangeIndex, getMinIdFromRangeIndex(alphaRangeIndex));
-        String matchingResultVariableName = rangeIndexVariableName + "_result";
-        String matchingNodeVariableName = matchingResultVariableName + "_node";
-
-        ExpressionStmt matchingResultVariable = localVariable(parseType("java.util.Collection<org.drools.core.reteoo.AlphaNode>"),
-                                                              matchingResultVariableName,
-                                                              new MethodCallExpr(new NameExpr(rangeIndexVariableName),
-                                                                                 "getMatchingAlphaNodes",
-                                                                                 nodeList(new MethodCallExpr(new NameExpr(FACT_HANDLE_PARAM_NAME), "getObject"))));
+        String regionsVariableName = rangeIndexVariableName + "_regions";
+        String regionVariableName = rangeIndexVariableName + "_region";
+        String positionVariableName = rangeIndexVariableName + "_position";
+        String endVariableName = rangeIndexVariableName + "_end";
+
+        ExpressionStmt regionsVariable = localVariable(parseType(AlphaRangeIndex.Regions.class.getCanonicalName()),
+                                                       regionsVariableName,
+                                                       new MethodCallExpr(new NameExpr(rangeIndexVariableName), "getRegions"));
+
+        // binary search of the region of the field value, the matching alpha nodes are contiguous in the sorted ones
+        ExpressionStmt regionVariable = localVariable(parseType("int"),
+                                                      regionVariableName,
+                                                      new MethodCallExpr(new NameExpr(regionsVariableName),
+                                                                         "findRegion",
+                                                                         nodeList(new NameExpr(WORKING_MEMORY_PARAM_NAME),
+                                                                                  new MethodCallExpr(new NameExpr(FACT_HANDLE_PARAM_NAME), "getObject"))));
 
         final BlockStmt currentBlockStatement = getCurrentBlockStatement();
 
-        currentBlockStatement.addStatement(matchingResultVariable);
+        currentBlockStatement.addStatement(regionsVariable);
+        currentBlockStatement.addStatement(regionVariable);
 
-        BlockStmt body = new BlockStmt();
-        ForEachStmt forEachStmt = new ForEachStmt(new VariableDeclarationExpr(parseType("org.drools.core.reteoo.AlphaNode"), matchingNodeVariableName),
-                                                  new NameExpr(matchingResultVariableName), body);
+        ForStmt forStmt = parseStatement(String.format("for (int %1$s = %2$s.getRegionStart(%3$s), %4$s = %2$s.getRegionEnd(%3$s); %1$s < %4$s; %1$s++) { }",
+                                                       positionVariableName, regionsVariableName, regionVariableName, endVariableName)).asForStmt();
+        BlockStmt body = forStmt.getBody().asBlockStmt();
 
-        currentBlockStatement.addStatement(forEachStmt);
+        currentBlockStatement.addStatement(forStmt);
 
-        SwitchStmt switchStatement = new SwitchStmt().setSelector(new MethodCallExpr(new NameExpr(matchingNodeVariableName), "getId"));
+        SwitchStmt switchStatement = new SwitchStmt().setSelector(new MethodCallExpr(new NameExpr(regionsVariableName),
+                                                                                     "getNodeId",
+                                                                                     nodeList(new NameExpr(positionVariableName))));
         this.currentStatement.push(switchStatement);
         body.addStatement(switchStatement);
     }
@@ -337,6 +390,102 @@ public abstract class PropagatorCompilerHandler extends AbstractCompilerHandler
 
     private void postProcessAllStatements() {
         partitionSwitchEntries();
+        splitLargeSwitches();
+    }
+
+    private void splitLargeSwitches() {
+        for (int i = 0; i < hashedSwitches.size(); i++) {
+            HashedSwitch hashedSwitch = hashedSwitches.get(i);
+            if (hashedSwitch.switchStmt.getEntries().size() > MAX_SWITCH_ENTRIES) {
+                splitInBuckets(hashedSwitch, i);
+            }
+        }
+    }
+
+    /**
+     * Replaces the switch with one on the hash of its selector, whose entries delegate to methods each containing
+     * the switch on the original selector for a bucket of the original entries.
+     *
+     * switch (bucketOf(switchVar)) {
+     *     case 0: dispatchHashed_md5Hash_switchIndex_0(switchVar, handle, context, wm); break;
+     *     ...
+     * }
+     */
+    private void splitInBuckets(HashedSwitch hashedSwitch, int switchIndex) {
+        SwitchStmt switchStmt = hashedSwitch.switchStmt;
+        List<SwitchEntry> entries = new ArrayList<>(switchStmt.getEntries());
+
+        int neededBuckets = (entries.size() + BUCKET_ENTRIES - 1) / BUCKET_ENTRIES;
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(neededBuckets - 1));
+        List<List<SwitchEntry>> buckets = partitionInBuckets(entries, bits);
+        while (bits < MAX_BUCKET_BITS && buckets.stream().anyMatch(b -> b.size() > MAX_SWITCH_ENTRIES)) {
+            buckets = partitionInBuckets(entries, ++bits);
+        }
+
+        Expression selector = switchStmt.getSelector();
+        String methodPrefix = String.format("dispatchHashed_%s_%d_", md5Hash(selector.toString()), switchIndex);
+
+        NodeList<SwitchEntry> bucketEntries = new NodeList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            if (buckets.get(i).isEmpty()) {
+                continue;
+            }
+            String methodName = methodPrefix + i;
+
+            SwitchStmt bucketSwitch = new SwitchStmt(new NameExpr(SWITCH_VALUE_PARAM_NAME), new NodeList<>(buckets.get(i)));
+            NodeList<Parameter> parameters = methodParameters();
+            parameters.addFirst(new Parameter(hashedSwitch.valueType.clone(), SWITCH_VALUE_PARAM_NAME));
+            extractedMethods.add(new MethodDeclaration()
+                                         .setModifiers(nodeList(Modifier.publicModifier()))
+                                         .setName(methodName)
+                                         .setParameters(parameters)
+                                         .setType(new VoidType())
+                                         .setBody(new BlockStmt(nodeList(bucketSwitch))));
+
+            NodeList<Expression> arguments = arguments();
+            arguments.addFirst(selector.clone());
+            bucketEntries.add(new SwitchEntry()
+                                      .setLabels(nodeList(new IntegerLiteralExpr(String.valueOf(i))))
+                                      .setStatements(nodeList(new ExpressionStmt(new MethodCallExpr(null, methodName, arguments)),
+                                                              new BreakStmt())));
+        }
+
+        switchStmt.setSelector(parseExpression(String.format("(%s * %d) >>> %d", hashedSwitch.hashExpression, BUCKET_HASH_MULTIPLIER, 32 - bits)));
+        switchStmt.setEntries(bucketEntries);
+    }
+
+    private static List<List<SwitchEntry>> partitionInBuckets(List<SwitchEntry> entries, int bits) {
+        List<List<SwitchEntry>> buckets = new ArrayList<>();
+        for (int i = 0; i < 1 << bits; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (SwitchEntry entry : entries) {
+            buckets.get((labelHash(entry) * BUCKET_HASH_MULTIPLIER) >>> (32 - bits)).add(entry);
+        }
+        return buckets;
+    }
+
+    // has to match the hashExpression of the HashedSwitch evaluated at runtime
+    private static int labelHash(SwitchEntry entry) {
+        Expression label = entry.getLabels().get(0);
+        if (label.isStringLiteralExpr()) {
+            return label.asStringLiteralExpr().asString().hashCode();
+        }
+        return label.asIntegerLiteralExpr().asNumber().intValue();
+    }
+
+    private static class HashedSwitch {
+        private final SwitchStmt switchStmt;
+        // the type of the value the switch is on
+        private final Type valueType;
+        // the int, evaluated on the switch value, used to partition the entries in buckets
+        private final String hashExpression;
+
+        private HashedSwitch(SwitchStmt switchStmt, Type valueType, String hashExpression) {
+            this.switchStmt = switchStmt;
+            this.valueType = valueType;
+            this.hashExpression = hashExpression;
+        }
     }
 
     private void partitionSwitchEntries() {
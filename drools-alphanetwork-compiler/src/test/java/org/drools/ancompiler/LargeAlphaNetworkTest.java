@@ -59,6 +59,117 @@ public class LargeAlphaNetworkTest extends BaseModelTest {
         }
     }
 
+    @Test
+    public void testLargeHashedAlphaNetwork() {
+        // more hashed values than the ones dispatched by a single switch
+        final StringBuilder rule =
+                new StringBuilder("global java.util.List results;\n" +
+                                          "import " + Person.class.getCanonicalName() + ";\n");
+
+        int alphalength = 1500;
+        for (int i = 0; i < alphalength; i++) {
+            rule.append("rule rule" + i + " when\n" +
+                                "    $p : Person( name == \"name" + i + "\" )\n" +
+                                "then\n" +
+                                " results.add($p);\n" +
+                                "end\n");
+        }
+
+        KieSession ksession = getKieSession(rule.toString());
+        ArrayList<Object> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+        Person a = new Person("name0", 1);
+        Person b = new Person("name777", 0);
+        Person c = new Person("name1499", 7);
+        Person d = new Person("name1500", 7);
+        ksession.insert(a);
+        ksession.insert(b);
+        ksession.insert(c);
+        ksession.insert(d);
+
+        try {
+            assertThat(ksession.fireAllRules()).isEqualTo(3);
+            assertThat(results).containsExactlyInAnyOrder(a, b, c);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testLargeHashedIntAlphaNetwork() {
+        // more hashed int values than the ones dispatched by a single switch, negative values included
+        final StringBuilder rule =
+                new StringBuilder("global java.util.List results;\n" +
+                                          "import " + Person.class.getCanonicalName() + ";\n");
+
+        int alphalength = 1500;
+        for (int i = 0; i < alphalength; i++) {
+            rule.append("rule rule" + i + " when\n" +
+                                "    $p : Person( age == " + (i - 750) + " )\n" +
+                                "then\n" +
+                                " results.add($p);\n" +
+                                "end\n");
+        }
+
+        KieSession ksession = getKieSession(rule.toString());
+        ArrayList<Object> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+        Person a = new Person("a", -750);
+        Person b = new Person("b", 0);
+        Person c = new Person("c", 749);
+        Person d = new Person("d", 750);
+        ksession.insert(a);
+        ksession.insert(b);
+        ksession.insert(c);
+        ksession.insert(d);
+
+        try {
+            assertThat(ksession.fireAllRules()).isEqualTo(3);
+            assertThat(results).containsExactlyInAnyOrder(a, b, c);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testLargeHashedEnumAlphaNetwork() {
+        // more hashed enum constants than the ones dispatched by a single switch on the ordinal
+        int alphalength = 1500;
+        final StringBuilder rule = new StringBuilder("global java.util.List results;\n" +
+                                                             "declare enum Code\n    ");
+        for (int i = 0; i < alphalength; i++) {
+            rule.append(i == 0 ? "" : ", ").append("C").append(i);
+        }
+        rule.append(";\nend\n" +
+                            "declare Coded\n" +
+                            "    code : Code\n" +
+                            "end\n" +
+                            "rule init when\n" +
+                            "then\n" +
+                            "    insert(new Coded(Code.C0));\n" +
+                            "    insert(new Coded(Code.C777));\n" +
+                            "    insert(new Coded(Code.C1499));\n" +
+                            "    insert(new Coded(null));\n" +
+                            "end\n");
+        for (int i = 0; i < alphalength; i++) {
+            rule.append("rule rule" + i + " when\n" +
+                                "    Coded( code == Code.C" + i + " )\n" +
+                                "then\n" +
+                                " results.add(\"C" + i + "\");\n" +
+                                "end\n");
+        }
+
+        KieSession ksession = getKieSession(rule.toString());
+        ArrayList<Object> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+
+        try {
+            assertThat(ksession.fireAllRules()).isEqualTo(4);
+            assertThat(results).containsExactlyInAnyOrder("C0", "C777", "C1499");
+        } finally {
+            ksession.dispose();
+        }
+    }
 
     private String ruleWithIndex(final Integer index) {
 
@@ -228,4 +228,55 @@ public class RangeIndexANCTest extends BaseModelTest {
         assertThat(results).containsOnly("test1", "test2", "test3");
         results.clear();
     }
+
+    @Test
+    public void testRegionBounds() {
+        // every value between and on the bounds has to fire exactly the rules whose constraint it satisfies
+        final String[] operators = {"<", "<=", ">", ">="};
+        final StringBuilder drl = new StringBuilder("package org.drools.compiler.test\n" +
+                                                            "import " + Person.class.getCanonicalName() + "\n" +
+                                                            "global java.util.List results;\n");
+        for (int bound = 0; bound <= 50; bound += 5) {
+            for (int i = 0; i < operators.length; i++) {
+                drl.append("rule \"age").append(operators[i]).append(bound).append("\"\n when\n")
+                        .append("   Person( age ").append(operators[i]).append(" ").append(bound).append(" )\n")
+                        .append("then\n   results.add(drools.getRule().getName());\nend\n");
+                drl.append("rule \"salary").append(operators[i]).append(bound).append("\"\n when\n")
+                        .append("   Person( salary ").append(operators[i]).append(" ").append(bound).append(" )\n")
+                        .append("then\n   results.add(drools.getRule().getName());\nend\n");
+            }
+        }
+
+        final KieBase kbase = createKieBaseWithRangeIndexThresholdValue(drl.toString(), 3);
+        final KieSession ksession = kbase.newKieSession();
+
+        List<String> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+
+        for (int value = -1; value <= 51; value++) {
+            Person person = new Person("John", value);
+            person.setSalary(value % 2 == 0 ? value : null);
+            ksession.insert(person);
+            ksession.fireAllRules();
+
+            List<String> expected = new ArrayList<>();
+            for (int bound = 0; bound <= 50; bound += 5) {
+                for (String operator : operators) {
+                    boolean matches = operator.equals("<") ? value < bound :
+                            operator.equals("<=") ? value <= bound :
+                            operator.equals(">") ? value > bound :
+                            value >= bound;
+                    if (matches) {
+                        expected.add("age" + operator + bound);
+                        if (person.getSalary() != null) {
+                            expected.add("salary" + operator + bound);
+                        }
+                    }
+                }
+            }
+            assertThat(results).as("value " + value).containsExactlyInAnyOrderElementsOf(expected);
+            results.clear();
+        }
+        ksession.dispose();
+    }
 }
@@ -28,6 +28,7 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import org.drools.commands.IdentifiableResult;
 import org.drools.commands.runtime.ExecutionResultImpl;
 import org.drools.commands.jaxb.JaxbListAdapter;
+import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.util.StringUtils;
 import org.kie.api.command.ExecutableCommand;
 import org.kie.api.runtime.Context;
@@ -57,6 +58,9 @@ public class InsertElementsCommand
     @XmlAttribute(name="entry-point")
     private String entryPoint = "DEFAULT";
 
+    @XmlAttribute(name="batched")
+    private boolean batched;
+
     public InsertElementsCommand() {
         this.objects = new ArrayList<>();
     }
@@ -89,8 +93,12 @@ public class InsertElementsCommand
             wmep = ksession.getEntryPoint( this.entryPoint );
         }
 
-        for ( Object object : objects ) {
-            handles.add( wmep.insert( object ) );
+        if ( batched && wmep instanceof WorkingMemoryEntryPoint ) {
+            handles.addAll( ((WorkingMemoryEntryPoint) wmep).insertAll( objects ) );
+        } else {
+            for ( Object object : objects ) {
+                handles.add( wmep.insert( object ) );
+            }
         }
 
         if ( outIdentifier != null ) {
@@ -129,6 +137,19 @@ public class InsertElementsCommand
         this.entryPoint = entryPoint;
     }
 
+    public boolean isBatched() {
+        return batched;
+    }
+
+    /**
+     * When true the elements are inserted with {@link WorkingMemoryEntryPoint#insertAll(Collection)},
+     * which propagates the runs of consecutive facts of the same type as batches. The facts then
+     * reach the different nodes in node-major order instead of the order of single inserts.
+     */
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+    }
+
     public String toString() {
         List<Object> list = new ArrayList<>();
         for ( Object object : objects ) {
@@ -213,7 +213,7 @@ public interface InternalKieModule extends KieModule, Serializable {
                 compilationCache.put(dialect, resourceEntries);
             }
 
-            String key = className.contains("$") ? className.substring(0, className.indexOf('$') ) + ".class" : className;
+            String key = getResourceName(className);
             List<CompilationCacheEntry> bytes = resourceEntries.get(key);
             if( bytes == null ) {
                 bytes = new ArrayList<>();
@@ -226,6 +226,14 @@ public interface InternalKieModule extends KieModule, Serializable {
         public Map<String, List<CompilationCacheEntry>> getCacheForDialect(String dialect) {
             return compilationCache.get(dialect);
         }
+
+        /**
+         * The resource under which the bytecode of the given class is cached, inner classes being
+         * grouped with their outer one.
+         */
+        public static String getResourceName(String className) {
+            return className.contains("$") ? className.substring(0, className.indexOf('$') ) + ".class" : className;
+        }
     }
 
     class CompilationCacheEntry implements Serializable {
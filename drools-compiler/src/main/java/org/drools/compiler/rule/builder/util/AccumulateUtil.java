@@ -32,8 +32,12 @@ public class AccumulateUtil {
                 functionName = "averageBD";
             }
         } else if (functionName.equals("max")) {
-            final Class<?> exprClass = convertFromPrimitiveType( exprClassSupplier.get() );
-            if (exprClass == Integer.class) {
+            final Class<?> declaredClass = exprClassSupplier.get();
+            final Class<?> exprClass = convertFromPrimitiveType( declaredClass );
+            if (declaredClass.isPrimitive()) {
+                // a primitive expression can't be null, so it can be accumulated by the reversible functions
+                functionName = getPrimitiveMinMaxFunctionName( exprClass, functionName );
+            } else if (exprClass == Integer.class) {
                 functionName = "maxI";
             } else if (exprClass == Long.class) {
                 functionName = "maxL";
@@ -41,8 +45,12 @@ public class AccumulateUtil {
                 functionName = "maxN";
             }
         } else if (functionName.equals("min")) {
-            final Class<?> exprClass = convertFromPrimitiveType( exprClassSupplier.get() );
-            if (exprClass == Integer.class) {
+            final Class<?> declaredClass = exprClassSupplier.get();
+            final Class<?> exprClass = convertFromPrimitiveType( declaredClass );
+            if (declaredClass.isPrimitive()) {
+                // a primitive expression can't be null, so it can be accumulated by the reversible functions
+                functionName = getPrimitiveMinMaxFunctionName( exprClass, functionName );
+            } else if (exprClass == Integer.class) {
                 functionName = "minI";
             } else if (exprClass == Long.class) {
                 functionName = "minL";
@@ -53,6 +61,19 @@ public class AccumulateUtil {
         return functionName;
     }
 
+    private static String getPrimitiveMinMaxFunctionName(Class<?> exprClass, String functionName) {
+        if (exprClass == Integer.class) {
+            return functionName + "PI";
+        } else if (exprClass == Long.class) {
+            return functionName + "PL";
+        } else if (exprClass == Double.class) {
+            return functionName + "PD";
+        } else if (Number.class.isAssignableFrom( exprClass )) {
+            return functionName + "N";
+        }
+        return functionName;
+    }
+
     @SuppressWarnings("unchecked")
     public static AccumulateFunction loadAccumulateFunction(ClassLoader classLoader, String identifier,
                                                             String className) {
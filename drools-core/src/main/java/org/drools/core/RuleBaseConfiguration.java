@@ -58,7 +58,10 @@ import org.kie.internal.conf.IndexPrecedenceOption;
 import org.kie.internal.conf.IndexRightBetaMemoryOption;
 import org.kie.internal.conf.MaxThreadsOption;
 import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.conf.ObjectStoreOption;
+import org.kie.internal.conf.ParallelEvaluationModeOption;
 import org.kie.internal.conf.PermGenThresholdOption;
+import org.kie.internal.conf.PropagationListOption;
 import org.kie.internal.conf.SequentialAgendaOption;
 import org.kie.internal.conf.ShareAlphaNodesOption;
 import org.kie.internal.conf.ShareBetaNodesOption;
@@ -110,6 +113,9 @@ import static org.drools.core.util.MemoryUtil.hasPermGen;
  * drools.declarativeAgendaEnabled =  &lt;true|false&gt;
  * drools.permgenThreshold = &lt;1...n&gt;
  * drools.jittingThreshold = &lt;1...n&gt;
+ * drools.propagationList = &lt;synchronized|lockfree&gt;
+ * drools.parallelEvaluationMode = &lt;partitioned|workstealing&gt;
+ * drools.objectStore = &lt;default|flat&gt;
  * </pre>
  */
 public class RuleBaseConfiguration
@@ -155,10 +161,15 @@ public class RuleBaseConfiguration
 
     private IndexPrecedenceOption indexPrecedenceOption;
 
+    private PropagationListOption propagationListOption;
+
+    private ObjectStoreOption objectStoreOption;
+
     // if "true", rulebase builder will try to split
     // the rulebase into multiple partitions that can be evaluated
     // in parallel by using multiple internal threads
     private boolean multithread;
+    private ParallelEvaluationModeOption parallelEvaluationMode;
     private int     maxThreads;
 
     // this property activates MBean monitoring and management
@@ -214,6 +225,9 @@ public class RuleBaseConfiguration
         out.writeBoolean(declarativeAgenda);
         out.writeInt(sessionPoolSize);
         out.writeBoolean(mutabilityEnabled);
+        out.writeObject(propagationListOption);
+        out.writeObject(parallelEvaluationMode);
+        out.writeObject(objectStoreOption);
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -246,6 +260,9 @@ public class RuleBaseConfiguration
         declarativeAgenda = in.readBoolean();
         sessionPoolSize = in.readInt();
         mutabilityEnabled = in.readBoolean();
+        propagationListOption = (PropagationListOption) in.readObject();
+        parallelEvaluationMode = (ParallelEvaluationModeOption) in.readObject();
+        objectStoreOption = (ObjectStoreOption) in.readObject();
     }
 
     /**
@@ -333,6 +350,8 @@ public class RuleBaseConfiguration
             setAdvancedProcessRuleIntegration( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
         } else if ( name.equals( MultithreadEvaluationOption.PROPERTY_NAME ) ) {
             setMultithreadEvaluation( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( ParallelEvaluationModeOption.PROPERTY_NAME ) ) {
+            setParallelEvaluationMode( StringUtils.isEmpty( value ) ? ParallelEvaluationModeOption.PARTITIONED : ParallelEvaluationModeOption.determineParallelEvaluationMode(value));
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
             setMaxThreads( StringUtils.isEmpty( value ) ? 3 : Integer.parseInt(value));
         } else if ( name.equals( EventProcessingOption.PROPERTY_NAME ) ) {
@@ -341,6 +360,10 @@ public class RuleBaseConfiguration
             setMBeansEnabled( MBeansOption.isEnabled(value));
         } else if ( name.equals( KieBaseMutabilityOption.PROPERTY_NAME ) ) {
             setMutabilityEnabled( StringUtils.isEmpty( value ) ? true : KieBaseMutabilityOption.determineMutability(value) == KieBaseMutabilityOption.ALLOWED );
+        } else if ( name.equals( PropagationListOption.PROPERTY_NAME ) ) {
+            setPropagationListOption( StringUtils.isEmpty( value ) ? PropagationListOption.SYNCHRONIZED : PropagationListOption.determinePropagationList(value));
+        } else if ( name.equals( ObjectStoreOption.PROPERTY_NAME ) ) {
+            setObjectStoreOption( StringUtils.isEmpty( value ) ? ObjectStoreOption.DEFAULT : ObjectStoreOption.determineObjectStore(value));
         }
     }
 
@@ -390,6 +413,8 @@ public class RuleBaseConfiguration
             return Boolean.toString(isAdvancedProcessRuleIntegration());
         } else if ( name.equals( MultithreadEvaluationOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isMultithreadEvaluation() );
+        } else if ( name.equals( ParallelEvaluationModeOption.PROPERTY_NAME ) ) {
+            return getParallelEvaluationMode().getValue();
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
             return Integer.toString( getMaxThreads());
         } else if ( name.equals( EventProcessingOption.PROPERTY_NAME ) ) {
@@ -398,6 +423,10 @@ public class RuleBaseConfiguration
             return isMBeansEnabled() ? "enabled" : "disabled";
         } else if ( name.equals( KieBaseMutabilityOption.PROPERTY_NAME ) ) {
             return isMutabilityEnabled() ? "ALLOWED" : "DISABLED";
+        } else if ( name.equals( PropagationListOption.PROPERTY_NAME ) ) {
+            return getPropagationListOption().getValue();
+        } else if ( name.equals( ObjectStoreOption.PROPERTY_NAME ) ) {
+            return getObjectStoreOption().getValue();
         }
 
         return null;
@@ -476,6 +505,9 @@ public class RuleBaseConfiguration
         setMultithreadEvaluation( Boolean.valueOf( this.chainedProperties.getProperty( MultithreadEvaluationOption.PROPERTY_NAME,
                                                                                        "false" ) ).booleanValue() );
 
+        setParallelEvaluationMode( ParallelEvaluationModeOption.determineParallelEvaluationMode( this.chainedProperties.getProperty( ParallelEvaluationModeOption.PROPERTY_NAME,
+                                                                                                                                   "partitioned" ) ) );
+
         setMaxThreads( Integer.parseInt( this.chainedProperties.getProperty( MaxThreadsOption.PROPERTY_NAME,
                                                                              "3" ) ) );
 
@@ -490,6 +522,12 @@ public class RuleBaseConfiguration
 
         setMutabilityEnabled( KieBaseMutabilityOption.determineMutability(
                 this.chainedProperties.getProperty( KieBaseMutabilityOption.PROPERTY_NAME, "ALLOWED" )) == KieBaseMutabilityOption.ALLOWED );
+
+        setPropagationListOption( PropagationListOption.determinePropagationList( this.chainedProperties.getProperty( PropagationListOption.PROPERTY_NAME,
+                                                                                                                     "synchronized" ) ) );
+
+        setObjectStoreOption( ObjectStoreOption.determineObjectStore( this.chainedProperties.getProperty( ObjectStoreOption.PROPERTY_NAME,
+                                                                                                          "default" ) ) );
     }
 
     /**
@@ -684,6 +722,38 @@ public class RuleBaseConfiguration
         this.indexPrecedenceOption = precedence;
     }
 
+    public PropagationListOption getPropagationListOption() {
+        return this.propagationListOption;
+    }
+
+    /**
+     * Defines which PropagationList thread safe sessions created from this
+     * RuleBase will use to enqueue the propagations coming from other threads.
+     *
+     * @param propagationListOption the PropagationList implementation to use.
+     *                              Default is synchronized.
+     */
+    public void setPropagationListOption(final PropagationListOption propagationListOption) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.propagationListOption = propagationListOption;
+    }
+
+    public ObjectStoreOption getObjectStoreOption() {
+        return this.objectStoreOption;
+    }
+
+    /**
+     * Defines which ObjectStore the entry points of the sessions created from this
+     * RuleBase will use to keep the inserted facts and their handles.
+     *
+     * @param objectStoreOption the ObjectStore implementation to use.
+     *                          Default is default.
+     */
+    public void setObjectStoreOption(final ObjectStoreOption objectStoreOption) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.objectStoreOption = objectStoreOption;
+    }
+
     public String getConsequenceExceptionHandler() {
         return consequenceExceptionHandler;
     }
@@ -742,6 +812,23 @@ public class RuleBaseConfiguration
         return this.multithread;
     }
 
+    /**
+     * Defines how the partitions of the RuleBase are assigned to the evaluating
+     * threads when multi-thread evaluation is enabled.
+     *
+     * @param parallelEvaluationMode PARTITIONED to evaluate each partition with its
+     *                     own thread or WORK_STEALING to let a pool of threads
+     *                     claim any partition with pending work. Default is PARTITIONED.
+     */
+    public void setParallelEvaluationMode(final ParallelEvaluationModeOption parallelEvaluationMode) {
+        checkCanChange();
+        this.parallelEvaluationMode = parallelEvaluationMode;
+    }
+
+    public ParallelEvaluationModeOption getParallelEvaluationMode() {
+        return this.parallelEvaluationMode;
+    }
+
     /**
      * If multi-thread evaluation is enabled, this parameter configures the 
      * maximum number of threads each session can use for concurrent Rete
@@ -1068,12 +1155,18 @@ public class RuleBaseConfiguration
             return (T) MaxThreadsOption.get(getMaxThreads());
         } else if (MultithreadEvaluationOption.class.equals(option)) {
             return (T) (this.multithread ? MultithreadEvaluationOption.YES : MultithreadEvaluationOption.NO);
+        } else if (ParallelEvaluationModeOption.class.equals(option)) {
+            return (T) getParallelEvaluationMode();
         } else if (MBeansOption.class.equals(option)) {
             return (T) (this.isMBeansEnabled() ? MBeansOption.ENABLED : MBeansOption.DISABLED);
         } else if (DeclarativeAgendaOption.class.equals(option)) {
             return (T) (this.isDeclarativeAgenda() ? DeclarativeAgendaOption.ENABLED : DeclarativeAgendaOption.DISABLED);
         } else if (KieBaseMutabilityOption.class.equals(option)) {
             return (T) (this.isMutabilityEnabled() ? KieBaseMutabilityOption.ALLOWED : KieBaseMutabilityOption.DISABLED);
+        } else if (PropagationListOption.class.equals(option)) {
+            return (T) getPropagationListOption();
+        } else if (ObjectStoreOption.class.equals(option)) {
+            return (T) getObjectStoreOption();
         }
         return null;
 
@@ -1120,12 +1213,18 @@ public class RuleBaseConfiguration
             setMaxThreads( ( (MaxThreadsOption) option ).getMaxThreads());
         } else if (option instanceof MultithreadEvaluationOption) {
             setMultithreadEvaluation( ( (MultithreadEvaluationOption) option ).isMultithreadEvaluation());
+        } else if (option instanceof ParallelEvaluationModeOption) {
+            setParallelEvaluationMode( (ParallelEvaluationModeOption) option );
         } else if (option instanceof MBeansOption) {
             setMBeansEnabled( ( (MBeansOption) option ).isEnabled());
         } else if (option instanceof DeclarativeAgendaOption) {
             setDeclarativeAgendaEnabled(((DeclarativeAgendaOption) option).isDeclarativeAgendaEnabled());
         } else if (option instanceof KieBaseMutabilityOption) {
             setMutabilityEnabled(option == KieBaseMutabilityOption.ALLOWED);
+        } else if (option instanceof PropagationListOption) {
+            setPropagationListOption((PropagationListOption) option);
+        } else if (option instanceof ObjectStoreOption) {
+            setObjectStoreOption((ObjectStoreOption) option);
         }
 
     }
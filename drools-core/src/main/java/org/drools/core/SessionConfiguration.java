@@ -43,7 +43,12 @@ import org.kie.api.runtime.conf.TimerJobFactoryOption;
 import org.kie.api.runtime.conf.WorkItemHandlerOption;
 import org.kie.api.runtime.process.WorkItemHandler;
 import org.kie.internal.runtime.conf.ForceEagerActivationFilter;
+import org.kie.internal.runtime.conf.FlightRecorderOption;
 import org.kie.internal.runtime.conf.ForceEagerActivationOption;
+import org.kie.internal.runtime.conf.GroupByParallelThresholdOption;
+import org.kie.internal.runtime.conf.SegmentMemoryEvictionOption;
+import org.kie.internal.runtime.conf.TimerServiceOption;
+import org.kie.internal.runtime.conf.TuplePoolSizeOption;
 
 public abstract class SessionConfiguration implements KieSessionConfiguration, Externalizable {
 
@@ -89,6 +94,9 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
     public abstract TimerJobFactoryType getTimerJobFactoryType();
     public abstract void setTimerJobFactoryType(TimerJobFactoryType timerJobFactoryType);
 
+    public abstract TimerServiceOption getTimerServiceOption();
+    public abstract void setTimerServiceOption(TimerServiceOption timerServiceOption);
+
     public final TimerJobFactoryManager getTimerJobFactoryManager() {
         return getTimerJobFactoryType().createInstance();
     }
@@ -107,9 +115,23 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
     public abstract QueryListenerOption getQueryListenerOption();
     public abstract void setQueryListenerOption( QueryListenerOption queryListener );
 
+    public abstract long getSegmentMemoryEvictionIdleTime();
+    public abstract void setSegmentMemoryEvictionIdleTime( long segmentMemoryEvictionIdleTime );
+
+    public abstract int getGroupByParallelThreshold();
+    public abstract void setGroupByParallelThreshold( int groupByParallelThreshold );
+
+    public abstract boolean isFlightRecorderEnabled();
+    public abstract void setFlightRecorderEnabled( boolean flightRecorderEnabled );
+
+    public abstract int getTuplePoolSize();
+    public abstract void setTuplePoolSize( int tuplePoolSize );
+
     public final <T extends KieSessionOption> void setOption(T option) {
         if ( option instanceof ClockTypeOption ) {
             setClockType( ClockType.resolveClockType( ((ClockTypeOption) option).getClockType() ) );
+        } else if ( option instanceof TimerServiceOption ) {
+            setTimerServiceOption( (TimerServiceOption) option );
         } else if ( option instanceof TimerJobFactoryOption ) {
             setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(((TimerJobFactoryOption) option).getTimerJobType()));
         } else if ( option instanceof KeepReferenceOption ) {
@@ -131,6 +153,14 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             setQueryListenerOption( (QueryListenerOption) option );
         } else if ( option instanceof BeliefSystemTypeOption ) {
             setBeliefSystemType( ((BeliefSystemType.resolveBeliefSystemType( ((BeliefSystemTypeOption) option).getBeliefSystemType() ))) );
+        } else if ( option instanceof SegmentMemoryEvictionOption ) {
+            setSegmentMemoryEvictionIdleTime( ((SegmentMemoryEvictionOption) option).getIdleTime() );
+        } else if ( option instanceof GroupByParallelThresholdOption ) {
+            setGroupByParallelThreshold( ((GroupByParallelThresholdOption) option).getThreshold() );
+        } else if ( option instanceof FlightRecorderOption ) {
+            setFlightRecorderEnabled( ((FlightRecorderOption) option).isEnabled() );
+        } else if ( option instanceof TuplePoolSizeOption ) {
+            setTuplePoolSize( ((TuplePoolSizeOption) option).getSize() );
         }
     }
 
@@ -146,12 +176,22 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             return (T) (isThreadSafe() ? ThreadSafeOption.YES : ThreadSafeOption.NO);
         } else if ( AccumulateNullPropagationOption.class.equals( option ) ) {
             return (T) (isAccumulateNullPropagation() ? AccumulateNullPropagationOption.YES : AccumulateNullPropagationOption.NO);
+        } else if ( TimerServiceOption.class.equals( option ) ) {
+            return (T) getTimerServiceOption();
         } else if ( TimerJobFactoryOption.class.equals( option ) ) {
             return (T) TimerJobFactoryOption.get( getTimerJobFactoryType().toExternalForm() );
         } else if ( QueryListenerOption.class.equals( option ) ) {
             return (T) getQueryListenerOption();
         } else if ( BeliefSystemTypeOption.class.equals( option ) ) {
             return (T) BeliefSystemTypeOption.get( this.getBeliefSystemType().getId() );
+        } else if ( SegmentMemoryEvictionOption.class.equals( option ) ) {
+            return (T) SegmentMemoryEvictionOption.get( getSegmentMemoryEvictionIdleTime() );
+        } else if ( GroupByParallelThresholdOption.class.equals( option ) ) {
+            return (T) GroupByParallelThresholdOption.get( getGroupByParallelThreshold() );
+        } else if ( FlightRecorderOption.class.equals( option ) ) {
+            return (T) (isFlightRecorderEnabled() ? FlightRecorderOption.YES : FlightRecorderOption.NO);
+        } else if ( TuplePoolSizeOption.class.equals( option ) ) {
+            return (T) TuplePoolSizeOption.get( getTuplePoolSize() );
         }
         return null;
     }
@@ -187,6 +227,8 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             setTimedRuleExecutionFilter(TimedRuleExecutionOption.resolve(StringUtils.isEmpty(value) ? "false" : value).getFilter());
         } else if ( name.equals( ClockTypeOption.PROPERTY_NAME ) ) {
             setClockType(ClockType.resolveClockType(StringUtils.isEmpty(value) ? "realtime" : value));
+        } else if ( name.equals( TimerServiceOption.PROPERTY_NAME ) ) {
+            setTimerServiceOption(StringUtils.isEmpty(value) ? TimerServiceOption.DEFAULT : TimerServiceOption.resolve(value));
         } else if ( name.equals( TimerJobFactoryOption.PROPERTY_NAME ) ) {
             setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(StringUtils.isEmpty(value) ? "default" : value));
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
@@ -194,6 +236,14 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             setQueryListenerOption( QueryListenerOption.determineQueryListenerClassOption( property ) );
         } else if ( name.equals( BeliefSystemTypeOption.PROPERTY_NAME ) ) {
             setBeliefSystemType(StringUtils.isEmpty(value) ? BeliefSystemType.SIMPLE : BeliefSystemType.resolveBeliefSystemType(value));
+        } else if ( name.equals( SegmentMemoryEvictionOption.PROPERTY_NAME ) ) {
+            setSegmentMemoryEvictionIdleTime(StringUtils.isEmpty(value) ? SegmentMemoryEvictionOption.DEFAULT_VALUE : Long.parseLong(value));
+        } else if ( name.equals( GroupByParallelThresholdOption.PROPERTY_NAME ) ) {
+            setGroupByParallelThreshold(StringUtils.isEmpty(value) ? GroupByParallelThresholdOption.DEFAULT_VALUE : Integer.parseInt(value));
+        } else if ( name.equals( FlightRecorderOption.PROPERTY_NAME ) ) {
+            setFlightRecorderEnabled(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+        } else if ( name.equals( TuplePoolSizeOption.PROPERTY_NAME ) ) {
+            setTuplePoolSize(StringUtils.isEmpty(value) ? TuplePoolSizeOption.DEFAULT_VALUE : Integer.parseInt(value));
         }
     }
 
@@ -213,12 +263,22 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             return Boolean.toString(isAccumulateNullPropagation());
         } else if ( name.equals( ClockTypeOption.PROPERTY_NAME ) ) {
             return getClockType().toExternalForm();
+        } else if ( name.equals( TimerServiceOption.PROPERTY_NAME ) ) {
+            return getTimerServiceOption().getId();
         } else if ( name.equals( TimerJobFactoryOption.PROPERTY_NAME ) ) {
             return getTimerJobFactoryType().toExternalForm();
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             return getQueryListenerOption().getAsString();
         } else if ( name.equals( BeliefSystemTypeOption.PROPERTY_NAME ) ) {
             return getBeliefSystemType().getId();
+        } else if ( name.equals( SegmentMemoryEvictionOption.PROPERTY_NAME ) ) {
+            return Long.toString(getSegmentMemoryEvictionIdleTime());
+        } else if ( name.equals( GroupByParallelThresholdOption.PROPERTY_NAME ) ) {
+            return Integer.toString(getGroupByParallelThreshold());
+        } else if ( name.equals( FlightRecorderOption.PROPERTY_NAME ) ) {
+            return Boolean.toString(isFlightRecorderEnabled());
+        } else if ( name.equals( TuplePoolSizeOption.PROPERTY_NAME ) ) {
+            return Integer.toString(getTuplePoolSize());
         }
         return null;
     }
@@ -43,7 +43,12 @@ import org.kie.api.runtime.conf.TimedRuleExecutionOption;
 import org.kie.api.runtime.conf.TimerJobFactoryOption;
 import org.kie.api.runtime.process.WorkItemHandler;
 import org.kie.internal.runtime.conf.ForceEagerActivationFilter;
+import org.kie.internal.runtime.conf.FlightRecorderOption;
 import org.kie.internal.runtime.conf.ForceEagerActivationOption;
+import org.kie.internal.runtime.conf.GroupByParallelThresholdOption;
+import org.kie.internal.runtime.conf.SegmentMemoryEvictionOption;
+import org.kie.internal.runtime.conf.TimerServiceOption;
+import org.kie.internal.runtime.conf.TuplePoolSizeOption;
 import org.kie.internal.utils.ChainedProperties;
 
 /**
@@ -84,11 +89,21 @@ public class SessionConfigurationImpl extends SessionConfiguration {
     private TimedRuleExecutionFilter       timedRuleExecutionFilter;
 
     private ClockType                      clockType;
+
+    private TimerServiceOption             timerServiceOption;
     
     private BeliefSystemType               beliefSystemType;
 
     private QueryListenerOption            queryListener;
 
+    private long                           segmentMemoryEvictionIdleTime;
+
+    private int                            groupByParallelThreshold;
+
+    private boolean                        flightRecorderEnabled;
+
+    private int                            tuplePoolSize;
+
     private Map<String, WorkItemHandler>   workItemHandlers;
     private WorkItemManagerFactory         workItemManagerFactory;
     private ExecutableRunner runner;
@@ -177,9 +192,19 @@ public class SessionConfigurationImpl extends SessionConfiguration {
 
         setClockType( ClockType.resolveClockType( getPropertyValue( ClockTypeOption.PROPERTY_NAME, ClockType.REALTIME_CLOCK.getId() ) ) );
 
+        setTimerServiceOption( TimerServiceOption.resolve( getPropertyValue( TimerServiceOption.PROPERTY_NAME, TimerServiceOption.DEFAULT.getId() ) ) );
+
         setQueryListenerOption( QueryListenerOption.determineQueryListenerClassOption( getPropertyValue( QueryListenerOption.PROPERTY_NAME, QueryListenerOption.STANDARD.getAsString() ) ) );
 
         setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType( getPropertyValue( TimerJobFactoryOption.PROPERTY_NAME, TimerJobFactoryType.THREAD_SAFE_TRACKABLE.getId() ) ));
+
+        setSegmentMemoryEvictionIdleTime( Long.parseLong( getPropertyValue( SegmentMemoryEvictionOption.PROPERTY_NAME, Long.toString( SegmentMemoryEvictionOption.DEFAULT_VALUE ) ) ) );
+
+        setGroupByParallelThreshold( Integer.parseInt( getPropertyValue( GroupByParallelThresholdOption.PROPERTY_NAME, Integer.toString( GroupByParallelThresholdOption.DEFAULT_VALUE ) ) ) );
+
+        setFlightRecorderEnabled( Boolean.parseBoolean( getPropertyValue( FlightRecorderOption.PROPERTY_NAME, "false" ) ) );
+
+        setTuplePoolSize( Integer.parseInt( getPropertyValue( TuplePoolSizeOption.PROPERTY_NAME, Integer.toString( TuplePoolSizeOption.DEFAULT_VALUE ) ) ) );
     }
 
     public SessionConfigurationImpl addDefaultProperties(Properties properties) {
@@ -288,6 +313,15 @@ public class SessionConfigurationImpl extends SessionConfiguration {
         this.clockType = clockType;
     }
 
+    public TimerServiceOption getTimerServiceOption() {
+        return timerServiceOption;
+    }
+
+    public void setTimerServiceOption(TimerServiceOption timerServiceOption) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.timerServiceOption = timerServiceOption;
+    }
+
     public TimerJobFactoryType getTimerJobFactoryType() {
         return timerJobFactoryType;
     }
@@ -441,4 +475,40 @@ public class SessionConfigurationImpl extends SessionConfiguration {
         checkCanChange();
         this.queryListener = queryListener;
     }
+
+    public long getSegmentMemoryEvictionIdleTime() {
+        return this.segmentMemoryEvictionIdleTime;
+    }
+
+    public void setSegmentMemoryEvictionIdleTime( long segmentMemoryEvictionIdleTime ) {
+        checkCanChange();
+        this.segmentMemoryEvictionIdleTime = segmentMemoryEvictionIdleTime;
+    }
+
+    public int getGroupByParallelThreshold() {
+        return this.groupByParallelThreshold;
+    }
+
+    public void setGroupByParallelThreshold( int groupByParallelThreshold ) {
+        checkCanChange();
+        this.groupByParallelThreshold = groupByParallelThreshold;
+    }
+
+    public boolean isFlightRecorderEnabled() {
+        return this.flightRecorderEnabled;
+    }
+
+    public void setFlightRecorderEnabled( boolean flightRecorderEnabled ) {
+        checkCanChange();
+        this.flightRecorderEnabled = flightRecorderEnabled;
+    }
+
+    public int getTuplePoolSize() {
+        return this.tuplePoolSize;
+    }
+
+    public void setTuplePoolSize( int tuplePoolSize ) {
+        checkCanChange();
+        this.tuplePoolSize = tuplePoolSize;
+    }
 }
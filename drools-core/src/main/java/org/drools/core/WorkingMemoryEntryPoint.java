@@ -16,6 +16,9 @@
 
 package org.drools.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.drools.core.common.ObjectStore;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
@@ -53,6 +56,27 @@ public interface WorkingMemoryEntryPoint extends EntryPoint {
     FactHandle insert(Object object,
                       boolean dynamic);
 
+    /**
+     * Insert all the given facts, grouping the runs of consecutive facts of the
+     * same type so that each run is enqueued as a single propagation entry and
+     * propagated as a batch, see {@link org.drools.core.phreak.PropagationEntry.BatchInsert}.
+     * Each node receives the facts in iteration order, but the whole run is
+     * propagated through one node before moving to the next one, while single
+     * inserts would interleave them.
+     *
+     * @param objects
+     *            The fact objects.
+     *
+     * @return The fact-handles associated with the objects, in iteration order.
+     */
+    default List<FactHandle> insertAll(Collection<?> objects) {
+        List<FactHandle> handles = new ArrayList<>( objects.size() );
+        for ( Object object : objects ) {
+            handles.add( insert( object ) );
+        }
+        return handles;
+    }
+
     /**
      * Internal method called by the engine when the session is being disposed, so that the entry point
      * can proceed with the necessary clean ups.
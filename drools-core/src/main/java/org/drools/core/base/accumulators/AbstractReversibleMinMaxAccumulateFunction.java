@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * Base class of the accumulators calculating the minimum or the maximum of primitive values, that unlike the
+ * generic ones also support the reverse of a value in O(log n), instead of recalculating the whole accumulation
+ * when the current minimum or maximum is removed.
+ *
+ * The values are mapped to longs preserving their order and kept in a binary min-heap of primitives.
+ * The reversed values are added to a second heap and lazily dropped from the first one when they reach its top.
+ */
+public abstract class AbstractReversibleMinMaxAccumulateFunction extends AbstractAccumulateFunction<AbstractReversibleMinMaxAccumulateFunction.MinMaxData> {
+
+    private final boolean max;
+
+    protected AbstractReversibleMinMaxAccumulateFunction(boolean max) {
+        this.max = max;
+    }
+
+    /**
+     * Maps the given value to a long, so that the order of the longs is the same of the values.
+     */
+    protected abstract long toLong(Object value);
+
+    protected abstract Object fromLong(long value);
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+
+    }
+
+    public static class MinMaxData implements Externalizable {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private long[] heap = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private long[] removed = new long[INITIAL_CAPACITY];
+        private int removedSize;
+
+        public MinMaxData() {}
+
+        void clear() {
+            size = 0;
+            removedSize = 0;
+        }
+
+        int count() {
+            return size - removedSize;
+        }
+
+        void add(long key) {
+            heap = offer(heap, size++, key);
+        }
+
+        void remove(long key) {
+            removed = offer(removed, removedSize++, key);
+            if (removedSize > INITIAL_CAPACITY && removedSize > size / 2) {
+                compact();
+            }
+        }
+
+        long peek() {
+            while (removedSize > 0 && heap[0] == removed[0]) {
+                poll(heap, size--);
+                poll(removed, removedSize--);
+            }
+            return heap[0];
+        }
+
+        private void compact() {
+            // drops all the removed values at once, a sorted array being also a valid heap
+            Arrays.sort(heap, 0, size);
+            Arrays.sort(removed, 0, removedSize);
+            int newSize = 0;
+            int r = 0;
+            for (int i = 0; i < size; i++) {
+                if (r < removedSize && heap[i] == removed[r]) {
+                    r++;
+                } else {
+                    heap[newSize++] = heap[i];
+                }
+            }
+            size = newSize;
+            removedSize = 0;
+        }
+
+        private static long[] offer(long[] heap, int size, long key) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size << 1);
+            }
+            int i = size;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= key) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = key;
+            return heap;
+        }
+
+        private static void poll(long[] heap, int size) {
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = (i << 1) + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            size = in.readInt();
+            heap = new long[Math.max(INITIAL_CAPACITY, size)];
+            for (int i = 0; i < size; i++) {
+                heap[i] = in.readLong();
+            }
+            removed = new long[INITIAL_CAPACITY];
+            removedSize = 0;
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            compact();
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(heap[i]);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "minMax";
+        }
+    }
+
+    public MinMaxData createContext() {
+        return new MinMaxData();
+    }
+
+    public void init(MinMaxData data) {
+        data.clear();
+    }
+
+    public void accumulate(MinMaxData data,
+                           Object value) {
+        if (value != null) {
+            data.add(toKey(value));
+        }
+    }
+
+    public void reverse(MinMaxData data,
+                        Object value) {
+        if (value != null) {
+            data.remove(toKey(value));
+        }
+    }
+
+    public Object getResult(MinMaxData data) {
+        if (data.count() == 0) {
+            return null;
+        }
+        long key = data.peek();
+        return fromLong(max ? ~key : key);
+    }
+
+    public boolean supportsReverse() {
+        return true;
+    }
+
+    private long toKey(Object value) {
+        // the bitwise complement reverses the order, so the top of the heap is the maximum
+        long key = toLong(value);
+        return max ? ~key : key;
+    }
+
+    /**
+     * Maps a double to a long with the same order of {@link Double#compare(double, double)}.
+     */
+    protected static long doubleToSortableLong(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    protected static double sortableLongToDouble(long value) {
+        return Double.longBitsToDouble(value ^ ((value >> 63) & Long.MAX_VALUE));
+    }
+}
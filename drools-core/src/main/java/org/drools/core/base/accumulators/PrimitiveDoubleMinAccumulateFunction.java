@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.base.accumulators;
+
+/**
+ * An implementation of an accumulator capable of calculating minimum values of double expressions,
+ * supporting the reverse
+ */
+public class PrimitiveDoubleMinAccumulateFunction extends AbstractReversibleMinMaxAccumulateFunction {
+
+    public PrimitiveDoubleMinAccumulateFunction() {
+        super( false );
+    }
+
+    @Override
+    protected long toLong(Object value) {
+        return doubleToSortableLong(((Number) value).doubleValue());
+    }
+
+    @Override
+    protected Object fromLong(long value) {
+        return sortableLongToDouble(value);
+    }
+
+    public Class<?> getResultType() {
+        return Number.class;
+    }
+}
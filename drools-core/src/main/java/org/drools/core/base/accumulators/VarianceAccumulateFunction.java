@@ -75,7 +75,12 @@ public class VarianceAccumulateFunction extends AbstractAccumulateFunction<Varia
         data.mean = data.count == 1 ? 0:data.mean * data.count / (data.count - 1.0) - x / (data.count -1.0);
         double lowerDelta = x - data.mean;
         data.count--;
-        data.squaredSum -= lowerDelta * higherDelta;
+        if (data.count == 0) {
+            // clears the rounding errors accumulated so far
+            data.squaredSum = 0.0;
+        } else {
+            data.squaredSum -= lowerDelta * higherDelta;
+        }
     }
 
     @Override
@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.drools.core.impl.RuleBase;
+import org.drools.core.jfr.AgendaGroupFocusEvent;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.rule.consequence.Activation;
 import org.kie.api.event.rule.MatchCancelledCause;
@@ -415,6 +416,9 @@ public interface AgendaGroupsManager extends Externalizable {
                 internalGroup.setActivatedForRecency( this.workingMemory.getFactHandleFactory().getRecency() );
                 final EventSupport eventsupport = this.workingMemory;
                 eventsupport.getAgendaEventSupport().fireAgendaGroupPushed( agendaGroup, this.workingMemory );
+                if ( this.workingMemory.getSessionConfiguration().isFlightRecorderEnabled() ) {
+                    AgendaGroupFocusEvent.emit( agendaGroup.getName() );
+                }
                 return true;
             } else {
                 return false;
@@ -0,0 +1,488 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+
+import org.kie.api.runtime.ObjectFilter;
+
+/**
+ * ObjectStore meant for very large working memories. The handles are kept in open addressing
+ * tables with linear probing, made of a flat array of handles filled up to three quarters, so the
+ * store doesn't allocate any entry object per fact.
+ *
+ * The handles are stored in:
+ * <ul>
+ *     <li>a table for each concrete class of the facts, hashed on the identity hash code of the fact, which is
+ *     read back from the fact itself when the entries are moved. In equality mode this table also records the
+ *     equality hash code each handle has been stored with, so a handle can be removed even after the hash
+ *     code of its fact changed;</li>
+ *     <li>in equality mode only, a table of all the handles hashed on the equality hash code of their facts,
+ *     with a parallel array of these hash codes.</li>
+ * </ul>
+ * So in identity mode the store takes a single reference slot per fact and in equality mode two reference
+ * slots and two ints. None of the operations scans a whole table, except the iterations.
+ *
+ * Removed slots are filled by shifting back the following entries of the same run, so the tables
+ * never contain tombstones. Since this moves the entries, the iterators walk a compact copy of the
+ * handles taken when they are created, and the facts can be removed while iterating.
+ */
+public class FlatObjectStore implements Externalizable, ObjectStore {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int CLASS_CAPACITY = 16;
+
+    private Lock lock;
+
+    private boolean isEqualityBehaviour;
+
+    private transient Map<Class<?>, HandleTable> classHandles;
+    private transient HandleTable equalityHandles;
+
+    private transient int size;
+
+    public FlatObjectStore() {
+        this( false, null );
+    }
+
+    public FlatObjectStore( boolean isEqualityBehaviour, Lock lock ) {
+        this.isEqualityBehaviour = isEqualityBehaviour;
+        this.lock = lock;
+        allocate( DEFAULT_CAPACITY );
+    }
+
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        out.writeBoolean( isEqualityBehaviour );
+        out.writeObject( lock );
+        out.writeInt( size );
+        for (HandleTable byClass : classHandles.values()) {
+            for (InternalFactHandle handle : byClass.handles) {
+                if (handle != null) {
+                    out.writeObject( handle );
+                }
+            }
+        }
+    }
+
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        isEqualityBehaviour = in.readBoolean();
+        lock = (Lock) in.readObject();
+        int storedSize = in.readInt();
+        allocate( capacityFor( storedSize ) );
+        for (int i = 0; i < storedSize; i++) {
+            InternalFactHandle handle = (InternalFactHandle) in.readObject();
+            addHandle( handle, handle.getObject() );
+        }
+    }
+
+    private static int capacityFor( int expectedSize ) {
+        int capacity = DEFAULT_CAPACITY;
+        while (thresholdOf( capacity ) <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int thresholdOf( int capacity ) {
+        return capacity - (capacity >> 2);
+    }
+
+    private void allocate( int capacity ) {
+        this.classHandles = new HashMap<>();
+        this.equalityHandles = isEqualityBehaviour ? new HandleTable( capacity, true, false ) : null;
+        this.size = 0;
+    }
+
+    private static int spread( int hash ) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        allocate( DEFAULT_CAPACITY );
+    }
+
+    @Override
+    public Object getObjectForHandle( InternalFactHandle handle ) {
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            InternalFactHandle reconnectedHandle = reconnect( handle );
+            return reconnectedHandle != null ? reconnectedHandle.getObject() : null;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public InternalFactHandle reconnect( InternalFactHandle handle ) {
+        if (handle == null) {
+            return null;
+        }
+        Object object = handle.getObject();
+        if (object != null) {
+            HandleTable byClass = classHandles.get( ClassAwareObjectStore.getActualClass( object ) );
+            return byClass != null ? byClass.getById( handle, DefaultFactHandle.determineIdentityHashCode( object ) ) : null;
+        }
+        // a handle without its fact still records the identity hash code of the fact
+        for (HandleTable byClass : classHandles.values()) {
+            InternalFactHandle reconnectedHandle = byClass.getById( handle, handle.getIdentityHashCode() );
+            if (reconnectedHandle != null) {
+                return reconnectedHandle;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public InternalFactHandle getHandleForObject( Object object ) {
+        if (object == null) {
+            return null;
+        }
+        if (!isEqualityBehaviour) {
+            return getByIdentity( object, false );
+        }
+        int hash = object.hashCode();
+        HandleTable table = equalityHandles;
+        for (int i = table.indexOf( hash ); table.handles[i] != null; i = (i + 1) & table.mask) {
+            InternalFactHandle handle = table.handles[i];
+            if (table.keys[i] == hash && !handle.isNegated() && object.equals( handle.getObject() )) {
+                return handle;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public InternalFactHandle getHandleForObjectIdentity( Object object ) {
+        return object != null ? getByIdentity( object, true ) : null;
+    }
+
+    private InternalFactHandle getByIdentity( Object object, boolean includeNegated ) {
+        HandleTable table = classHandles.get( ClassAwareObjectStore.getActualClass( object ) );
+        if (table == null) {
+            return null;
+        }
+        for (int i = table.indexOf( DefaultFactHandle.determineIdentityHashCode( object ) ); table.handles[i] != null; i = (i + 1) & table.mask) {
+            InternalFactHandle handle = table.handles[i];
+            if (handle.getObject() == object && (includeNegated || !handle.isNegated())) {
+                return handle;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void updateHandle( InternalFactHandle handle, Object object ) {
+        removeHandle( handle );
+        handle.setObject( object );
+        addHandle( handle, object );
+    }
+
+    @Override
+    public void addHandle( InternalFactHandle handle, Object object ) {
+        HandleTable byClass = classHandles.computeIfAbsent( ClassAwareObjectStore.getActualClass( object ),
+                                                            c -> new HandleTable( CLASS_CAPACITY, false, isEqualityBehaviour ) );
+        int identityHash = DefaultFactHandle.determineIdentityHashCode( object );
+        if (byClass.slotOf( handle, identityHash ) >= 0) {
+            return;
+        }
+        if (isEqualityBehaviour) {
+            int hash = handle.getObjectHashCode();
+            byClass.add( handle, identityHash, hash );
+            equalityHandles.add( handle, hash, 0 );
+        } else {
+            byClass.add( handle, identityHash, 0 );
+        }
+        size++;
+    }
+
+    @Override
+    public void removeHandle( InternalFactHandle handle ) {
+        Object object = handle.getObject();
+        HandleTable byClass = object != null ? classHandles.get( ClassAwareObjectStore.getActualClass( object ) ) : null;
+        int slot = byClass != null ? byClass.slotOf( handle, DefaultFactHandle.determineIdentityHashCode( object ) ) : -1;
+        if (slot >= 0) {
+            removeFromEqualityHandles( byClass, slot );
+            byClass.delete( slot );
+            size--;
+        }
+    }
+
+    private void removeFromEqualityHandles( HandleTable byClass, int slot ) {
+        if (isEqualityBehaviour) {
+            // the hash code of the fact could have been changed after its insertion, so use the recorded one
+            equalityHandles.remove( byClass.handles[slot], byClass.values[slot] );
+        }
+    }
+
+    @Override
+    public Iterator<Object> iterateObjects() {
+        return new HandleIterator<>( snapshot( Object.class ), false, null, true );
+    }
+
+    @Override
+    public Iterator<Object> iterateObjects( ObjectFilter filter ) {
+        return new HandleIterator<>( snapshot( Object.class ), false, filter, true );
+    }
+
+    @Override
+    public Iterator<InternalFactHandle> iterateFactHandles() {
+        return new HandleIterator<>( snapshot( Object.class ), false, null, false );
+    }
+
+    @Override
+    public Iterator<InternalFactHandle> iterateFactHandles( ObjectFilter filter ) {
+        return new HandleIterator<>( snapshot( Object.class ), false, filter, false );
+    }
+
+    @Override
+    public Iterator<Object> iterateNegObjects( ObjectFilter filter ) {
+        return new HandleIterator<>( snapshot( Object.class ), true, filter, true );
+    }
+
+    @Override
+    public Iterator<InternalFactHandle> iterateNegFactHandles( ObjectFilter filter ) {
+        return new HandleIterator<>( snapshot( Object.class ), true, filter, false );
+    }
+
+    @Override
+    public FactHandleClassStore getStoreForClass( Class<?> clazz ) {
+        // only the handles of the concrete classes assignable to the requested one are visited
+        return () -> new HandleIterator<>( snapshot( clazz ), false, null, false );
+    }
+
+    private InternalFactHandle[] snapshot( Class<?> clazz ) {
+        List<HandleTable> tables = new ArrayList<>();
+        int length = 0;
+        for (Map.Entry<Class<?>, HandleTable> entry : classHandles.entrySet()) {
+            if (clazz.isAssignableFrom( entry.getKey() )) {
+                tables.add( entry.getValue() );
+                length += entry.getValue().size;
+            }
+        }
+        InternalFactHandle[] snapshot = new InternalFactHandle[length];
+        int copied = 0;
+        for (HandleTable table : tables) {
+            for (InternalFactHandle handle : table.handles) {
+                if (handle != null) {
+                    snapshot[copied++] = handle;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public boolean clearClassStore( Class<?> clazz ) {
+        boolean removed = false;
+        for (Iterator<Map.Entry<Class<?>, HandleTable>> entries = classHandles.entrySet().iterator(); entries.hasNext(); ) {
+            Map.Entry<Class<?>, HandleTable> entry = entries.next();
+            if (clazz.isAssignableFrom( entry.getKey() )) {
+                HandleTable byClass = entry.getValue();
+                entries.remove();
+                for (int slot = 0; slot < byClass.handles.length; slot++) {
+                    if (byClass.handles[slot] != null) {
+                        removeFromEqualityHandles( byClass, slot );
+                        size--;
+                        removed = true;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * A flat open addressing table of handles with linear probing. Each handle is hashed either on an int key
+     * kept in a parallel array or, when the table has no keys, on the identity hash code of its fact.
+     * Optionally, an int value is recorded together with each handle.
+     */
+    private static class HandleTable {
+        private InternalFactHandle[] handles;
+        private int[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        private HandleTable( int capacity, boolean withKeys, boolean withValues ) {
+            this.handles = new InternalFactHandle[capacity];
+            this.keys = withKeys ? new int[capacity] : null;
+            this.values = withValues ? new int[capacity] : null;
+            this.mask = capacity - 1;
+        }
+
+        private int indexOf( int key ) {
+            return spread( key ) & mask;
+        }
+
+        private int keyOf( int slot ) {
+            return keys != null ? keys[slot] : DefaultFactHandle.determineIdentityHashCode( handles[slot].getObject() );
+        }
+
+        private void add( InternalFactHandle handle, int key, int value ) {
+            if (size >= thresholdOf( handles.length )) {
+                resize( handles.length << 1 );
+            }
+            set( firstFreeSlot( key ), handle, key, value );
+            size++;
+        }
+
+        private int firstFreeSlot( int key ) {
+            int i = indexOf( key );
+            while (handles[i] != null) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void set( int slot, InternalFactHandle handle, int key, int value ) {
+            handles[slot] = handle;
+            if (keys != null) {
+                keys[slot] = key;
+            }
+            if (values != null) {
+                values[slot] = value;
+            }
+        }
+
+        private void resize( int capacity ) {
+            InternalFactHandle[] oldHandles = handles;
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            handles = new InternalFactHandle[capacity];
+            keys = oldKeys != null ? new int[capacity] : null;
+            values = oldValues != null ? new int[capacity] : null;
+            mask = capacity - 1;
+            for (int slot = 0; slot < oldHandles.length; slot++) {
+                InternalFactHandle handle = oldHandles[slot];
+                if (handle != null) {
+                    int key = oldKeys != null ? oldKeys[slot] : DefaultFactHandle.determineIdentityHashCode( handle.getObject() );
+                    set( firstFreeSlot( key ), handle, key, oldValues != null ? oldValues[slot] : 0 );
+                }
+            }
+        }
+
+        private int slotOf( InternalFactHandle handle, int key ) {
+            for (int i = indexOf( key ); handles[i] != null; i = (i + 1) & mask) {
+                if (handles[i] == handle) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private InternalFactHandle getById( InternalFactHandle handle, int identityHash ) {
+            for (int i = indexOf( identityHash ); handles[i] != null; i = (i + 1) & mask) {
+                if (handles[i].getId() == handle.getId() && handles[i].isNegated() == handle.isNegated()) {
+                    return handles[i];
+                }
+            }
+            return null;
+        }
+
+        private void remove( InternalFactHandle handle, int key ) {
+            int slot = slotOf( handle, key );
+            if (slot >= 0) {
+                delete( slot );
+            }
+        }
+
+        private void delete( int slot ) {
+            int hole = slot;
+            for (int i = (slot + 1) & mask; handles[i] != null; i = (i + 1) & mask) {
+                // moves back the entry if its home slot doesn't fall between the hole and its current position
+                int key = keyOf( i );
+                if (((i - indexOf( key )) & mask) >= ((i - hole) & mask)) {
+                    set( hole, handles[i], key, values != null ? values[i] : 0 );
+                    hole = i;
+                }
+            }
+            handles[hole] = null;
+            size--;
+        }
+    }
+
+    private static class HandleIterator<T> implements Iterator<T> {
+        private final InternalFactHandle[] handles;
+        private final boolean negated;
+        private final ObjectFilter filter;
+        private final boolean objects;
+
+        private int index = -1;
+
+        private HandleIterator( InternalFactHandle[] handles, boolean negated, ObjectFilter filter, boolean objects ) {
+            this.handles = handles;
+            this.negated = negated;
+            this.filter = filter;
+            this.objects = objects;
+            advance();
+        }
+
+        private void advance() {
+            for (index++; index < handles.length; index++) {
+                InternalFactHandle handle = handles[index];
+                if (handle.isNegated() == negated && (filter == null || filter.accept( handle.getObject() ))) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < handles.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            InternalFactHandle handle = handles[index];
+            advance();
+            return (T) (objects ? handle.getObject() : handle);
+        }
+    }
+}
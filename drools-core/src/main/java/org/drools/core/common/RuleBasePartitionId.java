@@ -36,6 +36,11 @@ public final class RuleBasePartitionId implements Serializable {
 
     private final int id;
 
+    // the slot assigned by a cost based rebalancing of the partitions, negative when
+    // the partition is still evaluated on the slot derived from its id. Volatile because
+    // the rebalancing thread is not one of the threads evaluating the partitions later
+    private volatile int parallelEvaluationSlot = -1;
+
     private RuleBasePartitionId( int id ) {
         this.id = id;
     }
@@ -45,7 +50,14 @@ public final class RuleBasePartitionId implements Serializable {
     }
 
     public int getParallelEvaluationSlot() {
-        return id % PARALLEL_PARTITIONS_NUMBER;
+        return ( parallelEvaluationSlot < 0 ? id : parallelEvaluationSlot ) % PARALLEL_PARTITIONS_NUMBER;
+    }
+
+    public void setParallelEvaluationSlot( int parallelEvaluationSlot ) {
+        if (this == MAIN_PARTITION) {
+            throw new IllegalArgumentException( "The main partition is always evaluated on the first slot" );
+        }
+        this.parallelEvaluationSlot = parallelEvaluationSlot;
     }
 
     @Override
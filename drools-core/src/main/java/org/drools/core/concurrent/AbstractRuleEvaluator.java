@@ -17,20 +17,34 @@
 package org.drools.core.concurrent;
 
 import org.drools.core.common.ActivationsManager;
+import org.drools.core.impl.RuleBase;
 import org.drools.core.phreak.RuleAgendaItem;
+import org.drools.core.reteoo.PartitionsBalancer;
 import org.drools.core.rule.consequence.KnowledgeHelper;
 import org.kie.api.runtime.rule.AgendaFilter;
 
 public class AbstractRuleEvaluator {
     private final ActivationsManager activationsManager;
 
+    // collects the cost of each rule only when the rulebase is partitioned for parallel evaluation
+    // and the profiling of its partitions has been started
+    private final PartitionsBalancer partitionsBalancer;
+
     public AbstractRuleEvaluator(ActivationsManager activationsManager) {
         this.activationsManager = activationsManager;
+        RuleBase kBase = activationsManager.getReteEvaluator().getKnowledgeBase();
+        this.partitionsBalancer = kBase.getConfiguration().isMultithreadEvaluation() ? kBase.getReteooBuilder().getPartitionsBalancer() : null;
     }
 
     protected int internalEvaluateAndFire( AgendaFilter filter, int fireCount, int fireLimit, RuleAgendaItem item ) {
         activationsManager.evaluateQueriesForRule( item );
-        return item.getRuleExecutor().evaluateNetworkAndFire(activationsManager, filter, fireCount, fireLimit);
+        if (partitionsBalancer == null || !partitionsBalancer.isProfiling()) {
+            return item.getRuleExecutor().evaluateNetworkAndFire(activationsManager, filter, fireCount, fireLimit);
+        }
+        long start = System.nanoTime();
+        int fired = item.getRuleExecutor().evaluateNetworkAndFire(activationsManager, filter, fireCount, fireLimit);
+        partitionsBalancer.recordEvaluation( item.getTerminalNode(), System.nanoTime() - start, fired );
+        return fired;
     }
 
     protected KnowledgeHelper newKnowledgeHelper() {
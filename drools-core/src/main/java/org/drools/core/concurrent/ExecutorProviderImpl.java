@@ -28,23 +28,37 @@ import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import org.kie.api.concurrent.KieExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ExecutorProviderImpl implements KieExecutors {
 
+    private static final Logger log = LoggerFactory.getLogger( ExecutorProviderImpl.class );
+
     public static final String EXECUTOR_SERVICE_PROPERTY = "drools.executorService";
     public static final String DEFAULT_JEE_EXECUTOR_SERVICE_NAME = "java:comp/env/concurrent/ThreadPool";
 
     public static final String THREAD_FACTORY_PROPERTY = "drools.threadFactory";
 
+    /**
+     * When true, and the JVM supports them, the engine runs its asynchronous tasks (async nodes, parallel
+     * evaluation, fireUntilHalt of the multithreaded agenda) on virtual threads instead of a pool of platform ones
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "drools.virtualThreads";
+
     private static class ExecutorHolder {
         private static final ExecutorService executor;
         private static final ThreadFactory threadFactory;
+        private static final boolean virtualThreads;
 
         static {
             String threadFactoryClass = System.getProperty( THREAD_FACTORY_PROPERTY );
 
+            // a user defined ThreadFactory takes precedence
+            virtualThreads = threadFactoryClass == null && Boolean.getBoolean( VIRTUAL_THREADS_PROPERTY ) && checkVirtualThreadsSupport();
+
             if ( threadFactoryClass == null ) {
-                threadFactory = new DaemonThreadFactory();
+                threadFactory = virtualThreads ? VirtualThreads.threadFactory() : new DaemonThreadFactory();
             } else {
                 try {
                     threadFactory = (ThreadFactory) Class.forName( threadFactoryClass ).newInstance();
@@ -67,6 +81,10 @@ public class ExecutorProviderImpl implements KieExecutors {
                 }
             }
 
+            if (newExecutor == null && virtualThreads) {
+                newExecutor = VirtualThreads.newThreadPerTaskExecutor();
+            }
+
             if (newExecutor == null) {
                 newExecutor = new ThreadPoolExecutor( Pool.SIZE, Pool.SIZE,
                                                       60L, TimeUnit.SECONDS,
@@ -76,6 +94,19 @@ public class ExecutorProviderImpl implements KieExecutors {
 
             executor = newExecutor;
         }
+
+        private static boolean checkVirtualThreadsSupport() {
+            if (!VirtualThreads.isSupported()) {
+                log.warn( "Virtual threads have been requested via " + VIRTUAL_THREADS_PROPERTY +
+                          " but they are not supported by this JVM, falling back to platform threads" );
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return ExecutorHolder.virtualThreads;
     }
 
     public ExecutorService getExecutor() {
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Gives access to the virtual threads when the engine runs on a JVM supporting them (Java 21 or later).
+ * Since the engine is still compiled against Java 11, the needed APIs are looked up reflectively once.
+ */
+public final class VirtualThreads {
+
+    private static final ThreadFactory THREAD_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+    private static final Method IS_VIRTUAL;
+
+    static {
+        ThreadFactory threadFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        Method isVirtual = null;
+        try {
+            Class<?> builderClass = Class.forName( "java.lang.Thread$Builder" );
+            Object builder = Thread.class.getMethod( "ofVirtual" ).invoke( null );
+            builder = builderClass.getMethod( "name", String.class, long.class ).invoke( builder, "drools-virtual-worker-", 1L );
+            threadFactory = (ThreadFactory) builderClass.getMethod( "factory" ).invoke( builder );
+            newThreadPerTaskExecutor = Executors.class.getMethod( "newThreadPerTaskExecutor", ThreadFactory.class );
+            isVirtual = Thread.class.getMethod( "isVirtual" );
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // virtual threads not available (or still in preview) on this JVM
+            threadFactory = null;
+        }
+        THREAD_FACTORY = threadFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = threadFactory != null ? newThreadPerTaskExecutor : null;
+        IS_VIRTUAL = threadFactory != null ? isVirtual : null;
+    }
+
+    private VirtualThreads() { }
+
+    public static boolean isSupported() {
+        return THREAD_FACTORY != null;
+    }
+
+    /**
+     * Returns a ThreadFactory creating virtual threads named drools-virtual-worker-N
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported by this JVM
+     */
+    public static ThreadFactory threadFactory() {
+        checkSupported();
+        return THREAD_FACTORY;
+    }
+
+    /**
+     * Returns an unbounded executor starting a new virtual thread for each task. Virtual threads are cheap to
+     * create and block, so they are not pooled.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported by this JVM
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        checkSupported();
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke( null, THREAD_FACTORY );
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke( thread );
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static void checkSupported() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException( "Virtual threads are not supported by this JVM: " + System.getProperty( "java.version" ) );
+        }
+    }
+}
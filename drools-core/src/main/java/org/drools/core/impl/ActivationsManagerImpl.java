@@ -38,6 +38,7 @@ import org.drools.core.concurrent.SequentialRuleEvaluator;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.phreak.ExecutableEntry;
+import org.drools.core.phreak.LockFreePropagationList;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.PropagationList;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -59,6 +60,7 @@ import org.drools.util.StringUtils;
 import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.event.rule.MatchCancelledCause;
 import org.kie.api.runtime.rule.AgendaFilter;
+import org.kie.internal.conf.PropagationListOption;
 
 public class ActivationsManagerImpl implements ActivationsManager {
 
@@ -86,7 +88,9 @@ public class ActivationsManagerImpl implements ActivationsManager {
     public ActivationsManagerImpl(ReteEvaluator reteEvaluator) {
         this.reteEvaluator = reteEvaluator;
         this.agendaGroupsManager = new AgendaGroupsManager.SimpleAgendaGroupsManager(reteEvaluator);
-        this.propagationList = new SynchronizedPropagationList(reteEvaluator);
+        this.propagationList = reteEvaluator.getKnowledgeBase().getConfiguration().getPropagationListOption() == PropagationListOption.LOCK_FREE ?
+                new LockFreePropagationList(reteEvaluator) :
+                new SynchronizedPropagationList(reteEvaluator);
         this.ruleEvaluator = new SequentialRuleEvaluator( this );
         if (reteEvaluator.getKnowledgeBase().getConfiguration().getEventProcessingMode() == EventProcessingOption.STREAM) {
             expirationContexts = new ArrayList<>();
@@ -368,20 +372,10 @@ public class ActivationsManagerImpl implements ActivationsManager {
         class FireUntilHaltRestHandler implements RestHandler {
             @Override
             public PropagationEntry handleRest(ActivationsManagerImpl agenda) {
-                PropagationEntry head;
-                // this must use the same sync target as takeAllPropagations, to ensure this entire block is atomic, up to the point of wait
-                synchronized (agenda.propagationList) {
-                    head = agenda.propagationList.takeAll();
-
-                    // if halt() has called, the thread should not be put into a wait state
-                    // instead this is just a safe way to make sure the queue is flushed before exiting the loop
-                    if (head == null) {
-                        agenda.propagationList.waitOnRest();
-                        head = agenda.propagationList.takeAll();
-                        if (head == null) {
-                            agenda.firing = false;
-                        }
-                    }
+                // the list takes the propagations and waits atomically, up to the point of wait
+                PropagationEntry head = agenda.propagationList.takeAllOrWaitOnRest( () -> true );
+                if (head == null) {
+                    agenda.firing = false;
                 }
 
                 return head;
@@ -17,6 +17,7 @@
 package org.drools.core.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -1140,6 +1141,29 @@ public class KnowledgeBaseImpl implements RuleBase {
         return RuleBasePartitionId.createPartition();
     }
 
+    public void rebalancePartitions() {
+        // this RuleBase doesn't keep track of its sessions, so it cannot check that none of them is evaluating
+        throw new UnsupportedOperationException( "Partitions can be rebalanced only through a KieBase that keeps track of its sessions" );
+    }
+
+    public void kBaseInternal_rebalancePartitions(Collection<InternalWorkingMemory> workingMemories) {
+        if (!config.isMultithreadEvaluation()) {
+            return;
+        }
+        if (!workingMemories.isEmpty()) {
+            throw new IllegalStateException( "Cannot rebalance the partitions of a KieBase while it is used by " + workingMemories.size() + " sessions" );
+        }
+        kBaseInternal_lock();
+        try {
+            long[] slotCosts = reteooBuilder.getPartitionsBalancer().rebalance( rete );
+            if ( logger.isDebugEnabled() ) {
+                logger.debug( "Rebalanced partitions of KieBase " + id + " with expected cost per slot " + Arrays.toString( slotCosts ) );
+            }
+        } finally {
+            kBaseInternal_unlock();
+        }
+    }
+
     public FactType getFactType(String packageName, String typeName) {
         String name = packageName + "." + typeName;
         readLock();
@@ -77,6 +77,16 @@ public interface RuleBase {
 
     RuleBasePartitionId createNewPartitionId();
 
+    /**
+     * Reassigns the partitions of a multithreaded RuleBase to the parallel evaluation
+     * slots according to the runtime cost of their rules collected so far.
+     * It can be invoked only when there isn't any session using this RuleBase.
+     *
+     * @throws IllegalStateException if a session is using this RuleBase
+     * @throws UnsupportedOperationException if this RuleBase doesn't keep track of its sessions
+     */
+    void rebalancePartitions();
+
     RuleBaseConfiguration getConfiguration();
 
     void readLock();
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.drools.AgendaGroupFocus")
+@Label("Agenda Group Focus")
+@Category({"Drools", "Agenda"})
+@Description("An agenda group received the focus")
+public final class AgendaGroupFocusEvent extends Event {
+
+    @Label("Agenda Group")
+    String agendaGroup;
+
+    public static void emit(String agendaGroup) {
+        AgendaGroupFocusEvent event = new AgendaGroupFocusEvent();
+        if (event.shouldCommit()) {
+            event.agendaGroup = agendaGroup;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.jfr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.common.NodeMemories;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.TupleMemory;
+
+/**
+ * Periodically emitted for each non empty beta memory of the sessions created with the flight recorder enabled,
+ * so that the memory held by the network can be correlated with the GC activity of the same recording.
+ * <p/>
+ * The sizes are read by the flight recorder thread while the session may be evaluating the network, without any
+ * synchronization so that the engine is never slowed down: they are approximate, and the left and right sizes of
+ * the same memory can be taken at slightly different times. A memory that can't be read is skipped.
+ */
+@Name("org.drools.BetaMemorySize")
+@Label("Beta Memory Size")
+@Category({"Drools", "Memory"})
+@Description("Number of left and right tuples held by a beta memory")
+@Period("5 s")
+@StackTrace(false)
+public final class BetaMemorySizeEvent extends Event {
+
+    private static final Map<InternalWorkingMemory, Boolean> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static volatile boolean hookRegistered;
+
+    @Label("Session Id")
+    long sessionId;
+
+    @Label("Memory Id")
+    int memoryId;
+
+    @Label("Node Type")
+    short nodeType;
+
+    @Label("Left Tuples")
+    int leftTuples;
+
+    @Label("Right Tuples")
+    int rightTuples;
+
+    public static void register(InternalWorkingMemory session) {
+        registerHook();
+        SESSIONS.put(session, Boolean.TRUE);
+    }
+
+    public static void unregister(InternalWorkingMemory session) {
+        SESSIONS.remove(session);
+    }
+
+    private static void registerHook() {
+        if (!hookRegistered) {
+            synchronized (SESSIONS) {
+                if (!hookRegistered) {
+                    FlightRecorder.addPeriodicEvent(BetaMemorySizeEvent.class, BetaMemorySizeEvent::emitAll);
+                    hookRegistered = true;
+                }
+            }
+        }
+    }
+
+    private static void emitAll() {
+        List<InternalWorkingMemory> sessions;
+        synchronized (SESSIONS) {
+            sessions = new ArrayList<>(SESSIONS.keySet());
+        }
+        for (InternalWorkingMemory session : sessions) {
+            emit(session);
+        }
+    }
+
+    private static void emit(InternalWorkingMemory session) {
+        NodeMemories nodeMemories = session.getNodeMemories();
+        for (int i = 0; i < nodeMemories.length(); i++) {
+            Memory memory = nodeMemories.peekNodeMemory(i);
+            BetaMemory betaMemory = toBetaMemory(memory);
+            if (betaMemory == null) {
+                continue;
+            }
+            int left;
+            int right;
+            try {
+                TupleMemory leftMemory = betaMemory.getLeftTupleMemory();
+                TupleMemory rightMemory = betaMemory.getRightTupleMemory();
+                left = leftMemory != null ? leftMemory.size() : 0;
+                right = rightMemory != null ? rightMemory.size() : 0;
+            } catch (RuntimeException e) {
+                // a memory being modified by the engine thread, it will be read at the next period
+                continue;
+            }
+            if (left == 0 && right == 0) {
+                continue;
+            }
+            BetaMemorySizeEvent event = new BetaMemorySizeEvent();
+            event.sessionId = session.getIdentifier();
+            event.memoryId = i;
+            event.nodeType = memory.getNodeType();
+            event.leftTuples = left;
+            event.rightTuples = right;
+            event.commit();
+        }
+    }
+
+    private static BetaMemory toBetaMemory(Memory memory) {
+        if (memory instanceof BetaMemory) {
+            return (BetaMemory) memory;
+        }
+        if (memory instanceof AccumulateMemory) {
+            return ((AccumulateMemory) memory).getBetaMemory();
+        }
+        if (memory instanceof FromMemory) {
+            return ((FromMemory) memory).getBetaMemory();
+        }
+        return null;
+    }
+}
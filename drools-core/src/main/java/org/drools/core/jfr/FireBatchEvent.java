@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+
+@Name("org.drools.FireBatch")
+@Label("Rule Fire Batch")
+@Category({"Drools", "Agenda"})
+@Description("Firing of a batch of the activations of a rule, including the re-evaluations of its network in between")
+@StackTrace(false)
+public final class FireBatchEvent extends Event {
+
+    @Label("Rule")
+    String rule;
+
+    @Label("Fired Activations")
+    int fired;
+
+    public static FireBatchEvent start() {
+        FireBatchEvent event = new FireBatchEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(RuleImpl rule, int fired) {
+        if (shouldCommit()) {
+            this.rule = rule.getFullyQualifiedName();
+            this.fired = fired;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.drools.PropagationFlush")
+@Label("Propagation List Flush")
+@Category({"Drools", "Propagation"})
+@Description("Execution of the propagation entries, e.g. inserts, updates and deletes, queued on a session")
+@StackTrace(false)
+public final class PropagationFlushEvent extends Event {
+
+    @Label("Executed Entries")
+    int entries;
+
+    public static PropagationFlushEvent start() {
+        PropagationFlushEvent event = new PropagationFlushEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(int entries) {
+        if (shouldCommit()) {
+            this.entries = entries;
+            commit();
+        }
+    }
+}
@@ -76,6 +76,12 @@ public class SerializablePlaceholderResolverStrategy
         SerializablePlaceholderStrategyContext ctx = (SerializablePlaceholderStrategyContext)context;
         return ctx.data.get( byteArrayToInt( object ) );
     }
+
+    @Override
+    public boolean isConcurrentUnmarshallingSupported() {
+        // the context is only read once it has been loaded from the header
+        return true;
+    }
     
     public Context createContext() {
         return new SerializablePlaceholderStrategyContext();
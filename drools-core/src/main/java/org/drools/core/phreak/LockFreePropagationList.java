@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.jfr.PropagationFlushEvent;
+
+/**
+ * A multi-producer / single-consumer PropagationList that never blocks the producers.
+ *
+ * The producers push the entries on a lock-free stack with a single CAS, while the consumer
+ * detaches the whole stack at once with an atomic swap and reverses it in order to execute
+ * the entries in the same order they have been added. A separate lock is used only to park
+ * and wake up the thread firing until halt, so it keeps the waitOnRest / notifyWaitOnRest
+ * semantics of the SynchronizedPropagationList. It is a ReentrantLock rather than a monitor,
+ * so a virtual thread parked there releases its carrier.
+ *
+ * Detaching and relinking the pending entries is guarded by a lock that only the consumer and
+ * the iterator take, so iterating never observes a stack that is being reversed.
+ */
+public class LockFreePropagationList implements PropagationList {
+
+    private final ReteEvaluator reteEvaluator;
+
+    // the most recently added entry, linked to the previous ones in reverse order
+    private final AtomicReference<PropagationEntry> top = new AtomicReference<>();
+
+    // taken by takeAll and iterator only, the producers never block on it
+    private final ReentrantLock takeLock = new ReentrantLock();
+
+    // taken only to park and wake up the thread firing until halt
+    private final ReentrantLock restLock = new ReentrantLock();
+    private final Condition rest = restLock.newCondition();
+
+    private volatile boolean disposed = false;
+
+    private volatile boolean hasEntriesDeferringExpiration = false;
+
+    private volatile boolean firingUntilHalt = false;
+
+    public LockFreePropagationList(ReteEvaluator reteEvaluator) {
+        this.reteEvaluator = reteEvaluator;
+    }
+
+    @Override
+    public void addEntry(final PropagationEntry entry) {
+        if (entry.requiresImmediateFlushing()) {
+            if (entry.isCalledFromRHS()) {
+                entry.execute(reteEvaluator);
+            } else {
+                reteEvaluator.getActivationsManager().executeTask( new ExecutableEntry() {
+                    @Override
+                    public void execute() {
+                        if (entry instanceof PhreakTimerNode.TimerAction) {
+                            ( (PhreakTimerNode.TimerAction) entry ).execute( reteEvaluator, true );
+                        } else {
+                            entry.execute( reteEvaluator );
+                        }
+                    }
+
+                    @Override
+                    public void enqueue() {
+                        internalAddEntry( entry );
+                    }
+                } );
+            }
+        } else {
+            internalAddEntry( entry );
+        }
+    }
+
+    void internalAddEntry( PropagationEntry entry ) {
+        PropagationEntry current;
+        do {
+            current = top.get();
+            entry.setNext( current );
+        } while ( !top.compareAndSet( current, entry ) );
+
+        if ( entry.defersExpiration() ) {
+            hasEntriesDeferringExpiration = true;
+        }
+        if ( current == null && firingUntilHalt ) {
+            notifyWaitOnRest();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    @Override
+    public void flush() {
+        flush( takeAll() );
+    }
+
+    @Override
+    public void flush(PropagationEntry currentHead) {
+        if (currentHead != null && reteEvaluator != null && reteEvaluator.getSessionConfiguration().isFlightRecorderEnabled()) {
+            PropagationFlushEvent event = PropagationFlushEvent.start();
+            event.complete( execute( currentHead ) );
+        } else {
+            execute( currentHead );
+        }
+    }
+
+    private int execute(PropagationEntry currentHead) {
+        int executed = 0;
+        for (PropagationEntry entry = currentHead; !disposed && entry != null; entry = entry.getNext()) {
+            entry.execute(reteEvaluator);
+            executed++;
+        }
+        return executed;
+    }
+
+    @Override
+    public boolean hasEntriesDeferringExpiration() {
+        return hasEntriesDeferringExpiration;
+    }
+
+    @Override
+    public PropagationEntry takeAll() {
+        // reset the flag before draining: a concurrent producer can only make it conservatively true
+        hasEntriesDeferringExpiration = false;
+        takeLock.lock();
+        try {
+            return reverse( top.getAndSet( null ) );
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    private static PropagationEntry reverse( PropagationEntry entry ) {
+        PropagationEntry reversed = null;
+        while (entry != null) {
+            PropagationEntry next = entry.getNext();
+            entry.setNext( reversed );
+            reversed = entry;
+            entry = next;
+        }
+        return reversed;
+    }
+
+    @Override
+    public void reset() {
+        top.set( null );
+        disposed = false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    @Override
+    public void waitOnRest() {
+        restLock.lock();
+        try {
+            rest.await();
+        } catch (InterruptedException e) {
+            // do nothing
+        } finally {
+            restLock.unlock();
+        }
+    }
+
+    @Override
+    public PropagationEntry takeAllOrWaitOnRest( BooleanSupplier waitCondition ) {
+        // a producer can wake up this thread only after it started waiting, since the notification takes the same lock
+        restLock.lock();
+        try {
+            PropagationEntry currentHead = takeAll();
+            if (currentHead == null && waitCondition.getAsBoolean()) {
+                waitOnRest();
+                currentHead = takeAll();
+            }
+            return currentHead;
+        } finally {
+            restLock.unlock();
+        }
+    }
+
+    @Override
+    public void notifyWaitOnRest() {
+        restLock.lock();
+        try {
+            rest.signalAll();
+        } finally {
+            restLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<PropagationEntry> iterator() {
+        // the consumer relinks the entries while reversing them, so walk and copy them under the take lock
+        List<PropagationEntry> entries = new ArrayList<>();
+        takeLock.lock();
+        try {
+            for (PropagationEntry entry = top.get(); entry != null; entry = entry.getNext()) {
+                entries.add( entry );
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (entries.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        Collections.reverse( entries );
+        return Collections.unmodifiableList( entries ).iterator();
+    }
+
+    @Override
+    public void onEngineInactive() { }
+
+    @Override
+    public void setFiringUntilHalt( boolean firingUntilHalt ) {
+        this.firingUntilHalt = firingUntilHalt;
+    }
+}
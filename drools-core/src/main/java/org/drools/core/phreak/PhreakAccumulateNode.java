@@ -100,6 +100,8 @@ public class PhreakAccumulateNode {
             }
         }
 
+        reaccumulateGroups(accNode, am, reteEvaluator);
+
         Accumulate accumulate = accNode.getAccumulate();
         // we do not need collect retracts. RightTuple retracts end up as updates for lefttuples.
         // LeftTuple retracts are already on the trgLeftTuples
@@ -748,6 +750,10 @@ public class PhreakAccumulateNode {
         // this is only implemented by GroupBy
     }
 
+    void reaccumulateGroups(AccumulateNode accNode, AccumulateMemory am, ReteEvaluator reteEvaluator) {
+        // this is only implemented by GroupBy
+    }
+
     /**
      * Removes a match between left and right tuple
      */
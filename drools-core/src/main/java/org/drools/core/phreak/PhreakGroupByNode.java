@@ -14,6 +14,10 @@
 
 package org.drools.core.phreak;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TupleSets;
@@ -25,6 +29,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.rule.Accumulate;
+import org.drools.core.rule.GroupByAccumulate;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.util.index.TupleList;
 
@@ -96,7 +101,15 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
             TupleList<AccumulateContextEntry> tupleList = match.getMemory();
             tupleList.remove(match);
 
-            if (reaccumulate) {
+            if (reaccumulate && accumulate instanceof GroupByAccumulate
+                    && reteEvaluator.getSessionConfiguration().getGroupByParallelThreshold() > 0) {
+                // defer the re-accumulation to the end of the batch, so that it is done only once for each group
+                // and possibly in parallel with the other groups, see reaccumulateGroups
+                if (!tupleList.isEmpty()) {
+                    groupByContext.moveToPropagateTupleList(tupleList);
+                }
+                am.addGroupToReaccumulate(tupleList);
+            } else if (reaccumulate) {
                 // re-init function context for the group
                 Object functionContext = accumulate.createFunctionContext();
                 tupleList.getContext().setFunctionContext(functionContext);
@@ -144,4 +157,78 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
         ((GroupByContext)accctx).addMatchOnLastTupleList(match);
     }
 
+    @Override
+    void reaccumulateGroups(AccumulateNode accNode, AccumulateMemory am, ReteEvaluator reteEvaluator) {
+        List<TupleList<AccumulateContextEntry>> groups = am.takeGroupsToReaccumulate();
+        if (groups == null) {
+            return;
+        }
+
+        if (groups.size() >= reteEvaluator.getSessionConfiguration().getGroupByParallelThreshold()) {
+            // the groups are independent from each other and each task only writes the function context of its own
+            // groups, while the propagation order has already been decided by moveToPropagateTupleList
+            ForkJoinPool.commonPool().invoke( new ReaccumulateGroupsTask(accNode, groups, 0, groups.size(), reteEvaluator) );
+        } else {
+            reaccumulateGroups(accNode, am.workingMemoryContext, groups, 0, groups.size(), reteEvaluator);
+        }
+    }
+
+    private static void reaccumulateGroups(AccumulateNode accNode, Object workingMemoryContext,
+                                           List<TupleList<AccumulateContextEntry>> groups, int from, int to,
+                                           ReteEvaluator reteEvaluator) {
+        Accumulate accumulate = accNode.getAccumulate();
+        // only the groups of a GroupByAccumulate are deferred, see reaccumulateForLeftTuple
+        GroupByAccumulate groupByAccumulate = (GroupByAccumulate) accumulate;
+        for (int i = from; i < to; i++) {
+            TupleList<AccumulateContextEntry> tupleList = groups.get(i);
+            tupleList.getContext().setToReaccumulate(false);
+            tupleList.getContext().setFunctionContext(accumulate.createFunctionContext());
+
+            for (LeftTuple childMatch = (LeftTuple) tupleList.getFirst(); childMatch != null; childMatch = (LeftTuple) childMatch.getNext()) {
+                RightTuple         rightTuple  = childMatch.getRightParent();
+                InternalFactHandle childHandle = rightTuple.getFactHandle();
+                LeftTuple          tuple       = childMatch.getLeftParent();
+                if (accNode.isRightInputIsRiaNode()) {
+                    // if there is a subnetwork, handle must be unwrapped
+                    tuple = (LeftTuple) rightTuple;
+                    childHandle = rightTuple.getFactHandleForEvaluation();
+                }
+
+                Object value = groupByAccumulate.accumulateInGroup(workingMemoryContext, tuple, childHandle, tupleList, reteEvaluator);
+                childMatch.setContextObject(value);
+            }
+        }
+    }
+
+    private static class ReaccumulateGroupsTask extends RecursiveAction {
+
+        private static final int GROUPS_PER_TASK = 64;
+
+        private final AccumulateNode accNode;
+        private final List<TupleList<AccumulateContextEntry>> groups;
+        private final int from;
+        private final int to;
+        private final ReteEvaluator reteEvaluator;
+
+        private ReaccumulateGroupsTask(AccumulateNode accNode, List<TupleList<AccumulateContextEntry>> groups, int from, int to, ReteEvaluator reteEvaluator) {
+            this.accNode = accNode;
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+            this.reteEvaluator = reteEvaluator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GROUPS_PER_TASK) {
+                // the working memory context of the node is not thread safe (e.g. it holds the mvel variable factories)
+                reaccumulateGroups(accNode, accNode.getAccumulate().createWorkingMemoryContext(), groups, from, to, reteEvaluator);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll( new ReaccumulateGroupsTask(accNode, groups, from, middle, reteEvaluator),
+                           new ReaccumulateGroupsTask(accNode, groups, middle, to, reteEvaluator) );
+            }
+        }
+    }
+
 }
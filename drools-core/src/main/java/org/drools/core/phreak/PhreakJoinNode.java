@@ -23,6 +23,7 @@ import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTuplePool;
 import org.drools.core.reteoo.TupleMemory;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.util.AbstractHashTable;
@@ -420,6 +421,7 @@ public class PhreakJoinNode {
                                TupleSets<LeftTuple> trgLeftTuples,
                                TupleSets<LeftTuple> stagedLeftTuples) {
         TupleMemory rtm = bm.getRightTupleMemory();
+        RightTuplePool rightTuplePool = bm.getRightTuplePool();
 
         for (RightTuple rightTuple = srcRightTuples.getDeleteFirst(); rightTuple != null; ) {
             RightTuple next = rightTuple.getStagedNext();
@@ -428,7 +430,8 @@ public class PhreakJoinNode {
                 rtm.remove(rightTuple);
             }
 
-            if (rightTuple.getFirstChild() != null) {
+            boolean hadChildren = rightTuple.getFirstChild() != null;
+            if (hadChildren) {
                 LeftTuple childLeftTuple = rightTuple.getFirstChild();
                 childLeftTuple.setPropagationContext(rightTuple.getPropagationContext());
                 while (childLeftTuple != null) {
@@ -438,6 +441,11 @@ public class PhreakJoinNode {
                 }
             }
             rightTuple.clearStaged();
+            if (rightTuplePool != null && !hadChildren) {
+                // deleted children are still staged downstream and keep a reference to this tuple,
+                // so only a tuple that never propagated can be handed out again
+                rightTuplePool.release(rightTuple);
+            }
             rightTuple = next;
         }
     }
@@ -15,6 +15,7 @@
 
 package org.drools.core.phreak;
 
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 
 import org.drools.core.base.DroolsQuery;
@@ -266,6 +267,65 @@ public interface PropagationEntry {
         }
     }
 
+    /**
+     * Insertion of a batch of facts sharing the same ObjectTypeConf. A single entry is
+     * enqueued regardless of the batch size, and the batch is propagated as a whole through
+     * the nodes that support it: an AlphaNode evaluates its constraint on every fact and
+     * propagates the ones passing it as a smaller batch, while a BetaNode or a
+     * LeftInputAdapterNode resolves its memory once for the whole batch. The other nodes, and
+     * the alpha nodes chosen through hashing or range indexing, still receive the facts one by one.
+     *
+     * The whole batch is propagated through one ObjectTypeNode before moving to the next
+     * one, and through one sink before moving to the next sink of the same node. So each
+     * node receives the facts in iteration order, but the facts reach the different nodes in
+     * node-major order: all the facts reach the first node before the first fact reaches the
+     * second one, while single inserts would interleave them.
+     */
+    class BatchInsert extends AbstractPropagationEntry {
+        private final ObjectTypeConf objectTypeConf;
+
+        private InternalFactHandle[] handles = new InternalFactHandle[16];
+        private PropagationContext[] contexts = new PropagationContext[16];
+        private int size;
+
+        public BatchInsert( ObjectTypeConf objectTypeConf ) {
+            this.objectTypeConf = objectTypeConf;
+        }
+
+        public void add( InternalFactHandle handle, PropagationContext context, ReteEvaluator reteEvaluator ) {
+            if ( size == handles.length ) {
+                handles = Arrays.copyOf( handles, size << 1 );
+                contexts = Arrays.copyOf( contexts, size << 1 );
+            }
+            handles[size] = handle;
+            contexts[size] = context;
+            size++;
+
+            if ( objectTypeConf.isEvent() ) {
+                Insert.scheduleExpiration(reteEvaluator, handle, context, objectTypeConf, reteEvaluator.getTimerService().getCurrentTime());
+            }
+        }
+
+        public ObjectTypeConf getObjectTypeConf() {
+            return objectTypeConf;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void execute( ReteEvaluator reteEvaluator ) {
+            for ( ObjectTypeNode otn : objectTypeConf.getObjectTypeNodes() ) {
+                otn.propagateAssert( handles, contexts, size, reteEvaluator );
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Batch insert of " + size + " " + objectTypeConf.getTypeName();
+        }
+    }
+
     class Update extends AbstractPropagationEntry {
         private final InternalFactHandle handle;
         private final PropagationContext context;
@@ -16,6 +16,7 @@
 package org.drools.core.phreak;
 
 import java.util.Iterator;
+import java.util.function.BooleanSupplier;
 
 public interface PropagationList {
     void addEntry(PropagationEntry propagationEntry);
@@ -35,6 +36,14 @@ public interface PropagationList {
 
     void waitOnRest();
 
+    /**
+     * Takes all the entries of this list and, if there are none and the given condition holds, waits until a new
+     * entry is added or the thread is woken up by {@link #notifyWaitOnRest()}, then takes the entries added in the
+     * meanwhile. Taking the entries and starting to wait is atomic with respect to the notifications, so none of
+     * them can get lost.
+     */
+    PropagationEntry takeAllOrWaitOnRest( BooleanSupplier waitCondition );
+
     void notifyWaitOnRest();
 
     void onEngineInactive();
@@ -27,6 +27,7 @@ import org.drools.core.common.ReteEvaluator;
 import org.drools.core.conflict.PhreakConflictResolver;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.RuleEventListenerSupport;
+import org.drools.core.jfr.FireBatchEvent;
 import org.drools.core.reteoo.PathMemory;
 import org.drools.core.reteoo.RuleTerminalNode;
 import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
@@ -118,6 +119,20 @@ public class RuleExecutor {
                       AgendaFilter filter,
                       int fireCount,
                       int fireLimit) {
+        if (reteEvaluator.getSessionConfiguration().isFlightRecorderEnabled()) {
+            FireBatchEvent event = FireBatchEvent.start();
+            int fired = doFire( reteEvaluator, activationsManager, filter, fireCount, fireLimit );
+            event.complete( ruleAgendaItem.getRule(), fired );
+            return fired;
+        }
+        return doFire( reteEvaluator, activationsManager, filter, fireCount, fireLimit );
+    }
+
+    private int doFire( ReteEvaluator reteEvaluator,
+                        ActivationsManager activationsManager,
+                        AgendaFilter filter,
+                        int fireCount,
+                        int fireLimit) {
         int localFireCount = 0;
 
         if (!tupleList.isEmpty()) {
@@ -25,6 +25,7 @@ import org.drools.core.common.NetworkNode;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TupleSets;
 import org.drools.core.common.TupleSetsImpl;
+import org.drools.core.jfr.NetworkEvaluationEvent;
 import org.drools.core.reteoo.AccumulateNode;
 import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
 import org.drools.core.reteoo.AsyncReceiveNode;
@@ -107,6 +108,16 @@ public class RuleNetworkEvaluator {
     }
 
     public void evaluateNetwork(PathMemory pmem, RuleExecutor executor, ActivationsManager activationsManager) {
+        if (activationsManager.getReteEvaluator().getSessionConfiguration().isFlightRecorderEnabled()) {
+            NetworkEvaluationEvent event = NetworkEvaluationEvent.start();
+            doEvaluateNetwork( pmem, executor, activationsManager );
+            event.complete( ((TerminalNode) pmem.getPathEndNode()).getRule(), pmem.getSegmentMemories().length );
+        } else {
+            doEvaluateNetwork( pmem, executor, activationsManager );
+        }
+    }
+
+    private void doEvaluateNetwork(PathMemory pmem, RuleExecutor executor, ActivationsManager activationsManager) {
         SegmentMemory[] smems = pmem.getSegmentMemories();
         SegmentMemory smem = smems[0];
         if (smem == null) {
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.common.MemoryFactory;
+import org.drools.core.common.NetworkNode;
+import org.drools.core.common.NodeMemories;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftInputAdapterNode.LiaNodeMemory;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.SegmentMemory;
+
+/**
+ * Reclaims the segment and node memories of the rules that have been idle for at least the configured period.
+ * The unit of eviction is the tree of segments rooted at a LeftInputAdapterNode: it can be evicted only when all
+ * its node memories are empty and none of the rules passing through it has pending activations. A tree found
+ * empty is first marked as candidate and then evicted at the following sweep if in the meanwhile none of its
+ * nodes has been linked or unlinked.
+ *
+ * Evicted memories are removed from the NodeMemories and rebuilt lazily, as it happens for a new session, by
+ * {@link SegmentUtilities#getOrCreateSegmentMemory} when a fact reaches one of those nodes again.
+ *
+ * Only segments made of left input adapters, joins, nots and exists feeding rule terminal nodes are considered,
+ * since the memories of the other nodes keep state that cannot be rebuilt from an empty network.
+ */
+public class SegmentMemoryEvictor {
+
+    private final long idleTime;
+
+    private long nextSweep;
+
+    private long evictedSegments;
+
+    public SegmentMemoryEvictor(long idleTime) {
+        this.idleTime = idleTime;
+    }
+
+    public long getEvictedSegments() {
+        return evictedSegments;
+    }
+
+    /**
+     * Runs a sweep if at least the idle period elapsed since the former one. It must be invoked
+     * when the engine is at rest, i.e. when no propagation or rule evaluation is in progress.
+     */
+    public void evictIdleSegments(InternalWorkingMemory wm) {
+        long now = wm.getTimerService().getCurrentTime();
+        if (now < nextSweep) {
+            return;
+        }
+        nextSweep = now + idleTime;
+
+        NodeMemories nodeMemories = wm.getNodeMemories();
+        List<SegmentMemory> segments = new ArrayList<>();
+        for (int i = 0; i < nodeMemories.length(); i++) {
+            Memory memory = nodeMemories.peekNodeMemory(i);
+            if (memory instanceof LiaNodeMemory && memory.getSegmentMemory() != null) {
+                segments.clear();
+                collectSegments(memory.getSegmentMemory(), segments);
+                sweep(wm, segments);
+            }
+        }
+    }
+
+    private void sweep(InternalWorkingMemory wm, List<SegmentMemory> segments) {
+        boolean candidate = true;
+        for (SegmentMemory smem : segments) {
+            if (!isIdle(wm, smem)) {
+                setEvictionCandidate(segments, false);
+                return;
+            }
+            candidate &= smem.isEvictionCandidate();
+        }
+
+        if (candidate) {
+            evict(wm, segments);
+        } else {
+            setEvictionCandidate(segments, true);
+        }
+    }
+
+    private static void collectSegments(SegmentMemory smem, List<SegmentMemory> segments) {
+        segments.add(smem);
+        for (SegmentMemory child = smem.getFirst(); child != null; child = child.getNext()) {
+            collectSegments(child, segments);
+        }
+    }
+
+    private static void setEvictionCandidate(List<SegmentMemory> segments, boolean candidate) {
+        for (SegmentMemory smem : segments) {
+            smem.setEvictionCandidate(candidate);
+        }
+    }
+
+    private static boolean isIdle(InternalWorkingMemory wm, SegmentMemory smem) {
+        if (smem.isActive() || !smem.getStagedLeftTuples().isEmpty()) {
+            return false;
+        }
+
+        for (PathMemory pmem : smem.getPathMemories()) {
+            if (pmem.getPathEndNode().getType() != NodeTypeEnums.RuleTerminalNode) {
+                return false;
+            }
+            RuleAgendaItem agendaItem = pmem.getRuleAgendaItem();
+            if (agendaItem != null && (agendaItem.isQueued() || !agendaItem.getRuleExecutor().getLeftTupleList().isEmpty())) {
+                return false;
+            }
+        }
+
+        NodeMemories nodeMemories = wm.getNodeMemories();
+        for (NetworkNode node : smem.getNodesInSegment()) {
+            if (!isEmpty(node, nodeMemories.peekNodeMemory(node))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(NetworkNode node, Memory memory) {
+        switch (node.getType()) {
+            case NodeTypeEnums.LeftInputAdapterNode:
+                return memory != null && ((LiaNodeMemory) memory).getCounter() == 0;
+            case NodeTypeEnums.JoinNode:
+            case NodeTypeEnums.NotNode:
+            case NodeTypeEnums.ExistsNode:
+                if (memory == null || ((BetaNode) node).isRightInputIsRiaNode()) {
+                    return false;
+                }
+                BetaMemory bm = (BetaMemory) memory;
+                return bm.getLeftTupleMemory().size() == 0 && bm.getRightTupleMemory().size() == 0 && bm.getStagedRightTuples().isEmpty();
+            case NodeTypeEnums.RuleTerminalNode:
+                // pending activations have already been checked on the PathMemory
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void evict(InternalWorkingMemory wm, List<SegmentMemory> segments) {
+        NodeMemories nodeMemories = wm.getNodeMemories();
+        for (SegmentMemory smem : segments) {
+            for (PathMemory pmem : smem.getPathMemories()) {
+                if ((pmem.getLinkedSegmentMask() & smem.getSegmentPosMaskBit()) != 0) {
+                    pmem.unlinkedSegment(smem.getSegmentPosMaskBit(), wm);
+                }
+                pmem.setSegmentMemory(smem.getPos(), null);
+                if (pmem.getSegmentMemory() == smem) {
+                    pmem.setSegmentMemory(null);
+                }
+            }
+
+            for (NetworkNode node : smem.getNodesInSegment()) {
+                if (NodeTypeEnums.isEndNode(node)) {
+                    // the PathMemory is kept, together with its RuleAgendaItem, and only detached from the segment
+                    Memory pmem = nodeMemories.peekNodeMemory(node);
+                    if (pmem != null) {
+                        pmem.nullPrevNext();
+                    }
+                } else {
+                    nodeMemories.clearNodeMemory((MemoryFactory) node);
+                }
+            }
+            evictedSegments++;
+        }
+    }
+}
@@ -16,11 +16,19 @@
 package org.drools.core.phreak;
 
 import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 import org.drools.core.common.ReteEvaluator;
+import org.drools.core.jfr.PropagationFlushEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * A PropagationList guarded by a ReentrantLock. The thread firing until halt parks on a Condition of
+ * that lock instead of on a monitor, so when it is a virtual thread it releases its carrier while idle.
+ */
 public class SynchronizedPropagationList implements PropagationList {
 
     protected static final transient Logger log                = LoggerFactory.getLogger( SynchronizedPropagationList.class );
@@ -36,6 +44,9 @@ public class SynchronizedPropagationList implements PropagationList {
 
     private volatile boolean firingUntilHalt = false;
 
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition rest = lock.newCondition();
+
     public SynchronizedPropagationList(ReteEvaluator reteEvaluator) {
         this.reteEvaluator = reteEvaluator;
     }
@@ -67,17 +78,22 @@ public class SynchronizedPropagationList implements PropagationList {
         }
     }
 
-    synchronized void internalAddEntry( PropagationEntry entry ) {
-        if ( head == null ) {
-            head = entry;
-            if (firingUntilHalt) {
-                notifyWaitOnRest();
+    void internalAddEntry( PropagationEntry entry ) {
+        lock.lock();
+        try {
+            if ( head == null ) {
+                head = entry;
+                if (firingUntilHalt) {
+                    rest.signalAll();
+                }
+            } else {
+                tail.setNext( entry );
             }
-        } else {
-            tail.setNext( entry );
+            tail = entry;
+            hasEntriesDeferringExpiration |= entry.defersExpiration();
+        } finally {
+            lock.unlock();
         }
-        tail = entry;
-        hasEntriesDeferringExpiration |= entry.defersExpiration();
     }
 
     @Override
@@ -96,9 +112,21 @@ public class SynchronizedPropagationList implements PropagationList {
     }
 
     private void flush( ReteEvaluator reteEvaluator, PropagationEntry currentHead ) {
+        if (currentHead != null && reteEvaluator != null && reteEvaluator.getSessionConfiguration().isFlightRecorderEnabled()) {
+            PropagationFlushEvent event = PropagationFlushEvent.start();
+            event.complete( execute( reteEvaluator, currentHead ) );
+        } else {
+            execute( reteEvaluator, currentHead );
+        }
+    }
+
+    private int execute( ReteEvaluator reteEvaluator, PropagationEntry currentHead ) {
+        int executed = 0;
         for (PropagationEntry entry = currentHead; !disposed && entry != null; entry = entry.getNext()) {
             entry.execute(reteEvaluator);
+            executed++;
         }
+        return executed;
     }
 
     public boolean hasEntriesDeferringExpiration() {
@@ -106,43 +134,85 @@ public class SynchronizedPropagationList implements PropagationList {
     }
 
     @Override
-    public synchronized PropagationEntry takeAll() {
-        PropagationEntry currentHead = head;
-        head = null;
-        tail = null;
-        hasEntriesDeferringExpiration = false;
-        return currentHead;
+    public PropagationEntry takeAll() {
+        lock.lock();
+        try {
+            PropagationEntry currentHead = head;
+            head = null;
+            tail = null;
+            hasEntriesDeferringExpiration = false;
+            return currentHead;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public synchronized void reset() {
-        head = null;
-        tail = null;
-        disposed = false;
+    public void reset() {
+        lock.lock();
+        try {
+            head = null;
+            tail = null;
+            disposed = false;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public synchronized boolean isEmpty() {
-        return head == null;
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return head == null;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized void waitOnRest() {
+    public void waitOnRest() {
+        lock.lock();
         try {
-            wait();
+            rest.await();
         } catch (InterruptedException e) {
             // do nothing
+        } finally {
+            lock.unlock();
         }
     }
 
+    @Override
+    public PropagationEntry takeAllOrWaitOnRest( BooleanSupplier waitCondition ) {
+        lock.lock();
+        try {
+            PropagationEntry currentHead = takeAll();
+            if (currentHead == null && waitCondition.getAsBoolean()) {
+                waitOnRest();
+                currentHead = takeAll();
+            }
+            return currentHead;
+        } finally {
+            lock.unlock();
+        }
+    }
 
     @Override
-    public synchronized void notifyWaitOnRest() {
-        notifyAll();
+    public void notifyWaitOnRest() {
+        lock.lock();
+        try {
+            rest.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public synchronized Iterator<PropagationEntry> iterator() {
-        return new PropagationEntryIterator(head);
+    public Iterator<PropagationEntry> iterator() {
+        lock.lock();
+        try {
+            return new PropagationEntryIterator(head);
+        } finally {
+            lock.unlock();
+        }
     }
 
     public static class PropagationEntryIterator implements Iterator<PropagationEntry> {
@@ -16,6 +16,7 @@ package org.drools.core.phreak;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.BooleanSupplier;
 
 import org.drools.core.common.ReteEvaluator;
 
@@ -68,6 +69,11 @@ public class ThreadUnsafePropagationList implements PropagationList {
     public void waitOnRest() {
     }
 
+    @Override
+    public PropagationEntry takeAllOrWaitOnRest( BooleanSupplier waitCondition ) {
+        return takeAll();
+    }
+
     @Override
     public void notifyWaitOnRest() {
     }
@@ -16,6 +16,7 @@
 
 package org.drools.core.reteoo;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -198,6 +199,8 @@ public class AccumulateNode extends BetaNode {
         private final BetaMemory  betaMemory;
         public ContextEntry[]     resultsContext;
 
+        private List<TupleList<AccumulateContextEntry>> groupsToReaccumulate;
+
         protected AccumulateMemory( BetaMemory betaMemory ) {
             this.betaMemory = betaMemory;
         }
@@ -206,6 +209,26 @@ public class AccumulateNode extends BetaNode {
             return this.betaMemory;
         }
 
+        /**
+         * Schedules the re-accumulation of a group, unless it has already been scheduled by the current batch.
+         */
+        public void addGroupToReaccumulate(TupleList<AccumulateContextEntry> group) {
+            if (group.getContext().isToReaccumulate()) {
+                return;
+            }
+            group.getContext().setToReaccumulate(true);
+            if (groupsToReaccumulate == null) {
+                groupsToReaccumulate = new ArrayList<>();
+            }
+            groupsToReaccumulate.add(group);
+        }
+
+        public List<TupleList<AccumulateContextEntry>> takeGroupsToReaccumulate() {
+            List<TupleList<AccumulateContextEntry>> groups = groupsToReaccumulate;
+            groupsToReaccumulate = null;
+            return groups;
+        }
+
         public short getNodeType() {
             return NodeTypeEnums.AccumulateNode;
         }
@@ -288,6 +311,7 @@ public class AccumulateNode extends BetaNode {
         private boolean            propagated;
         private Object             functionContext;
         private boolean            toPropagate;
+        private boolean            toReaccumulate;
         private boolean            empty = true;
 
         public AccumulateContextEntry(Object key) {
@@ -326,6 +350,14 @@ public class AccumulateNode extends BetaNode {
             this.toPropagate = toPropagate;
         }
 
+        public boolean isToReaccumulate() {
+            return toReaccumulate;
+        }
+
+        public void setToReaccumulate(boolean toReaccumulate) {
+            this.toReaccumulate = toReaccumulate;
+        }
+
         public Object getFunctionContext() {
             return functionContext;
         }
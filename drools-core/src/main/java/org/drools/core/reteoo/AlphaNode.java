@@ -120,6 +120,26 @@ public class AlphaNode extends ObjectSource
         }
     }
 
+    @Override
+    public void assertObjects(final InternalFactHandle[] factHandles,
+                              final PropagationContext[] contexts,
+                              final int size,
+                              final ReteEvaluator reteEvaluator) {
+        // the facts passing the constraint are propagated together as a smaller batch
+        InternalFactHandle[] allowedHandles = new InternalFactHandle[size];
+        PropagationContext[] allowedContexts = new PropagationContext[size];
+        int allowed = 0;
+        for (int i = 0; i < size; i++) {
+            if (this.constraint.isAllowed(factHandles[i], reteEvaluator)) {
+                allowedHandles[allowed] = factHandles[i];
+                allowedContexts[allowed++] = contexts[i];
+            }
+        }
+        if (allowed > 0) {
+            this.sink.propagateAssertObjects( allowedHandles, allowedContexts, allowed, reteEvaluator );
+        }
+    }
+
     public void modifyObject(final InternalFactHandle factHandle,
                              final ModifyPreviousTuples modifyPreviousTuples,
                              final PropagationContext context,
@@ -52,6 +52,14 @@ public class AlphaTerminalNode extends LeftInputAdapterNode {
         }
     }
 
+    @Override
+    public void assertObjects( InternalFactHandle[] factHandles, PropagationContext[] contexts, int size, ReteEvaluator reteEvaluator ) {
+        // there is no node memory to share, so this doesn't use the batch of the LeftInputAdapterNode
+        for (int i = 0; i < size; i++) {
+            assertObject( factHandles[i], contexts[i], reteEvaluator );
+        }
+    }
+
     @Override
     public void modifyObject(InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples, PropagationContext context, ReteEvaluator reteEvaluator) {
         ActivationsManager activationsManager = reteEvaluator.getActivationsManager();
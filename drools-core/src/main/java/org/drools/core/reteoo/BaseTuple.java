@@ -125,6 +125,24 @@ public abstract class BaseTuple implements Tuple {
         this.next = null;
     }
 
+    /**
+     * Clears the state and all the references held by this tuple, so that it can be reused
+     */
+    protected void reset() {
+        this.stagedType = LeftTuple.NONE;
+        this.contextObject = null;
+        this.handle = null;
+        this.propagationContext = null;
+        this.stagedNext = null;
+        this.stagedPrevious = null;
+        this.previous = null;
+        this.next = null;
+        this.sink = null;
+        this.handlePrevious = null;
+        this.handleNext = null;
+        this.expired = false;
+    }
+
     @Override
     public InternalFactHandle get( Declaration declaration ) {
         return get(declaration.getTupleIndex());
@@ -38,6 +38,7 @@ public class BetaMemory extends AbstractBaseLinkedListNode<Memory>
     private long                       nodePosMaskBit;
     private int                        counter;
     private RiaPathMemory              riaRuleMemory;
+    private RightTuplePool             rightTuplePool;
 
     public BetaMemory() {
     }
@@ -69,6 +70,17 @@ public class BetaMemory extends AbstractBaseLinkedListNode<Memory>
         return this.leftTupleMemory;
     }
 
+    /**
+     * Returns the pool recycling the right tuples of this memory, or null when they aren't recycled
+     */
+    public RightTuplePool getRightTuplePool() {
+        return rightTuplePool;
+    }
+
+    public void setRightTuplePool(RightTuplePool rightTuplePool) {
+        this.rightTuplePool = rightTuplePool;
+    }
+
     public RiaPathMemory getRiaRuleMemory() {
         return riaRuleMemory;
     }
@@ -242,9 +242,22 @@ public abstract class BetaNode extends LeftTupleSource
 
     @Override
     public void assertObject( InternalFactHandle factHandle, PropagationContext pctx, ReteEvaluator reteEvaluator ) {
+        assertObject( factHandle, pctx, reteEvaluator, getBetaMemoryFromRightInput(this, reteEvaluator) );
+    }
+
+    @Override
+    public void assertObjects( InternalFactHandle[] factHandles, PropagationContext[] contexts, int size, ReteEvaluator reteEvaluator ) {
         final BetaMemory memory = getBetaMemoryFromRightInput(this, reteEvaluator);
+        for ( int i = 0; i < size; i++ ) {
+            assertObject( factHandles[i], contexts[i], reteEvaluator, memory );
+        }
+    }
 
-        RightTuple rightTuple = createRightTuple( factHandle, this, pctx );
+    protected void assertObject( InternalFactHandle factHandle, PropagationContext pctx, ReteEvaluator reteEvaluator, BetaMemory memory ) {
+        RightTuplePool rightTuplePool = memory.getRightTuplePool();
+        RightTuple rightTuple = rightTuplePool != null ?
+                rightTuplePool.create( factHandle, this, pctx ) :
+                createRightTuple( factHandle, this, pctx );
 
         boolean stagedInsertWasEmpty = memory.getStagedRightTuples().addInsert(rightTuple);
         if ( isLogTraceEnabled ) {
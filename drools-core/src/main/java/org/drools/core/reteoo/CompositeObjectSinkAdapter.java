@@ -207,12 +207,21 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
 
     private static boolean isHashable( IndexableConstraint indexableConstraint ) {
         return indexableConstraint.getConstraintType() == ConstraintType.EQUAL && indexableConstraint.getField() != null &&
-                indexableConstraint.getFieldExtractor().getValueType() != ValueType.OBJECT_TYPE &&
+                isHashableType( indexableConstraint.getFieldExtractor() ) &&
                 !isBigDecimalEqualityConstraint(indexableConstraint) &&
                 // our current implementation does not support hashing of deeply nested properties
                 indexableConstraint.getFieldExtractor().getIndex() >= 0;
     }
 
+    private static boolean isHashableType( ReadAccessor extractor ) {
+        if ( extractor.getValueType() != ValueType.OBJECT_TYPE ) {
+            return true;
+        }
+        // enum constants can be hashed by name, see HashKey#hashOf
+        Class<?> extractToClass = extractor.getExtractToClass();
+        return extractToClass != null && extractToClass.isEnum();
+    }
+
     public ObjectSinkPropagator removeObjectSink(final ObjectSink sink) {
         this.sinks = null; // dirty it, so it'll rebuild on next get
         if (this.sinksMap != null) {
@@ -564,9 +573,11 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if (!entry.getKey().isRangeIndexed()) {
                     continue;
                 }
-                for (AlphaNode sink : entry.getValue().getMatchingAlphaNodes(object)) {
+                AlphaRangeIndex.Regions regions = entry.getValue().getRegions();
+                int region = regions.findRegion(reteEvaluator, object);
+                for (int i = regions.getRegionStart(region), end = regions.getRegionEnd(region); i < end; i++) {
                     // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
-                    sink.getObjectSinkPropagator().propagateAssertObject(factHandle, context, reteEvaluator);
+                    regions.getNode(i).getObjectSinkPropagator().propagateAssertObject(factHandle, context, reteEvaluator);
                 }
             }
         }
@@ -602,6 +613,39 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
         }
     }
 
+    @Override
+    public void propagateAssertObjects(final InternalFactHandle[] factHandles,
+                                       final PropagationContext[] contexts,
+                                       final int size,
+                                       final ReteEvaluator reteEvaluator) {
+        if ( this.hashedFieldIndexes != null || this.rangeIndexMap != null ) {
+            // the hashed and range indexed sinks are chosen fact by fact
+            for ( int i = 0; i < size; i++ ) {
+                propagateAssertObject( factHandles[i], contexts[i], reteEvaluator );
+            }
+            return;
+        }
+
+        // each sink receives the whole batch in order, before the next sink
+        if ( this.hashableSinks != null ) {
+            for ( ObjectSinkNode sink : this.hashableSinks ) {
+                sink.assertObjects( factHandles, contexts, size, reteEvaluator );
+            }
+        }
+
+        if ( this.rangeIndexableSinks != null ) {
+            for ( ObjectSinkNode sink : this.rangeIndexableSinks ) {
+                sink.assertObjects( factHandles, contexts, size, reteEvaluator );
+            }
+        }
+
+        if ( this.otherSinks != null ) {
+            for ( ObjectSinkNode sink : this.otherSinks ) {
+                sink.assertObjects( factHandles, contexts, size, reteEvaluator );
+            }
+        }
+    }
+
     public void propagateModifyObject(final InternalFactHandle factHandle,
                                       final ModifyPreviousTuples modifyPreviousTuples,
                                       final PropagationContext context,
@@ -633,9 +677,11 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if (!entry.getKey().isRangeIndexed()) {
                     continue;
                 }
-                for (AlphaNode sink : entry.getValue().getMatchingAlphaNodes(object)) {
+                AlphaRangeIndex.Regions regions = entry.getValue().getRegions();
+                int region = regions.findRegion(reteEvaluator, object);
+                for (int i = regions.getRegionStart(region), end = regions.getRegionEnd(region); i < end; i++) {
                     // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
-                    sink.getObjectSinkPropagator().propagateModifyObject(factHandle, modifyPreviousTuples, context, reteEvaluator);
+                    regions.getNode(i).getObjectSinkPropagator().propagateModifyObject(factHandle, modifyPreviousTuples, context, reteEvaluator);
                 }
             }
         }
@@ -703,8 +749,10 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if (!entry.getKey().isRangeIndexed()) {
                     continue;
                 }
-                for (AlphaNode sink : entry.getValue().getMatchingAlphaNodes(object)) {
-                    sink.getObjectSinkPropagator().byPassModifyToBetaNode(factHandle, modifyPreviousTuples, context, reteEvaluator);
+                AlphaRangeIndex.Regions regions = entry.getValue().getRegions();
+                int region = regions.findRegion(reteEvaluator, object);
+                for (int i = regions.getRegionStart(region), end = regions.getRegionEnd(region); i < end; i++) {
+                    regions.getNode(i).getObjectSinkPropagator().byPassModifyToBetaNode(factHandle, modifyPreviousTuples, context, reteEvaluator);
                 }
             }
         }
@@ -942,7 +990,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
 
             if ( !isNull ) {
                 this.value = extractor.getValue( null, value );
-                this.setHashCode( this.value != null ? this.value.hashCode() : 0 );
+                this.setHashCode( hashOf( this.value ) );
             } else {
                 this.setHashCode( 0 );
             }
@@ -956,12 +1004,20 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
             this.isNull = value.isNull();
             if ( !isNull ) {
                 this.value = extractor.getValueType().coerce( value.getValue() );
-                this.setHashCode( this.value != null ? this.value.hashCode() : 0 );
+                this.setHashCode( hashOf( this.value ) );
             } else {
                 this.setHashCode( 0 );
             }
         }
 
+        private static int hashOf(final Object value) {
+            if ( value == null ) {
+                return 0;
+            }
+            // the identity based hashCode of an enum would not survive the serialization of the key
+            return value instanceof Enum ? ((Enum<?>) value).name().hashCode() : value.hashCode();
+        }
+
         private void setHashCode(final int hashSeed) {
             final int PRIME = 31;
             int result = 1;
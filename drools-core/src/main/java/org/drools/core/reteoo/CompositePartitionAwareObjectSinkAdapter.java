@@ -105,6 +105,22 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
         partitionedPropagators[newP] = partitionedPropagators[newP].addObjectSink( sink, alphaNodeHashingThreshold, alphaNodeRangeIndexThreshold );
     }
 
+    /**
+     * Moves every sink to the propagator of the slot currently assigned to its partition.
+     * This has to be invoked after the evaluation slots of the partitions have been
+     * changed, see {@link PartitionsBalancer}.
+     */
+    public void redistributeSinks( int alphaNodeHashingThreshold, int alphaNodeRangeIndexThreshold ) {
+        ObjectSink[] sinks = getSinks();
+        Arrays.fill(partitionedPropagators, EmptyObjectSinkAdapter.getInstance());
+        hashed = true;
+        fieldIndex = null;
+        hashedSinkMap = null;
+        for (ObjectSink sink : sinks) {
+            addObjectSink( sink, alphaNodeHashingThreshold, alphaNodeRangeIndexThreshold );
+        }
+    }
+
     @Override
     public void propagateAssertObject( InternalFactHandle factHandle, PropagationContext context, ReteEvaluator reteEvaluator ) {
         ActivationsManager compositeAgenda = reteEvaluator.getActivationsManager();
@@ -200,6 +200,19 @@ public class EntryPointNode extends ObjectSource implements ObjectSink {
         }
     }
 
+    public void assertObjects(final PropagationEntry.BatchInsert batch,
+                              final ReteEvaluator reteEvaluator) {
+        if ( log.isTraceEnabled() ) {
+            log.trace("Insert batch of {} {}", batch.size(), batch.getObjectTypeConf().getTypeName());
+        }
+
+        if ( partitionsEnabled || !reteEvaluator.isThreadSafe() ) {
+            batch.execute( reteEvaluator );
+        } else {
+            reteEvaluator.addPropagation( batch );
+        }
+    }
+
 
     public void modifyObject(final InternalFactHandle handle,
                              final PropagationContext pctx,
@@ -16,8 +16,10 @@
 
 package org.drools.core.reteoo;
 
+import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.common.BetaConstraints;
 import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.Memory;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.common.PropagationContext;
@@ -48,6 +50,17 @@ public class JoinNode extends BetaNode {
         return NodeTypeEnums.JoinNode;
     }
 
+    @Override
+    public Memory createMemory(RuleBaseConfiguration config, ReteEvaluator reteEvaluator) {
+        BetaMemory memory = (BetaMemory) super.createMemory( config, reteEvaluator );
+        int tuplePoolSize = reteEvaluator != null ? reteEvaluator.getSessionConfiguration().getTuplePoolSize() : 0;
+        // the pool isn't thread safe, so it can't be shared by the partitions evaluated in parallel
+        if ( tuplePoolSize > 0 && !config.isMultithreadEvaluation() ) {
+            memory.setRightTuplePool( new RightTuplePool( tuplePoolSize ) );
+        }
+        return memory;
+    }
+
     public String toString() {
         return "[JoinNode(" + this.getId() + ") - " + getObjectTypeNode().getObjectType() + "]";
     }
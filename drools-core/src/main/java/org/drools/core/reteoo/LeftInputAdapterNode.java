@@ -157,6 +157,17 @@ public class LeftInputAdapterNode extends LeftTupleSource
                         true );
     }
 
+    @Override
+    public void assertObjects(final InternalFactHandle[] factHandles,
+                              final PropagationContext[] contexts,
+                              final int size,
+                              final ReteEvaluator reteEvaluator) {
+        LiaNodeMemory lm = reteEvaluator.getNodeMemory( this );
+        for ( int i = 0; i < size; i++ ) {
+            doInsertObject( factHandles[i], contexts[i], this, reteEvaluator, lm, true, true );
+        }
+    }
+
     public static void doInsertObject(final InternalFactHandle factHandle,
                                       final PropagationContext context,
                                       final LeftInputAdapterNode liaNode,
@@ -118,11 +118,11 @@ public class NotNode extends BetaNode {
         return "[NotNode(" + this.getId() + ") - " + ((source != null) ? source.getObjectType() : "<source from a subnetwork>") + "]";
     }
 
-    public void assertObject( final InternalFactHandle factHandle,
-                              final PropagationContext pctx,
-                              final ReteEvaluator reteEvaluator ) {
-        final BetaMemory memory = getBetaMemoryFromRightInput(this, reteEvaluator);
-
+    @Override
+    protected void assertObject( final InternalFactHandle factHandle,
+                                 final PropagationContext pctx,
+                                 final ReteEvaluator reteEvaluator,
+                                 final BetaMemory memory ) {
         RightTuple rightTuple = createRightTuple( factHandle,
                                                   this,
                                                   pctx);
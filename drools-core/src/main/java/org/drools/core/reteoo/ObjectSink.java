@@ -34,6 +34,19 @@ public interface ObjectSink
                       PropagationContext propagationContext,
                       ReteEvaluator reteEvaluator);
 
+    /**
+     * Asserts the first <code>size</code> fact handles of a batch, each with the context at the same position.
+     * Nodes override it to do the work that doesn't depend on the fact, like resolving their memory, once per batch.
+     */
+    default void assertObjects(InternalFactHandle[] factHandles,
+                               PropagationContext[] propagationContexts,
+                               int size,
+                               ReteEvaluator reteEvaluator) {
+        for (int i = 0; i < size; i++) {
+            assertObject(factHandles[i], propagationContexts[i], reteEvaluator);
+        }
+    }
+
     void modifyObject(InternalFactHandle factHandle,
                       ModifyPreviousTuples modifyPreviousTuples,
                       PropagationContext context,
@@ -37,6 +37,15 @@ public interface ObjectSinkPropagator
                                PropagationContext context,
                                ReteEvaluator reteEvaluator);
 
+    default void propagateAssertObjects(InternalFactHandle[] factHandles,
+                                        PropagationContext[] contexts,
+                                        int size,
+                                        ReteEvaluator reteEvaluator) {
+        for (int i = 0; i < size; i++) {
+            propagateAssertObject(factHandles[i], contexts[i], reteEvaluator);
+        }
+    }
+
     BaseNode getMatchingNode(BaseNode candidate);
 
     ObjectSink[] getSinks();
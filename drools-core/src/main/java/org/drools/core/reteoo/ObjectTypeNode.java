@@ -265,6 +265,11 @@ public class ObjectTypeNode extends ObjectSource implements ObjectSink, MemoryFa
         this.sink.propagateAssertObject(factHandle, context, reteEvaluator);
     }
 
+    public void propagateAssert(InternalFactHandle[] factHandles, PropagationContext[] contexts, int size, ReteEvaluator reteEvaluator) {
+        checkDirty();
+        this.sink.propagateAssertObjects(factHandles, contexts, size, reteEvaluator);
+    }
+
     /**
      * Retract the <code>FactHandleimpl</code> from the <code>Rete</code> network. Also remove the
      * <code>FactHandleImpl</code> from the node memory.
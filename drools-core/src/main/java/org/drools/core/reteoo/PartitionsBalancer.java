@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.reteoo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.drools.core.common.BaseNode;
+import org.drools.core.common.RuleBasePartitionId;
+
+import static org.drools.core.common.RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER;
+
+/**
+ * Collects the runtime cost of the rules of a multithreaded RuleBase and uses it to
+ * reassign the partitions of the Rete network to the parallel evaluation slots.
+ *
+ * When the network is built each partition is structurally assigned to the slot
+ * derived from its id, so a few expensive partitions may end up on the same slot while
+ * other slots stay almost idle. The cost of each rule, in terms of time spent evaluating
+ * its network and firing its consequences and of number of fired tuples, is accumulated
+ * by the rule evaluators and aggregated by partition. Rebalancing then distributes the
+ * partitions on the slots so that every slot gets a roughly equal share of the total cost.
+ *
+ * The costs are collected only while profiling is enabled through {@link #startProfiling()},
+ * so that the rule evaluations don't pay for the timing when no rebalancing is planned.
+ *
+ * Partitions can be moved only when no session is using the RuleBase, because the
+ * memories of a session are bound to the slots that were in place when it was created.
+ */
+public class PartitionsBalancer {
+
+    private final Map<TerminalNode, RuleCost> costs = new ConcurrentHashMap<>();
+
+    private volatile boolean profiling;
+
+    public void startProfiling() {
+        profiling = true;
+    }
+
+    public void stopProfiling() {
+        profiling = false;
+    }
+
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    public void recordEvaluation( TerminalNode terminalNode, long nanos, int fired ) {
+        costs.computeIfAbsent( terminalNode, tn -> new RuleCost() ).record( nanos, fired );
+    }
+
+    public void removeTerminalNode( TerminalNode terminalNode ) {
+        costs.remove( terminalNode );
+    }
+
+    public RuleCost getRuleCost( String ruleName ) {
+        RuleCost ruleCost = new RuleCost();
+        for (Map.Entry<TerminalNode, RuleCost> entry : costs.entrySet()) {
+            if (entry.getKey().getRule().getFullyQualifiedName().equals( ruleName )) {
+                ruleCost.add( entry.getValue() );
+            }
+        }
+        return ruleCost;
+    }
+
+    public long getPartitionCost( RuleBasePartitionId partitionId ) {
+        long cost = 0;
+        for (Map.Entry<TerminalNode, RuleCost> entry : costs.entrySet()) {
+            if (entry.getKey().getPartitionId().equals( partitionId )) {
+                cost += entry.getValue().getEvaluationNanos();
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the cost, in nanoseconds, recorded so far by the rules of the partitions currently assigned to each
+     * parallel evaluation slot.
+     */
+    public long[] getSlotCosts() {
+        long[] slotCosts = new long[PARALLEL_PARTITIONS_NUMBER];
+        for (Map.Entry<TerminalNode, RuleCost> entry : costs.entrySet()) {
+            slotCosts[entry.getKey().getPartitionId().getParallelEvaluationSlot()] += entry.getValue().getEvaluationNanos();
+        }
+        return slotCosts;
+    }
+
+    public void reset() {
+        costs.clear();
+    }
+
+    /**
+     * Reassigns the partitions of the given network to the parallel evaluation slots, using
+     * the costs collected so far. Partitions are placed in decreasing order of cost on the
+     * slot with the lowest accumulated cost, while the main partition always stays on the
+     * first slot. Partitions without any recorded cost are spread on the least populated slots.
+     *
+     * @return the expected cost, in nanoseconds, of each slot after the rebalancing
+     */
+    public long[] rebalance( Rete rete ) {
+        Map<Integer, List<RuleBasePartitionId>> partitionsById = collectPartitions( rete );
+
+        Map<Integer, Long> partitionCosts = new HashMap<>();
+        for (Map.Entry<TerminalNode, RuleCost> entry : costs.entrySet()) {
+            partitionCosts.merge( entry.getKey().getPartitionId().getId(), entry.getValue().getEvaluationNanos(), Long::sum );
+        }
+
+        long[] slotCosts = new long[PARALLEL_PARTITIONS_NUMBER];
+        int[] slotPartitions = new int[PARALLEL_PARTITIONS_NUMBER];
+        slotCosts[0] = partitionCosts.getOrDefault( RuleBasePartitionId.MAIN_PARTITION.getId(), 0L );
+        slotPartitions[0] = 1;
+
+        List<Integer> ids = new ArrayList<>( partitionsById.keySet() );
+        ids.remove( (Integer) RuleBasePartitionId.MAIN_PARTITION.getId() );
+        ids.sort( (id1, id2) -> {
+            int byCost = Long.compare( partitionCosts.getOrDefault( id2, 0L ), partitionCosts.getOrDefault( id1, 0L ) );
+            return byCost != 0 ? byCost : Integer.compare( id1, id2 );
+        } );
+
+        for (Integer id : ids) {
+            long partitionCost = partitionCosts.getOrDefault( id, 0L );
+            int slot = partitionCost > 0 ? leastLoadedSlot( slotCosts, slotPartitions ) : leastPopulatedSlot( slotCosts, slotPartitions );
+            slotCosts[slot] += partitionCost;
+            slotPartitions[slot]++;
+            for (RuleBasePartitionId partitionId : partitionsById.get( id )) {
+                partitionId.setParallelEvaluationSlot( slot );
+            }
+        }
+
+        for (ObjectTypeNode otn : rete.getObjectTypeNodes()) {
+            ObjectSinkPropagator sink = otn.getObjectSinkPropagator();
+            if (sink instanceof CompositePartitionAwareObjectSinkAdapter) {
+                ( (CompositePartitionAwareObjectSinkAdapter) sink ).redistributeSinks( otn.alphaNodeHashingThreshold, otn.alphaNodeRangeIndexThreshold );
+            }
+        }
+
+        return slotCosts;
+    }
+
+    private static int leastLoadedSlot( long[] slotCosts, int[] slotPartitions ) {
+        int slot = 0;
+        for (int i = 1; i < slotCosts.length; i++) {
+            if (slotCosts[i] < slotCosts[slot] || ( slotCosts[i] == slotCosts[slot] && slotPartitions[i] < slotPartitions[slot] )) {
+                slot = i;
+            }
+        }
+        return slot;
+    }
+
+    private static int leastPopulatedSlot( long[] slotCosts, int[] slotPartitions ) {
+        int slot = 0;
+        for (int i = 1; i < slotPartitions.length; i++) {
+            if (slotPartitions[i] < slotPartitions[slot] || ( slotPartitions[i] == slotPartitions[slot] && slotCosts[i] < slotCosts[slot] )) {
+                slot = i;
+            }
+        }
+        return slot;
+    }
+
+    private static Map<Integer, List<RuleBasePartitionId>> collectPartitions( Rete rete ) {
+        // the same partition could be referenced by different instances of RuleBasePartitionId,
+        // e.g. after a deserialization, so all of them have to be moved together
+        Map<Integer, List<RuleBasePartitionId>> partitionsById = new HashMap<>();
+        Set<RuleBasePartitionId> visited = Collections.newSetFromMap( new IdentityHashMap<>() );
+        for (BaseNode node : ReteDumper.collectRete( rete )) {
+            RuleBasePartitionId partitionId = node.getPartitionId();
+            if (partitionId != null && visited.add( partitionId )) {
+                partitionsById.computeIfAbsent( partitionId.getId(), id -> new ArrayList<>() ).add( partitionId );
+            }
+        }
+        return partitionsById;
+    }
+
+    public static class RuleCost {
+
+        private final LongAdder evaluationNanos = new LongAdder();
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder firedTuples = new LongAdder();
+
+        void record( long nanos, int fired ) {
+            evaluationNanos.add( nanos );
+            evaluations.increment();
+            firedTuples.add( fired );
+        }
+
+        void add( RuleCost other ) {
+            evaluationNanos.add( other.getEvaluationNanos() );
+            evaluations.add( other.getEvaluations() );
+            firedTuples.add( other.getFiredTuples() );
+        }
+
+        public long getEvaluationNanos() {
+            return evaluationNanos.sum();
+        }
+
+        public long getEvaluations() {
+            return evaluations.sum();
+        }
+
+        public long getFiredTuples() {
+            return firedTuples.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "RuleCost{evaluationNanos=" + getEvaluationNanos() + ", evaluations=" + getEvaluations() + ", firedTuples=" + getFiredTuples() + "}";
+        }
+    }
+}
@@ -71,6 +71,8 @@ public class ReteooBuilder
     private IdGenerator nodeIdsGenerator = new IdGenerator(1);
     private IdGenerator memoryIdsGenerator = new IdGenerator(1);
 
+    private transient PartitionsBalancer partitionsBalancer = new PartitionsBalancer();
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -134,6 +136,10 @@ public class ReteooBuilder
         }
     }
 
+    public PartitionsBalancer getPartitionsBalancer() {
+        return this.partitionsBalancer;
+    }
+
     public IdGenerator getNodeIdsGenerator() {
         return this.nodeIdsGenerator;
     }
@@ -187,6 +193,7 @@ public class ReteooBuilder
 
     public void removeTerminalNode(RuleRemovalContext context, TerminalNode tn, Collection<InternalWorkingMemory> workingMemories)  {
         AddRemoveRule.removeRule( tn, workingMemories, kBase );
+        partitionsBalancer.removeTerminalNode( tn );
 
         BaseNode node = (BaseNode) tn;
         removeNodeAssociation(node, context.getRule(), new HashSet<>());
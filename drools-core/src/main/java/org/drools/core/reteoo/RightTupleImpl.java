@@ -51,6 +51,29 @@ public class RightTupleImpl extends BaseTuple implements RightTuple {
         handle.addLastRightTuple( this );
     }
 
+    /**
+     * Reinitializes a tuple recycled by a {@link RightTuplePool} as if it was just created for the given handle and sink
+     */
+    void reinit(InternalFactHandle handle, RightTupleSink sink) {
+        setFactHandle( handle );
+        this.sink = sink;
+
+        // add to end of RightTuples on handle
+        handle.addLastRightTuple( this );
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        this.memory = null;
+        this.firstChild = null;
+        this.lastChild = null;
+        this.blocked = null;
+        this.tempNextRightTuple = null;
+        this.tempBlocked = null;
+        this.retracted = false;
+    }
+
     public RightTupleSink getTupleSink() {
         return (RightTupleSink) sink;
     }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.PropagationContext;
+
+/**
+ * Bounded stack of the right tuples deleted from a join node memory, reused for the facts asserted later
+ * into the same node. It is owned by a single node memory of a single session, so it is not thread safe:
+ * the tuples are only created and released while the session is evaluating its network.
+ *
+ * A right tuple of a join node can be released once its delete has been processed, since at that point it has
+ * been removed from the fact handle, from the node memory and from the staged tuples. Only the tuples that never
+ * had children are released: the deleted children are still staged downstream after the delete, and they keep
+ * their right parent to read its fact handle.
+ */
+public class RightTuplePool {
+
+    private final RightTupleImpl[] tuples;
+
+    private int size;
+
+    public RightTuplePool(int capacity) {
+        this.tuples = new RightTupleImpl[capacity];
+    }
+
+    public RightTuple create(InternalFactHandle handle, RightTupleSink sink, PropagationContext context) {
+        RightTupleImpl rightTuple;
+        if (size == 0) {
+            rightTuple = new RightTupleImpl( handle, sink );
+        } else {
+            rightTuple = tuples[--size];
+            tuples[size] = null;
+            rightTuple.reinit( handle, sink );
+        }
+        rightTuple.setPropagationContext( context );
+        return rightTuple;
+    }
+
+    public void release(RightTuple rightTuple) {
+        // subclasses, like the subnetwork tuples, are never recycled
+        if (size < tuples.length && rightTuple.getClass() == RightTupleImpl.class) {
+            RightTupleImpl released = (RightTupleImpl) rightTuple;
+            released.reset();
+            tuples[size++] = released;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
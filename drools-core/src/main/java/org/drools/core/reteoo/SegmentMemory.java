@@ -54,6 +54,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
     private          int                pos = -1;
     private          TupleSets<LeftTuple> stagedLeftTuples;
     private          boolean            active;
+    private          boolean            evictionCandidate;
     private          SegmentMemory      previous;
     private          SegmentMemory      next;
 
@@ -134,6 +135,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
 
     public boolean linkNode(long mask, ReteEvaluator reteEvaluator) {
         linkedNodeMask |= mask;
+        evictionCandidate = false;
         if (IS_LOG_TRACE_ENABLED) {
             log.trace("LinkNode notify=true nmask={} smask={} spos={} rules={}", mask, linkedNodeMask, pos, getRuleNames());
         }
@@ -143,6 +145,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
 
     public boolean linkNodeWithoutRuleNotify(long mask) {
         linkedNodeMask |= mask;
+        evictionCandidate = false;
         if (IS_LOG_TRACE_ENABLED) {
             log.trace("LinkNode notify=false nmask={} smask={} spos={} rules={}", mask, linkedNodeMask, pos, getRuleNames());
         }
@@ -196,6 +199,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
         // some node unlinking does not unlink the segment, such as nodes after a Branch CE
         linkedNodeMask ^= mask;
         dirtyNodeMask |= mask;
+        evictionCandidate = false;
 
         if (IS_LOG_TRACE_ENABLED) {
             log.trace("UnlinkNode notify=true nmask={} smask={} spos={} rules={}", mask, linkedNodeMask, pos, getRuleNames());
@@ -230,6 +234,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
 
     public void unlinkNodeWithoutRuleNotify(long mask) {
         linkedNodeMask ^= mask;
+        evictionCandidate = false;
         if (IS_LOG_TRACE_ENABLED) {
             log.trace("UnlinkNode notify=false nmask={} smask={} spos={} rules={}", mask, linkedNodeMask, pos, getRuleNames());
         }
@@ -322,6 +327,19 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
         this.active = evaluating;
     }
 
+    /**
+     * A segment becomes a candidate for eviction when it is found empty by the
+     * {@link org.drools.core.phreak.SegmentMemoryEvictor}; any linking or unlinking
+     * of its nodes in the meanwhile withdraws the candidacy.
+     */
+    public boolean isEvictionCandidate() {
+        return evictionCandidate;
+    }
+
+    public void setEvictionCandidate(boolean evictionCandidate) {
+        this.evictionCandidate = evictionCandidate;
+    }
+
     public int getPos() {
         return pos;
     }
@@ -70,6 +70,14 @@ public class SingleObjectSinkAdapter implements ObjectSinkPropagator {
         this.sink.assertObject( factHandle, context, reteEvaluator );
     }
 
+    @Override
+    public void propagateAssertObjects(final InternalFactHandle[] factHandles,
+                                       final PropagationContext[] contexts,
+                                       final int size,
+                                       final ReteEvaluator reteEvaluator) {
+        this.sink.assertObjects( factHandles, contexts, size, reteEvaluator );
+    }
+
     public void propagateModifyObject(InternalFactHandle factHandle,
                                             ModifyPreviousTuples modifyPreviousTuples,
                                             PropagationContext context,
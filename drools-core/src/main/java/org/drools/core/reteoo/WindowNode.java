@@ -35,6 +35,7 @@ import org.drools.core.rule.Behavior;
 import org.drools.core.rule.BehaviorManager;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.SlidingTimeWindow;
+import org.drools.core.rule.SlidingTimeWindow.SlidingTimeWindowContext;
 import org.drools.core.rule.constraint.AlphaNodeFieldConstraint;
 import org.drools.core.base.ObjectType;
 import org.drools.core.common.PropagationContext;
@@ -236,9 +237,51 @@ public class WindowNode extends ObjectSource
     public WindowMemory createMemory(final RuleBaseConfiguration config, ReteEvaluator reteEvaluator) {
         WindowMemory memory = new WindowMemory();
         memory.behaviorContext = this.behavior.createBehaviorContext();
+        shareExpiryQueues( memory, reteEvaluator );
         return memory;
     }
 
+    /**
+     * The sliding time windows of the same size on the same source share the queue of their events, so that they
+     * are expired by a single timer and in a single batch. The queue is the one created by the window with the
+     * lowest id, whose memory is in turn created without looking at the others.
+     */
+    private void shareExpiryQueues(WindowMemory memory, ReteEvaluator reteEvaluator) {
+        Behavior[] behaviors = getBehaviors();
+        for ( int i = 0; i < behaviors.length; i++ ) {
+            if ( behaviors[i] instanceof SlidingTimeWindow ) {
+                SlidingTimeWindowContext owner = findExpiryQueueOwner( ((SlidingTimeWindow) behaviors[i]).getSize(), reteEvaluator );
+                if ( owner != null ) {
+                    ((SlidingTimeWindowContext) memory.behaviorContext[i]).shareQueue( owner.getQueue() );
+                }
+            }
+        }
+    }
+
+    private SlidingTimeWindowContext findExpiryQueueOwner(long size, ReteEvaluator reteEvaluator) {
+        WindowNode ownerNode = null;
+        int ownerIndex = -1;
+        for ( ObjectSink sink : this.source.getObjectSinkPropagator().getSinks() ) {
+            if ( !(sink instanceof WindowNode) || sink == this ) {
+                continue;
+            }
+            WindowNode window = (WindowNode) sink;
+            // windows evaluated by different threads can't share their state
+            if ( window.getId() > this.id || (this.partitionsEnabled && !window.getPartitionId().equals( this.partitionId )) || (ownerNode != null && window.getId() > ownerNode.getId()) ) {
+                continue;
+            }
+            Behavior[] behaviors = window.getBehaviors();
+            for ( int i = 0; i < behaviors.length; i++ ) {
+                if ( behaviors[i] instanceof SlidingTimeWindow && ((SlidingTimeWindow) behaviors[i]).getSize() == size ) {
+                    ownerNode = window;
+                    ownerIndex = i;
+                    break;
+                }
+            }
+        }
+        return ownerNode == null ? null : (SlidingTimeWindowContext) reteEvaluator.getNodeMemory( ownerNode ).behaviorContext[ownerIndex];
+    }
+
     public String toString() {
         return "[WindowNode(" + this.id + ") constraints=" + this.constraints + "]";
     }
@@ -248,6 +248,21 @@ public class Declaration implements Externalizable, AcceptsReadAccessor, TupleVa
         return getValue( reteEvaluator, tuple.get( this ) );
     }
 
+    @Override
+    public int getIntValue(Tuple tuple) {
+        return getIntValue( null, tuple.get( this ).getObject() );
+    }
+
+    @Override
+    public long getLongValue(Tuple tuple) {
+        return getLongValue( null, tuple.get( this ).getObject() );
+    }
+
+    @Override
+    public double getDoubleValue(Tuple tuple) {
+        return getDoubleValue( null, tuple.get( this ).getObject() );
+    }
+
     public Object getValue(ReteEvaluator reteEvaluator, InternalFactHandle fh) {
         return getValue( reteEvaluator, fh.getObject() );
     }
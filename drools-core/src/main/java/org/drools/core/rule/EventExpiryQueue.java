@@ -0,0 +1,257 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.rule;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.rule.SlidingTimeWindow.SlidingTimeWindowContext;
+import org.drools.core.time.JobHandle;
+
+/**
+ * The events of one or more sliding time windows of the same size, in order of start timestamp and then of
+ * arrival. Since the windows have the same size this is also the order of expiration.
+ * <p/>
+ * Events normally arrive in timestamp order, so they are kept in a ring buffer where the insertion is an append
+ * and the expiration a removal from the head, without allocating any node. An event arriving out of order is
+ * inserted in its position moving the events after it.
+ * <p/>
+ * The same handle can belong to more windows, each one keeping its own clone of it, so every entry also records
+ * the context of the window owning it. For the same reason the contexts serialize the queue by reference, so that
+ * the windows sharing it still share it once deserialized.
+ */
+public class EventExpiryQueue implements Externalizable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private EventFactHandle[] handles;
+    private SlidingTimeWindowContext[] owners;
+
+    private int head;
+    private int size;
+
+    private EventFactHandle expiringHandle;
+    private SlidingTimeWindowContext expiringOwner;
+
+    private JobHandle jobHandle;
+
+    public EventExpiryQueue() {
+        this.handles = new EventFactHandle[INITIAL_CAPACITY];
+        this.owners = new SlidingTimeWindowContext[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(size);
+        for (int pos = 0; pos < size; pos++) {
+            int i = index(pos);
+            out.writeObject(handles[i]);
+            out.writeObject(owners[i]);
+        }
+        out.writeObject(expiringHandle);
+        out.writeObject(expiringOwner);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int entries = in.readInt();
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < entries) {
+            capacity <<= 1;
+        }
+        this.handles = new EventFactHandle[capacity];
+        this.owners = new SlidingTimeWindowContext[capacity];
+        for (int pos = 0; pos < entries; pos++) {
+            handles[pos] = (EventFactHandle) in.readObject();
+            owners[pos] = (SlidingTimeWindowContext) in.readObject();
+        }
+        this.head = 0;
+        this.size = entries;
+        this.expiringHandle = (EventFactHandle) in.readObject();
+        this.expiringOwner = (SlidingTimeWindowContext) in.readObject();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public EventFactHandle peek() {
+        return size == 0 ? null : handles[head];
+    }
+
+    public SlidingTimeWindowContext peekOwner() {
+        return size == 0 ? null : owners[head];
+    }
+
+    public EventFactHandle poll() {
+        if (size == 0) {
+            return null;
+        }
+        EventFactHandle handle = handles[head];
+        handles[head] = null;
+        owners[head] = null;
+        head = (head + 1) & (handles.length - 1);
+        size--;
+        return handle;
+    }
+
+    public void add(EventFactHandle handle, SlidingTimeWindowContext owner) {
+        if (size == handles.length) {
+            grow();
+        }
+        long timestamp = handle.getStartTimestamp();
+        int pos = size;
+        while (pos > 0 && handles[index(pos - 1)].getStartTimestamp() > timestamp) {
+            // out of order event, moves forward the later ones
+            int from = index(pos - 1);
+            int to = index(pos);
+            handles[to] = handles[from];
+            owners[to] = owners[from];
+            pos--;
+        }
+        int i = index(pos);
+        handles[i] = handle;
+        owners[i] = owner;
+        size++;
+    }
+
+    /**
+     * Removes the entry of the given owner for a handle equal to the given one, returning true if it was found.
+     */
+    public boolean remove(EventFactHandle handle, SlidingTimeWindowContext owner) {
+        long timestamp = handle.getStartTimestamp();
+        for (int pos = lowerBound(timestamp); pos < size; pos++) {
+            int i = index(pos);
+            if (handles[i].getStartTimestamp() != timestamp) {
+                break;
+            }
+            if (owners[i] == owner && handles[i].equals(handle)) {
+                delete(pos);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<EventFactHandle> getFactHandles(SlidingTimeWindowContext owner) {
+        List<EventFactHandle> result = new ArrayList<>();
+        for (int pos = 0; pos < size; pos++) {
+            int i = index(pos);
+            if (owners[i] == owner) {
+                result.add(handles[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the entry of the given owner for a handle equal to the given one is being expired.
+     */
+    public boolean isExpiring(EventFactHandle handle, SlidingTimeWindowContext owner) {
+        return expiringOwner == owner && expiringHandle != null && expiringHandle.equals(handle);
+    }
+
+    public void setExpiring(EventFactHandle handle, SlidingTimeWindowContext owner) {
+        this.expiringHandle = handle;
+        this.expiringOwner = owner;
+    }
+
+    public EventFactHandle getExpiringHandle(SlidingTimeWindowContext owner) {
+        return expiringOwner == owner ? expiringHandle : null;
+    }
+
+    public JobHandle getJobHandle() {
+        return jobHandle;
+    }
+
+    public void setJobHandle(JobHandle jobHandle) {
+        this.jobHandle = jobHandle;
+    }
+
+    private int index(int pos) {
+        return (head + pos) & (handles.length - 1);
+    }
+
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (handles[index(mid)].getStartTimestamp() < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void delete(int pos) {
+        if (pos < size / 2) {
+            // closer to the head, moves back the entries before it
+            for (int p = pos; p > 0; p--) {
+                int to = index(p);
+                int from = index(p - 1);
+                handles[to] = handles[from];
+                owners[to] = owners[from];
+            }
+            handles[head] = null;
+            owners[head] = null;
+            head = (head + 1) & (handles.length - 1);
+        } else {
+            for (int p = pos; p < size - 1; p++) {
+                int to = index(p);
+                int from = index(p + 1);
+                handles[to] = handles[from];
+                owners[to] = owners[from];
+            }
+            int last = index(size - 1);
+            handles[last] = null;
+            owners[last] = null;
+        }
+        size--;
+    }
+
+    private void grow() {
+        int capacity = handles.length << 1;
+        EventFactHandle[] newHandles = new EventFactHandle[capacity];
+        SlidingTimeWindowContext[] newOwners = new SlidingTimeWindowContext[capacity];
+        for (int pos = 0; pos < size; pos++) {
+            int i = index(pos);
+            newHandles[pos] = handles[i];
+            newOwners[pos] = owners[i];
+        }
+        handles = newHandles;
+        owners = newOwners;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "EventExpiryQueue( size=" + size + " )";
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.drools.core.rule;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.reteoo.AccumulateNode.AccumulateContextEntry;
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.util.index.TupleList;
+
+/**
+ * A groupBy accumulate whose groups can be re-accumulated independently of each other.
+ */
+public interface GroupByAccumulate {
+
+    /**
+     * Accumulates the match in the given group without scheduling the group for propagation. Different groups
+     * can be accumulated concurrently, provided that each thread uses its own working memory context.
+     */
+    Object accumulateInGroup(Object workingMemoryContext, Tuple match, InternalFactHandle childHandle,
+                             TupleList<AccumulateContextEntry> tupleList, ReteEvaluator reteEvaluator);
+}
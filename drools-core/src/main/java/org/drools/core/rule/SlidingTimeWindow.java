@@ -21,7 +21,6 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Collection;
-import java.util.PriorityQueue;
 
 import org.drools.core.common.EventFactHandle;
 import org.drools.core.common.InternalFactHandle;
@@ -117,19 +116,20 @@ public class SlidingTimeWindow
                               final InternalFactHandle fact,
                               final PropagationContext pctx,
                               final ReteEvaluator reteEvaluator) {
-        final SlidingTimeWindowContext queue = (SlidingTimeWindowContext) context;
+        final SlidingTimeWindowContext windowContext = (SlidingTimeWindowContext) context;
         final EventFactHandle handle = (EventFactHandle) fact;
         long currentTime = reteEvaluator.getTimerService().getCurrentTime();
         if ( isExpired( currentTime, handle ) ) {
             return false;
         }
 
-        queue.add( handle );
-        if ( handle.equals( queue.peek() ) ) {
+        EventExpiryQueue queue = windowContext.getQueue();
+        queue.add( handle, windowContext );
+        if ( handle == queue.peek() ) {
             // update next expiration time
             updateNextExpiration( handle,
                                   reteEvaluator,
-                                  queue,
+                                  windowContext,
                                   nodeId );
         }
 
@@ -141,20 +141,21 @@ public class SlidingTimeWindow
                             final InternalFactHandle fact,
                             final PropagationContext pctx,
                             final ReteEvaluator reteEvaluator) {
-        final SlidingTimeWindowContext queue = (SlidingTimeWindowContext) context;
+        final SlidingTimeWindowContext windowContext = (SlidingTimeWindowContext) context;
         final EventFactHandle handle = (EventFactHandle) fact;
+        EventExpiryQueue queue = windowContext.getQueue();
         // it may be a call back to expire the tuple that is already being expired
-        if ( !handle.equals( queue.getExpiringHandle() ) ) {
-            if ( handle.equals( queue.peek() ) ) {
+        if ( !queue.isExpiring( handle, windowContext ) ) {
+            if ( queue.peekOwner() == windowContext && handle.equals( queue.peek() ) ) {
                 // it was the head of the queue
                 queue.poll();
                 // update next expiration time
                 updateNextExpiration( queue.peek(),
                                       reteEvaluator,
-                                      queue,
+                                      windowContext,
                                       nodeId);
             } else {
-                queue.remove( handle );
+                queue.remove( handle, windowContext );
             }
             if ( queue.isEmpty() && queue.getJobHandle() != null ) {
                 reteEvaluator.getTimerService().removeJob( queue.getJobHandle() );
@@ -168,25 +169,27 @@ public class SlidingTimeWindow
                             final ReteEvaluator reteEvaluator) {
         TimerService clock = reteEvaluator.getTimerService();
         long currentTime = clock.getCurrentTime();
-        SlidingTimeWindowContext queue = (SlidingTimeWindowContext) context;
+        SlidingTimeWindowContext windowContext = (SlidingTimeWindowContext) context;
+        // the queue can be shared with other windows of the same size, whose events are expired in the same batch
+        EventExpiryQueue queue = windowContext.getQueue();
 
         EventFactHandle handle = queue.peek();
         while ( handle != null && isExpired( currentTime,
                                              handle ) ) {
-            queue.setExpiringHandle( handle );
-            queue.remove();
+            queue.setExpiring( handle, queue.peekOwner() );
+            queue.poll();
             if( handle.isValid()) {
                 // if not expired yet, expire it
                 final PropagationContext expiresPctx = createPropagationContextForFact( reteEvaluator, handle, PropagationContext.Type.EXPIRATION );
                 ObjectTypeNode.doRetractObject(handle, expiresPctx, reteEvaluator);
             }
-            queue.setExpiringHandle( null );
+            queue.setExpiring( null, null );
             handle = queue.peek();
         }
         // update next expiration time
         updateNextExpiration( handle,
                               reteEvaluator,
-                              queue,
+                              windowContext,
                               nodeId );
     }
 
@@ -237,73 +240,60 @@ public class SlidingTimeWindow
             Behavior.Context,
             Externalizable {
 
-        private PriorityQueue<EventFactHandle> queue;
-        private EventFactHandle                expiringHandle;
-        private JobHandle                      jobHandle;
+        private EventExpiryQueue queue;
 
         public SlidingTimeWindowContext() {
-            this.queue = new PriorityQueue<>(16); // arbitrary size... can we improve it?
+            this.queue = new EventExpiryQueue();
+        }
+
+        /**
+         * Makes this window use the given queue, shared with other windows of the same size.
+         * It has to be called before any event is added to this window.
+         */
+        public void shareQueue(EventExpiryQueue queue) {
+            this.queue = queue;
+        }
+
+        public EventExpiryQueue getQueue() {
+            return queue;
         }
 
         @Override
         public JobHandle getJobHandle() {
-            return this.jobHandle;
+            return queue.getJobHandle();
         }
 
         @Override
         public void setJobHandle(JobHandle jobHandle) {
-            this.jobHandle = jobHandle;
+            queue.setJobHandle( jobHandle );
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public void readExternal(ObjectInput in) throws IOException,
                                                         ClassNotFoundException {
-            this.queue = (PriorityQueue<EventFactHandle>) in.readObject();
-            this.expiringHandle = (EventFactHandle) in.readObject();
+            // written by reference, the windows sharing the queue get back the same instance
+            this.queue = (EventExpiryQueue) in.readObject();
         }
 
         @Override
         public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeObject( this.queue );
-            out.writeObject( this.expiringHandle );
+            out.writeObject( queue );
         }
 
         public EventFactHandle getExpiringHandle() {
-            return expiringHandle;
-        }
-
-        public void setExpiringHandle( EventFactHandle expiringHandle ) {
-            this.expiringHandle = expiringHandle;
-        }
-
-        public void add(EventFactHandle handle) {
-            queue.add( handle );
-        }
-
-        public void remove(EventFactHandle handle) {
-            queue.remove( handle );
-        }
-
-        public boolean isEmpty() {
-            return queue.isEmpty();
+            return queue.getExpiringHandle( this );
         }
 
+        /**
+         * Returns the first event to expire, which can belong to another window sharing the queue of this one.
+         */
         public EventFactHandle peek() {
             return queue.peek( );
         }
 
-        public EventFactHandle poll() {
-            return queue.poll( );
-        }
-
-        public EventFactHandle remove() {
-            return queue.remove( );
-        }
-
         @Override
         public Collection<EventFactHandle> getFactHandles() {
-            return queue;
+            return queue.getFactHandles( this );
         }
     }
 
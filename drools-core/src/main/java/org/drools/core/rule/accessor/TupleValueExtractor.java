@@ -28,5 +28,17 @@ public interface TupleValueExtractor extends Cloneable {
 
     Object getValue( ReteEvaluator reteEvaluator, Tuple tuple );
 
+    default int getIntValue( Tuple tuple ) {
+        return ( (Number) getValue( tuple ) ).intValue();
+    }
+
+    default long getLongValue( Tuple tuple ) {
+        return ( (Number) getValue( tuple ) ).longValue();
+    }
+
+    default double getDoubleValue( Tuple tuple ) {
+        return ( (Number) getValue( tuple ) ).doubleValue();
+    }
+
     TupleValueExtractor clone();
 }
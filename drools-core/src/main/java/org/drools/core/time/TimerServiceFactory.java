@@ -18,7 +18,10 @@ package org.drools.core.time;
 
 import org.drools.core.SessionConfiguration;
 import org.drools.core.SessionConfigurationImpl;
+import org.drools.core.time.impl.TimingWheelPseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelTimerService;
 import org.drools.wiring.api.ComponentsFactory;
+import org.kie.internal.runtime.conf.TimerServiceOption;
 
 public class TimerServiceFactory {
 
@@ -29,7 +32,9 @@ public class TimerServiceFactory {
                 service = newTimerService((SessionConfigurationImpl) config);
                 break;
             case PSEUDO_CLOCK:
-                service = (TimerService) config.getClockType().createInstance();
+                service = config.getTimerServiceOption() == TimerServiceOption.TIMING_WHEEL ?
+                        new TimingWheelPseudoClockScheduler() :
+                        (TimerService) config.getClockType().createInstance();
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported clock type: " + config.getClockType());
@@ -39,9 +44,13 @@ public class TimerServiceFactory {
     }
 
     private static TimerService newTimerService(SessionConfigurationImpl config) {
-        String className = config.getPropertyValue("drools.timerService", "org.drools.core.time.impl.JDKTimerService");
+        // a custom timer service takes precedence over the configured TimerServiceOption
+        String className = config.getPropertyValue("drools.timerService", null);
         if (className == null) {
-            return null;
+            if (config.getTimerServiceOption() == TimerServiceOption.TIMING_WHEEL) {
+                return new TimingWheelTimerService();
+            }
+            className = "org.drools.core.time.impl.JDKTimerService";
         }
         return (TimerService) ComponentsFactory.createTimerService(className);
     }
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical hashed timing wheel. The first level is made of wheelSize buckets, each one covering a tick of time.
+ * The timeouts too far in the future to fit in it are added to an overflow wheel, lazily created, whose tick is the
+ * whole interval of the level below, and so on. Scheduling and cancelling a timeout are O(1), since they only link or
+ * unlink it in the double linked list of its bucket.
+ *
+ * Only the non empty buckets are kept in a priority queue ordered by expiration, so advancing the time costs
+ * O(log n) for each bucket to be expired (n being the number of non empty buckets, bounded by the wheel size
+ * times the number of levels) regardless of the number of timeouts in it and of the amount of time elapsed.
+ * When the bucket of an overflow wheel expires its timeouts are redistributed into the lower levels.
+ *
+ * The deadline of each timeout is rounded up to the tick, so a timeout never expires before its time.
+ * This class is not thread safe: the owning TimerService is in charge of synchronizing its usage.
+ */
+public class TimingWheel {
+
+    private final long tick;
+
+    private final PriorityQueue<Bucket> queue = new PriorityQueue<>();
+
+    private final Level root;
+
+    private int size;
+
+    public TimingWheel(long tick, int wheelSize, long startTime) {
+        if (tick <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tick = tick;
+        this.root = new Level(tick, wheelSize, startTime, queue);
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getCurrentTime() {
+        return root.currentTime;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds the given timeout to this wheel.
+     *
+     * @return false if the timeout is already expired, i.e. its deadline is not after the current time of this wheel.
+     *         In this case it isn't added and it is up to the caller to run it.
+     */
+    public boolean add(Timeout timeout, long time) {
+        timeout.deadline = roundUp(time);
+        if (root.add(timeout)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the given timeout from this wheel. This is a no-op if the timeout isn't scheduled in it.
+     */
+    public void remove(Timeout timeout) {
+        Bucket bucket = timeout.bucket;
+        if (bucket != null) {
+            bucket.remove(timeout);
+            size--;
+        }
+    }
+
+    /**
+     * @return the expiration of the first non empty bucket, or -1 if this wheel is empty. Note that the bucket can
+     *         belong to an overflow wheel, so this is a lower bound of the next deadline.
+     */
+    public long nextExpiration() {
+        Bucket bucket = queue.peek();
+        return bucket != null ? bucket.expiration : -1;
+    }
+
+    /**
+     * Expires the first bucket if its expiration is not after the given time, advancing the current time of
+     * this wheel up to that expiration. The timeouts of an expired overflow bucket are moved into the lower levels.
+     *
+     * @return the timeouts whose deadline has been reached, possibly empty when the expired bucket only had to be
+     *         redistributed, or null if no bucket expired. The timeouts in the list are already removed from the wheel.
+     */
+    public List<Timeout> poll(long time) {
+        Bucket bucket = queue.peek();
+        if (bucket == null || bucket.expiration > time) {
+            return null;
+        }
+        queue.poll();
+        root.advanceClock(bucket.expiration);
+
+        List<Timeout> expired = new ArrayList<>();
+        Timeout timeout = bucket.first;
+        bucket.first = null;
+        bucket.last = null;
+        bucket.expiration = -1;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+            if (!root.add(timeout)) {
+                size--;
+                expired.add(timeout);
+            }
+            timeout = next;
+        }
+        return expired;
+    }
+
+    /**
+     * Moves the current time of this wheel forward without expiring anything. It is meant to be used when the wheel is
+     * empty, to avoid that later timeouts are initially placed into overflow buckets only because of a stale clock.
+     */
+    public void advanceClock(long time) {
+        if (isEmpty() && time > root.currentTime) {
+            // drops also the buckets left in the queue after the cancellation of all their timeouts
+            clear(time);
+        }
+    }
+
+    /**
+     * Visits all the scheduled timeouts, in no particular order.
+     */
+    public void forEach(Consumer<Timeout> consumer) {
+        for (Level level = root; level != null; level = level.overflow) {
+            for (Bucket bucket : level.buckets) {
+                for (Timeout timeout = bucket.first; timeout != null; timeout = timeout.next) {
+                    consumer.accept(timeout);
+                }
+            }
+        }
+    }
+
+    public void clear(long startTime) {
+        queue.clear();
+        root.clear(startTime);
+        size = 0;
+    }
+
+    private long roundUp(long time) {
+        long rest = time % tick;
+        return rest == 0 ? time : time - rest + tick;
+    }
+
+    private static class Level {
+        private final long tick;
+        private final long interval;
+        private final Bucket[] buckets;
+        private final PriorityQueue<Bucket> queue;
+
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tick, int wheelSize, long startTime, PriorityQueue<Bucket> queue) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.queue = queue;
+            this.currentTime = startTime - (startTime % tick);
+        }
+
+        private boolean add(Timeout timeout) {
+            long deadline = timeout.deadline;
+            if (deadline < currentTime + tick) {
+                // already expired
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                long virtualId = deadline / tick;
+                Bucket bucket = buckets[(int) (virtualId % buckets.length)];
+                bucket.add(timeout);
+                long expiration = virtualId * tick;
+                if (bucket.expiration != expiration) {
+                    // the bucket is reused for a new round, or it was empty
+                    bucket.expiration = expiration;
+                    queue.offer(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, buckets.length, currentTime, queue);
+            }
+            return overflow.add(timeout);
+        }
+
+        private void advanceClock(long time) {
+            if (time >= currentTime + tick) {
+                currentTime = time - (time % tick);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private void clear(long startTime) {
+            for (Bucket bucket : buckets) {
+                bucket.clear();
+            }
+            currentTime = startTime - (startTime % tick);
+            if (overflow != null) {
+                overflow.clear(startTime);
+            }
+        }
+    }
+
+    static class Bucket implements Comparable<Bucket> {
+        private Timeout first;
+        private Timeout last;
+        private long expiration = -1;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (last == null) {
+                first = timeout;
+            } else {
+                last.next = timeout;
+                timeout.previous = last;
+            }
+            last = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous == null) {
+                first = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                last = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+            // an empty bucket stays in the queue until its expiration, when it will be polled as a no-op
+        }
+
+        private void clear() {
+            for (Timeout timeout = first; timeout != null; ) {
+                Timeout next = timeout.next;
+                timeout.bucket = null;
+                timeout.previous = null;
+                timeout.next = null;
+                timeout = next;
+            }
+            first = null;
+            last = null;
+            expiration = -1;
+        }
+
+        @Override
+        public int compareTo(Bucket other) {
+            return Long.compare(expiration, other.expiration);
+        }
+    }
+
+    /**
+     * The JobHandle of a job scheduled in a TimingWheel. It also acts as the node of the list of its bucket,
+     * so scheduling a job doesn't require any allocation other than the handle itself.
+     */
+    public static class Timeout extends DefaultJobHandle {
+
+        private static final long serialVersionUID = 510l;
+
+        private transient long deadline;
+        private transient Bucket bucket;
+        private transient Timeout previous;
+        private transient Timeout next;
+
+        public Timeout(long id) {
+            super(id);
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isScheduled() {
+            return bucket != null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.time.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link PseudoClockScheduler} keeping the scheduled jobs in a {@link TimingWheel} with a tick of 1 ms instead of
+ * a priority queue. Jobs are executed with the same semantics of the PseudoClockScheduler: when the time is advanced
+ * they are run in order of fire time, with the clock set to the fire time of each job.
+ *
+ * It can be used in place of the PseudoClockScheduler setting the TimerServiceOption to TIMING_WHEEL
+ * together with the pseudo ClockTypeOption.
+ */
+public class TimingWheelPseudoClockScheduler extends PseudoClockScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger( TimingWheelPseudoClockScheduler.class );
+
+    private final AtomicLong idCounter = new AtomicLong();
+
+    private final TimingWheel wheel = new TimingWheel( 1, TimingWheelTimerService.DEFAULT_WHEEL_SIZE, 0 );
+
+    // the jobs that were already expired when scheduled, run in order of fire time at the next advance of the clock
+    private final PriorityQueue<TimingWheel.Timeout> expired = new PriorityQueue<>( TimingWheelPseudoClockScheduler::compareFireTime );
+
+    // the jobs of the last expired bucket, all having the same fire time
+    private final ArrayDeque<TimingWheel.Timeout> batch = new ArrayDeque<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        setStartupTime( in.readLong() );
+        PriorityBlockingQueue<DefaultTimerJobInstance> tmp = (PriorityBlockingQueue<DefaultTimerJobInstance>) in.readObject();
+        synchronized (this) {
+            wheel.clear( getCurrentTime() );
+            if ( tmp != null ) {
+                for ( DefaultTimerJobInstance jobInstance : tmp ) {
+                    TimingWheel.Timeout timeout = (TimingWheel.Timeout) jobInstance.getJobHandle();
+                    if (!wheel.add( timeout, jobInstance.getTrigger().hasNextFireTime().getTime() )) {
+                        expired.add( timeout );
+                    }
+                }
+            }
+        }
+        setSession( ((DroolsObjectInputStream) in).getWorkingMemory() );
+    }
+
+    @Override
+    public synchronized void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong( getCurrentTime() );
+        // same format of the PseudoClockScheduler, writing null in place of an empty queue
+        PriorityBlockingQueue<DefaultTimerJobInstance> queue = new PriorityBlockingQueue<>();
+        wheel.forEach( timeout -> addPending( queue, timeout ) );
+        expired.forEach( timeout -> addPending( queue, timeout ) );
+        batch.forEach( timeout -> addPending( queue, timeout ) );
+        out.writeObject( queue.isEmpty() ? null : queue );
+    }
+
+    private static void addPending(PriorityBlockingQueue<DefaultTimerJobInstance> queue, TimingWheel.Timeout timeout) {
+        if (!timeout.isCancel()) {
+            queue.add( (DefaultTimerJobInstance) timeout.getTimerJobInstance() );
+        }
+    }
+
+    @Override
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if (date == null) {
+            return null;
+        }
+
+        TimingWheel.Timeout jobHandle = new TimingWheel.Timeout( idCounter.getAndIncrement() );
+        TimerJobInstance jobInstance = getTimerJobFactoryManager().createTimerJobInstance( job,
+                                                                                         ctx,
+                                                                                         trigger,
+                                                                                         jobHandle,
+                                                                                         this );
+        jobHandle.setTimerJobInstance( jobInstance );
+        internalSchedule( jobInstance );
+
+        return jobHandle;
+    }
+
+    @Override
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        getTimerJobFactoryManager().addTimerJobInstance( timerJobInstance );
+        long fireTime = timerJobInstance.getTrigger().hasNextFireTime().getTime();
+        synchronized (this) {
+            TimingWheel.Timeout timeout = (TimingWheel.Timeout) timerJobInstance.getJobHandle();
+            wheel.advanceClock( getCurrentTime() );
+            if (!wheel.add( timeout, fireTime )) {
+                expired.add( timeout );
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        TimingWheel.Timeout timeout = (TimingWheel.Timeout) jobHandle;
+        getTimerJobFactoryManager().removeTimerJobInstance( timeout.getTimerJobInstance() );
+        if (timeout.isScheduled()) {
+            wheel.remove( timeout );
+            return true;
+        }
+        // the job handles are equal when their jobs are, so they have to be removed by identity
+        return expired.removeIf( t -> t == timeout ) || batch.removeIf( t -> t == timeout );
+    }
+
+    @Override
+    public long advanceTime(long amount, TimeUnit unit) {
+        return runCallBacksAndIncreaseTimer( unit.toMillis( amount ) );
+    }
+
+    @Override
+    public synchronized void reset() {
+        super.reset();
+        idCounter.set( 0 );
+        wheel.clear( 0 );
+        expired.clear();
+        batch.clear();
+    }
+
+    @Override
+    public synchronized long getTimeToNextJob() {
+        if (!expired.isEmpty() || !batch.isEmpty()) {
+            return 0;
+        }
+        long nextExpiration = wheel.nextExpiration();
+        return nextExpiration < 0 ? -1 : Math.max( 0, nextExpiration - getCurrentTime() );
+    }
+
+    public synchronized int size() {
+        return wheel.size() + expired.size() + batch.size();
+    }
+
+    private static int compareFireTime(TimingWheel.Timeout t1, TimingWheel.Timeout t2) {
+        return ((DefaultTimerJobInstance) t1.getTimerJobInstance()).compareTo( (DefaultTimerJobInstance) t2.getTimerJobInstance() );
+    }
+
+    private synchronized long runCallBacksAndIncreaseTimer(long increase) {
+        long endTime = getCurrentTime() + increase;
+
+        while (true) {
+            // jobs scheduled in the past by the ones just executed come first, as in the PseudoClockScheduler
+            TimingWheel.Timeout timeout = expired.isEmpty() ? batch.poll() : expired.poll();
+            if (timeout == null) {
+                List<TimingWheel.Timeout> polled = wheel.poll( endTime );
+                if (polled == null) {
+                    break;
+                }
+                batch.addAll( polled );
+                continue;
+            }
+
+            if (timeout.isCancel()) {
+                continue;
+            }
+
+            TimerJobInstance item = timeout.getTimerJobInstance();
+            Date fireTime = item.getTrigger().hasNextFireTime();
+            try {
+                if (fireTime != null) {
+                    // set the clock to the trigger's fire time
+                    setStartupTime( fireTime.getTime() );
+                }
+                ((Callable<Void>) item).call();
+            } catch (Exception e) {
+                log.error( "Exception running callbacks: ", e );
+            }
+        }
+
+        setStartupTime( endTime );
+        return endTime;
+    }
+}
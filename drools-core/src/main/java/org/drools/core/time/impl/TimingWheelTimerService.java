@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.Trigger;
+import org.kie.api.time.SessionClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A realtime TimerService keeping the scheduled jobs in a {@link TimingWheel} instead of the heap of a
+ * ScheduledThreadPoolExecutor, so that scheduling and cancelling a job, e.g. the expiration of an event,
+ * costs O(1) and all the jobs expiring in the same tick are collected at once.
+ * The expired jobs are executed by a single daemon thread, lazily started when the first job is scheduled.
+ *
+ * It can be used in place of the {@link JDKTimerService} setting the TimerServiceOption to TIMING_WHEEL.
+ */
+public class TimingWheelTimerService
+        implements
+        TimerService,
+        SessionClock,
+        InternalSchedulerService {
+
+    private static final Logger log = LoggerFactory.getLogger( TimingWheelTimerService.class );
+
+    public static final long DEFAULT_TICK = 1;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final AtomicLong idCounter = new AtomicLong( 0L );
+
+    private final TimingWheel wheel;
+
+    // the jobs that were already expired when scheduled, waiting to be executed by the worker
+    private final List<TimingWheel.Timeout> expired = new ArrayList<>();
+
+    private TimerJobFactoryManager jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+
+    private Thread worker;
+
+    private boolean shutdown;
+
+    public TimingWheelTimerService() {
+        this( DEFAULT_TICK, DEFAULT_WHEEL_SIZE );
+    }
+
+    public TimingWheelTimerService(long tick, int wheelSize) {
+        this.wheel = new TimingWheel( tick, wheelSize, getCurrentTime() );
+    }
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public synchronized void reset() {
+        this.wheel.clear( getCurrentTime() );
+        this.expired.clear();
+        this.idCounter.set( 0L );
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        this.shutdown = true;
+        this.wheel.clear( getCurrentTime() );
+        this.expired.clear();
+        notifyAll();
+    }
+
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if (date == null) {
+            return null;
+        }
+
+        TimingWheel.Timeout jobHandle = new TimingWheel.Timeout( idCounter.getAndIncrement() );
+        TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job,
+                                                                               ctx,
+                                                                               trigger,
+                                                                               jobHandle,
+                                                                               this );
+        jobHandle.setTimerJobInstance( jobInstance );
+        internalSchedule( jobInstance );
+
+        return jobHandle;
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        long fireTime = timerJobInstance.getTrigger().hasNextFireTime().getTime();
+        TimingWheel.Timeout timeout = (TimingWheel.Timeout) timerJobInstance.getJobHandle();
+
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            wheel.advanceClock( getCurrentTime() );
+            long nextExpiration = wheel.nextExpiration();
+            if (!wheel.add( timeout, fireTime )) {
+                expired.add( timeout );
+            }
+            if (worker == null) {
+                worker = new Thread( this::runExpiredJobs, "drools-timing-wheel-" + threadCount.incrementAndGet() );
+                worker.setDaemon( true );
+                worker.start();
+            } else if (nextExpiration < 0 || !expired.isEmpty() || wheel.nextExpiration() < nextExpiration) {
+                // the worker could be waiting for a later expiration
+                notifyAll();
+            }
+        }
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        TimingWheel.Timeout timeout = (TimingWheel.Timeout) jobHandle;
+        jobFactoryManager.removeTimerJobInstance( timeout.getTimerJobInstance() );
+        synchronized (this) {
+            if (timeout.isScheduled()) {
+                wheel.remove( timeout );
+                return true;
+            }
+            // the job handles are equal when their jobs are, so it has to be removed by identity
+            return expired.removeIf( t -> t == timeout );
+        }
+    }
+
+    private void runExpiredJobs() {
+        List<TimingWheel.Timeout> toRun = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                if (!collectExpired( toRun )) {
+                    return;
+                }
+            }
+            for (TimingWheel.Timeout timeout : toRun) {
+                if (!timeout.isCancel()) {
+                    try {
+                        ((Callable<Void>) timeout.getTimerJobInstance()).call();
+                    } catch (Exception e) {
+                        log.error( "Exception running timer job: ", e );
+                    }
+                }
+            }
+            toRun.clear();
+        }
+    }
+
+    private boolean collectExpired(List<TimingWheel.Timeout> toRun) {
+        while (!shutdown) {
+            toRun.addAll( expired );
+            expired.clear();
+
+            long now = getCurrentTime();
+            for (List<TimingWheel.Timeout> polled = wheel.poll( now ); polled != null; polled = wheel.poll( now )) {
+                toRun.addAll( polled );
+            }
+            if (!toRun.isEmpty()) {
+                return true;
+            }
+
+            long nextExpiration = wheel.nextExpiration();
+            try {
+                wait( nextExpiration < 0 ? 0 : Math.max( 1, nextExpiration - now ) );
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public synchronized long getTimeToNextJob() {
+        if (!expired.isEmpty()) {
+            return 0;
+        }
+        long nextExpiration = wheel.nextExpiration();
+        return nextExpiration < 0 ? -1 : Math.max( 0, nextExpiration - getCurrentTime() );
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(long id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    public synchronized int size() {
+        return wheel.size() + expired.size();
+    }
+}
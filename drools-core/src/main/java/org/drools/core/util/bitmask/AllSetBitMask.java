@@ -51,7 +51,14 @@ public class AllSetBitMask extends SingleLongBitMask implements BitMask, AllSetM
         } else if (mask instanceof AllSetButLastBitMask) {
             return EmptyButLastBitMask.get();
         }
-        return BitMask.Factory.getFull(mask instanceof LongBitMask ? 1 : 65).resetAll(mask);
+        return BitMask.Factory.getFull(fullMaskSizeFor(mask)).resetAll(mask);
+    }
+
+    static int fullMaskSizeFor(BitMask mask) {
+        if (mask instanceof MultiLongBitMask) {
+            return ((MultiLongBitMask) mask).getNumWords() * 64;
+        }
+        return mask instanceof LongBitMask ? 1 : 65;
     }
 
     @Override
@@ -51,7 +51,7 @@ public class AllSetButLastBitMask extends SingleLongBitMask implements BitMask,
         if (mask instanceof AllSetMask) {
             return EmptyBitMask.get();
         }
-        return BitMask.Factory.getFull(mask instanceof LongBitMask ? 1 : 65).reset(0).resetAll(mask);
+        return BitMask.Factory.getFull(AllSetBitMask.fullMaskSizeFor(mask)).reset(0).resetAll(mask);
     }
 
     @Override
@@ -77,6 +77,9 @@ public class AllSetButLastBitMask extends SingleLongBitMask implements BitMask,
         if (mask instanceof EmptyMask) {
             return true;
         }
+        if (mask instanceof MultiLongBitMask) {
+            return ((MultiLongBitMask) mask).nextSetBit(1) != -1;
+        }
         return mask instanceof LongBitMask ?
                (Long.MAX_VALUE & ((LongBitMask)mask).asLong()) != 0 :
                ((OpenBitSet)mask).nextSetBit(1) != -1;
@@ -38,13 +38,25 @@ public interface BitMask extends Serializable, Cloneable {
 
     public class Factory {
         public static BitMask getEmpty(int numBits) {
-            return numBits <= 64 ? new LongBitMask() : new OpenBitSet(numBits);
+            if (numBits <= 64) {
+                return new LongBitMask();
+            }
+            if (numBits <= 128) {
+                return new TwoLongBitMask();
+            }
+            return numBits <= 256 ? new FourLongBitMask() : new OpenBitSet(numBits);
         }
 
         public static BitMask getFull(int numBits) {
             if (numBits <= 64) {
                 return new LongBitMask(-1L);
             }
+            if (numBits <= 128) {
+                return new TwoLongBitMask(-1L, -1L);
+            }
+            if (numBits <= 256) {
+                return new FourLongBitMask(-1L, -1L, -1L, -1L);
+            }
             int nWords = (numBits / 64) + 1;
             long[] bits = new long[nWords];
             for (int i = 0; i < bits.length; i++) {
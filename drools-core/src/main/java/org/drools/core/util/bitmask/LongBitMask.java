@@ -44,6 +44,8 @@ public class LongBitMask extends SingleLongBitMask implements BitMask {
             return isSet(0) ? AllSetBitMask.get() : AllSetButLastBitMask.get();
         } else if (mask instanceof OpenBitSet) {
             return mask.setAll(this);
+        } else if (mask instanceof MultiLongBitMask) {
+            return mask.clone().setAll(this);
         } else if (mask instanceof EmptyButLastBitMask) {
             return set(0);
         }
@@ -68,6 +70,8 @@ public class LongBitMask extends SingleLongBitMask implements BitMask {
             this.mask &= Long.MIN_VALUE;
         } else if (mask instanceof EmptyButLastBitMask) {
             reset(0);
+        } else if (mask instanceof MultiLongBitMask) {
+            this.mask &= ~((MultiLongBitMask) mask).getWord(0);
         } else if (!(mask instanceof EmptyBitMask)) {
             throw new RuntimeException("Cannot resetAll a LongBitMask with a " + mask.getClass().getSimpleName());
         }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util.bitmask;
+
+/**
+ * Base class of the fixed width masks backed by a small number of long fields. They are used instead of the
+ * {@link OpenBitSet} for types having up to 256 properties, so that property reactive modifies on wide types are
+ * evaluated in place, without allocating or looping over arrays.
+ */
+public abstract class MultiLongBitMask implements BitMask {
+
+    public abstract int getNumWords();
+
+    /**
+     * Returns the word at the given position, or 0 if it's beyond the width of this mask.
+     */
+    public abstract long getWord(int index);
+
+    public abstract MultiLongBitMask clone();
+
+    static long wordOf(BitMask mask, int index) {
+        if (mask instanceof MultiLongBitMask) {
+            return ((MultiLongBitMask) mask).getWord(index);
+        }
+        if (mask instanceof LongBitMask) {
+            return index == 0 ? ((LongBitMask) mask).asLong() : 0L;
+        }
+        if (mask instanceof AllSetBitMask) {
+            return -1L;
+        }
+        if (mask instanceof AllSetButLastBitMask) {
+            return index == 0 ? -2L : -1L;
+        }
+        if (mask instanceof EmptyButLastBitMask) {
+            return index == 0 ? 1L : 0L;
+        }
+        if (mask instanceof OpenBitSet) {
+            OpenBitSet bitSet = (OpenBitSet) mask;
+            return index < bitSet.getNumWords() ? bitSet.getBits()[index] : 0L;
+        }
+        return 0L;
+    }
+
+    public int nextSetBit(int index) {
+        for (int i = index >> 6; i < getNumWords(); i++) {
+            long word = getWord(i);
+            if (i == index >> 6) {
+                word &= -1L << (index & 63);
+            }
+            if (word != 0L) {
+                return i * 64 + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean intersects(BitMask mask) {
+        if (mask instanceof MultiLongBitMask || mask instanceof OpenBitSet || mask instanceof LongBitMask) {
+            int numWords = getNumWords();
+            for (int i = 0; i < numWords; i++) {
+                if ((getWord(i) & wordOf(mask, i)) != 0L) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return mask.intersects(this);
+    }
+
+    private boolean isAllSetFrom(int word) {
+        for (int i = word; i < getNumWords(); i++) {
+            if (getWord(i) != -1L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getInstancingStatement() {
+        if (isEmpty()) {
+            return EmptyBitMask.get().getInstancingStatement();
+        }
+        if (isAllSet()) {
+            return AllSetBitMask.get().getInstancingStatement();
+        }
+        if (getWord(0) == 1L && nextSetBit(1) == -1) {
+            return EmptyButLastBitMask.get().getInstancingStatement();
+        }
+        if (getWord(0) == -2L && isAllSetFrom(1)) {
+            return AllSetButLastBitMask.get().getInstancingStatement();
+        }
+        StringBuilder sb = new StringBuilder("new " + getClass().getCanonicalName() + "(");
+        for (int i = 0; i < getNumWords(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(getWord(i)).append("L");
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MultiLongBitMask)) return false;
+        MultiLongBitMask other = (MultiLongBitMask) o;
+        int numWords = Math.max(getNumWords(), other.getNumWords());
+        for (int i = 0; i < numWords; i++) {
+            if (getWord(i) != other.getWord(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public final int hashCode() {
+        // trailing zero words don't contribute, so masks of different width with the same bits set are equal
+        long h = 0;
+        for (int i = getNumWords(); --i >= 0;) {
+            h ^= getWord(i);
+            h = (h << 1) | (h >>> 63);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < getNumWords(); i++) {
+            if (i > 0) {
+                s.append(", ");
+            }
+            s.append(getWord(i));
+        }
+        return s.toString();
+    }
+}
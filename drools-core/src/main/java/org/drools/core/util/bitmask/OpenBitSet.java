@@ -1248,6 +1248,14 @@ public class OpenBitSet implements BitMask {
             return set(0);
         } else if (mask instanceof LongBitMask) {
             this.bits[0] |= ((LongBitMask) mask).asLong();
+        } else if (mask instanceof MultiLongBitMask) {
+            MultiLongBitMask multiLongMask = (MultiLongBitMask) mask;
+            int newLen = Math.max(wlen, multiLongMask.getNumWords());
+            ensureCapacityWords(newLen);
+            for (int i = 0; i < multiLongMask.getNumWords(); i++) {
+                this.bits[i] |= multiLongMask.getWord(i);
+            }
+            this.wlen = newLen;
         }
         return this;
     }
@@ -1275,6 +1283,11 @@ public class OpenBitSet implements BitMask {
             return reset(0);
         } else if (mask instanceof LongBitMask) {
             this.bits[0] &= (-1L - ((LongBitMask) mask).asLong());
+        } else if (mask instanceof MultiLongBitMask) {
+            MultiLongBitMask multiLongMask = (MultiLongBitMask) mask;
+            for (int i = Math.min(wlen, multiLongMask.getNumWords()); --i >= 0;) {
+                this.bits[i] &= ~multiLongMask.getWord(i);
+            }
         }
         return this;
     }
@@ -1308,6 +1321,9 @@ public class OpenBitSet implements BitMask {
         if (mask instanceof EmptyButLastBitMask) {
             return isSet(0);
         }
+        if (mask instanceof MultiLongBitMask) {
+            return mask.intersects(this);
+        }
         return mask instanceof OpenBitSet ?
                intersects((OpenBitSet)mask) :
                (this.bits[0] & ((LongBitMask)mask).asLong()) != 0;
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util.bitmask;
+
+public class TwoLongBitMask extends MultiLongBitMask {
+
+    private long word0;
+    private long word1;
+
+    public TwoLongBitMask() { }
+
+    public TwoLongBitMask(long word0, long word1) {
+        this.word0 = word0;
+        this.word1 = word1;
+    }
+
+    @Override
+    public BitMask set(int index) {
+        if (index < 64) {
+            word0 |= 1L << index;
+        } else if (index < 128) {
+            word1 |= 1L << index;
+        } else {
+            return BitMask.Factory.getEmpty(index+1).setAll(this).set(index);
+        }
+        return this;
+    }
+
+    @Override
+    public BitMask setAll(BitMask mask) {
+        if (mask instanceof TwoLongBitMask) {
+            TwoLongBitMask other = (TwoLongBitMask) mask;
+            word0 |= other.word0;
+            word1 |= other.word1;
+        } else if (mask instanceof LongBitMask) {
+            word0 |= ((LongBitMask) mask).asLong();
+        } else if (mask instanceof AllSetBitMask) {
+            return AllSetBitMask.get();
+        } else if (mask instanceof AllSetButLastBitMask) {
+            return isSet(0) ? AllSetBitMask.get() : AllSetButLastBitMask.get();
+        } else if (mask instanceof EmptyButLastBitMask) {
+            return set(0);
+        } else if (mask instanceof MultiLongBitMask || mask instanceof OpenBitSet) {
+            return mask.clone().setAll(this);
+        }
+        return this;
+    }
+
+    @Override
+    public BitMask reset(int index) {
+        if (index < 64) {
+            word0 &= ~(1L << index);
+        } else if (index < 128) {
+            word1 &= ~(1L << index);
+        }
+        return this;
+    }
+
+    @Override
+    public BitMask resetAll(BitMask mask) {
+        if (mask instanceof TwoLongBitMask) {
+            TwoLongBitMask other = (TwoLongBitMask) mask;
+            word0 &= ~other.word0;
+            word1 &= ~other.word1;
+        } else if (!(mask instanceof EmptyBitMask)) {
+            word0 &= ~wordOf(mask, 0);
+            word1 &= ~wordOf(mask, 1);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isSet(int index) {
+        if (index < 64) {
+            return (word0 & (1L << index)) != 0L;
+        }
+        return index < 128 && (word1 & (1L << index)) != 0L;
+    }
+
+    @Override
+    public boolean isAllSet() {
+        return word0 == -1L && word1 == -1L;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return word0 == 0L && word1 == 0L;
+    }
+
+    @Override
+    public boolean intersects(BitMask mask) {
+        if (mask instanceof TwoLongBitMask) {
+            TwoLongBitMask other = (TwoLongBitMask) mask;
+            return (word0 & other.word0) != 0L || (word1 & other.word1) != 0L;
+        }
+        return super.intersects(mask);
+    }
+
+    @Override
+    public int getNumWords() {
+        return 2;
+    }
+
+    @Override
+    public long getWord(int index) {
+        switch (index) {
+            case 0: return word0;
+            case 1: return word1;
+            default: return 0L;
+        }
+    }
+
+    @Override
+    public TwoLongBitMask clone() {
+        return new TwoLongBitMask(word0, word1);
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util.index;
+
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.Entry;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.Iterator;
+import org.drools.core.util.LinkedList;
+
+/**
+ * Equality index on a single join key of primitive type. Differently from {@link TupleIndexHashTable}
+ * the key of each bucket is kept unboxed in a parallel array and the buckets are stored with open
+ * addressing and linear probing, so a lookup neither allocates a hash entry nor boxes the key, and
+ * compares keys without dereferencing the buckets.
+ *
+ * Removed buckets are replaced by a tombstone, so that the buckets never move except when the table
+ * is rehashed and each bucket can remember its own slot, which is used to resume a full iteration.
+ */
+public abstract class AbstractTupleIndexPrimitiveHashTable implements TupleMemory {
+
+    private static final int   DEFAULT_CAPACITY = 32;
+    private static final float LOAD_FACTOR      = 0.5f;
+
+    private static final PrimitiveIndexTupleList TOMBSTONE = new PrimitiveIndexTupleList( 0L );
+
+    protected final FieldIndex         fieldIndex;
+    private final boolean              left;
+
+    private long[]                     keys;
+    private PrimitiveIndexTupleList[]  buckets;
+    private int                        threshold;
+
+    // number of live buckets
+    private int                        size;
+    private int                        tombstones;
+    private int                        factSize;
+
+    private transient FullFastIterator fullFastIterator;
+
+    protected AbstractTupleIndexPrimitiveHashTable( FieldIndex fieldIndex, boolean left ) {
+        this.fieldIndex = fieldIndex;
+        this.left = left;
+        init( DEFAULT_CAPACITY );
+    }
+
+    private void init( int capacity ) {
+        this.keys = new long[capacity];
+        this.buckets = new PrimitiveIndexTupleList[capacity];
+        this.threshold = (int) ( capacity * LOAD_FACTOR );
+        this.size = 0;
+        this.tombstones = 0;
+    }
+
+    /**
+     * Returns the key of a left tuple, extracted through the declaration of the indexed constraint
+     */
+    protected abstract long leftKeyOf( Tuple tuple );
+
+    /**
+     * Returns the key of a right tuple, extracted from the field of its fact
+     */
+    protected abstract long rightKeyOf( Tuple tuple );
+
+    private long keyOf( Tuple tuple, boolean isLeftTuple ) {
+        return isLeftTuple ? leftKeyOf( tuple ) : rightKeyOf( tuple );
+    }
+
+    private static int hashOf( long key ) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) ( h ^ ( h >>> 32 ) );
+    }
+
+    private int findSlot( long key ) {
+        int mask = buckets.length - 1;
+        for ( int i = hashOf( key ) & mask; ; i = ( i + 1 ) & mask ) {
+            PrimitiveIndexTupleList bucket = buckets[i];
+            if ( bucket == null ) {
+                return -1;
+            }
+            if ( keys[i] == key && bucket != TOMBSTONE ) {
+                return i;
+            }
+        }
+    }
+
+    private PrimitiveIndexTupleList getOrCreate( long key ) {
+        int mask = buckets.length - 1;
+        int freeSlot = -1;
+        int i = hashOf( key ) & mask;
+        for ( ; ; i = ( i + 1 ) & mask ) {
+            PrimitiveIndexTupleList bucket = buckets[i];
+            if ( bucket == null ) {
+                break;
+            }
+            if ( bucket == TOMBSTONE ) {
+                if ( freeSlot < 0 ) {
+                    freeSlot = i;
+                }
+            } else if ( keys[i] == key ) {
+                return bucket;
+            }
+        }
+
+        PrimitiveIndexTupleList bucket = new PrimitiveIndexTupleList( key );
+        if ( freeSlot >= 0 ) {
+            i = freeSlot;
+            tombstones--;
+        }
+        keys[i] = key;
+        buckets[i] = bucket;
+        bucket.slot = i;
+        if ( ++size + tombstones > threshold ) {
+            // only grow when the live buckets fill the table, otherwise just purge the tombstones
+            rehash( size > threshold / 2 ? buckets.length * 2 : buckets.length );
+        }
+        return bucket;
+    }
+
+    private void rehash( int capacity ) {
+        PrimitiveIndexTupleList[] oldBuckets = buckets;
+        init( capacity );
+        int mask = capacity - 1;
+        for ( PrimitiveIndexTupleList bucket : oldBuckets ) {
+            if ( bucket != null && bucket != TOMBSTONE ) {
+                int i = hashOf( bucket.key ) & mask;
+                while ( buckets[i] != null ) {
+                    i = ( i + 1 ) & mask;
+                }
+                keys[i] = bucket.key;
+                buckets[i] = bucket;
+                bucket.slot = i;
+                size++;
+            }
+        }
+    }
+
+    private void removeBucket( PrimitiveIndexTupleList bucket ) {
+        int slot = bucket.slot;
+        if ( buckets[slot] == bucket ) {
+            buckets[slot] = TOMBSTONE;
+            size--;
+            tombstones++;
+        }
+    }
+
+    public Tuple getFirst( final Tuple tuple ) {
+        int slot = findSlot( keyOf( tuple, !left ) );
+        return slot >= 0 ? buckets[slot].getFirst() : null;
+    }
+
+    public void add( final Tuple tuple ) {
+        getOrCreate( keyOf( tuple, left ) ).add( tuple );
+        this.factSize++;
+    }
+
+    public void remove( final Tuple tuple ) {
+        PrimitiveIndexTupleList memory = (PrimitiveIndexTupleList) tuple.getMemory();
+        memory.remove( tuple );
+        this.factSize--;
+        if ( memory.getFirst() == null ) {
+            removeBucket( memory );
+        }
+        tuple.clear();
+    }
+
+    public void removeAdd( Tuple tuple ) {
+        PrimitiveIndexTupleList memory = (PrimitiveIndexTupleList) tuple.getMemory();
+        memory.remove( tuple );
+
+        long key = keyOf( tuple, left );
+        if ( memory.key == key ) {
+            // it's the same bucket, so re-use and return
+            memory.add( tuple );
+            return;
+        }
+
+        this.factSize--;
+        if ( memory.getFirst() == null ) {
+            removeBucket( memory );
+        }
+        add( tuple );
+    }
+
+    public boolean contains( final Tuple tuple ) {
+        return findSlot( keyOf( tuple, left ) ) >= 0;
+    }
+
+    public boolean isIndexed() {
+        return true;
+    }
+
+    public int size() {
+        return this.factSize;
+    }
+
+    public FieldIndex getFieldIndex() {
+        return fieldIndex;
+    }
+
+    public FastIterator fastIterator() {
+        return LinkedList.fastIterator;
+    }
+
+    public FastIterator fullFastIterator() {
+        if ( fullFastIterator == null ) {
+            fullFastIterator = new FullFastIterator( this.buckets );
+        } else {
+            fullFastIterator.reset( this.buckets, 0 );
+        }
+        return fullFastIterator;
+    }
+
+    public FastIterator fullFastIterator( Tuple tuple ) {
+        if ( fullFastIterator == null ) {
+            fullFastIterator = new FullFastIterator( this.buckets );
+        }
+        // the row always points to the row after the current bucket
+        fullFastIterator.reset( this.buckets, ( (PrimitiveIndexTupleList) tuple.getMemory() ).slot + 1 );
+        return fullFastIterator;
+    }
+
+    public Iterator<Tuple> iterator() {
+        return new FullIterator( new FullFastIterator( this.buckets ) );
+    }
+
+    @Override
+    public Tuple[] toArray() {
+        Tuple[] result = new Tuple[this.factSize];
+        int index = 0;
+        for ( PrimitiveIndexTupleList bucket : this.buckets ) {
+            if ( bucket != null ) {
+                for ( Tuple entry = bucket.getFirst(); entry != null; entry = entry.getNext() ) {
+                    result[index++] = entry;
+                }
+            }
+        }
+        return result;
+    }
+
+    public IndexType getIndexType() {
+        return IndexType.EQUAL;
+    }
+
+    public void clear() {
+        init( DEFAULT_CAPACITY );
+        this.factSize = 0;
+        this.fullFastIterator = null;
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        Iterator<Tuple> it = iterator();
+        for ( Tuple tuple = it.next(); tuple != null; tuple = it.next() ) {
+            builder.append( tuple ).append( "\n" );
+        }
+        return builder.toString();
+    }
+
+    public static class PrimitiveIndexTupleList extends TupleList {
+
+        private final long key;
+        private int        slot;
+
+        PrimitiveIndexTupleList( long key ) {
+            this.key = key;
+        }
+
+        public long getKey() {
+            return key;
+        }
+    }
+
+    public static class FullFastIterator implements FastIterator {
+        private PrimitiveIndexTupleList[] buckets;
+        private int                       row;
+
+        FullFastIterator( PrimitiveIndexTupleList[] buckets ) {
+            this.buckets = buckets;
+        }
+
+        void reset( PrimitiveIndexTupleList[] buckets, int row ) {
+            this.buckets = buckets;
+            this.row = row;
+        }
+
+        public Entry next( Entry object ) {
+            if ( object != null ) {
+                Tuple next = ( (Tuple) object ).getNext();
+                if ( next != null ) {
+                    return next;
+                }
+            }
+            while ( row < buckets.length ) {
+                // tombstones are always empty, so they are skipped together with the free slots
+                PrimitiveIndexTupleList bucket = buckets[row++];
+                if ( bucket != null && bucket.getFirst() != null ) {
+                    return bucket.getFirst();
+                }
+            }
+            return null;
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
+
+    private static class FullIterator implements Iterator<Tuple> {
+        private final FullFastIterator fastIterator;
+        private Tuple                  current;
+
+        private FullIterator( FullFastIterator fastIterator ) {
+            this.fastIterator = fastIterator;
+        }
+
+        public Tuple next() {
+            current = (Tuple) fastIterator.next( current );
+            return current;
+        }
+    }
+}
@@ -20,14 +20,17 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 
 import org.drools.core.base.ValueType;
+import org.drools.core.common.ReteEvaluator;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.CompositeObjectSinkAdapter;
 import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.rule.accessor.FieldValue;
+import org.drools.core.rule.accessor.ReadAccessor;
 import org.drools.core.util.index.IndexUtil.ConstraintType;
 import org.drools.core.util.index.RangeIndex.IndexType;
 
@@ -44,6 +47,9 @@ public class AlphaRangeIndex implements Externalizable {
 
     private int size;
 
+    // lazily built from the current content of the index and discarded when it changes
+    private transient volatile Regions regions;
+
     public AlphaRangeIndex() {
         // constructor for serialisation
     }
@@ -77,6 +83,7 @@ public class AlphaRangeIndex implements Externalizable {
                     " You can workaround this issue by setting system property 'drools.alphaNodeRangeIndexThreshold' to '0'");
         }
         size++;
+        regions = null;
     }
 
     public void remove(AlphaNode alphaNode) {
@@ -85,6 +92,7 @@ public class AlphaRangeIndex implements Externalizable {
         IndexType indexType = extractIndexType(constraint);
         rangeIndex.removeIndex(indexType, key);
         size--;
+        regions = null;
     }
 
     private Comparable extractKey(IndexableConstraint constraint) {
@@ -160,11 +168,168 @@ public class AlphaRangeIndex implements Externalizable {
         return rangeIndex.getAllValues();
     }
 
+    /**
+     * Returns the partition of the possible values of the indexed field in regions delimited by the bounds of
+     * the indexed constraints, allowing to find the alpha nodes matching a fact with a binary search and without
+     * allocating any collection
+     */
+    public Regions getRegions() {
+        Regions current = regions;
+        if (current == null) {
+            current = new Regions(this);
+            regions = current;
+        }
+        return current;
+    }
+
     public void clear() {
         rangeIndex = new RangeIndex<>();
+        regions = null;
     }
 
     public CompositeObjectSinkAdapter.FieldIndex getFieldIndex() {
         return fieldIndex;
     }
+
+    /**
+     * The distinct bounds of the indexed constraints split the values of the field in regions: the values lower
+     * than the first bound, the first bound itself, the values between the first and the second bound and so on.
+     * The alpha nodes are sorted as in the underlying {@link RangeIndex}, so the ones with an upper bound
+     * ({@code <} and {@code <=}) come first and those matching a region are a suffix of them, while the ones with
+     * a lower bound ({@code >} and {@code >=}) follow and those matching a region are a prefix of them. As a
+     * consequence the alpha nodes matching each region are a contiguous range of the sorted nodes.
+     */
+    public static class Regions {
+
+        private final ReadAccessor fieldExtractor;
+
+        private final AlphaNode[] nodes;
+        private final int[] nodeIds;
+
+        // only one of the following arrays of bounds is used, depending on the type of the indexed field
+        private final long[] longBounds;
+        private final double[] doubleBounds;
+        private final Comparable[] bounds;
+
+        private final int nullRegion;
+        private final int[] regionStarts;
+        private final int[] regionEnds;
+
+        private Regions(AlphaRangeIndex index) {
+            this.fieldExtractor = index.fieldIndex.getFieldExtractor();
+            this.nodes = index.getAllValues().toArray(new AlphaNode[0]);
+            this.nodeIds = Arrays.stream(nodes).mapToInt(AlphaNode::getId).toArray();
+
+            Comparable[] keys = new Comparable[nodes.length];
+            IndexType[] indexTypes = new IndexType[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                IndexableConstraint constraint = (IndexableConstraint) nodes[i].getConstraint();
+                keys[i] = index.extractKey(constraint);
+                indexTypes[i] = index.extractIndexType(constraint);
+            }
+
+            Comparable[] distinctKeys = Arrays.stream(keys).distinct().sorted().toArray(Comparable[]::new);
+            ValueType valueType = fieldExtractor.getValueType();
+            if (valueType == ValueType.PBYTE_TYPE || valueType == ValueType.PSHORT_TYPE ||
+                    valueType == ValueType.PINTEGER_TYPE || valueType == ValueType.PLONG_TYPE) {
+                this.longBounds = Arrays.stream(distinctKeys).mapToLong(k -> ((Number) k).longValue()).toArray();
+                this.doubleBounds = null;
+                this.bounds = null;
+            } else if (valueType == ValueType.PFLOAT_TYPE || valueType == ValueType.PDOUBLE_TYPE) {
+                this.longBounds = null;
+                this.doubleBounds = Arrays.stream(distinctKeys).mapToDouble(k -> ((Number) k).doubleValue()).toArray();
+                this.bounds = null;
+            } else {
+                this.longBounds = null;
+                this.doubleBounds = null;
+                this.bounds = distinctKeys;
+            }
+
+            int[] boundIndexes = new int[nodes.length];
+            int upperBoundNodes = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                boundIndexes[i] = Arrays.binarySearch(distinctKeys, keys[i]);
+                if (indexTypes[i] == IndexType.LT || indexTypes[i] == IndexType.LE) {
+                    upperBoundNodes++;
+                }
+            }
+
+            this.nullRegion = distinctKeys.length * 2 + 1;
+            this.regionStarts = new int[nullRegion + 1];
+            this.regionEnds = new int[nullRegion + 1];
+
+            // while moving to higher regions the upper bound nodes stop matching and the lower bound ones start to match
+            int start = 0;
+            int end = upperBoundNodes;
+            for (int region = 0; region < nullRegion; region++) {
+                while (start < upperBoundNodes && !matches(indexTypes[start], boundIndexes[start], region)) {
+                    start++;
+                }
+                while (end < nodes.length && matches(indexTypes[end], boundIndexes[end], region)) {
+                    end++;
+                }
+                regionStarts[region] = start;
+                regionEnds[region] = end;
+            }
+        }
+
+        private static boolean matches(IndexType indexType, int boundIndex, int region) {
+            // region 2 * i contains the values between the bounds i - 1 and i, region 2 * i + 1 the bound i itself
+            int boundIndexOfRegion = region / 2;
+            boolean onBound = region % 2 == 1;
+            switch (indexType) {
+                case LT:
+                    return onBound ? boundIndex > boundIndexOfRegion : boundIndex >= boundIndexOfRegion;
+                case LE:
+                    return boundIndex >= boundIndexOfRegion;
+                case GT:
+                    return boundIndex < boundIndexOfRegion;
+                case GE:
+                    return onBound ? boundIndex <= boundIndexOfRegion : boundIndex < boundIndexOfRegion;
+                default:
+                    throw new IllegalStateException("Unknown index type " + indexType);
+            }
+        }
+
+        /**
+         * Returns the region containing the value of the indexed field of the given fact
+         */
+        public int findRegion(ReteEvaluator reteEvaluator, Object object) {
+            int pos;
+            if (longBounds != null) {
+                pos = Arrays.binarySearch(longBounds, fieldExtractor.getLongValue(reteEvaluator, object));
+            } else if (doubleBounds != null) {
+                pos = Arrays.binarySearch(doubleBounds, fieldExtractor.getDoubleValue(reteEvaluator, object));
+            } else {
+                Object value = fieldExtractor.getValue(reteEvaluator, object);
+                if (value == null) {
+                    return nullRegion;
+                }
+                pos = Arrays.binarySearch(bounds, value);
+            }
+            return pos >= 0 ? pos * 2 + 1 : (-pos - 1) * 2;
+        }
+
+        /**
+         * Returns the position of the first sorted alpha node matching the given region
+         */
+        public int getRegionStart(int region) {
+            return regionStarts[region];
+        }
+
+        /**
+         * Returns the position after the last sorted alpha node matching the given region
+         */
+        public int getRegionEnd(int region) {
+            return regionEnds[region];
+        }
+
+        public AlphaNode getNode(int position) {
+            return nodes[position];
+        }
+
+        public int getNodeId(int position) {
+            return nodeIds[position];
+        }
+    }
 }
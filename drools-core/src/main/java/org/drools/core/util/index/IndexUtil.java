@@ -140,6 +140,7 @@ public class IndexUtil {
     private static boolean[] findIndexableWithEqualityPriority(short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints, RuleBaseConfiguration config) {
         boolean[] indexable = new boolean[constraints.length];
         if (hasEqualIndexable(keyDepth, indexable, constraints)) {
+            sortCompositeRangeIndexable(nodeType, keyDepth, constraints, indexable, config);
             return indexable;
         }
 
@@ -163,6 +164,7 @@ public class IndexUtil {
             if (isIndexable(constraints[i], nodeType, config)) {
                 if (isEqualIndexable(constraints[i])) {
                     sortEqualIndexable(keyDepth, indexable, constraints, i);
+                    sortCompositeRangeIndexable(nodeType, keyDepth, constraints, indexable, config);
                 } else {
                     sortRangeIndexable(constraints, indexable, i);
                 }
@@ -197,6 +199,42 @@ public class IndexUtil {
         indexable[0] = true;
     }
 
+    /**
+     * When the equality constraints don't use the whole key depth, the first comparison constraint
+     * is indexed together with them, see {@link TupleIndexHashRBTree}
+     */
+    private static void sortCompositeRangeIndexable(short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints, boolean[] indexable, RuleBaseConfiguration config) {
+        int equalIndexable = 0;
+        while (equalIndexable < indexable.length && indexable[equalIndexable]) {
+            equalIndexable++;
+        }
+        if (equalIndexable >= keyDepth || hasUnification(constraints)) {
+            return;
+        }
+        for (int i = equalIndexable; i < constraints.length; i++) {
+            if (isCompositeRangeIndexable(constraints[i], nodeType, config)) {
+                swap(constraints, i, equalIndexable);
+                indexable[equalIndexable] = true;
+                return;
+            }
+        }
+    }
+
+    private static boolean isCompositeRangeIndexable(BetaNodeFieldConstraint constraint, short nodeType, RuleBaseConfiguration config) {
+        return constraint instanceof IndexableConstraint &&
+               ((IndexableConstraint)constraint).getConstraintType().isComparison() &&
+               isIndexable(constraint, nodeType, config);
+    }
+
+    private static boolean hasUnification(BetaNodeFieldConstraint[] constraints) {
+        for (BetaNodeFieldConstraint constraint : constraints) {
+            if (constraint instanceof IndexableConstraint && ((IndexableConstraint) constraint).isUnification()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static boolean isEqualIndexable(BetaNodeFieldConstraint constraint) {
         return constraint instanceof IndexableConstraint && ((IndexableConstraint)constraint).getConstraintType() == ConstraintType.EQUAL;
     }
@@ -363,7 +401,9 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.EQUAL) {
-                return new TupleIndexHashTable( indexSpec.indexes, false );
+                return indexSpec.rangeIndex != null ?
+                       new TupleIndexHashRBTree( indexSpec.indexes, indexSpec.rangeConstraintType, indexSpec.rangeIndex, false ) :
+                       createEqualityIndex( indexSpec.indexes, false );
             }
 
             if (indexSpec.constraintType.isComparison()) {
@@ -382,7 +422,9 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.EQUAL) {
-                return new TupleIndexHashTable( indexSpec.indexes, true );
+                return indexSpec.rangeIndex != null ?
+                       new TupleIndexHashRBTree( indexSpec.indexes, indexSpec.rangeConstraintType, indexSpec.rangeIndex, true ) :
+                       createEqualityIndex( indexSpec.indexes, true );
             }
 
             if (indexSpec.constraintType.isComparison()) {
@@ -392,6 +434,23 @@ public class IndexUtil {
             return new TupleList();
         }
 
+        private static TupleMemory createEqualityIndex(FieldIndex[] indexes, boolean left) {
+            // a single key of the same primitive type on both sides can be indexed without boxing it
+            if (indexes.length == 1 && !indexes[0].requiresCoercion()) {
+                ValueType valueType = indexes[0].getRightExtractor().getValueType();
+                if (valueType == ValueType.PINTEGER_TYPE) {
+                    return new TupleIndexIntHashTable( indexes[0], left );
+                }
+                if (valueType == ValueType.PLONG_TYPE) {
+                    return new TupleIndexLongHashTable( indexes[0], left );
+                }
+                if (valueType == ValueType.PDOUBLE_TYPE) {
+                    return new TupleIndexDoubleHashTable( indexes[0], left );
+                }
+            }
+            return new TupleIndexHashTable( indexes, left );
+        }
+
         public static ContextEntry[] createContext(BetaNodeFieldConstraint... constraints) {
             ContextEntry[] entries = new ContextEntry[constraints.length];
             for (int i = 0; i < constraints.length; i++) {
@@ -403,6 +462,8 @@ public class IndexUtil {
         private static class IndexSpec {
             private ConstraintType constraintType = ConstraintType.UNKNOWN;
             private FieldIndex[] indexes;
+            private ConstraintType rangeConstraintType;
+            private FieldIndex rangeIndex;
 
             private IndexSpec(short nodeType, BetaNodeFieldConstraint[] constraints, RuleBaseConfiguration config) {
                 init(nodeType, constraints, config);
@@ -427,6 +488,17 @@ public class IndexUtil {
                     }
                     indexes = indexList.toArray(new FieldIndex[indexList.size()]);
 
+                    // look for a comparison constraint to be indexed together with the EQUAL ones
+                    if (indexList.size() < keyDepth && !hasUnification(constraints)) {
+                        for (BetaNodeFieldConstraint constraint : constraints) {
+                            if (isCompositeRangeIndexable(constraint, nodeType, config)) {
+                                rangeConstraintType = ((IndexableConstraint) constraint).getConstraintType();
+                                rangeIndex = ((IndexableConstraint) constraint).getFieldIndex();
+                                break;
+                            }
+                        }
+                    }
+
                 } else if (constraintType.isComparison()) {
                     // look for a dual constraint to create a range index
                     indexes = new FieldIndex[]{ ((IndexableConstraint)constraints[firstIndexableConstraint]).getFieldIndex() };
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util.index;
+
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.util.AbstractHashTable.FieldIndex;
+
+/**
+ * Equality index for a join on a key of type double. The keys are compared through their
+ * bit representation, consistently with {@link Double#equals(Object)} used by the boxed index.
+ */
+public class TupleIndexDoubleHashTable extends AbstractTupleIndexPrimitiveHashTable {
+
+    public TupleIndexDoubleHashTable( FieldIndex fieldIndex, boolean left ) {
+        super( fieldIndex, left );
+    }
+
+    @Override
+    protected long leftKeyOf( Tuple tuple ) {
+        return Double.doubleToLongBits( fieldIndex.getLeftExtractor().getDoubleValue( tuple ) );
+    }
+
+    @Override
+    protected long rightKeyOf( Tuple tuple ) {
+        return Double.doubleToLongBits( fieldIndex.getRightExtractor().getDoubleValue( null, tuple.getFactHandle().getObject() ) );
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util.index;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.AbstractHashTable.HashEntry;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.Entry;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.Iterator;
+
+/**
+ * Composite index for beta nodes having both equality and comparison constraints, like
+ * <code>Order( customerId == $c.id, amount &gt; $c.limit )</code>. The tuples are hashed on the
+ * equality fields, exactly as in {@link TupleIndexHashTable}, and each bucket is a {@link TupleIndexRBTree}
+ * sorted on the field of the comparison constraint, so a lookup only visits the tuples that satisfy both.
+ *
+ * Each node of the trees keeps the {@link HashEntry} of its bucket as context, so that a tuple can
+ * be removed even if the values of its equality fields have been changed in the meanwhile.
+ */
+public class TupleIndexHashRBTree implements Externalizable, TupleMemory {
+
+    private Map<HashEntry, TupleIndexRBTree> buckets;
+
+    private Index index;
+
+    private FieldIndex rangeIndex;
+    private IndexUtil.ConstraintType constraintType;
+
+    private int size;
+
+    private boolean left;
+
+    public TupleIndexHashRBTree() {
+        // constructor for serialisation
+    }
+
+    public TupleIndexHashRBTree( FieldIndex[] equalityIndexes, IndexUtil.ConstraintType constraintType, FieldIndex rangeIndex, boolean left ) {
+        this.index = TupleIndexHashTable.createIndex( equalityIndexes, TupleIndexHashTable.startResultOf( equalityIndexes ) );
+        this.constraintType = constraintType;
+        this.rangeIndex = rangeIndex;
+        this.left = left;
+        this.buckets = new HashMap<>();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject( buckets );
+        out.writeObject( index );
+        out.writeObject( rangeIndex );
+        out.writeObject( constraintType );
+        out.writeInt( size );
+        out.writeBoolean( left );
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        buckets = (Map<HashEntry, TupleIndexRBTree>) in.readObject();
+        index = (Index) in.readObject();
+        rangeIndex = (FieldIndex) in.readObject();
+        constraintType = (IndexUtil.ConstraintType) in.readObject();
+        size = in.readInt();
+        left = in.readBoolean();
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public FieldIndex getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public IndexUtil.ConstraintType getConstraintType() {
+        return constraintType;
+    }
+
+    public void add(Tuple tuple) {
+        HashEntry hashEntry = index.hashCodeOf( tuple, left );
+        TupleIndexRBTree bucket = buckets.get( hashEntry );
+        if (bucket == null) {
+            bucket = new TupleIndexRBTree( constraintType, rangeIndex, left );
+            buckets.put( hashEntry, bucket );
+        }
+        bucket.add( tuple );
+        tuple.getMemory().setContext( hashEntry );
+        size++;
+    }
+
+    public void remove(Tuple tuple) {
+        HashEntry hashEntry = (HashEntry) tuple.getMemory().getContext();
+        TupleIndexRBTree bucket = buckets.get( hashEntry );
+        bucket.remove( tuple );
+        if (bucket.size() == 0) {
+            buckets.remove( hashEntry );
+        }
+        size--;
+    }
+
+    public void removeAdd(Tuple tuple) {
+        remove(tuple);
+        add(tuple);
+    }
+
+    public boolean isIndexed() {
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Entry[] toArray() {
+        List<Tuple> result = new ArrayList<>( size );
+        for (TupleIndexRBTree bucket : buckets.values()) {
+            for (Tuple tuple = bucket.getFirstInOrder(); tuple != null; tuple = bucket.getNextInOrder( tuple )) {
+                result.add( tuple );
+            }
+        }
+        return result.toArray( new Tuple[result.size()] );
+    }
+
+    public Tuple getFirst(Tuple rightTuple) {
+        TupleIndexRBTree bucket = buckets.get( index.hashCodeOf( rightTuple, !left ) );
+        return bucket != null ? bucket.getFirst( rightTuple ) : null;
+    }
+
+    public boolean contains(Tuple tuple) {
+        TupleIndexRBTree bucket = buckets.get( index.hashCodeOf( tuple, left ) );
+        return bucket != null && bucket.contains( tuple );
+    }
+
+    public Iterator<Tuple> iterator() {
+        FastIterator it = fullFastIterator();
+        return new FastIterator.IteratorAdapter( it, (Tuple) it.next( null ) );
+    }
+
+    public FastIterator fastIterator() {
+        return new BucketFastIterator();
+    }
+
+    public FastIterator fullFastIterator() {
+        return new FullFastIterator();
+    }
+
+    public FastIterator fullFastIterator(Tuple tuple) {
+        FullFastIterator fastIterator = new FullFastIterator();
+        fastIterator.resume( tuple );
+        return fastIterator;
+    }
+
+    private TupleIndexRBTree bucketOf(Tuple tuple) {
+        return buckets.get( (HashEntry) tuple.getMemory().getContext() );
+    }
+
+    /**
+     * Iterates the tuples of a single bucket, following the order of its comparison constraint
+     */
+    private class BucketFastIterator implements FastIterator {
+        public Entry next(Entry object) {
+            return object == null ? null : bucketOf( (Tuple) object ).getNext( (Tuple) object );
+        }
+
+        public boolean isFullIterator() {
+            return false;
+        }
+    }
+
+    /**
+     * Iterates all the tuples, one bucket after the other
+     */
+    private class FullFastIterator implements FastIterator {
+        private final TupleIndexRBTree[] snapshot = buckets.values().toArray( new TupleIndexRBTree[buckets.size()] );
+        private int row;
+
+        private void resume(Tuple tuple) {
+            TupleIndexRBTree bucket = bucketOf( tuple );
+            while (row < snapshot.length && snapshot[row] != bucket) {
+                row++;
+            }
+        }
+
+        public Entry next(Entry object) {
+            Tuple next = null;
+            if (object != null) {
+                next = snapshot[row].getNextInOrder( (Tuple) object );
+                if (next != null) {
+                    return next;
+                }
+                row++;
+            }
+            for (; row < snapshot.length; row++) {
+                next = snapshot[row].getFirstInOrder();
+                if (next != null) {
+                    return next;
+                }
+            }
+            return null;
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
+
+    public void clear() {
+        buckets.clear();
+        size = 0;
+    }
+
+    public IndexType getIndexType() {
+        return IndexType.COMPARISON;
+    }
+}
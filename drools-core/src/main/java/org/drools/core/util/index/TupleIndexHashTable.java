@@ -63,26 +63,31 @@ public class TupleIndexHashTable extends AbstractHashTable implements TupleMemor
 
         this.left = left;
 
-        this.startResult = PRIME;
+        this.startResult = startResultOf( index );
+        this.index = createIndex( index, this.startResult );
+    }
+
+    static int startResultOf( FieldIndex[] index ) {
+        int startResult = PRIME;
         for ( FieldIndex i : index ) {
-            this.startResult += PRIME * this.startResult + i.getRightExtractor().getIndex();
+            startResult += PRIME * startResult + i.getRightExtractor().getIndex();
         }
+        return startResult;
+    }
 
+    static Index createIndex( FieldIndex[] index, int startResult ) {
         switch ( index.length ) {
             case 0 :
                 throw new IllegalArgumentException( "FieldIndexHashTable cannot use an index[] of length  0" );
             case 1 :
-                this.index = new SingleIndex( index,
-                                              this.startResult );
-                break;
+                return new SingleIndex( index,
+                                        startResult );
             case 2 :
-                this.index = new DoubleCompositeIndex( index,
-                                                       this.startResult );
-                break;
+                return new DoubleCompositeIndex( index,
+                                                 startResult );
             case 3 :
-                this.index = new TripleCompositeIndex( index,
-                                                       this.startResult );
-                break;
+                return new TripleCompositeIndex( index,
+                                                 startResult );
             default :
                 throw new IllegalArgumentException( "FieldIndexHashTable cannot use an index[] of length  great than 3" );
         }
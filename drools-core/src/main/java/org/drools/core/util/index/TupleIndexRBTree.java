@@ -227,19 +227,46 @@ public class TupleIndexRBTree implements Externalizable, TupleMemory {
         return key;
     }
 
+    Tuple getNext(Tuple tuple) {
+        Tuple next = (Tuple) tuple.getNext();
+        if (next != null) {
+            return next;
+        }
+        Comparable key = getLeftIndexedValue( tuple );
+        return getNext(key, false);
+    }
+
+    /**
+     * Returns the first tuple of this tree in ascending key order, regardless of the constraint type.
+     */
+    Tuple getFirstInOrder() {
+        if (tree.nullNode != null && tree.nullNode.getFirst() != null) {
+            return tree.nullNode.getFirst();
+        }
+        Node<Comparable<Comparable>> firstNode = tree.first();
+        return firstNode == null ? null : firstNode.getFirst();
+    }
+
+    /**
+     * Returns the tuple following the given one in ascending key order, regardless of the constraint type.
+     */
+    Tuple getNextInOrder(Tuple tuple) {
+        Tuple next = (Tuple) tuple.getNext();
+        if (next != null) {
+            return next;
+        }
+        Node<Comparable<Comparable>> node = (Node<Comparable<Comparable>>) tuple.getMemory();
+        Node<Comparable<Comparable>> nextNode = node.key == null ? tree.first() : tree.findNearestNode(node.key, false, Boundary.LOWER);
+        return nextNode == null ? null : nextNode.getFirst();
+    }
+
     public class TupleFastIterator implements FastIterator {
         public Entry next(Entry object) {
             if (object == null) {
                 Node<Comparable<Comparable>> firstNode = tree.first();
                 return firstNode == null ? null : firstNode.getFirst();
             }
-            Tuple tuple = (Tuple) object;
-            Tuple next = (Tuple) tuple.getNext();
-            if (next != null) {
-                return next;
-            }
-            Comparable key = getLeftIndexedValue( tuple );
-            return getNext(key, false);
+            return getNext( (Tuple) object );
         }
 
         public boolean isFullIterator() {
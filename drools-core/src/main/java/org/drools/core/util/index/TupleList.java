@@ -58,6 +58,10 @@ public class TupleList<C> implements TupleMemory, Entry<TupleList<C>>, Serializa
         return context;
     }
 
+    public void setContext(C context) {
+        this.context = context;
+    }
+
     public boolean isEmpty() {
         return size == 0;
     }
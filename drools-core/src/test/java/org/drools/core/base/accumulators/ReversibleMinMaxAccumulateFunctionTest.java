@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.base.accumulators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.drools.core.base.accumulators.AbstractReversibleMinMaxAccumulateFunction.MinMaxData;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReversibleMinMaxAccumulateFunctionTest {
+
+    @Test
+    public void testReverseCurrentMinimum() {
+        PrimitiveIntMinAccumulateFunction function = new PrimitiveIntMinAccumulateFunction();
+        MinMaxData data = function.createContext();
+        function.init(data);
+        assertThat(function.getResult(data)).isNull();
+
+        function.accumulate(data, 5);
+        function.accumulate(data, 3);
+        function.accumulate(data, 3);
+        function.accumulate(data, 8);
+        assertThat(function.getResult(data)).isEqualTo(3);
+
+        assertThat(function.tryReverse(data, 3)).isTrue();
+        assertThat(function.getResult(data)).isEqualTo(3);
+        assertThat(function.tryReverse(data, 3)).isTrue();
+        assertThat(function.getResult(data)).isEqualTo(5);
+        function.reverse(data, 5);
+        function.reverse(data, 8);
+        assertThat(function.getResult(data)).isNull();
+    }
+
+    @Test
+    public void testDoubleOrdering() {
+        PrimitiveDoubleMaxAccumulateFunction max = new PrimitiveDoubleMaxAccumulateFunction();
+        PrimitiveDoubleMinAccumulateFunction min = new PrimitiveDoubleMinAccumulateFunction();
+        MinMaxData maxData = max.createContext();
+        MinMaxData minData = min.createContext();
+        for (double value : new double[] { -1.5, 0.0, -0.0, 2.25, -1e300, Double.MIN_VALUE }) {
+            max.accumulate(maxData, value);
+            min.accumulate(minData, value);
+        }
+        assertThat(max.getResult(maxData)).isEqualTo(2.25);
+        assertThat(min.getResult(minData)).isEqualTo(-1e300);
+
+        max.reverse(maxData, 2.25);
+        min.reverse(minData, -1e300);
+        assertThat(max.getResult(maxData)).isEqualTo(Double.MIN_VALUE);
+        assertThat(min.getResult(minData)).isEqualTo(-1.5);
+    }
+
+    @Test
+    public void testRandomAccumulateAndReverse() throws Exception {
+        Random random = new Random(0);
+        PrimitiveLongMaxAccumulateFunction function = new PrimitiveLongMaxAccumulateFunction();
+        MinMaxData data = function.createContext();
+        function.init(data);
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        List<Long> accumulated = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            if (accumulated.isEmpty() || random.nextInt(3) > 0) {
+                long value = random.nextInt(1000) - 500;
+                function.accumulate(data, value);
+                accumulated.add(value);
+                expected.merge(value, 1, Integer::sum);
+            } else {
+                Long value = accumulated.remove(random.nextInt(accumulated.size()));
+                function.reverse(data, value);
+                expected.computeIfPresent(value, (k, c) -> c == 1 ? null : c - 1);
+            }
+            assertThat(function.getResult(data)).isEqualTo(expected.isEmpty() ? null : expected.lastKey());
+        }
+
+        MinMaxData copy = serializeAndDeserialize(data);
+        while (!accumulated.isEmpty()) {
+            Long value = accumulated.remove(accumulated.size() - 1);
+            function.reverse(copy, value);
+            expected.computeIfPresent(value, (k, c) -> c == 1 ? null : c - 1);
+            assertThat(function.getResult(copy)).isEqualTo(expected.isEmpty() ? null : expected.lastKey());
+        }
+    }
+
+    private static MinMaxData serializeAndDeserialize(MinMaxData data) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(data);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (MinMaxData) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.common.ClassAwareObjectStore;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.FlatObjectStore;
+import org.drools.core.common.IdentityObjectStore;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ObjectStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the stores keeping the facts of an entry point: the time needed to fill them and
+ * the pause of a full collection while a filled store is alive. The heap retained by the
+ * filled store is printed at the beginning of each trial.
+ */
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ObjectStoreBenchmark {
+
+    public enum StoreType {
+        CLASS_AWARE, IDENTITY, FLAT;
+
+        ObjectStore create() {
+            switch (this) {
+                case CLASS_AWARE:
+                    return new ClassAwareObjectStore(false, new ReentrantLock());
+                case IDENTITY:
+                    return new IdentityObjectStore();
+                default:
+                    return new FlatObjectStore(false, new ReentrantLock());
+            }
+        }
+    }
+
+    @Param({"1000000", "5000000"})
+    private int facts;
+
+    @Param({"CLASS_AWARE", "IDENTITY", "FLAT"})
+    private StoreType type;
+
+    private InternalFactHandle[] handles;
+
+    private ObjectStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        handles = new InternalFactHandle[facts];
+        for (int i = 0; i < facts; i++) {
+            handles[i] = new DefaultFactHandle(i, new Fact(i));
+        }
+
+        long before = usedHeap();
+        store = fill();
+        long retained = usedHeap() - before;
+        System.out.printf("%n%s store of %,d facts retains %,d bytes of heap%n", type, facts, retained);
+    }
+
+    @Benchmark
+    public ObjectStore fill() {
+        ObjectStore objectStore = type.create();
+        for (InternalFactHandle handle : handles) {
+            objectStore.addHandle(handle, handle.getObject());
+        }
+        return objectStore;
+    }
+
+    @Benchmark
+    public void fullGc() {
+        // the filled store is kept alive by this state, so it has to be traversed by each collection
+        System.gc();
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static class Fact {
+
+        private final int value;
+
+        public Fact(int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.phreak.LockFreePropagationList;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.phreak.PropagationList;
+import org.drools.core.phreak.SynchronizedPropagationList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time needed by a single consumer to drain the entries concurrently
+ * added by an increasing number of producer threads.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PropagationListBenchmark {
+
+    public enum ListType {
+        SYNCHRONIZED, LOCK_FREE;
+
+        PropagationList create() {
+            return this == SYNCHRONIZED ? new SynchronizedPropagationList(null) : new LockFreePropagationList(null);
+        }
+    }
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    private int producers;
+
+    @Param({"100000"})
+    private int entries;
+
+    @Param({"SYNCHRONIZED", "LOCK_FREE"})
+    private ListType type;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(producers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int produceAndDrain() throws InterruptedException {
+        PropagationList propagationList = type.create();
+        AtomicInteger executed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers);
+
+        int entriesPerProducer = entries / producers;
+        for (int i = 0; i < producers; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < entriesPerProducer; j++) {
+                    propagationList.addEntry(new CountingEntry(executed));
+                }
+                done.countDown();
+            });
+        }
+
+        while (done.getCount() > 0) {
+            propagationList.flush();
+        }
+        propagationList.flush();
+        return executed.get();
+    }
+
+    private static class CountingEntry extends PropagationEntry.AbstractPropagationEntry {
+
+        private final AtomicInteger executed;
+
+        private CountingEntry(AtomicInteger executed) {
+            this.executed = executed;
+        }
+
+        @Override
+        public void execute(ReteEvaluator reteEvaluator) {
+            executed.lazySet(executed.get() + 1);
+        }
+    }
+}
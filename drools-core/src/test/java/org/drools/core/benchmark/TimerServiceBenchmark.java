@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.impl.JDKTimerService;
+import org.drools.core.time.impl.PointInTimeTrigger;
+import org.drools.core.time.impl.PseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelPseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelTimerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the timer services when a large number of timers is pending: the time needed to
+ * schedule and then cancel all of them, as it happens for the expiration of events in a long
+ * window, and, for the pseudo clocks, the time needed to schedule and fire all of them.
+ */
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TimerServiceBenchmark {
+
+    public enum ServiceType {
+        JDK, TIMING_WHEEL, PSEUDO, TIMING_WHEEL_PSEUDO;
+
+        TimerService create() {
+            switch (this) {
+                case JDK:
+                    return new JDKTimerService();
+                case TIMING_WHEEL:
+                    return new TimingWheelTimerService();
+                case PSEUDO:
+                    return new PseudoClockScheduler();
+                default:
+                    return new TimingWheelPseudoClockScheduler();
+            }
+        }
+
+        boolean isPseudo() {
+            return this == PSEUDO || this == TIMING_WHEEL_PSEUDO;
+        }
+    }
+
+    @Param({"1000000"})
+    private int timers;
+
+    @Param({"JDK", "TIMING_WHEEL", "PSEUDO", "TIMING_WHEEL_PSEUDO"})
+    private ServiceType type;
+
+    private long[] delays;
+
+    private JobHandle[] handles;
+
+    private TimerService timerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(0);
+        delays = new long[timers];
+        for (int i = 0; i < timers; i++) {
+            // between one minute and one hour, so that no timer of a realtime service expires during the benchmark
+            delays[i] = TimeUnit.MINUTES.toMillis(1) + random.nextInt((int) TimeUnit.MINUTES.toMillis(59));
+        }
+        handles = new JobHandle[timers];
+    }
+
+    @Setup(Level.Iteration)
+    public void createService() {
+        timerService = type.create();
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutdownService() {
+        timerService.shutdown();
+    }
+
+    @Benchmark
+    public int scheduleAndCancel() {
+        long now = timerService.getCurrentTime();
+        for (int i = 0; i < timers; i++) {
+            handles[i] = timerService.scheduleJob(NoOpJob.INSTANCE, new NoOpJobContext(), new PointInTimeTrigger(now + delays[i]));
+        }
+        int removed = 0;
+        for (int i = 0; i < timers; i++) {
+            if (timerService.removeJob(handles[i])) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public long scheduleAndFire() {
+        if (!type.isPseudo()) {
+            return 0;
+        }
+        PseudoClockScheduler scheduler = (PseudoClockScheduler) timerService;
+        long now = scheduler.getCurrentTime();
+        for (int i = 0; i < timers; i++) {
+            scheduler.scheduleJob(NoOpJob.INSTANCE, new NoOpJobContext(), new PointInTimeTrigger(now + delays[i]));
+        }
+        return scheduler.advanceTime(1, TimeUnit.HOURS);
+    }
+
+    public static class NoOpJob implements Job {
+
+        static final NoOpJob INSTANCE = new NoOpJob();
+
+        public void execute(JobContext ctx) {
+        }
+    }
+
+    public static class NoOpJobContext implements JobContext {
+
+        private JobHandle jobHandle;
+
+        public void setJobHandle(JobHandle jobHandle) {
+            this.jobHandle = jobHandle;
+        }
+
+        public JobHandle getJobHandle() {
+            return jobHandle;
+        }
+
+        public ReteEvaluator getReteEvaluator() {
+            return null;
+        }
+    }
+}
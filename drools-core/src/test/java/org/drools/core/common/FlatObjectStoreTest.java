@@ -0,0 +1,260 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class FlatObjectStoreTest {
+
+    private final boolean isEqualityBehaviour;
+    private final FlatObjectStore underTest;
+
+    private long factCounter;
+
+    public FlatObjectStoreTest(boolean isEqualityBehaviour) {
+        this.isEqualityBehaviour = isEqualityBehaviour;
+        this.underTest = new FlatObjectStore(isEqualityBehaviour, new ReentrantLock());
+    }
+
+    @Parameterized.Parameters(name = "equality={0}")
+    public static Collection<Object[]> ruleBaseConfigurations() {
+        List<Object[]> configurations = new ArrayList<>(2);
+        configurations.add(new Object[]{true});
+        configurations.add(new Object[]{false});
+        return configurations;
+    }
+
+    @Test
+    public void addGetAndRemoveHandlesGrowingTheStore() {
+        List<InternalFactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            handles.add(insert(new Key(i)));
+        }
+        assertThat(underTest.size()).isEqualTo(10_000);
+
+        for (InternalFactHandle handle : handles) {
+            assertThat(underTest.getHandleForObject(handle.getObject())).isSameAs(handle);
+            assertThat(underTest.getHandleForObjectIdentity(handle.getObject())).isSameAs(handle);
+        }
+
+        // removing every other handle shifts back the following entries of each run
+        for (int i = 0; i < handles.size(); i += 2) {
+            underTest.removeHandle(handles.get(i));
+        }
+        assertThat(underTest.size()).isEqualTo(5_000);
+        for (int i = 0; i < handles.size(); i++) {
+            InternalFactHandle handle = handles.get(i);
+            assertThat(underTest.getHandleForObject(handle.getObject())).isSameAs(i % 2 == 0 ? null : handle);
+        }
+        assertThat(collect(underTest.iterateFactHandles())).hasSize(5_000).doesNotContainNull();
+    }
+
+    @Test
+    public void getHandleForObjectFollowsAssertBehaviour() {
+        InternalFactHandle handle = insert(new Key(1));
+
+        InternalFactHandle equalHandle = underTest.getHandleForObject(new Key(1));
+        if (isEqualityBehaviour) {
+            assertThat(equalHandle).isSameAs(handle);
+        } else {
+            assertThat(equalHandle).isNull();
+        }
+        assertThat(underTest.getHandleForObjectIdentity(new Key(1))).isNull();
+    }
+
+    @Test
+    public void removeHandleAfterTheHashCodeOfTheFactChanged() {
+        Key key = new Key(1);
+        InternalFactHandle handle = new DefaultFactHandle(factCounter++, key);
+        underTest.addHandle(handle, key);
+        for (int i = 2; i < 100; i++) {
+            insert(new Key(i));
+        }
+
+        key.value = 1000;
+        // simulates a handle that didn't cache the hash code of its fact
+        ((DefaultFactHandle) handle).setObjectHashCode(0);
+
+        assertThat(underTest.getHandleForObjectIdentity(key)).isSameAs(handle);
+        underTest.removeHandle(handle);
+        assertThat(underTest.size()).isEqualTo(98);
+        assertThat(collect(underTest.iterateObjects())).doesNotContain(key);
+    }
+
+    @Test
+    public void reconnectAfterTheHashCodeOfTheFactChanged() {
+        Key key = new Key(1);
+        InternalFactHandle handle = insert(key);
+        for (int i = 2; i < 10_000; i++) {
+            insert(new Key(i));
+        }
+
+        key.value = 20_000;
+        InternalFactHandle disconnected = handle.clone();
+        disconnected.disconnect();
+        ((DefaultFactHandle) disconnected).setObjectHashCode(0);
+
+        assertThat(underTest.reconnect(disconnected)).isSameAs(handle);
+        assertThat(underTest.getHandleForObjectIdentity(key)).isSameAs(handle);
+        underTest.updateHandle(handle, key);
+        assertThat(underTest.size()).isEqualTo(9_999);
+        assertThat(underTest.getHandleForObject(key)).isSameAs(handle);
+    }
+
+    @Test
+    public void updateHandleReplacesTheFact() {
+        InternalFactHandle handle = insert(new Key(1));
+
+        Key newKey = new Key(2);
+        underTest.updateHandle(handle, newKey);
+
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(handle.getObject()).isSameAs(newKey);
+        assertThat(underTest.getHandleForObject(newKey)).isSameAs(handle);
+    }
+
+    @Test
+    public void reconnectFindsTheHandleWithTheSameId() {
+        InternalFactHandle handle = insert(new Key(1));
+        insert(new Key(2));
+
+        InternalFactHandle disconnected = handle.clone();
+        disconnected.disconnect();
+
+        assertThat(underTest.reconnect(disconnected)).isSameAs(handle);
+        assertThat(underTest.getObjectForHandle(disconnected)).isSameAs(handle.getObject());
+        assertThat(underTest.reconnect(new DefaultFactHandle(factCounter++, new Key(1)))).isNull();
+    }
+
+    @Test
+    public void iterateAndClearByClass() {
+        insert(new Key(1));
+        insert(new SubKey(2));
+        insert("a string");
+
+        assertThat(collect(underTest.iterateObjects())).hasSize(3);
+        assertThat(collect(underTest.getStoreForClass(Key.class).iterator())).hasSize(2);
+        assertThat(collect(underTest.iterateFactHandles(SubKey.class))).hasSize(1);
+        assertThat(collect(underTest.iterateObjects(String.class::isInstance))).containsExactly("a string");
+
+        assertThat(underTest.clearClassStore(Key.class)).isTrue();
+        assertThat(collect(underTest.iterateObjects())).containsExactly("a string");
+
+        underTest.clear();
+        assertThat(underTest.isEmpty()).isTrue();
+        assertThat(collect(underTest.iterateObjects())).isEmpty();
+    }
+
+    @Test
+    public void storeForClassFollowsUpdatesAndRemovals() {
+        List<InternalFactHandle> keys = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            keys.add(insert(new Key(i)));
+            insert(new SubKey(i));
+        }
+        assertThat(collect(underTest.getStoreForClass(Key.class).iterator())).hasSize(2_000);
+        assertThat(collect(underTest.getStoreForClass(SubKey.class).iterator())).hasSize(1_000);
+
+        for (int i = 0; i < keys.size(); i += 2) {
+            underTest.removeHandle(keys.get(i));
+        }
+        InternalFactHandle updated = keys.get(1);
+        underTest.updateHandle(updated, "now a string");
+
+        assertThat(collect(underTest.getStoreForClass(Key.class).iterator())).hasSize(1_499).doesNotContain(updated);
+        assertThat(collect(underTest.getStoreForClass(String.class).iterator())).containsExactly(updated);
+        assertThat(collect(underTest.getStoreForClass(Object.class).iterator())).hasSize(underTest.size());
+        assertThat(collect(underTest.getStoreForClass(Integer.class).iterator())).isEmpty();
+
+        assertThat(underTest.clearClassStore(SubKey.class)).isTrue();
+        assertThat(underTest.size()).isEqualTo(500);
+        assertThat(collect(underTest.getStoreForClass(Key.class).iterator())).hasSize(499);
+        assertThat(underTest.clearClassStore(SubKey.class)).isFalse();
+    }
+
+    @Test
+    public void removeHandlesWhileIterating() {
+        for (int i = 0; i < 10_000; i++) {
+            insert(new Key(i));
+            insert(new SubKey(i));
+        }
+
+        // each removal shifts back the following entries of its run, which must neither be skipped nor visited twice
+        int visited = 0;
+        for (Iterator<InternalFactHandle> it = underTest.getStoreForClass(SubKey.class).iterator(); it.hasNext(); visited++) {
+            underTest.removeHandle(it.next());
+        }
+        assertThat(visited).isEqualTo(10_000);
+
+        visited = 0;
+        for (Iterator<InternalFactHandle> it = underTest.iterateFactHandles(); it.hasNext(); visited++) {
+            underTest.removeHandle(it.next());
+        }
+        assertThat(visited).isEqualTo(10_000);
+        assertThat(underTest.isEmpty()).isTrue();
+        assertThat(underTest.getHandleForObject(new Key(1))).isNull();
+    }
+
+    private InternalFactHandle insert(Object object) {
+        InternalFactHandle handle = new DefaultFactHandle(factCounter++, object);
+        underTest.addHandle(handle, object);
+        return handle;
+    }
+
+    private static <T> Collection<T> collect(Iterator<T> objects) {
+        List<T> result = new ArrayList<>();
+        objects.forEachRemaining(result::add);
+        return result;
+    }
+
+    private static class Key {
+        private int value;
+
+        private Key(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value);
+        }
+    }
+
+    private static class SubKey extends Key {
+        private SubKey(int value) {
+            super(value);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.ReteEvaluator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockFreePropagationListTest {
+
+    @Test
+    public void testFlushInInsertionOrder() {
+        List<Integer> executed = new ArrayList<>();
+        PropagationList propagationList = new LockFreePropagationList(null);
+        for (int i = 0; i < 10; i++) {
+            propagationList.addEntry(new TestEntry(executed, i));
+        }
+
+        List<Integer> iterated = new ArrayList<>();
+        propagationList.iterator().forEachRemaining(e -> iterated.add(((TestEntry) e).value));
+        assertThat(iterated).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        assertThat(propagationList.isEmpty()).isFalse();
+        propagationList.flush();
+        assertThat(propagationList.isEmpty()).isTrue();
+        assertThat(executed).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void testDeferringExpirationFlagIsResetOnTakeAll() {
+        PropagationList propagationList = new LockFreePropagationList(null);
+        propagationList.addEntry(new TestEntry(new ArrayList<>(), 0) {
+            @Override
+            public boolean defersExpiration() {
+                return true;
+            }
+        });
+        assertThat(propagationList.hasEntriesDeferringExpiration()).isTrue();
+        assertThat(propagationList.takeAll()).isNotNull();
+        assertThat(propagationList.hasEntriesDeferringExpiration()).isFalse();
+        assertThat(propagationList.takeAll()).isNull();
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentProducersKeepPerThreadOrder() throws Exception {
+        final int producers = 8;
+        final int entriesPerProducer = 100_000;
+
+        PropagationList propagationList = new LockFreePropagationList(null);
+        int[] counters = new int[producers];
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < producers; i++) {
+                final int producer = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < entriesPerProducer; j++) {
+                        propagationList.addEntry(new OrderCheckingEntry(counters, producer, j));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            while (!allDone(futures)) {
+                propagationList.flush();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            propagationList.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int counter : counters) {
+            assertThat(counter).isEqualTo(entriesPerProducer);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testAddEntryWakesUpWaitingConsumer() throws Exception {
+        LockFreePropagationList propagationList = new LockFreePropagationList(null);
+        propagationList.setFiringUntilHalt(true);
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        List<Integer> executed = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            PropagationEntry head = propagationList.takeAllOrWaitOnRest(() -> {
+                waiting.countDown();
+                return true;
+            });
+            propagationList.flush(head);
+        });
+        consumer.start();
+
+        assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+        propagationList.addEntry(new TestEntry(executed, 1));
+        consumer.join();
+
+        assertThat(executed).containsExactly(1);
+    }
+
+    @Test(timeout = 20000)
+    public void testIterateWhileConsumerTakesAll() throws Exception {
+        final int entries = 200_000;
+
+        PropagationList propagationList = new LockFreePropagationList(null);
+        List<Integer> executed = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> producer = executor.submit(() -> {
+                for (int i = 0; i < entries; i++) {
+                    propagationList.addEntry(new TestEntry(executed, i));
+                }
+            });
+            Future<?> consumer = executor.submit(() -> {
+                while (!producer.isDone()) {
+                    propagationList.flush();
+                }
+                propagationList.flush();
+            });
+
+            while (!consumer.isDone()) {
+                int previous = -1;
+                for (Iterator<PropagationEntry> it = propagationList.iterator(); it.hasNext();) {
+                    int value = ((TestEntry) it.next()).value;
+                    assertThat(value).isGreaterThan(previous);
+                    previous = value;
+                }
+            }
+            producer.get();
+            consumer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executed).hasSize(entries);
+    }
+
+    private static boolean allDone(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static class TestEntry extends PropagationEntry.AbstractPropagationEntry {
+
+        private final List<Integer> executed;
+        private final int value;
+
+        public TestEntry(List<Integer> executed, int value) {
+            this.executed = executed;
+            this.value = value;
+        }
+
+        @Override
+        public void execute(ReteEvaluator reteEvaluator) {
+            executed.add(value);
+        }
+    }
+
+    public static class OrderCheckingEntry extends PropagationEntry.AbstractPropagationEntry {
+
+        private final int[] counters;
+        private final int producer;
+        private final int sequence;
+
+        public OrderCheckingEntry(int[] counters, int producer, int sequence) {
+            this.counters = counters;
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void execute(ReteEvaluator reteEvaluator) {
+            if (counters[producer] != sequence) {
+                throw new IllegalStateException("Expected entry " + counters[producer] + " of producer " + producer + " but was " + sequence);
+            }
+            counters[producer]++;
+        }
+    }
+}
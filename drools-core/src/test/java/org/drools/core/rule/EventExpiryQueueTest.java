@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.rule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.rule.SlidingTimeWindow.SlidingTimeWindowContext;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class EventExpiryQueueTest {
+
+    @Test
+    public void testOrderedByTimestampThenArrival() {
+        EventExpiryQueue queue = new EventExpiryQueue();
+        SlidingTimeWindowContext owner = new SlidingTimeWindowContext();
+        EventFactHandle h1 = handle(1, 100);
+        EventFactHandle h2 = handle(2, 50);
+        EventFactHandle h3 = handle(3, 100);
+        EventFactHandle h4 = handle(4, 10);
+        queue.add(h1, owner);
+        queue.add(h2, owner);
+        queue.add(h3, owner);
+        queue.add(h4, owner);
+
+        assertThat(pollAll(queue)).containsExactly(h4, h2, h1, h3);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testRemoveByOwner() {
+        EventExpiryQueue queue = new EventExpiryQueue();
+        SlidingTimeWindowContext first = new SlidingTimeWindowContext();
+        SlidingTimeWindowContext second = new SlidingTimeWindowContext();
+        first.shareQueue(queue);
+        second.shareQueue(queue);
+
+        // the clones of the same handle in two windows are equal
+        EventFactHandle handle = handle(1, 100);
+        EventFactHandle clone = handle(1, 100);
+        queue.add(handle, first);
+        queue.add(clone, second);
+        queue.add(handle(2, 200), first);
+
+        assertThat(first.getFactHandles()).hasSize(2);
+        assertThat(queue.remove(handle(1, 100), second)).isTrue();
+        assertThat(queue.remove(handle(1, 100), second)).isFalse();
+        assertThat(second.getFactHandles()).isEmpty();
+        assertThat(queue.peek()).isSameAs(handle);
+        assertThat(queue.peekOwner()).isSameAs(first);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        EventExpiryQueue queue = new EventExpiryQueue();
+        SlidingTimeWindowContext owner = new SlidingTimeWindowContext();
+        List<EventFactHandle> expected = new ArrayList<>();
+
+        long time = 0;
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                // mostly in order, sometimes late
+                time += random.nextInt(10);
+                EventFactHandle handle = handle(i, random.nextInt(10) == 0 ? time - random.nextInt(100) : time);
+                queue.add(handle, owner);
+                expected.add(handle);
+            } else if (op < 8) {
+                EventFactHandle handle = expected.remove(random.nextInt(expected.size()));
+                assertThat(queue.remove(handle, owner)).isTrue();
+            } else {
+                expected.sort(EventFactHandle::compareTo);
+                assertThat(queue.poll().getStartTimestamp()).isEqualTo(expected.remove(0).getStartTimestamp());
+            }
+            assertThat(queue.size()).isEqualTo(expected.size());
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        expected.forEach(h -> timestamps.add(h.getStartTimestamp()));
+        Collections.sort(timestamps);
+        List<Long> polled = new ArrayList<>();
+        pollAll(queue).forEach(h -> polled.add(h.getStartTimestamp()));
+        assertThat(polled).isEqualTo(timestamps);
+    }
+
+    @Test
+    public void testSharedQueueSurvivesSerialization() throws Exception {
+        EventExpiryQueue queue = new EventExpiryQueue();
+        SlidingTimeWindowContext first = new SlidingTimeWindowContext();
+        SlidingTimeWindowContext second = new SlidingTimeWindowContext();
+        first.shareQueue(queue);
+        second.shareQueue(queue);
+        queue.add(handle(1, 100), first);
+        queue.add(handle(1, 100), second);
+        queue.add(handle(2, 50), second);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(baos)) {
+            out.writeObject(new SlidingTimeWindowContext[] {first, second});
+        }
+        SlidingTimeWindowContext[] contexts;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            contexts = (SlidingTimeWindowContext[]) in.readObject();
+        }
+
+        assertThat(contexts[0].getQueue()).isSameAs(contexts[1].getQueue());
+        assertThat(contexts[0].getFactHandles()).extracting(EventFactHandle::getId).containsExactly(1L);
+        assertThat(contexts[1].getFactHandles()).extracting(EventFactHandle::getId).containsExactly(2L, 1L);
+        assertThat(contexts[0].getQueue().peekOwner()).isSameAs(contexts[1]);
+    }
+
+    private static List<EventFactHandle> pollAll(EventExpiryQueue queue) {
+        List<EventFactHandle> result = new ArrayList<>();
+        for (EventFactHandle handle = queue.poll(); handle != null; handle = queue.poll()) {
+            result.add(handle);
+        }
+        return result;
+    }
+
+    private static EventFactHandle handle(long id, long timestamp) {
+        return new EventFactHandle(id, "event" + id, id, timestamp, 0, mock(WorkingMemoryEntryPoint.class));
+    }
+}
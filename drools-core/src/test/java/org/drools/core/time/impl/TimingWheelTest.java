@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testExpireInOrder() {
+        TimingWheel wheel = new TimingWheel(1, 8, 0);
+        long[] times = { 5, 3, 200, 7, 64, 9, 1000, 3 };
+        for (int i = 0; i < times.length; i++) {
+            assertThat(wheel.add(new TimingWheel.Timeout(i), times[i])).isTrue();
+        }
+        assertThat(wheel.size()).isEqualTo(times.length);
+
+        List<Long> fired = pollAll(wheel, 2000);
+        assertThat(fired).containsExactly(3L, 3L, 5L, 7L, 9L, 64L, 200L, 1000L);
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testNeverExpireBeforeDeadline() {
+        TimingWheel wheel = new TimingWheel(10, 4, 0);
+        TimingWheel.Timeout timeout = new TimingWheel.Timeout(0);
+        wheel.add(timeout, 25);
+        assertThat(timeout.getDeadline()).isEqualTo(30);
+
+        assertThat(pollAll(wheel, 29)).isEmpty();
+        assertThat(pollAll(wheel, 30)).containsExactly(30L);
+    }
+
+    @Test
+    public void testAlreadyExpired() {
+        TimingWheel wheel = new TimingWheel(1, 8, 100);
+        assertThat(wheel.add(new TimingWheel.Timeout(0), 100)).isFalse();
+        assertThat(wheel.add(new TimingWheel.Timeout(1), 50)).isFalse();
+        assertThat(wheel.add(new TimingWheel.Timeout(2), 101)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRemove() {
+        TimingWheel wheel = new TimingWheel(1, 8, 0);
+        TimingWheel.Timeout t1 = new TimingWheel.Timeout(1);
+        TimingWheel.Timeout t2 = new TimingWheel.Timeout(2);
+        TimingWheel.Timeout t3 = new TimingWheel.Timeout(3);
+        wheel.add(t1, 5);
+        wheel.add(t2, 5);
+        wheel.add(t3, 500);
+
+        wheel.remove(t2);
+        wheel.remove(t3);
+        assertThat(t2.isScheduled()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<TimingWheel.Timeout> expired = new ArrayList<>();
+        for (List<TimingWheel.Timeout> polled = wheel.poll(1000); polled != null; polled = wheel.poll(1000)) {
+            expired.addAll(polled);
+        }
+        assertThat(expired).containsExactly(t1);
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testAdvanceClockOfEmptyWheel() {
+        TimingWheel wheel = new TimingWheel(1, 8, 0);
+        TimingWheel.Timeout timeout = new TimingWheel.Timeout(0);
+        wheel.add(timeout, 5);
+        wheel.remove(timeout);
+
+        wheel.advanceClock(1000);
+        assertThat(wheel.getCurrentTime()).isEqualTo(1000);
+        assertThat(wheel.nextExpiration()).isEqualTo(-1);
+
+        wheel.add(new TimingWheel.Timeout(1), 1003);
+        assertThat(wheel.nextExpiration()).isEqualTo(1003);
+        assertThat(pollAll(wheel, 1003)).containsExactly(1003L);
+    }
+
+    @Test
+    public void testRandomTimeouts() {
+        Random random = new Random(0);
+        TimingWheel wheel = new TimingWheel(1, 16, 0);
+        List<Long> expected = new ArrayList<>();
+        List<TimingWheel.Timeout> removed = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long time = 1 + random.nextInt(1_000_000);
+            TimingWheel.Timeout timeout = new TimingWheel.Timeout(i);
+            wheel.add(timeout, time);
+            if (i % 10 == 0) {
+                removed.add(timeout);
+            } else {
+                expected.add(time);
+            }
+        }
+        removed.forEach(wheel::remove);
+        expected.sort(Long::compare);
+
+        // advancing the time in steps of random length
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 1_000_000; now += random.nextInt(5000)) {
+            for (Long deadline : pollAll(wheel, now)) {
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                fired.add(deadline);
+            }
+        }
+        fired.addAll(pollAll(wheel, 1_000_000));
+        assertThat(fired).isEqualTo(expected);
+    }
+
+    private static List<Long> pollAll(TimingWheel wheel, long time) {
+        List<Long> fired = new ArrayList<>();
+        for (List<TimingWheel.Timeout> polled = wheel.poll(time); polled != null; polled = wheel.poll(time)) {
+            polled.forEach(t -> fired.add(t.getDeadline()));
+        }
+        return fired;
+    }
+}
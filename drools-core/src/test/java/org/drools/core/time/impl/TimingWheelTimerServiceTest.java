@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.time.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.ClockType;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.DroolsObjectOutputStream;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.impl.JDKTimerServiceTest.DelayedTrigger;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJob;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJobContext;
+import org.junit.Test;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.internal.runtime.conf.TimerServiceOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTimerServiceTest {
+
+    @Test
+    public void testSelectedThroughProperties() {
+        Properties props = new Properties();
+        props.setProperty(TimerServiceOption.PROPERTY_NAME, "timingwheel");
+        SessionConfiguration config = SessionConfiguration.newInstance(props);
+        config.setClockType(ClockType.REALTIME_CLOCK);
+        TimerService timerService = TimerServiceFactory.getTimerService(config);
+        assertThat(timerService).isInstanceOf(TimingWheelTimerService.class);
+        timerService.shutdown();
+
+        config = SessionConfiguration.newInstance();
+        config.setClockType(ClockType.REALTIME_CLOCK);
+        timerService = TimerServiceFactory.getTimerService(config);
+        assertThat(timerService).isExactlyInstanceOf(JDKTimerService.class);
+        timerService.shutdown();
+    }
+
+    @Test
+    public void testSelectedThroughOptions() {
+        SessionConfiguration config = SessionConfiguration.newInstance();
+        config.setOption(ClockTypeOption.PSEUDO);
+        config.setOption(TimerServiceOption.TIMING_WHEEL);
+        assertThat(config.getOption(TimerServiceOption.class)).isEqualTo(TimerServiceOption.TIMING_WHEEL);
+        assertThat(config.getProperty(TimerServiceOption.PROPERTY_NAME)).isEqualTo("timingwheel");
+        assertThat(TimerServiceFactory.getTimerService(config)).isInstanceOf(TimingWheelPseudoClockScheduler.class);
+
+        config.setOption(TimerServiceOption.DEFAULT);
+        assertThat(TimerServiceFactory.getTimerService(config)).isExactlyInstanceOf(PseudoClockScheduler.class);
+    }
+
+    @Test
+    public void testSingleExecutionJob() throws Exception {
+        TimingWheelTimerService timeService = new TimingWheelTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext("hello world", timeService);
+        timeService.scheduleJob(new HelloWorldJob(), ctx, new DelayedTrigger(100));
+        Thread.sleep(500);
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(1);
+    }
+
+    @Test
+    public void testRepeatedExecutionJob() throws Exception {
+        TimingWheelTimerService timeService = new TimingWheelTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext("hello world", timeService);
+        timeService.scheduleJob(new HelloWorldJob(), ctx, new DelayedTrigger(new long[] { 100, 100, 100 }));
+        Thread.sleep(500);
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(3);
+    }
+
+    @Test
+    public void testRemoveJob() throws Exception {
+        TimingWheelTimerService timeService = new TimingWheelTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext("hello world", timeService);
+        JobHandle handle = timeService.scheduleJob(new HelloWorldJob(), ctx, new DelayedTrigger(200));
+        assertThat(timeService.size()).isEqualTo(1);
+        assertThat(timeService.removeJob(handle)).isTrue();
+        assertThat(timeService.size()).isEqualTo(0);
+        Thread.sleep(400);
+        timeService.shutdown();
+        assertThat(ctx.getList()).isEmpty();
+    }
+
+    @Test
+    public void testPseudoClockSemantics() throws Exception {
+        // the same jobs must be executed in the same order and at the same time by both the pseudo clock schedulers
+        PseudoClockScheduler expected = new PseudoClockScheduler();
+        PseudoClockScheduler actual = new TimingWheelPseudoClockScheduler();
+        List<String> expectedLog = new ArrayList<>();
+        List<String> actualLog = new ArrayList<>();
+
+        Random random = new Random(0);
+        List<JobHandle> expectedHandles = new ArrayList<>();
+        List<JobHandle> actualHandles = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long time = random.nextInt(100_000);
+            expectedHandles.add(expected.scheduleJob(new LogJob(expectedLog, expected), new LogJobContext("job" + i), new PointInTimeTrigger(time)));
+            actualHandles.add(actual.scheduleJob(new LogJob(actualLog, actual), new LogJobContext("job" + i), new PointInTimeTrigger(time)));
+        }
+        for (int i = 0; i < expectedHandles.size(); i += 7) {
+            expected.removeJob(expectedHandles.get(i));
+            actual.removeJob(actualHandles.get(i));
+        }
+
+        while (expected.getCurrentTime() < 120_000) {
+            long step = random.nextInt(3000);
+            expected.advanceTime(step, TimeUnit.MILLISECONDS);
+            actual.advanceTime(step, TimeUnit.MILLISECONDS);
+            assertThat(actual.getCurrentTime()).isEqualTo(expected.getCurrentTime());
+            assertThat(actual.getTimeToNextJob() < 0).isEqualTo(expected.getTimeToNextJob() < 0);
+        }
+
+        // jobs with the same fire time can be executed in a different order
+        assertThat(actualLog).containsExactlyInAnyOrderElementsOf(expectedLog);
+        assertThat(times(actualLog)).isEqualTo(times(expectedLog));
+    }
+
+    @Test
+    public void testRemoveJobsSharingTheSameJob() {
+        TimingWheelPseudoClockScheduler scheduler = new TimingWheelPseudoClockScheduler();
+        scheduler.advanceTime(1000, TimeUnit.MILLISECONDS);
+        CountingJob job = new CountingJob();
+
+        // both already expired when scheduled
+        JobHandle first = scheduler.scheduleJob(job, new LogJobContext("first"), new PointInTimeTrigger(10));
+        JobHandle second = scheduler.scheduleJob(job, new LogJobContext("second"), new PointInTimeTrigger(20));
+        assertThat(first).isEqualTo(second);
+
+        assertThat(scheduler.removeJob(second)).isTrue();
+        assertThat(scheduler.size()).isEqualTo(1);
+        scheduler.advanceTime(1, TimeUnit.MILLISECONDS);
+        assertThat(job.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        TimingWheelPseudoClockScheduler scheduler = new TimingWheelPseudoClockScheduler();
+        scheduler.advanceTime(50, TimeUnit.MILLISECONDS);
+        NamingJob.EXECUTED.clear();
+        NamingJob job = new NamingJob();
+        scheduler.scheduleJob(job, new LogJobContext("near"), new PointInTimeTrigger(150));
+        JobHandle removed = scheduler.scheduleJob(job, new LogJobContext("removed"), new PointInTimeTrigger(5000));
+        scheduler.scheduleJob(job, new LogJobContext("far"), new PointInTimeTrigger(1_000_000));
+        scheduler.removeJob(removed);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new DroolsObjectOutputStream(bytes)) {
+            out.writeObject(scheduler);
+        }
+        TimingWheelPseudoClockScheduler copy;
+        try (ObjectInputStream in = new DroolsObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (TimingWheelPseudoClockScheduler) in.readObject();
+        }
+
+        assertThat(copy.getCurrentTime()).isEqualTo(50);
+        assertThat(copy.size()).isEqualTo(2);
+        assertThat(copy.getTimeToNextJob()).isEqualTo(100);
+
+        copy.advanceTime(1_000_000, TimeUnit.MILLISECONDS);
+        assertThat(copy.size()).isEqualTo(0);
+        assertThat(NamingJob.EXECUTED).containsExactly("near", "far");
+    }
+
+    private static List<Long> times(List<String> log) {
+        List<Long> times = new ArrayList<>();
+        for (String entry : log) {
+            times.add(Long.parseLong(entry.substring(entry.indexOf('@') + 1)));
+        }
+        return times;
+    }
+
+    public static class LogJob implements Job {
+        private final List<String> log;
+        private final TimerService timerService;
+
+        public LogJob(List<String> log, TimerService timerService) {
+            this.log = log;
+            this.timerService = timerService;
+        }
+
+        public void execute(JobContext ctx) {
+            log.add(((LogJobContext) ctx).name + "@" + timerService.getCurrentTime());
+        }
+    }
+
+    public static class CountingJob implements Job, Serializable {
+        private int count;
+
+        public void execute(JobContext ctx) {
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    public static class NamingJob implements Job, Serializable {
+        static final List<String> EXECUTED = new ArrayList<>();
+
+        public void execute(JobContext ctx) {
+            EXECUTED.add(((LogJobContext) ctx).name);
+        }
+    }
+
+    public static class LogJobContext extends HelloWorldJobContext {
+        private final String name;
+
+        public LogJobContext(String name) {
+            super(name, null);
+            this.name = name;
+        }
+    }
+}
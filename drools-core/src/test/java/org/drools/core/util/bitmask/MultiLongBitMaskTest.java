@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util.bitmask;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MultiLongBitMaskTest {
+
+    @Test
+    public void testFactory() {
+        assertThat(BitMask.Factory.getEmpty(64)).isInstanceOf(LongBitMask.class);
+        assertThat(BitMask.Factory.getEmpty(65)).isInstanceOf(TwoLongBitMask.class);
+        assertThat(BitMask.Factory.getEmpty(200)).isInstanceOf(FourLongBitMask.class);
+        assertThat(BitMask.Factory.getEmpty(257)).isInstanceOf(OpenBitSet.class);
+        assertThat(BitMask.Factory.getFull(128).isAllSet()).isTrue();
+        assertThat(BitMask.Factory.getFull(256).isAllSet()).isTrue();
+    }
+
+    @Test
+    public void testSetInPlace() {
+        BitMask mask = new TwoLongBitMask();
+        assertThat(mask.set(3)).isSameAs(mask);
+        assertThat(mask.set(100)).isSameAs(mask);
+        assertThat(mask.toString()).isEqualTo("8, 68719476736");
+        assertThat(mask.isSet(3)).isTrue();
+        assertThat(mask.isSet(100)).isTrue();
+        assertThat(mask.isSet(36)).isFalse();
+
+        BitMask wide = new FourLongBitMask();
+        assertThat(wide.set(250)).isSameAs(wide);
+        assertThat(wide.isSet(250)).isTrue();
+        assertThat(wide.isSet(186)).isFalse();
+    }
+
+    @Test
+    public void testSetBeyondWidth() {
+        assertThat(new LongBitMask().set(1).set(70)).isInstanceOf(TwoLongBitMask.class);
+
+        BitMask widened = new TwoLongBitMask().set(1).set(200);
+        assertThat(widened).isInstanceOf(FourLongBitMask.class);
+        assertThat(widened.isSet(1)).isTrue();
+        assertThat(widened.isSet(200)).isTrue();
+
+        widened = new FourLongBitMask().set(1).set(300);
+        assertThat(widened).isInstanceOf(OpenBitSet.class);
+        assertThat(widened.isSet(1)).isTrue();
+        assertThat(widened.isSet(300)).isTrue();
+    }
+
+    @Test
+    public void testSetAll() {
+        assertThat(new TwoLongBitMask(1L, 0L).setAll(new TwoLongBitMask(0L, 2L)).toString()).isEqualTo("1, 2");
+        assertThat(new TwoLongBitMask(1L, 0L).setAll(new LongBitMask(2L)).toString()).isEqualTo("3, 0");
+        assertThat(new TwoLongBitMask().setAll(AllSetBitMask.get())).isSameAs(AllSetBitMask.get());
+        assertThat(new TwoLongBitMask().setAll(AllSetButLastBitMask.get())).isSameAs(AllSetButLastBitMask.get());
+        assertThat(new TwoLongBitMask(1L, 0L).setAll(AllSetButLastBitMask.get())).isSameAs(AllSetBitMask.get());
+        assertThat(new TwoLongBitMask().setAll(EmptyButLastBitMask.get()).toString()).isEqualTo("1, 0");
+        assertThat(new TwoLongBitMask(4L, 8L).setAll(new FourLongBitMask(1L, 0L, 2L, 0L)).toString()).isEqualTo("5, 8, 2, 0");
+        assertThat(new FourLongBitMask(1L, 0L, 0L, 4L).setAll(new TwoLongBitMask(2L, 2L)).toString()).isEqualTo("3, 2, 0, 4");
+        assertThat(new LongBitMask(2L).setAll(new TwoLongBitMask(1L, 1L)).toString()).isEqualTo("3, 1");
+        assertThat(EmptyBitMask.get().setAll(new TwoLongBitMask(1L, 1L)).toString()).isEqualTo("1, 1");
+
+        OpenBitSet bitSet = new OpenBitSet(320);
+        bitSet.set(300);
+        BitMask merged = new TwoLongBitMask(1L, 1L).setAll(bitSet);
+        assertThat(merged).isInstanceOf(OpenBitSet.class);
+        assertThat(merged.isSet(0)).isTrue();
+        assertThat(merged.isSet(64)).isTrue();
+        assertThat(merged.isSet(300)).isTrue();
+        assertThat(bitSet.isSet(0)).isFalse();
+    }
+
+    @Test
+    public void testResetAll() {
+        assertThat(new TwoLongBitMask(3L, 3L).resetAll(new TwoLongBitMask(1L, 2L)).toString()).isEqualTo("2, 1");
+        assertThat(new TwoLongBitMask(3L, 3L).resetAll(new LongBitMask(1L)).toString()).isEqualTo("2, 3");
+        assertThat(new TwoLongBitMask(3L, 3L).resetAll(AllSetButLastBitMask.get()).toString()).isEqualTo("1, 0");
+        assertThat(new TwoLongBitMask(3L, 3L).resetAll(AllSetBitMask.get()).isEmpty()).isTrue();
+        assertThat(new FourLongBitMask(3L, 3L, 3L, 3L).resetAll(new TwoLongBitMask(1L, 1L)).toString()).isEqualTo("2, 2, 3, 3");
+        assertThat(new LongBitMask(3L).resetAll(new TwoLongBitMask(1L, 1L)).toString()).isEqualTo("2");
+
+        BitMask reset = AllSetBitMask.get().resetAll(new FourLongBitMask(0L, 0L, 0L, 1L));
+        assertThat(reset.isSet(192)).isFalse();
+        assertThat(reset.isSet(193)).isTrue();
+        assertThat(reset.isSet(5)).isTrue();
+    }
+
+    @Test
+    public void testIntersects() {
+        assertThat(new TwoLongBitMask(0L, 4L).intersects(new TwoLongBitMask(0L, 4L))).isTrue();
+        assertThat(new TwoLongBitMask(0L, 4L).intersects(new TwoLongBitMask(4L, 0L))).isFalse();
+        assertThat(new TwoLongBitMask(0L, 4L).intersects(new FourLongBitMask(0L, 4L, 0L, 0L))).isTrue();
+        assertThat(new FourLongBitMask(0L, 0L, 0L, 4L).intersects(new TwoLongBitMask(-1L, -1L))).isFalse();
+        assertThat(new TwoLongBitMask(2L, 0L).intersects(new LongBitMask(2L))).isTrue();
+        assertThat(new LongBitMask(2L).intersects(new TwoLongBitMask(2L, 0L))).isTrue();
+        assertThat(new TwoLongBitMask(1L, 0L).intersects(EmptyButLastBitMask.get())).isTrue();
+        assertThat(new TwoLongBitMask(1L, 0L).intersects(AllSetButLastBitMask.get())).isFalse();
+        assertThat(AllSetButLastBitMask.get().intersects(new TwoLongBitMask(0L, 1L))).isTrue();
+        assertThat(new TwoLongBitMask().intersects(AllSetBitMask.get())).isTrue();
+
+        OpenBitSet bitSet = new OpenBitSet(128);
+        bitSet.set(100);
+        assertThat(new TwoLongBitMask().set(100).intersects(bitSet)).isTrue();
+        assertThat(bitSet.intersects((BitMask) new TwoLongBitMask().set(100))).isTrue();
+        assertThat(bitSet.intersects((BitMask) new TwoLongBitMask().set(99))).isFalse();
+    }
+
+    @Test
+    public void testEqualsAndClone() {
+        TwoLongBitMask mask = new TwoLongBitMask(1L, 2L);
+        TwoLongBitMask clone = mask.clone();
+        assertThat(clone).isNotSameAs(mask).isEqualTo(mask);
+        assertThat(clone.hashCode()).isEqualTo(mask.hashCode());
+        assertThat(new FourLongBitMask(1L, 2L, 0L, 0L)).isEqualTo(mask);
+        assertThat(new FourLongBitMask(1L, 2L, 0L, 0L).hashCode()).isEqualTo(mask.hashCode());
+        clone.set(3);
+        assertThat(clone).isNotEqualTo(mask);
+    }
+
+    @Test
+    public void testNextSetBit() {
+        assertThat(new FourLongBitMask(1L, 0L, 8L, 0L).nextSetBit(0)).isEqualTo(0);
+        assertThat(new FourLongBitMask(1L, 0L, 8L, 0L).nextSetBit(1)).isEqualTo(131);
+        assertThat(new FourLongBitMask(1L, 0L, 8L, 0L).nextSetBit(132)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testGetInstancingStatement() {
+        assertThat(new TwoLongBitMask().getInstancingStatement()).isEqualTo("org.drools.core.util.bitmask.EmptyBitMask.get()");
+        assertThat(new TwoLongBitMask(1L, 0L).getInstancingStatement()).isEqualTo("org.drools.core.util.bitmask.EmptyButLastBitMask.get()");
+        assertThat(new TwoLongBitMask(-2L, -1L).getInstancingStatement()).isEqualTo("org.drools.core.util.bitmask.AllSetButLastBitMask.get()");
+        assertThat(new FourLongBitMask(-1L, -1L, -1L, -1L).getInstancingStatement()).isEqualTo("org.drools.core.util.bitmask.AllSetBitMask.get()");
+        assertThat(new TwoLongBitMask(2L, 5L).getInstancingStatement()).isEqualTo("new org.drools.core.util.bitmask.TwoLongBitMask(2L, 5L)");
+        assertThat(new FourLongBitMask(2L, 0L, 0L, -3L).getInstancingStatement()).isEqualTo("new org.drools.core.util.bitmask.FourLongBitMask(2L, 0L, 0L, -3L)");
+    }
+}
@@ -27,6 +27,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
+import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.common.ActivationsFilter;
 import org.drools.core.common.AgendaGroupsManager;
 import org.drools.core.common.AgendaItem;
@@ -53,6 +54,7 @@ import org.drools.core.common.RuleFlowGroup;
 import org.drools.core.util.CompositeIterator;
 import org.kie.api.runtime.rule.AgendaFilter;
 import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.kie.internal.conf.ParallelEvaluationModeOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +75,8 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
 
     private PropagationList propagationList;
 
+    private WorkStealingPartitionsEvaluator workStealingEvaluator;
+
     public CompositeDefaultAgenda() { }
 
     public CompositeDefaultAgenda(RuleBase kBase) {
@@ -139,6 +143,15 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
         Stream.of( agendas ).forEach( a -> a.setWorkingMemory( workingMemory ) );
         // this composite agenda and the first partitioned one share the same propagation list
         this.propagationList = agendas[0].getPropagationList();
+
+        RuleBaseConfiguration conf = workingMemory.getKnowledgeBase().getConfiguration();
+        if (conf.getParallelEvaluationMode() == ParallelEvaluationModeOption.WORK_STEALING) {
+            this.workStealingEvaluator = new WorkStealingPartitionsEvaluator( this, agendas, conf.getMaxThreads() );
+        }
+    }
+
+    public WorkStealingPartitionsEvaluator getWorkStealingEvaluator() {
+        return workStealingEvaluator;
     }
 
     @Override
@@ -175,6 +188,10 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
     }
 
     private int parallelFire( AgendaFilter agendaFilter, int fireLimit ) {
+        if (workStealingEvaluator != null) {
+            return workStealingEvaluator.fireAllRules( agendaFilter, fireLimit );
+        }
+
         CompletableFuture<Integer>[] results = new CompletableFuture[agendas.length-1];
         for (int i = 0; i < results.length; i++) {
             final int j = i;
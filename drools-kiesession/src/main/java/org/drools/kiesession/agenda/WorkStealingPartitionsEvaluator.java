@@ -0,0 +1,297 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.kiesession.agenda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.common.RuleBasePartitionId;
+import org.kie.api.runtime.rule.AgendaFilter;
+
+/**
+ * Fires the partitioned agendas of a CompositeDefaultAgenda using a work-stealing pool of evaluators.
+ *
+ * Instead of binding each partition to a thread for a whole evaluation round, every evaluator
+ * repeatedly claims any partition having pending work, starting from its own home partition.
+ * A partition is owned by at most one evaluator at a time, so its memories are never accessed
+ * concurrently, but an evaluator that completed a cheap partition can immediately take care of
+ * the propagations that the busy ones are sending to the other partitions, without waiting for
+ * the whole round to complete. An evaluator finding no partition to claim parks until another
+ * one completes an evaluation, since only an evaluation can produce further work. The evaluators run on
+ * a ForkJoinPool shared by all the sessions, and they park through a ManagedBlocker, so the pool can
+ * start spare threads instead of letting the parked evaluators of some sessions starve the others.
+ *
+ * Stealing happens at partition granularity only: the rules of a partition share its node memories,
+ * so a single partition is always evaluated by one thread at a time. This means that a single hot
+ * partition is not split among the evaluators, it has to be moved or separated from the others
+ * through the cost based rebalancing of the partitions (see RuleBase.rebalancePartitions()).
+ */
+public class WorkStealingPartitionsEvaluator {
+
+    private static class PoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool( RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER );
+    }
+
+    private static final int FREE = 0;
+    private static final int OWNED = 1;
+
+    private final CompositeDefaultAgenda compositeAgenda;
+    private final DefaultAgenda[] agendas;
+    private final int evaluatorsNr;
+
+    private final AtomicIntegerArray owners;
+
+    // per-partition metrics
+    private final AtomicIntegerArray queueDepths;
+    private final AtomicIntegerArray maxQueueDepths;
+    private final AtomicLongArray evaluations;
+    private final AtomicLongArray steals;
+
+    public WorkStealingPartitionsEvaluator( CompositeDefaultAgenda compositeAgenda, DefaultAgenda[] agendas, int maxThreads ) {
+        this.compositeAgenda = compositeAgenda;
+        this.agendas = agendas;
+        this.evaluatorsNr = maxThreads > 0 ? Math.min( maxThreads, agendas.length ) : agendas.length;
+        this.owners = new AtomicIntegerArray( agendas.length );
+        this.queueDepths = new AtomicIntegerArray( agendas.length );
+        this.maxQueueDepths = new AtomicIntegerArray( agendas.length );
+        this.evaluations = new AtomicLongArray( agendas.length );
+        this.steals = new AtomicLongArray( agendas.length );
+    }
+
+    public int fireAllRules( AgendaFilter agendaFilter, int fireLimit ) {
+        Round round = new Round( agendaFilter, fireLimit );
+
+        List<ForkJoinTask<Integer>> results = new ArrayList<>( evaluatorsNr - 1 );
+        for (int i = 1; i < evaluatorsNr; i++) {
+            final int evaluator = i;
+            results.add( PoolHolder.POOL.submit( () -> evaluate( round, evaluator ) ) );
+        }
+
+        // the calling thread takes part to the evaluation as well
+        int fireCount = evaluate( round, 0 );
+        for (ForkJoinTask<Integer> result : results) {
+            fireCount += result.join();
+        }
+        return fireCount;
+    }
+
+    private int evaluate( Round round, int evaluator ) {
+        int home = evaluator * agendas.length / evaluatorsNr;
+        int fireCount = 0;
+
+        while ( compositeAgenda.isFiring() && !round.isLimitReached() ) {
+            // read before scanning, so an evaluation completed during the scan prevents this evaluator from parking
+            long progress = round.progress;
+            boolean evaluated = false;
+            for (int i = 0; i < agendas.length; i++) {
+                int partition = (home + i) % agendas.length;
+                if ( round.hasWork( partition ) ) {
+                    int fired = tryEvaluate( round, partition, i != 0 );
+                    if (fired >= 0) {
+                        fireCount += fired;
+                        evaluated = true;
+                        // the evaluation could have sent propagations to other partitions, wake up the parked evaluators
+                        round.signalProgress();
+                    }
+                }
+            }
+
+            // an evaluator can stop only when no other one is still running, since it could produce further work,
+            // otherwise it parks until a running evaluator completes its evaluation
+            if ( !evaluated ) {
+                if ( round.activeEvaluators.get() > 0 ) {
+                    round.awaitProgress( progress );
+                } else if ( !round.hasAnyWork() ) {
+                    break;
+                }
+            }
+        }
+
+        // wake up the parked evaluators, so they can check if the round is over
+        round.signalProgress();
+        return fireCount;
+    }
+
+    private int tryEvaluate( Round round, int partition, boolean stolen ) {
+        // declare this evaluator as active before claiming the partition, so the others cannot see the
+        // partition free of work and no running evaluator at the same time while its propagations are pending
+        round.activeEvaluators.incrementAndGet();
+        try {
+            if ( !owners.compareAndSet( partition, FREE, OWNED ) ) {
+                return -1;
+            }
+            try {
+                if ( !round.hasWork( partition ) ) {
+                    return -1;
+                }
+                round.visited.set( partition, 1 );
+                recordEvaluation( partition, stolen );
+                int fired = agendas[partition].internalFireAllRules( round.agendaFilter, round.remainingFireLimit(), false );
+                round.fireCount.addAndGet( fired );
+                return fired;
+            } finally {
+                owners.set( partition, FREE );
+            }
+        } finally {
+            round.activeEvaluators.decrementAndGet();
+        }
+    }
+
+    private void recordEvaluation( int partition, boolean stolen ) {
+        // this is read by the partition owner, so it is safe to access the agenda groups
+        int depth = agendas[partition].getAgendaGroupsManager().agendaSize();
+        queueDepths.set( partition, depth );
+        if ( depth > maxQueueDepths.get( partition ) ) {
+            maxQueueDepths.set( partition, depth );
+        }
+        evaluations.incrementAndGet( partition );
+        if ( stolen ) {
+            steals.incrementAndGet( partition );
+        }
+    }
+
+    public int getEvaluatorsNumber() {
+        return evaluatorsNr;
+    }
+
+    /**
+     * Returns the number of rules that were pending in the agenda of the given partition
+     * when it has been evaluated for the last time.
+     */
+    public int getQueueDepth( int partition ) {
+        return queueDepths.get( partition );
+    }
+
+    public int getMaxQueueDepth( int partition ) {
+        return maxQueueDepths.get( partition );
+    }
+
+    public long getEvaluationsCount( int partition ) {
+        return evaluations.get( partition );
+    }
+
+    /**
+     * Returns how many times the given partition has been evaluated by an evaluator other than its home one.
+     */
+    public long getStealsCount( int partition ) {
+        return steals.get( partition );
+    }
+
+    public void resetMetrics() {
+        for (int i = 0; i < agendas.length; i++) {
+            queueDepths.set( i, 0 );
+            maxQueueDepths.set( i, 0 );
+            evaluations.set( i, 0 );
+            steals.set( i, 0 );
+        }
+    }
+
+    private class Round {
+        private final AgendaFilter agendaFilter;
+        private final int fireLimit;
+
+        private final AtomicInteger fireCount = new AtomicInteger();
+        private final AtomicInteger activeEvaluators = new AtomicInteger();
+
+        private final ReentrantLock progressLock = new ReentrantLock();
+        private final Condition progressed = progressLock.newCondition();
+        private volatile long progress;
+
+        // every partition has to be evaluated at least once during a round,
+        // after that only the ones receiving new propagations have work to do
+        private final AtomicIntegerArray visited = new AtomicIntegerArray( agendas.length );
+
+        private Round( AgendaFilter agendaFilter, int fireLimit ) {
+            this.agendaFilter = agendaFilter;
+            this.fireLimit = fireLimit;
+        }
+
+        private boolean hasWork( int partition ) {
+            return visited.get( partition ) == 0 || agendas[partition].hasPendingPropagations();
+        }
+
+        private boolean hasAnyWork() {
+            for (int i = 0; i < agendas.length; i++) {
+                if ( hasWork( i ) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void signalProgress() {
+            progressLock.lock();
+            try {
+                progress++;
+                progressed.signalAll();
+            } finally {
+                progressLock.unlock();
+            }
+        }
+
+        private void awaitProgress( long lastProgress ) {
+            // the pool is shared by all the sessions, so it has to know that this worker is blocked
+            // and compensate it with a spare thread, otherwise parked evaluators could starve the others
+            try {
+                ForkJoinPool.managedBlock( new ProgressBlocker( lastProgress ) );
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private class ProgressBlocker implements ForkJoinPool.ManagedBlocker {
+            private final long lastProgress;
+
+            private ProgressBlocker( long lastProgress ) {
+                this.lastProgress = lastProgress;
+            }
+
+            @Override
+            public boolean block() {
+                progressLock.lock();
+                try {
+                    while ( progress == lastProgress ) {
+                        progressed.awaitUninterruptibly();
+                    }
+                } finally {
+                    progressLock.unlock();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return progress != lastProgress;
+            }
+        }
+
+        private boolean isLimitReached() {
+            return fireLimit > 0 && fireCount.get() >= fireLimit;
+        }
+
+        private int remainingFireLimit() {
+            return fireLimit > 0 ? Math.max( fireLimit - fireCount.get(), 0 ) : fireLimit;
+        }
+    }
+}
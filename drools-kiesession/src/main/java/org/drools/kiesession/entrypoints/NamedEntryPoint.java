@@ -33,6 +33,7 @@ import org.drools.core.base.TraitHelper;
 import org.drools.core.common.ClassAwareObjectStore;
 import org.drools.core.common.EqualityKey;
 import org.drools.core.common.EventFactHandle;
+import org.drools.core.common.FlatObjectStore;
 import org.drools.core.common.IdentityObjectStore;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemoryEntryPoint;
@@ -45,6 +46,7 @@ import org.drools.core.common.TruthMaintenanceSystemFactory;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.facttemplates.Fact;
 import org.drools.core.impl.RuleBase;
+import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -58,6 +60,7 @@ import org.drools.core.common.PropagationContext;
 import org.drools.core.util.bitmask.AllSetBitMask;
 import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.conf.ObjectStoreOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,9 +113,13 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
         RuleBaseConfiguration conf = this.ruleBase.getConfiguration();
         this.pctxFactory = RuntimeComponentFactory.get().getPropagationContextFactory();
         this.isEqualityBehaviour = RuleBaseConfiguration.AssertBehaviour.EQUALITY.equals(conf.getAssertBehaviour());
-        this.objectStore = isEqualityBehaviour || conf.isMutabilityEnabled() ?
-                new ClassAwareObjectStore( isEqualityBehaviour, this.lock ) :
-                new IdentityObjectStore();
+        if (conf.getObjectStoreOption() == ObjectStoreOption.FLAT) {
+            this.objectStore = new FlatObjectStore( isEqualityBehaviour, this.lock );
+        } else {
+            this.objectStore = isEqualityBehaviour || conf.isMutabilityEnabled() ?
+                    new ClassAwareObjectStore( isEqualityBehaviour, this.lock ) :
+                    new IdentityObjectStore();
+        }
     }
 
     public void lock() {
@@ -234,6 +241,88 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
 
     }
 
+    @Override
+    public List<FactHandle> insertAll(Collection<?> objects) {
+        if ( this.reteEvaluator.isSequential() ) {
+            return InternalWorkingMemoryEntryPoint.super.insertAll( objects );
+        }
+
+        List<FactHandle> handles = new ArrayList<>( objects.size() );
+        try {
+            this.reteEvaluator.startOperation();
+            lock();
+            try {
+                this.ruleBase.executeQueuedActions();
+
+                // only runs of consecutive facts of the same type are batched, so every node
+                // receives the facts in the same order as if they were inserted one by one
+                PropagationEntry.BatchInsert batch = null;
+                List<PropagationContext> inserted = new ArrayList<>();
+                for ( Object object : objects ) {
+                    if ( object == null ) {
+                        handles.add( null );
+                        continue;
+                    }
+
+                    ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, object );
+                    if ( batch != null && batch.getObjectTypeConf() != typeConf ) {
+                        assertBatch( batch, inserted );
+                        batch = null;
+                    }
+
+                    if ( typeConf.isTMSEnabled() || typeConf.isDynamic() ) {
+                        // justified facts and property change listeners need the single insert path
+                        handles.add( insert( object ) );
+                        continue;
+                    }
+
+                    InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+                    if ( handle == null ) {
+                        if ( batch == null ) {
+                            batch = new PropagationEntry.BatchInsert( typeConf );
+                        }
+                        handle = addToBatch( object, typeConf, batch, inserted );
+                    }
+                    handles.add( handle );
+                }
+
+                if ( batch != null ) {
+                    assertBatch( batch, inserted );
+                }
+            } finally {
+                unlock();
+            }
+        } finally {
+            this.reteEvaluator.endOperation();
+        }
+        return handles;
+    }
+
+    private InternalFactHandle addToBatch(Object object, ObjectTypeConf typeConf, PropagationEntry.BatchInsert batch, List<PropagationContext> inserted) {
+        InternalFactHandle handle = createHandle( object, typeConf );
+
+        PropagationContext pctx = this.pctxFactory.createPropagationContext(this.reteEvaluator.getNextPropagationIdCounter(),
+                PropagationContext.Type.INSERTION,
+                null,
+                null,
+                handle,
+                entryPoint);
+        this.objectStore.addHandle( handle, object );
+        batch.add( handle, pctx, this.reteEvaluator );
+        inserted.add( pctx );
+        return handle;
+    }
+
+    private void assertBatch(PropagationEntry.BatchInsert batch, List<PropagationContext> inserted) {
+        this.entryPointNode.assertObjects( batch, this.reteEvaluator );
+
+        for ( PropagationContext pctx : inserted ) {
+            InternalFactHandle handle = (InternalFactHandle) pctx.getFactHandle();
+            this.reteEvaluator.getRuleRuntimeEventSupport().fireObjectInserted(pctx, handle, handle.getObject(), this.reteEvaluator);
+        }
+        inserted.clear();
+    }
+
     public void insert(InternalFactHandle handle,
                        Object object,
                        RuleImpl rule,
@@ -741,6 +741,16 @@ public class SessionsAwareKnowledgeBase implements InternalKnowledgeBase {
         return delegate.createNewPartitionId();
     }
 
+    @Override
+    public void rebalancePartitions() {
+        lock();
+        try {
+            delegate.kBaseInternal_rebalancePartitions( statefulSessions );
+        } finally {
+            unlock();
+        }
+    }
+
     @Override
     public FactType getFactType(String packageName, String typeName) {
         return delegate.getFactType(packageName, typeName);
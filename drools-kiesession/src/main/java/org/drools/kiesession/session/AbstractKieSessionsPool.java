@@ -16,6 +16,7 @@
 
 package org.drools.kiesession.session;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -34,6 +35,8 @@ public abstract class AbstractKieSessionsPool implements KieSessionsPool {
 
     protected final Environment environment = EnvironmentFactory.newEnvironment();
 
+    private volatile Collection<?> referenceFacts;
+
     protected AbstractKieSessionsPool( int initialSize ) {
         this.initialSize = initialSize;
     }
@@ -45,13 +48,20 @@ public abstract class AbstractKieSessionsPool implements KieSessionsPool {
         pools.clear();
     }
 
+    @Override
+    public void setReferenceFacts( Collection<?> facts ) {
+        checkAlive();
+        this.referenceFacts = facts;
+        pools.values().forEach( pool -> pool.setReferenceFacts( facts ) );
+    }
+
     protected StatefulSessionPool getPool( KieSessionConfiguration conf, boolean stateless) {
         return getPool( null, conf, stateless);
     }
 
     protected StatefulSessionPool getPool( String kSessionName, KieSessionConfiguration conf, boolean stateless) {
         checkAlive();
-        return pools.computeIfAbsent( getKey(kSessionName, conf, stateless), k -> createStatefulSessionPool( kSessionName, conf, stateless ) );
+        return pools.computeIfAbsent( getKey(kSessionName, conf, stateless), k -> createStatefulSessionPool( kSessionName, conf, stateless ).setReferenceFacts( referenceFacts ) );
     }
 
     private void checkAlive() {
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.kiesession.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.Trigger;
+import org.drools.core.time.impl.TimerJobFactoryManager;
+import org.drools.core.time.impl.TimerJobInstance;
+
+/**
+ * The state of a pooled session right after the insertion of its reference facts, i.e. the facts shared by all
+ * the requests served by that session. It records the fact handles existing at that point, including the ones
+ * logically inserted by the rules fired during the load, so that the session can be brought back to that state by
+ * deleting all the other facts instead of fully resetting it and inserting the reference facts again.
+ *
+ * The reference fact objects are shared by all the sessions of the pool and then they are supposed to be immutable.
+ * A snapshot is no longer usable when any of its handles has been deleted, updated or bound to a different object.
+ *
+ * It also records the counters of the session after the load, so that they can be brought back to the same values,
+ * and whether the load scheduled any timer job: in this case the timer service cannot be reset without losing
+ * those jobs, so the session has to be fully reset and loaded again.
+ */
+class ReferenceFactsSnapshot {
+
+    private final Collection<?> facts;
+
+    private final Set<InternalFactHandle> handles = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final InternalFactHandle[] handlesArray;
+    private final long[] recencies;
+    private final Object[] objects;
+
+    private final long handleId;
+    private final long handleRecency;
+    private final long propagationId;
+    private final boolean scheduledJobs;
+
+    ReferenceFactsSnapshot(Collection<?> facts, Iterable<? extends WorkingMemoryEntryPoint> entryPoints,
+                           long handleId, long handleRecency, long propagationId, boolean scheduledJobs) {
+        this.facts = facts;
+        this.handleId = handleId;
+        this.handleRecency = handleRecency;
+        this.propagationId = propagationId;
+        this.scheduledJobs = scheduledJobs;
+        for (WorkingMemoryEntryPoint ep : entryPoints) {
+            for (Iterator<InternalFactHandle> it = ep.getObjectStore().iterateFactHandles(); it.hasNext(); ) {
+                handles.add(it.next());
+            }
+        }
+
+        this.handlesArray = handles.toArray(new InternalFactHandle[handles.size()]);
+        this.recencies = new long[handlesArray.length];
+        this.objects = new Object[handlesArray.length];
+        for (int i = 0; i < handlesArray.length; i++) {
+            recencies[i] = handlesArray[i].getRecency();
+            objects[i] = handlesArray[i].getObject();
+        }
+    }
+
+    Collection<?> getFacts() {
+        return facts;
+    }
+
+    long getHandleId() {
+        return handleId;
+    }
+
+    long getHandleRecency() {
+        return handleRecency;
+    }
+
+    long getPropagationId() {
+        return propagationId;
+    }
+
+    boolean hasScheduledJobs() {
+        return scheduledJobs;
+    }
+
+    boolean contains(InternalFactHandle handle) {
+        return handles.contains(handle);
+    }
+
+    boolean isIntact() {
+        for (int i = 0; i < handlesArray.length; i++) {
+            InternalFactHandle handle = handlesArray[i];
+            if (!handle.isValid() || handle.getRecency() != recencies[i] || handle.getObject() != objects[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the handles, inserted in the given entry points, that are not part of this snapshot
+     */
+    List<InternalFactHandle> collectRequestHandles(Iterable<? extends WorkingMemoryEntryPoint> entryPoints) {
+        List<InternalFactHandle> handles = new ArrayList<>();
+        for (WorkingMemoryEntryPoint ep : entryPoints) {
+            for (Iterator<InternalFactHandle> it = ep.getObjectStore().iterateFactHandles(); it.hasNext(); ) {
+                InternalFactHandle handle = it.next();
+                if (!contains(handle)) {
+                    handles.add(handle);
+                }
+            }
+        }
+        return handles;
+    }
+
+    /**
+     * Decorates the TimerJobFactoryManager of a session while its reference facts are loaded, recording if any job is
+     * scheduled in the meanwhile.
+     */
+    static class JobsTracker implements TimerJobFactoryManager {
+
+        private final TimerJobFactoryManager delegate;
+
+        private boolean scheduledJobs;
+
+        JobsTracker(TimerJobFactoryManager delegate) {
+            this.delegate = delegate;
+        }
+
+        TimerJobFactoryManager getDelegate() {
+            return delegate;
+        }
+
+        boolean hasScheduledJobs() {
+            return scheduledJobs;
+        }
+
+        @Override
+        public TimerJobInstance createTimerJobInstance(Job job, JobContext ctx, Trigger trigger, JobHandle handle, InternalSchedulerService scheduler) {
+            scheduledJobs = true;
+            return delegate.createTimerJobInstance(job, ctx, trigger, handle, scheduler);
+        }
+
+        @Override
+        public void addTimerJobInstance(TimerJobInstance instance) {
+            delegate.addTimerJobInstance(instance);
+        }
+
+        @Override
+        public void removeTimerJobInstance(TimerJobInstance instance) {
+            delegate.removeTimerJobInstance(instance);
+        }
+
+        @Override
+        public Collection<TimerJobInstance> getTimerJobInstances() {
+            return delegate.getTimerJobInstances();
+        }
+    }
+}
@@ -71,6 +71,7 @@ import org.drools.core.factmodel.traits.Thing;
 import org.drools.core.factmodel.traits.TraitableBean;
 import org.drools.core.impl.AbstractRuntime;
 import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.jfr.BetaMemorySizeEvent;
 import org.drools.core.management.DroolsManagementAgent;
 import org.drools.core.marshalling.MarshallerReaderContext;
 import org.drools.core.phreak.PropagationEntry;
@@ -227,6 +228,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
     private transient StatefulSessionPool pool;
     private transient boolean alive = true;
 
+    private transient ReferenceFactsSnapshot referenceFacts;
+
     // this is a counter of concurrent operations happening. When this counter is zero,
     // the engine is idle.
     private final AtomicInteger opCounter = new AtomicInteger(0);
@@ -327,6 +330,10 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         if (initInitFactHandle) {
             this.initialFactHandle = initInitialFact(null);
         }
+
+        if (this.config.isFlightRecorderEnabled()) {
+            BetaMemorySizeEvent.register(this);
+        }
     }
 
     public StatefulKnowledgeSessionImpl setStateless( boolean stateless ) {
@@ -501,6 +508,10 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         this.kBase.disposeStatefulSession( this );
 
+        if (this.config.isFlightRecorderEnabled()) {
+            BetaMemorySizeEvent.unregister(this);
+        }
+
         if (this.mbeanRegistered.get()) {
             DroolsManagementAgent.getInstance().unregisterKnowledgeSessionUnderName(mbeanRegisteredCBSKey, this);
         }
@@ -833,14 +844,11 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         if (nodeMemories != null) {
             nodeMemories.resetAllMemories( this );
         }
+        this.referenceFacts = null;
 
         this.agenda.reset();
 
-        this.globalResolver.clear();
-        this.kieBaseEventListeners.clear();
-        this.ruleRuntimeEventSupport.clear();
-        this.ruleEventListenerSupport.clear();
-        this.agendaEventSupport.clear();
+        resetRuntimeState();
 
         this.handleFactory.clear( 0, 0 );
         this.propagationIdCounter.set(0);
@@ -852,12 +860,101 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
             this.timerService.reset();
         }
 
+        this.initialFactHandle = initInitialFact(null);
+    }
+
+    private void resetRuntimeState() {
+        this.globalResolver.clear();
+        this.kieBaseEventListeners.clear();
+        this.ruleRuntimeEventSupport.clear();
+        this.ruleEventListenerSupport.clear();
+        this.agendaEventSupport.clear();
+
         if (this.processRuntime != null) {
             this.processRuntime.dispose();
             this.processRuntime = null;
         }
+    }
 
-        this.initialFactHandle = initInitialFact(null);
+    /**
+     * Inserts the given reference facts, firing the rules activated by them, and takes a snapshot of the
+     * resulting state, so that this session can be brought back to it by {@link #resetToReferenceFacts()}.
+     */
+    void loadReferenceFacts(Collection<?> facts) {
+        ReferenceFactsSnapshot.JobsTracker jobsTracker = null;
+        if (this.timerService != null) {
+            jobsTracker = new ReferenceFactsSnapshot.JobsTracker( this.timerService.getTimerJobFactoryManager() );
+            this.timerService.setTimerJobFactoryManager( jobsTracker );
+        }
+        try {
+            // it can be invoked while the session is being released to the pool, so it doesn't go through the public api
+            entryPointsManager.getDefaultEntryPoint().insertAll( facts );
+            this.agenda.fireAllRules( null, -1 );
+        } finally {
+            if (jobsTracker != null) {
+                this.timerService.setTimerJobFactoryManager( jobsTracker.getDelegate() );
+            }
+        }
+        this.referenceFacts = new ReferenceFactsSnapshot( facts, entryPointsManager.getEntryPoints(),
+                                                          this.handleFactory.getId(), this.handleFactory.getRecency(),
+                                                          this.propagationIdCounter.get(), jobsTracker != null && jobsTracker.hasScheduledJobs() );
+    }
+
+    Collection<?> getReferenceFacts() {
+        return referenceFacts != null ? referenceFacts.getFacts() : null;
+    }
+
+    /**
+     * Brings this session back to the state it had right after the insertion of its reference facts, by deleting
+     * all the facts inserted afterwards. If this is not possible, because the reference facts have been modified
+     * or the deletions left some pending activations, it falls back to a full reset followed by a new insertion
+     * of the reference facts.
+     */
+    void resetToReferenceFacts() {
+        ReferenceFactsSnapshot snapshot = this.referenceFacts;
+        if (snapshot == null) {
+            reset();
+            return;
+        }
+
+        if (!restoreReferenceFacts( snapshot )) {
+            reset();
+            loadReferenceFacts( snapshot.getFacts() );
+        }
+    }
+
+    private boolean restoreReferenceFacts(ReferenceFactsSnapshot snapshot) {
+        // the timer service can be reset only if none of its jobs belongs to the reference facts
+        if (!snapshot.isIntact() || snapshot.hasScheduledJobs()) {
+            return false;
+        }
+
+        resetRuntimeState();
+
+        for (InternalFactHandle handle : snapshot.collectRequestHandles( entryPointsManager.getEntryPoints() )) {
+            // the handle could have been already deleted by the truth maintenance system
+            if (handle.isValid()) {
+                handle.getEntryPoint( this ).delete( handle );
+            }
+        }
+
+        // evaluates the network discarding the activations possibly created by the deletions, e.g. on a not node
+        this.agenda.fireAllRules( match -> false, -1 );
+
+        if (agenda.getAgendaGroupsManager().agendaSize() != 0 || !snapshot.isIntact()) {
+            return false;
+        }
+
+        this.agenda.reset();
+
+        // brings the counters and the clock back to the values they had right after the load, as reset() does
+        this.handleFactory.clear( snapshot.getHandleId(), snapshot.getHandleRecency() );
+        this.propagationIdCounter.set( snapshot.getPropagationId() );
+        this.lastIdleTimestamp.set( -1 );
+        if (this.timerService != null) {
+            this.timerService.reset();
+        }
+        return true;
     }
 
     public void reset(long handleId,
@@ -1219,6 +1316,12 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
                        null );
     }
 
+    @Override
+    public List<FactHandle> insertAll(final Collection<?> objects) {
+        checkAlive();
+        return this.entryPointsManager.getDefaultEntryPoint().insertAll( objects );
+    }
+
     public void submit(AtomicAction action) {
         agenda.addPropagation( new PropagationEntry.AbstractPropagationEntry() {
             @Override
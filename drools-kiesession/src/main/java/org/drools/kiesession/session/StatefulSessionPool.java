@@ -16,6 +16,7 @@
 
 package org.drools.kiesession.session;
 
+import java.util.Collection;
 import java.util.function.Supplier;
 
 import org.drools.kiesession.rulebase.InternalKnowledgeBase;
@@ -26,9 +27,11 @@ public class StatefulSessionPool {
     private final InternalKnowledgeBase kbase;
     private final ScalablePool<StatefulKnowledgeSessionImpl> pool;
 
+    private volatile Collection<?> referenceFacts;
+
     public StatefulSessionPool( InternalKnowledgeBase kbase, int initialSize, Supplier<StatefulKnowledgeSessionImpl> supplier ) {
         this.kbase = kbase;
-        this.pool = new ScalablePool<>(initialSize, supplier, s -> s.reset(), s -> s.fromPool(null).dispose());
+        this.pool = new ScalablePool<>(initialSize, supplier, s -> s.resetToReferenceFacts(), s -> s.fromPool(null).dispose());
     }
 
     public InternalKnowledgeBase getKieBase() {
@@ -36,7 +39,27 @@ public class StatefulSessionPool {
     }
 
     public StatefulKnowledgeSessionImpl get() {
-        return pool.get().fromPool( this );
+        StatefulKnowledgeSessionImpl session = pool.get();
+        Collection<?> facts = referenceFacts;
+        if (session.getReferenceFacts() != facts) {
+            // the session has been created, or loaded with other reference facts, after the last call to setReferenceFacts
+            if (session.getReferenceFacts() != null) {
+                session.reset();
+            }
+            if (facts != null) {
+                session.loadReferenceFacts( facts );
+            }
+        }
+        return session.fromPool( this );
+    }
+
+    /**
+     * Sets the reference facts that each session of this pool inserts once, and that are retained when
+     * the session is released. Sessions already in the pool are reloaded lazily, the first time they are taken.
+     */
+    public StatefulSessionPool setReferenceFacts( Collection<?> referenceFacts ) {
+        this.referenceFacts = referenceFacts;
+        return this;
     }
 
     public void release(StatefulKnowledgeSessionImpl session) {
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric.event;
+
+import org.drools.metric.util.LatencyHistograms;
+import org.drools.metric.util.MetricLogUtils;
+import org.kie.api.runtime.rule.Match;
+import org.kie.internal.event.rule.RuleEventListener;
+
+/**
+ * Records the execution time of the rules consequences in the {@link LatencyHistograms}. It can be registered
+ * on a session through {@link org.kie.internal.event.rule.RuleEventManager#addEventListener(RuleEventListener)},
+ * e.g. <code>((RuleEventManager) ksession).addEventListener(new ConsequenceMetricListener())</code>, and it samples
+ * the consequences according to the <code>drools.metric.sampling.rate</code> property.
+ */
+public class ConsequenceMetricListener implements RuleEventListener {
+
+    private final ThreadLocal<ConsequenceStats> consequenceStats = ThreadLocal.withInitial(ConsequenceStats::new);
+
+    @Override
+    public void onBeforeMatchFire(Match match) {
+        ConsequenceStats stats = consequenceStats.get();
+        if (MetricLogUtils.getInstance().isSampled()) {
+            stats.match = match;
+            stats.startTime = System.nanoTime();
+        } else {
+            stats.match = null;
+        }
+    }
+
+    @Override
+    public void onAfterMatchFire(Match match) {
+        ConsequenceStats stats = consequenceStats.get();
+        // a different match means that the measured consequence failed or fired rules on its own, so it is discarded
+        if (stats.match == match) {
+            LatencyHistograms.INSTANCE.recordConsequence(match.getRule(), System.nanoTime() - stats.startTime);
+        }
+        stats.match = null;
+    }
+
+    private static class ConsequenceStats {
+        private Match match;
+        private long startTime;
+    }
+}
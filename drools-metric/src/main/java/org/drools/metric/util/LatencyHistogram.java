@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size, log-linear histogram of latencies in nanoseconds, in the spirit of HdrHistogram.
+ * Values lower than 64 are counted exactly, while larger ones are counted in buckets whose width grows with
+ * the magnitude of the value, so that the relative error of the reported percentiles stays below 1/32.
+ * Values larger than {@link #MAX_TRACKABLE_VALUE} (about 68 seconds) are counted as {@link #MAX_TRACKABLE_VALUE}.
+ * <p>
+ * Recording is lock free: the counts are spread by thread over a small fixed number of stripes of 8KB each, and each
+ * stripe is allocated only when a thread mapped to it records its first value, so an histogram only used by a single
+ * thread costs a single stripe and never more than 32KB.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    public static final long MAX_TRACKABLE_VALUE = (1L << 36) - 1;
+
+    private static final int BUCKETS_COUNT = indexOf(MAX_TRACKABLE_VALUE) + 1;
+
+    private static final int STRIPES = 4;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) Math.max(value, 0);
+        }
+        // shift the value so that only its SUB_BUCKET_BITS most significant bits are left
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value that would be counted in the bucket with the given index
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = (index % SUB_BUCKET_HALF_COUNT) + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public void record(long valueInNanos) {
+        getStripe().incrementAndGet(indexOf(Math.min(valueInNanos, MAX_TRACKABLE_VALUE)));
+    }
+
+    private AtomicLongArray getStripe() {
+        int i = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null) {
+            stripes.compareAndSet(i, null, new AtomicLongArray(BUCKETS_COUNT));
+            stripe = stripes.get(i);
+        }
+        return stripe;
+    }
+
+    /**
+     * Returns a snapshot of the counts of this histogram, merged among all the stripes. Values recorded
+     * concurrently with this method may or may not be part of the snapshot.
+     */
+    private long[] snapshot() {
+        long[] counts = new long[BUCKETS_COUNT];
+        for (int i = 0; i < STRIPES; i++) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < BUCKETS_COUNT; j++) {
+                    counts[j] += stripe.get(j);
+                }
+            }
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (long c : snapshot()) {
+            count += c;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the value in nanoseconds below which the given percentage (between 0 and 100) of the recorded values
+     * falls, or 0 if nothing has been recorded yet.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = snapshot();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return highestValueOf(i);
+            }
+        }
+        return MAX_TRACKABLE_VALUE;
+    }
+
+    public long getMaxValue() {
+        long[] counts = snapshot();
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return highestValueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric.util;
+
+import org.drools.core.common.BaseNode;
+import org.kie.api.definition.rule.Rule;
+
+/**
+ * Holds the latency histograms of the evaluations of the Phreak nodes and of the executions of the rules consequences.
+ * When Micrometer is available, the 50th, 99th and 99.9th percentiles of each histogram are also published as gauges.
+ */
+public final class LatencyHistograms {
+
+    public static final LatencyHistograms INSTANCE = new LatencyHistograms();
+
+    private static final int CONCURRENCY_LEVEL = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final StripedWeakCache<BaseNode, LatencyHistogram> nodeHistograms = new StripedWeakCache<>(CONCURRENCY_LEVEL);
+    private final StripedWeakCache<Rule, LatencyHistogram> consequenceHistograms = new StripedWeakCache<>(CONCURRENCY_LEVEL);
+
+    private LatencyHistograms() {
+        // No external instances.
+    }
+
+    public void recordNodeEvaluation(BaseNode node, long elapsedTimeInNanos) {
+        nodeHistograms.computeIfAbsent(node, LatencyHistograms::createNodeHistogram).record(elapsedTimeInNanos);
+    }
+
+    public void recordConsequence(Rule rule, long elapsedTimeInNanos) {
+        consequenceHistograms.computeIfAbsent(rule, LatencyHistograms::createConsequenceHistogram).record(elapsedTimeInNanos);
+    }
+
+    /**
+     * Returns the histogram of the evaluations of the given node, or null if none of them has been recorded
+     */
+    public LatencyHistogram getNodeHistogram(BaseNode node) {
+        return nodeHistograms.get(node);
+    }
+
+    /**
+     * Returns the histogram of the consequence executions of the given rule, or null if none of them has been recorded
+     */
+    public LatencyHistogram getConsequenceHistogram(Rule rule) {
+        return consequenceHistograms.get(rule);
+    }
+
+    private static LatencyHistogram createNodeHistogram(BaseNode node) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (MetricLogUtils.getInstance().isMicrometerAvailable()) {
+            MicrometerUtils.INSTANCE.registerNodeLatencyPercentiles(node, histogram);
+        }
+        return histogram;
+    }
+
+    private static LatencyHistogram createConsequenceHistogram(Rule rule) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (MetricLogUtils.getInstance().isMicrometerAvailable()) {
+            MicrometerUtils.INSTANCE.registerConsequenceLatencyPercentiles(rule, histogram);
+        }
+        return histogram;
+    }
+
+    public void clear() { // For testing.
+        nodeHistograms.clear();
+        consequenceHistograms.clear();
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.drools.metric.util;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.drools.core.common.BaseNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,16 +28,19 @@ public class MetricLogUtils {
 
     public static final String METRIC_LOGGER_ENABLED = "drools.metric.logger.enabled";
     private boolean enabled = Boolean.parseBoolean(System.getProperty(METRIC_LOGGER_ENABLED, "false"));
-    private boolean micrometerAvailable = isMicrometerAvailable();
+    private boolean micrometerAvailable = detectMicrometer();
 
     public static final String METRIC_LOGGER_THRESHOLD = "drools.metric.logger.threshold";
     private int threshold = Integer.parseInt(System.getProperty(METRIC_LOGGER_THRESHOLD, "500")); // microseconds
 
+    public static final String METRIC_SAMPLING_RATE = "drools.metric.sampling.rate";
+    private int samplingRate = Integer.parseInt(System.getProperty(METRIC_SAMPLING_RATE, "1")); // 1 out of samplingRate evaluations recorded in the histograms
+
     private final ThreadLocal<NodeStats> nodeStats = new ThreadLocal<>();
 
     private static final MetricLogUtils INSTANCE = new MetricLogUtils();
 
-    private static boolean isMicrometerAvailable() {
+    private static boolean detectMicrometer() {
         try {
             Class.forName("io.micrometer.core.instrument.Tag");
             return true;
@@ -61,9 +66,25 @@ public class MetricLogUtils {
         return enabled;
     }
 
+    public boolean isMicrometerAvailable() {
+        return micrometerAvailable;
+    }
+
+    public int getSamplingRate() {
+        return samplingRate;
+    }
+
+    /**
+     * Decides if the current evaluation has to be recorded in the latency histograms, according to the configured
+     * sampling rate. The threshold logging and the Micrometer meters still see every evaluation.
+     */
+    public boolean isSampled() {
+        return samplingRate <= 1 || ThreadLocalRandom.current().nextInt(samplingRate) == 0;
+    }
+
     public void startMetrics(BaseNode baseNode) {
         if (enabled) {
-            nodeStats.set(new NodeStats(baseNode));
+            nodeStats.set(new NodeStats(baseNode, isSampled()));
         } else {
             logger.warn("Metrics must not be started when disabled");
         }
@@ -87,6 +108,10 @@ public class MetricLogUtils {
                 long evalCount = stats.getEvalCount();
                 long elapsedTimeInNanos = (System.nanoTime() - stats.getStartTime());
                 long elapsedTimeInMicro = elapsedTimeInNanos / 1000;
+                BaseNode node = stats.getNode();
+                if (node != null && stats.isSampled()) {
+                    LatencyHistograms.INSTANCE.recordNodeEvaluation(node, elapsedTimeInNanos);
+                }
                 if (evalCount > 0 && elapsedTimeInMicro > threshold) {
                     if (micrometerAvailable) {
                         MicrometerUtils.INSTANCE.triggerMicrometer(stats.getNode(), evalCount, elapsedTimeInNanos);
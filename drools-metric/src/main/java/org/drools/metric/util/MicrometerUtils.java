@@ -1,14 +1,15 @@
 package org.drools.metric.util;
 
+import java.lang.ref.Cleaner;
 import java.time.Duration;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Collections;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
@@ -20,14 +21,24 @@ import org.kie.api.definition.rule.Rule;
 /**
  * All references to Micrometer are in this class, and therefore Micrometer is only required on the classpath when
  * this class is actually loaded.
+ * <p>
+ * The meters belong to the nodes and rules of a kbase, which has no disposal hook, so each meter is removed from the
+ * registry once the node or rule it has been registered for is garbage collected, i.e. once the kbase has been
+ * discarded or the rule removed from it.
  */
 public final class MicrometerUtils {
 
     public static final MicrometerUtils INSTANCE = new MicrometerUtils();
 
-    private final Map<BaseNode, Timer> averageElapsedTimeCache = new WeakHashMap<>(0);
-    private final Map<BaseNode, Timer> elapsedTimeCache = new WeakHashMap<>(0);
-    private final Map<BaseNode, Counter> evaluationCountCache = new WeakHashMap<>(0);
+    private static final int CONCURRENCY_LEVEL = 4 * Runtime.getRuntime().availableProcessors();
+
+    private static final double[] PUBLISHED_PERCENTILES = {50.0, 99.0, 99.9};
+
+    private static final Cleaner METERS_CLEANER = Cleaner.create();
+
+    private final StripedWeakCache<BaseNode, Timer> averageElapsedTimeCache = new StripedWeakCache<>(CONCURRENCY_LEVEL);
+    private final StripedWeakCache<BaseNode, Timer> elapsedTimeCache = new StripedWeakCache<>(CONCURRENCY_LEVEL);
+    private final StripedWeakCache<BaseNode, Counter> evaluationCountCache = new StripedWeakCache<>(CONCURRENCY_LEVEL);
 
     private MicrometerUtils() {
         // No external instances.
@@ -55,24 +66,53 @@ public final class MicrometerUtils {
                 node);
     }
 
-    private static <Meter_ extends Meter> void triggerMicrometer(Map<BaseNode, Meter_> cache, Function<Iterable<Tag>,
+    private static <Meter_ extends Meter> void triggerMicrometer(StripedWeakCache<BaseNode, Meter_> cache, Function<Iterable<Tag>,
             Meter_> meterConstructor, Consumer<Meter_> meterRecorder, BaseNode node) {
-        Meter_ meter = cache.computeIfAbsent(node, k -> { // Meter lookups take a lot of time; we cache meters per node.
-            Tag nodeIdTag = Tag.of("node.id", Long.toString(node.getId()));
-            Stream<Tag> allTags = Stream.of(nodeIdTag);
-            for (Rule rule : node.getAssociatedRules()) {
-                String ruleName = rule.getPackageName() + "." + rule.getName();
-                Tag ruleTag = Tag.of("rule", ruleName);
-                allTags = Stream.concat(allTags, Stream.of(ruleTag));
-            }
-            Iterable<Tag> tagsIterable = allTags.collect(Collectors.toSet());
-            // Look up the timer in the registry.
-            return meterConstructor.apply(tagsIterable);
-        });
+        // Meter lookups take a lot of time; we cache meters per node.
+        Meter_ meter = cache.computeIfAbsent(node, k -> removeWhenCollected(node, Metrics.globalRegistry, meterConstructor.apply(nodeTags(node))));
         // Now record the average elapsed time.
         meterRecorder.accept(meter);
     }
 
+    private static <Meter_ extends Meter> Meter_ removeWhenCollected(Object owner, MeterRegistry meterRegistry, Meter_ meter) {
+        // the cleaning action must not reference the owner, or it would never be collected
+        METERS_CLEANER.register(owner, () -> meterRegistry.remove(meter));
+        return meter;
+    }
+
+    private static Iterable<Tag> nodeTags(BaseNode node) {
+        Tag nodeIdTag = Tag.of("node.id", Long.toString(node.getId()));
+        Stream<Tag> allTags = Stream.of(nodeIdTag);
+        for (Rule rule : node.getAssociatedRules()) {
+            allTags = Stream.concat(allTags, Stream.of(ruleTag(rule)));
+        }
+        return allTags.collect(Collectors.toSet());
+    }
+
+    private static Tag ruleTag(Rule rule) {
+        return Tag.of("rule", rule.getPackageName() + "." + rule.getName());
+    }
+
+    public void registerNodeLatencyPercentiles(BaseNode node, LatencyHistogram histogram) {
+        registerLatencyPercentiles(node, "org.drools.metric.evaluation.latency", nodeTags(node), histogram);
+    }
+
+    public void registerConsequenceLatencyPercentiles(Rule rule, LatencyHistogram histogram) {
+        registerLatencyPercentiles(rule, "org.drools.metric.consequence.latency", Collections.singleton(ruleTag(rule)), histogram);
+    }
+
+    private static void registerLatencyPercentiles(Object owner, String name, Iterable<Tag> tags, LatencyHistogram histogram) {
+        MeterRegistry meterRegistry = Metrics.globalRegistry;
+        for (double percentile : PUBLISHED_PERCENTILES) {
+            // the gauges only keep a weak reference to the histogram, that lives as long as its node or rule
+            removeWhenCollected(owner, meterRegistry, Gauge.builder(name, histogram, h -> h.getValueAtPercentile(percentile))
+                    .tags(tags)
+                    .tag("percentile", Double.toString(percentile / 100.0))
+                    .baseUnit("nanoseconds")
+                    .register(meterRegistry));
+        }
+    }
+
     public void clear() { // For testing.
         averageElapsedTimeCache.clear();
         elapsedTimeCache.clear();
@@ -23,12 +23,21 @@ import org.drools.core.common.BaseNode;
 public class NodeStats {
 
     private boolean started = false;
+    private boolean sampled = true;
     private long evalCount = 0;
     private long startTime = 0;
     private WeakReference<BaseNode> nodeRef = null;
 
     public NodeStats(BaseNode node) {
+        this(node, true);
+    }
+
+    /**
+     * @param sampled whether this evaluation is recorded in the latency histogram of the node
+     */
+    public NodeStats(BaseNode node, boolean sampled) {
         this.started = true;
+        this.sampled = sampled;
         this.evalCount = 0;
         this.startTime = System.nanoTime();
         this.nodeRef = new WeakReference<>(node);
@@ -38,6 +47,10 @@ public class NodeStats {
         return started;
     }
 
+    public boolean isSampled() {
+        return sampled;
+    }
+
     public long getEvalCount() {
         return evalCount;
     }
@@ -56,6 +69,6 @@ public class NodeStats {
 
     @Override
     public String toString() {
-        return "NodeStats [started=" + started + ", evalCount=" + evalCount + ", startTime=" + startTime + ", node=" + (nodeRef == null ? "null" : nodeRef.get()) + "]";
+        return "NodeStats [started=" + started + ", sampled=" + sampled + ", evalCount=" + evalCount + ", startTime=" + startTime + ", node=" + (nodeRef == null ? "null" : nodeRef.get()) + "]";
     }
 }
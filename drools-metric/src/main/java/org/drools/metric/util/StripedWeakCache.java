@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric.util;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread safe cache with weak keys, split in independently locked stripes so that
+ * threads working on different keys, e.g. the nodes of different partitions of a multithreaded session, rarely
+ * contend on the same lock.
+ */
+public class StripedWeakCache<K, V> {
+
+    private final Map<K, V>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public StripedWeakCache(int concurrencyLevel) {
+        int size = Integer.highestOneBit(Math.max(concurrencyLevel - 1, 1)) << 1;
+        stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new WeakHashMap<>(0);
+        }
+    }
+
+    private Map<K, V> stripeFor(Object key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    public V get(K key) {
+        Map<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Map<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.computeIfAbsent(key, mappingFunction);
+        }
+    }
+
+    public void clear() {
+        for (Map<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.drools.metric;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.search.Search;
+import org.drools.metric.util.LatencyHistograms;
 import org.drools.metric.util.MetricLogUtils;
 import org.drools.metric.util.MicrometerUtils;
 import org.drools.mvel.CommonTestMethodBase;
@@ -27,6 +28,7 @@ abstract class AbstractMetricTest extends CommonTestMethodBase {
                 .meters()
                 .forEach(registry::remove);
         MicrometerUtils.INSTANCE.clear();
+        LatencyHistograms.INSTANCE.clear();
         registry = null;
     }
 
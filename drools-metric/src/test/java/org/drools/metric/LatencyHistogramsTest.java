@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric;
+
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.search.Search;
+import org.drools.metric.event.ConsequenceMetricListener;
+import org.drools.metric.util.LatencyHistogram;
+import org.drools.metric.util.LatencyHistograms;
+import org.drools.mvel.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.event.rule.RuleEventManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramsTest extends AbstractMetricTest {
+
+    @Test
+    public void testNodeAndConsequenceLatencies() {
+
+        String str =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                        "rule R1\n" +
+                        "when\n" +
+                        "  $p1 : Person(age > 5)\n" +
+                        "  $p2 : Person(age > $p1.age)\n" +
+                        "then\n" +
+                        "end\n" +
+                        "rule R2\n" +
+                        "when\n" +
+                        "  $p1 : Person(age > 5)\n" +
+                        "  $p2 : Person(age < $p1.age)\n" +
+                        "then\n" +
+                        "end\n";
+
+        KieBase kbase = loadKnowledgeBaseFromString(str);
+
+        KieSession ksession = kbase.newKieSession();
+        ((RuleEventManager) ksession).addEventListener(new ConsequenceMetricListener());
+        IntStream.range(0, 10).forEach(i -> ksession.insert(new Person("John" + i, i)));
+
+        int fired = ksession.fireAllRules();
+        ksession.dispose();
+        assertThat(fired).isEqualTo(36);
+
+        LatencyHistogram r1 = LatencyHistograms.INSTANCE.getConsequenceHistogram(kbase.getRule("defaultpkg", "R1"));
+        LatencyHistogram r2 = LatencyHistograms.INSTANCE.getConsequenceHistogram(kbase.getRule("defaultpkg", "R2"));
+        assertThat(r1.getCount()).isEqualTo(6);
+        assertThat(r2.getCount()).isEqualTo(30);
+        assertThat(r2.getValueAtPercentile(99.9)).isGreaterThan(0);
+
+        // p50, p99 and p999 for each of the 2 join nodes and of the 2 consequences
+        Collection<Gauge> nodeGauges = Search.in(registry)
+                .name("org.drools.metric.evaluation.latency")
+                .gauges();
+        assertThat(nodeGauges).hasSize(6);
+        Collection<Gauge> consequenceGauges = Search.in(registry)
+                .name("org.drools.metric.consequence.latency")
+                .gauges();
+        assertThat(consequenceGauges).hasSize(6);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsAreContiguous() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(index).isBetween(previous, previous + 1);
+            assertThat(LatencyHistogram.highestValueOf(index)).isGreaterThanOrEqualTo(value);
+            previous = index;
+        }
+    }
+
+    @Test
+    public void testRelativeError() {
+        for (long value = 1; value < LatencyHistogram.MAX_TRACKABLE_VALUE; value = value * 3 + 7) {
+            long highest = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+            assertThat(highest - value).isLessThanOrEqualTo(value / 32);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(0);
+
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getValueAtPercentile(50)).isBetween(5_000_000L, 5_000_000L + 5_000_000L / 32);
+        assertThat(histogram.getValueAtPercentile(99)).isBetween(9_900_000L, 9_900_000L + 9_900_000L / 32);
+        assertThat(histogram.getValueAtPercentile(99.9)).isBetween(9_990_000L, 9_990_000L + 9_990_000L / 32);
+        assertThat(histogram.getMaxValue()).isBetween(10_000_000L, 10_000_000L + 10_000_000L / 32);
+
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(LatencyHistogram.MAX_TRACKABLE_VALUE);
+
+        histogram.reset();
+        assertThat(histogram.getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 1000);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(800_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(999)));
+    }
+}
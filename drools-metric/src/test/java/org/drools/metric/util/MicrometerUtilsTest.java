@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.metric.util;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.search.Search;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MicrometerUtilsTest {
+
+    private static final String CONSEQUENCE_LATENCY = "org.drools.metric.consequence.latency";
+
+    @After
+    public void clearMeters() {
+        Search.in(Metrics.globalRegistry).name(CONSEQUENCE_LATENCY).meters().forEach(Metrics.globalRegistry::remove);
+    }
+
+    @Test(timeout = 20_000)
+    public void testGaugesAreRemovedOnceTheirRuleIsCollected() throws InterruptedException {
+        RuleImpl rule = new RuleImpl("R1");
+        MicrometerUtils.INSTANCE.registerConsequenceLatencyPercentiles(rule, new LatencyHistogram());
+        assertThat(Search.in(Metrics.globalRegistry).name(CONSEQUENCE_LATENCY).gauges()).hasSize(3);
+
+        // dropping the last reference to the rule is what discarding its kbase does
+        rule = null;
+        while (!Search.in(Metrics.globalRegistry).name(CONSEQUENCE_LATENCY).gauges().isEmpty()) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+}
@@ -59,11 +59,14 @@ import org.drools.modelcompiler.util.EvaluationUtil;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.kie.api.KieBase;
+import org.kie.api.KieServices;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.Match;
 import org.kie.internal.event.rule.RuleEventListener;
 import org.kie.internal.event.rule.RuleEventManager;
+import org.kie.internal.runtime.conf.GroupByParallelThresholdOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.drools.model.DSL.from;
@@ -1964,5 +1967,62 @@ public class GroupByTest {
         ksession.fireAllRules();
         assertThat(results.contains(84)).isTrue();
     }
-}
 
+    @Test
+    public void testParallelReaccumulation() {
+        // 1 forces the parallel re-accumulation of the groups, while a threshold never reached only defers it
+        checkReaccumulation(1);
+        checkReaccumulation(Integer.MAX_VALUE);
+    }
+
+    private void checkReaccumulation(int parallelThreshold) {
+        Global<Map> var_results = D.globalOf(Map.class, "defaultpkg", "results");
+
+        Variable<String> var_$key = D.declarationOf(String.class);
+        Variable<Person> var_$p = D.declarationOf(Person.class);
+        Variable<Integer> var_$age = D.declarationOf(Integer.class);
+        Variable<Integer> var_$maxAge = D.declarationOf(Integer.class);
+
+        Rule rule1 = D.rule("R1").build(
+                D.groupBy(
+                        D.pattern(var_$p).bind(var_$age, person -> person.getAge()),
+                        var_$p, var_$key, Person::getName,
+                        // max doesn't support reverse, so every delete causes the re-accumulation of a group
+                        D.accFunction(IntegerMaxAccumulateFunction::new, var_$age).as(var_$maxAge)),
+                D.on(var_$key, var_results, var_$maxAge)
+                        .execute(($key, results, $maxAge) -> results.put($key, $maxAge))
+        );
+
+        Model model = new ModelImpl().addRule( rule1 ).addGlobal( var_results );
+        KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption( GroupByParallelThresholdOption.get( parallelThreshold ) );
+        KieSession ksession = KieBaseBuilder.createKieBaseFromModel( model ).newKieSession( conf, null );
+
+        Map<String, Integer> results = new HashMap<>();
+        ksession.setGlobal( "results", results );
+
+        int groups = 500;
+        List<FactHandle> fhs = new ArrayList<>();
+        for (int i = 0; i < groups * 10; i++) {
+            fhs.add( ksession.insert( new Person( "P" + (i % groups), i ) ) );
+        }
+        ksession.fireAllRules();
+
+        assertThat(results).hasSize(groups);
+        assertThat(results.get("P0")).isEqualTo(groups * 9);
+
+        // delete the oldest person of each group and rename the second oldest one
+        for (int i = 0; i < groups; i++) {
+            ksession.delete( fhs.get( groups * 9 + i ) );
+            ksession.update( fhs.get( groups * 8 + i ), new Person( "Q" + i, groups * 8 + i ) );
+        }
+        ksession.fireAllRules();
+
+        assertThat(results).hasSize(groups * 2);
+        for (int i = 0; i < groups; i++) {
+            assertThat(results.get("P" + i)).isEqualTo(groups * 7 + i);
+            assertThat(results.get("Q" + i)).isEqualTo(groups * 8 + i);
+        }
+        ksession.dispose();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.model.codegen.execmodel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A storm of logical insertions: a single match justifying many facts, fired again after an update of its
+ * fact or cancelled by its deletion, and many matches justifying the same fact, deleted one by one.
+ */
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LogicalInsertStormBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int justifications;
+
+    private KieSession kieSession;
+    private Storm storm;
+    private FactHandle stormHandle;
+    private List<Trigger> triggers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        KieBase kieBase = buildKieBase();
+        kieSession = kieBase.newKieSession();
+
+        storm = new Storm(justifications);
+        stormHandle = kieSession.insert(storm);
+
+        triggers = new ArrayList<>(justifications);
+        for (int i = 0; i < justifications; i++) {
+            triggers.add(new Trigger(i));
+        }
+        kieSession.fireAllRules();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kieSession.dispose();
+    }
+
+    /**
+     * The match fires again and justifies the same facts in the reverse order, all its previous
+     * justifications being reused.
+     */
+    @Benchmark
+    public int refire() {
+        storm.setVersion(storm.getVersion() + 1);
+        kieSession.update(stormHandle, storm);
+        return kieSession.fireAllRules();
+    }
+
+    /**
+     * All the logical insertions of the match are retracted at once when its fact is deleted.
+     */
+    @Benchmark
+    public int retractAndInsert() {
+        kieSession.delete(stormHandle);
+        int fired = kieSession.fireAllRules();
+        stormHandle = kieSession.insert(storm);
+        return fired + kieSession.fireAllRules();
+    }
+
+    /**
+     * Every trigger justifies the same fact, which is retracted only with the last of them.
+     */
+    @Benchmark
+    public int sharedJustification() {
+        List<FactHandle> handles = new ArrayList<>(triggers.size());
+        for (Trigger trigger : triggers) {
+            handles.add(kieSession.insert(trigger));
+        }
+        int fired = kieSession.fireAllRules();
+        handles.forEach(kieSession::delete);
+        return fired + kieSession.fireAllRules();
+    }
+
+    private static KieBase buildKieBase() {
+        String drl =
+                "import " + Storm.class.getCanonicalName() + ";\n" +
+                "import " + Trigger.class.getCanonicalName() + ";\n" +
+                "import " + Derived.class.getCanonicalName() + ";\n" +
+                "rule Storm when\n" +
+                "  $s : Storm()\n" +
+                "then\n" +
+                "  for (int i = 0; i < $s.getSize(); i++) {\n" +
+                "    insertLogical(new Derived($s.getVersion() % 2 == 0 ? i : $s.getSize() - 1 - i));\n" +
+                "  }\n" +
+                "end\n" +
+                "rule Shared when\n" +
+                "  Trigger()\n" +
+                "then\n" +
+                "  insertLogical(new Derived(-1));\n" +
+                "end\n";
+
+        KieServices ks = KieServices.get();
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.write("src/main/resources/r.drl", drl);
+        ks.newKieBuilder(kfs).buildAll(ExecutableModelProject.class);
+        return ks.newKieContainer(ks.getRepository().getDefaultReleaseId()).getKieBase();
+    }
+
+    public static class Storm {
+
+        private final int size;
+        private int version;
+
+        public Storm(int size) {
+            this.size = size;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+    }
+
+    public static class Trigger {
+
+        private final int id;
+
+        public Trigger(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+
+    public static class Derived {
+
+        private final int index;
+
+        public Derived(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Derived && ((Derived) o).index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+    }
+}
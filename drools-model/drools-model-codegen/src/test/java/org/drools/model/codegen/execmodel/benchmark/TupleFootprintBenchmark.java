@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.model.codegen.execmodel.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.conf.TuplePoolSizeOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by the tuples of a chain of joins of growing depth, and the time of a full
+ * insert, fire and delete cycle on a long lived session. The retained heap per depth is printed when the
+ * trial starts, run with <code>-prof gc</code> to also get the allocation rate of each cycle.
+ */
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TupleFootprintBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int joinDepth;
+
+    @Param({"0", "1024"})
+    private int tuplePoolSize;
+
+    @Param({"10000"})
+    private int chains;
+
+    private KieBase kieBase;
+    private KieSession kieSession;
+    private List<Fact> facts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kieBase = buildKieBase(joinDepth);
+
+        facts = new ArrayList<>();
+        for (int key = 0; key < chains; key++) {
+            for (int level = 0; level <= joinDepth; level++) {
+                facts.add(new Fact(key, level));
+            }
+        }
+
+        long before = usedHeap();
+        kieSession = newKieSession();
+        List<FactHandle> handles = insertAndFire();
+        long retained = usedHeap() - before;
+        System.out.printf("%nJoin depth %d with %,d chains retains %,d bytes of heap (%,d bytes per chain)%n",
+                          joinDepth, chains, retained, retained / chains);
+        handles.forEach(kieSession::delete);
+        kieSession.fireAllRules();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public int insertFireAndDelete() {
+        List<FactHandle> handles = insertAndFire();
+        handles.forEach(kieSession::delete);
+        return kieSession.fireAllRules() + handles.size();
+    }
+
+    private List<FactHandle> insertAndFire() {
+        List<FactHandle> handles = new ArrayList<>(facts.size());
+        for (Fact fact : facts) {
+            handles.add(kieSession.insert(fact));
+        }
+        kieSession.fireAllRules();
+        return handles;
+    }
+
+    private KieSession newKieSession() {
+        KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption(TuplePoolSizeOption.get(tuplePoolSize));
+        return kieBase.newKieSession(conf, null);
+    }
+
+    private static KieBase buildKieBase(int joinDepth) {
+        StringBuilder drl = new StringBuilder();
+        drl.append("import ").append(Fact.class.getCanonicalName()).append(";\n")
+           .append("rule Chain when\n")
+           .append("  $f0 : Fact( level == 0 )\n");
+        for (int level = 1; level <= joinDepth; level++) {
+            drl.append("  $f").append(level).append(" : Fact( level == ").append(level)
+               .append(", key == $f").append(level - 1).append(".key )\n");
+        }
+        drl.append("then\n")
+           .append("end\n");
+
+        KieServices ks = KieServices.get();
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.write("src/main/resources/r.drl", drl.toString());
+        ks.newKieBuilder(kfs).buildAll(ExecutableModelProject.class);
+        return ks.newKieContainer(ks.getRepository().getDefaultReleaseId()).getKieBase();
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static class Fact {
+
+        private final int key;
+        private final int level;
+
+        public Fact(int key, int level) {
+            this.key = key;
+            this.level = level;
+        }
+
+        public int getKey() {
+            return key;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+    }
+}
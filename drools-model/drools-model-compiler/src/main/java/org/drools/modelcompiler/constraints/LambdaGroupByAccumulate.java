@@ -26,6 +26,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.rule.Accumulate;
 import org.drools.core.rule.Declaration;
+import org.drools.core.rule.GroupByAccumulate;
 import org.drools.core.rule.accessor.Accumulator;
 import org.drools.core.reteoo.Tuple;
 import org.drools.core.util.index.TupleList;
@@ -33,7 +34,7 @@ import org.drools.model.functions.Function1;
 import org.drools.model.functions.FunctionN;
 
 
-public class LambdaGroupByAccumulate extends Accumulate {
+public class LambdaGroupByAccumulate extends Accumulate implements GroupByAccumulate {
 
     private Accumulate innerAccumulate;
     private Declaration[] groupingDeclarations;
@@ -117,6 +118,12 @@ public class LambdaGroupByAccumulate extends Accumulate {
     public Object accumulate(Object workingMemoryContext, Tuple match, InternalFactHandle handle,
                              GroupByContext groupByContext, TupleList<AccumulateContextEntry> tupleList, ReteEvaluator reteEvaluator) {
         groupByContext.moveToPropagateTupleList(tupleList);
+        return accumulateInGroup(workingMemoryContext, match, handle, tupleList, reteEvaluator);
+    }
+
+    @Override
+    public Object accumulateInGroup(Object workingMemoryContext, Tuple match, InternalFactHandle handle,
+                                    TupleList<AccumulateContextEntry> tupleList, ReteEvaluator reteEvaluator) {
         return innerAccumulate.accumulate(workingMemoryContext, tupleList.getContext(), match, handle, reteEvaluator);
     }
 
@@ -324,7 +324,15 @@ public class EvaluationUtil {
             return org.drools.core.util.bitmask.EmptyButLastBitMask.get();
         }
         if (mask instanceof OpenBitSet ) {
-            return new org.drools.core.util.bitmask.OpenBitSet( ( (OpenBitSet) mask ).getBits(), ( (OpenBitSet) mask ).getNumWords() );
+            long[] bits = ( (OpenBitSet) mask ).getBits();
+            int numWords = ( (OpenBitSet) mask ).getNumWords();
+            if (numWords <= 2) {
+                return new org.drools.core.util.bitmask.TwoLongBitMask( bits[0], numWords > 1 ? bits[1] : 0L );
+            }
+            if (numWords <= 4) {
+                return new org.drools.core.util.bitmask.FourLongBitMask( bits[0], bits[1], bits[2], numWords > 3 ? bits[3] : 0L );
+            }
+            return new org.drools.core.util.bitmask.OpenBitSet( bits, numWords );
         }
         throw new IllegalArgumentException( "Unknown bitmask: " + mask );
     }
@@ -38,6 +38,9 @@ public class SessionMarshallingHelper {
     private InternalMarshaller            marshaller;
     private Environment                   env;
 
+    private boolean                       incremental;
+    private SnapshotDelta.Base            previous;
+
     /**
      * Exist Info, so load session from here
      */
@@ -47,6 +50,7 @@ public class SessionMarshallingHelper {
         this.kbase = kbase;
         this.conf = conf;
         this.env = env;
+        this.incremental = Boolean.TRUE.equals( env.get( EnvironmentName.USE_INCREMENTAL_SNAPSHOTS ) );
         ObjectMarshallingStrategy[] strategies = (ObjectMarshallingStrategy[]) env.get( EnvironmentName.OBJECT_MARSHALLING_STRATEGIES );
 
         // use strategies if provided in the environment
@@ -64,6 +68,7 @@ public class SessionMarshallingHelper {
         this.kbase = ksession.getKieBase();
         this.conf = conf;
         this.env = ksession.getEnvironment();
+        this.incremental = Boolean.TRUE.equals( this.env.get( EnvironmentName.USE_INCREMENTAL_SNAPSHOTS ) );
         ObjectMarshallingStrategy[] strategies = (ObjectMarshallingStrategy[]) this.env.get( EnvironmentName.OBJECT_MARSHALLING_STRATEGIES );
 
         // use strategies if provided in the environment
@@ -85,6 +90,23 @@ public class SessionMarshallingHelper {
         return baos.toByteArray();
     }
 
+    /**
+     * Returns the given snapshot encoded as a delta from the previous snapshot. The snapshot is indexed,
+     * so that the delta of the next commit doesn't have to index it again.
+     */
+    public byte[] getSnapshotDelta( byte[] previous, byte[] snapshot ) {
+        if ( this.previous == null || !this.previous.isIndexOf( previous ) ) {
+            this.previous = SnapshotDelta.index( previous );
+        }
+        byte[] delta = SnapshotDelta.diff( this.previous, snapshot );
+        this.previous = SnapshotDelta.index( snapshot );
+        return delta;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
     public KieSession loadSnapshot( byte[] bytes,
                                     KieSession ksession,
                                     KieSessionInitializer initializer ) {
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Encodes a session snapshot as the difference from a previous (base) snapshot of the same session.
+ *
+ * Both snapshots are cut in content defined chunks, so that a change in the middle of the snapshot only
+ * affects the chunks around it and doesn't shift the boundaries of the following ones. The delta is then
+ * a sequence of copies of ranges of the base and of literal bytes for the chunks that the base doesn't contain.
+ */
+public final class SnapshotDelta {
+
+    private static final int VERSION = 1;
+
+    private static final byte END = 0;
+    private static final byte COPY = 1;
+    private static final byte LITERAL = 2;
+
+    static final int MIN_CHUNK_SIZE = 1 << 10;
+    static final int MAX_CHUNK_SIZE = 1 << 16;
+
+    // the gear hash depends only on the last 64 bytes, a boundary is found on average every 4KB after the minimum size
+    private static final int WINDOW_SIZE = 64;
+    private static final int BOUNDARY_SHIFT = 64 - 12;
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom( 0x2545F4914F6CDD1DL );
+        for ( int i = 0; i < GEAR.length; i++ ) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private SnapshotDelta() { }
+
+    public static Base index( byte[] base ) {
+        return new Base( base );
+    }
+
+    public static byte[] diff( Base base, byte[] snapshot ) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try ( DataOutputStream out = new DataOutputStream( baos ) ) {
+            out.writeInt( VERSION );
+            out.writeInt( base.bytes.length );
+            out.writeLong( base.checksum );
+            out.writeInt( snapshot.length );
+
+            int copyOffset = 0;
+            int copyLength = 0;
+            int literalOffset = 0;
+            int literalLength = 0;
+            for ( int start = 0, end; start < snapshot.length; start = end ) {
+                end = nextBoundary( snapshot, start );
+                long chunk = base.find( snapshot, start, end );
+                if ( chunk < 0 ) {
+                    writeCopy( out, copyOffset, copyLength );
+                    copyLength = 0;
+                    if ( literalLength == 0 ) {
+                        literalOffset = start;
+                    }
+                    literalLength += end - start;
+                } else {
+                    writeLiteral( out, snapshot, literalOffset, literalLength );
+                    literalLength = 0;
+                    int offset = (int) ( chunk >>> 32 );
+                    if ( copyLength > 0 && copyOffset + copyLength == offset ) {
+                        copyLength += end - start;
+                    } else {
+                        writeCopy( out, copyOffset, copyLength );
+                        copyOffset = offset;
+                        copyLength = end - start;
+                    }
+                }
+            }
+            writeCopy( out, copyOffset, copyLength );
+            writeLiteral( out, snapshot, literalOffset, literalLength );
+            out.writeByte( END );
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to encode session snapshot delta", e );
+        }
+        return baos.toByteArray();
+    }
+
+    public static byte[] apply( byte[] base, byte[] delta ) {
+        try ( DataInputStream in = new DataInputStream( new ByteArrayInputStream( delta ) ) ) {
+            int version = in.readInt();
+            if ( version != VERSION ) {
+                throw new IllegalStateException( "Unknown session snapshot delta version " + version );
+            }
+            if ( in.readInt() != base.length || in.readLong() != checksum( base ) ) {
+                throw new IllegalStateException( "The session snapshot delta doesn't belong to the given base snapshot" );
+            }
+
+            byte[] snapshot = new byte[in.readInt()];
+            int position = 0;
+            for ( byte op = in.readByte(); op != END; op = in.readByte() ) {
+                int length;
+                if ( op == COPY ) {
+                    int offset = in.readInt();
+                    length = in.readInt();
+                    System.arraycopy( base, offset, snapshot, position, length );
+                } else if ( op == LITERAL ) {
+                    length = in.readInt();
+                    in.readFully( snapshot, position, length );
+                } else {
+                    throw new IllegalStateException( "Unknown session snapshot delta operation " + op );
+                }
+                position += length;
+            }
+            if ( position != snapshot.length ) {
+                throw new IllegalStateException( "Truncated session snapshot delta" );
+            }
+            return snapshot;
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to decode session snapshot delta", e );
+        }
+    }
+
+    private static void writeCopy( DataOutputStream out, int offset, int length ) throws IOException {
+        if ( length > 0 ) {
+            out.writeByte( COPY );
+            out.writeInt( offset );
+            out.writeInt( length );
+        }
+    }
+
+    private static void writeLiteral( DataOutputStream out, byte[] bytes, int offset, int length ) throws IOException {
+        if ( length > 0 ) {
+            out.writeByte( LITERAL );
+            out.writeInt( length );
+            out.write( bytes, offset, length );
+        }
+    }
+
+    static int nextBoundary( byte[] bytes, int start ) {
+        int limit = Math.min( bytes.length, start + MAX_CHUNK_SIZE );
+        int min = start + MIN_CHUNK_SIZE;
+        if ( min >= limit ) {
+            return limit;
+        }
+        long hash = 0;
+        for ( int i = min - WINDOW_SIZE; i < limit; i++ ) {
+            hash = ( hash << 1 ) + GEAR[bytes[i] & 0xFF];
+            if ( i >= min && ( hash >>> BOUNDARY_SHIFT ) == 0 ) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static long hash( byte[] bytes, int start, int end ) {
+        long hash = 0xcbf29ce484222325L;
+        for ( int i = start; i < end; i++ ) {
+            hash = ( hash ^ ( bytes[i] & 0xFF ) ) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long checksum( byte[] bytes ) {
+        CRC32 crc = new CRC32();
+        crc.update( bytes, 0, bytes.length );
+        return crc.getValue();
+    }
+
+    /**
+     * The chunks of a base snapshot, indexed by their hash.
+     */
+    public static final class Base {
+
+        private final byte[] bytes;
+        private final long checksum;
+
+        // hash of the chunk -> offset in the upper and length in the lower 32 bits
+        private final Map<Long, Long> chunks = new HashMap<>();
+
+        private Base( byte[] bytes ) {
+            this.bytes = bytes;
+            this.checksum = checksum( bytes );
+            for ( int start = 0, end; start < bytes.length; start = end ) {
+                end = nextBoundary( bytes, start );
+                chunks.putIfAbsent( hash( bytes, start, end ), ( (long) start << 32 ) | ( end - start ) );
+            }
+        }
+
+        public boolean isIndexOf( byte[] base ) {
+            return bytes == base;
+        }
+
+        private long find( byte[] snapshot, int start, int end ) {
+            Long chunk = chunks.get( hash( snapshot, start, end ) );
+            if ( chunk == null ) {
+                return -1;
+            }
+            int offset = (int) ( chunk >>> 32 );
+            int length = (int) chunk.longValue();
+            // a hash collision must never corrupt the snapshot
+            return length == end - start && Arrays.equals( bytes, offset, offset + length, snapshot, start, end ) ? chunk : -1;
+        }
+    }
+}
@@ -15,24 +15,38 @@
 
 package org.drools.persistence.info;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
+import javax.persistence.OrderColumn;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Transient;
 import javax.persistence.Version;
 
 import org.drools.persistence.api.PersistentSession;
 import org.drools.persistence.SessionMarshallingHelper;
+import org.drools.persistence.SnapshotDelta;
 
+// META-INF/SessionInfo.hbm.xml maps this entity with dynamic updates on Hibernate, so that an incremental
+// snapshot doesn't rewrite the base one
 @Entity
 @SequenceGenerator(name="sessionInfoIdSeq", sequenceName="SESSIONINFO_ID_SEQ")
 public class SessionInfo implements PersistentSession {
+
+    // the deltas are written as a new full snapshot once they add up to more than a quarter of the base one
+    private static final int COMPACTION_DIVISOR = 4;
     
     private @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator="sessionInfoIdSeq")
@@ -49,8 +63,21 @@ public class SessionInfo implements PersistentSession {
     @Column(length=2147483647)
     private byte[]             rulesByteArray;
 
+    // the changes since rulesByteArray was written when the session is persisted incrementally, each delta
+    // is encoded from the snapshot of the previous one, so that a commit only appends its own changes
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "SessionInfo_Deltas", joinColumns = @JoinColumn(name = "SessionInfo_id"))
+    @OrderColumn(name = "DELTA_ORDER")
+    @Lob
+    @Column(name = "rulesDeltaByteArray", length=2147483647)
+    private List<byte[]>       rulesDeltas = new ArrayList<>();
+
     @Transient
     SessionMarshallingHelper helper;
+
+    // the base snapshot with all the deltas applied
+    @Transient
+    private byte[]             snapshot;
     
     public SessionInfo() {
         this.startDate = new Date();
@@ -74,12 +101,25 @@ public class SessionInfo implements PersistentSession {
     
     public void setData( byte[] data) {
         this.rulesByteArray = data;
+        this.rulesDeltas.clear();
+        this.snapshot = data;
     }
     
     public byte[] getData() {
-        return this.rulesByteArray;
+        if ( this.snapshot == null ) {
+            byte[] data = this.rulesByteArray;
+            for ( byte[] delta : this.rulesDeltas ) {
+                data = SnapshotDelta.apply( data, delta );
+            }
+            this.snapshot = data;
+        }
+        return this.snapshot;
     }
     
+    public List<byte[]> getDeltas() {
+        return this.rulesDeltas;
+    }
+
     public Date getStartDate() {
         return this.startDate;
     }
@@ -94,7 +134,25 @@ public class SessionInfo implements PersistentSession {
 
     @Override
     public void transform() {
-        this.rulesByteArray  = this.helper.getSnapshot();
+        byte[] snapshot = this.helper.getSnapshot();
+        if ( this.helper.isIncremental() && this.rulesByteArray != null ) {
+            byte[] previous = getData();
+            if ( Arrays.equals( previous, snapshot ) ) {
+                return;
+            }
+            // the base and the previous deltas are left untouched, so that only the new delta needs to be written
+            byte[] delta = this.helper.getSnapshotDelta( previous, snapshot );
+            int deltasSize = delta.length;
+            for ( byte[] previousDelta : this.rulesDeltas ) {
+                deltasSize += previousDelta.length;
+            }
+            if ( deltasSize <= this.rulesByteArray.length / COMPACTION_DIVISOR ) {
+                this.rulesDeltas.add( delta );
+                this.snapshot = snapshot;
+                return;
+            }
+        }
+        setData( snapshot );
     }
 
     public void setId(Long ksessionId) {
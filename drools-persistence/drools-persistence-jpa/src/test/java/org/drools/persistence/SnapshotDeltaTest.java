@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.persistence;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SnapshotDeltaTest {
+
+    private static final int SIZE = 1 << 20;
+
+    @Test
+    public void testUnchangedSnapshot() {
+        byte[] base = randomBytes(SIZE, 1);
+
+        byte[] delta = SnapshotDelta.diff(SnapshotDelta.index(base), base.clone());
+
+        // header, a single copy of the whole base and the end marker
+        assertThat(delta.length).isLessThan(64);
+        assertThat(SnapshotDelta.apply(base, delta)).isEqualTo(base);
+    }
+
+    @Test
+    public void testChangedBytes() {
+        byte[] base = randomBytes(SIZE, 2);
+        byte[] snapshot = base.clone();
+        for (int i = 0; i < 16; i++) {
+            snapshot[SIZE / 3 + i]++;
+        }
+
+        assertSmallDelta(base, snapshot);
+    }
+
+    @Test
+    public void testInsertedAndRemovedBytes() {
+        byte[] base = randomBytes(SIZE, 3);
+
+        // the boundaries of the chunks after the change don't move with the shifted content
+        byte[] inserted = new byte[SIZE + 100];
+        System.arraycopy(base, 0, inserted, 0, SIZE / 2);
+        System.arraycopy(base, SIZE / 2, inserted, SIZE / 2 + 100, SIZE / 2);
+        assertSmallDelta(base, inserted);
+
+        byte[] removed = new byte[SIZE - 100];
+        System.arraycopy(base, 0, removed, 0, SIZE / 2);
+        System.arraycopy(base, SIZE / 2 + 100, removed, SIZE / 2, SIZE / 2 - 100);
+        assertSmallDelta(base, removed);
+    }
+
+    @Test
+    public void testUnrelatedSnapshot() {
+        byte[] base = randomBytes(SIZE, 4);
+        byte[] snapshot = randomBytes(SIZE / 2, 5);
+
+        byte[] delta = SnapshotDelta.diff(SnapshotDelta.index(base), snapshot);
+
+        assertThat(delta.length).isGreaterThan(snapshot.length);
+        assertThat(SnapshotDelta.apply(base, delta)).isEqualTo(snapshot);
+    }
+
+    @Test
+    public void testEmptySnapshots() {
+        byte[] empty = new byte[0];
+        byte[] small = randomBytes(100, 6);
+
+        assertThat(SnapshotDelta.apply(empty, SnapshotDelta.diff(SnapshotDelta.index(empty), small))).isEqualTo(small);
+        assertThat(SnapshotDelta.apply(small, SnapshotDelta.diff(SnapshotDelta.index(small), empty))).isEqualTo(empty);
+    }
+
+    @Test
+    public void testDeltaOfAnotherBase() {
+        byte[] base = randomBytes(SIZE, 7);
+        byte[] delta = SnapshotDelta.diff(SnapshotDelta.index(base), base);
+
+        byte[] otherBase = base.clone();
+        otherBase[0]++;
+
+        assertThatThrownBy(() -> SnapshotDelta.apply(otherBase, delta)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> SnapshotDelta.apply(Arrays.copyOf(base, SIZE - 1), delta)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void assertSmallDelta(byte[] base, byte[] snapshot) {
+        byte[] delta = SnapshotDelta.diff(SnapshotDelta.index(base), snapshot);
+        assertThat(delta.length).isLessThan(4 * SnapshotDelta.MAX_CHUNK_SIZE);
+        assertThat(SnapshotDelta.apply(base, delta)).isEqualTo(snapshot);
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
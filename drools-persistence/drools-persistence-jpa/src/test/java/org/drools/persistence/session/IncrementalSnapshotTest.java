@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.persistence.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.drools.kiesession.rulebase.InternalKnowledgeBase;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.drools.persistence.info.SessionInfo;
+import org.drools.persistence.util.DroolsPersistenceUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.command.CommandFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.persistence.jpa.JPAKnowledgeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.drools.persistence.util.DroolsPersistenceUtil.DROOLS_INCREMENTAL_PERSISTENCE_UNIT_NAME;
+import static org.kie.api.runtime.EnvironmentName.ENTITY_MANAGER_FACTORY;
+
+public class IncrementalSnapshotTest {
+
+    private Map<String, Object> context;
+    private EntityManagerFactory emf;
+
+    private static final String SIMPLE_RULE =
+              "package org.kie.test\n"
+            + "global java.util.List list\n"
+            + "rule rule1\n"
+            + "when\n"
+            + "  Integer(intValue > 0)\n"
+            + "then\n"
+            + "  list.add( 1 );\n"
+            + "end\n"
+            + "\n";
+
+    @Before
+    public void setup() {
+        context = DroolsPersistenceUtil.setupWithPoolingDataSource(DROOLS_INCREMENTAL_PERSISTENCE_UNIT_NAME);
+        emf = (EntityManagerFactory) context.get(ENTITY_MANAGER_FACTORY);
+    }
+
+    @After
+    public void cleanUp() {
+        DroolsPersistenceUtil.cleanUp(context);
+    }
+
+    @Test
+    public void testEachCommitAppendsItsOwnDelta() {
+        final Environment env = createEnvironment();
+        KieSession kieSession = JPAKnowledgeService.newStatefulKnowledgeSession(initializeKnowledgeBase(), null, env);
+        kieSession.execute(CommandFactory.newInsertElements(integers(1, 20000)));
+        final int baseLength = findSessionInfo(kieSession.getIdentifier()).getData().length;
+
+        // each delta only contains the changes of its own commit, so the earlier deltas are left as they were
+        List<byte[]> previousDeltas = new ArrayList<>();
+        for (int i = 20001; i <= 20005; i++) {
+            kieSession.insert(i);
+            final List<byte[]> deltas = findSessionInfo(kieSession.getIdentifier()).getDeltas();
+            assertThat(deltas).hasSize(i - 20000);
+            assertThat(deltas.subList(0, previousDeltas.size())).containsExactlyElementsOf(previousDeltas);
+            assertThat(deltas.get(deltas.size() - 1).length).isLessThan(baseLength / 20);
+            previousDeltas = deltas;
+        }
+
+        kieSession = reloadSession(kieSession, env);
+        assertThat(kieSession.getObjects()).hasSize(20005);
+
+        final List<Object> list = new ArrayList<>();
+        kieSession.setGlobal("list", list);
+        kieSession.fireAllRules();
+        assertThat(list).hasSize(20005);
+    }
+
+    @Test
+    public void testLargeChangeWritesNewBase() {
+        final Environment env = createEnvironment();
+        KieSession kieSession = JPAKnowledgeService.newStatefulKnowledgeSession(initializeKnowledgeBase(), null, env);
+        kieSession.execute(CommandFactory.newInsertElements(integers(1, 20000)));
+        kieSession.insert(20001);
+        assertThat(findSessionInfo(kieSession.getIdentifier()).getDeltas()).hasSize(1);
+
+        // the changes are larger than a quarter of the base, the deltas are replaced by a new base
+        kieSession.execute(CommandFactory.newInsertElements(integers(20002, 40000)));
+        assertThat(findSessionInfo(kieSession.getIdentifier()).getDeltas()).isEmpty();
+
+        kieSession = reloadSession(kieSession, env);
+        assertThat(kieSession.getObjects()).hasSize(40000);
+    }
+
+    private Environment createEnvironment() {
+        final Environment env = DroolsPersistenceUtil.createEnvironment(context);
+        env.set(EnvironmentName.USE_INCREMENTAL_SNAPSHOTS, true);
+        return env;
+    }
+
+    private KieBase initializeKnowledgeBase() {
+        final KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add(ResourceFactory.newByteArrayResource(SIMPLE_RULE.getBytes()), ResourceType.DRL);
+        if (kbuilder.hasErrors()) {
+            fail(kbuilder.getErrors().toString());
+        }
+
+        final InternalKnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addPackages(kbuilder.getKnowledgePackages());
+        return kbase;
+    }
+
+    private static List<Integer> integers(final int from, final int to) {
+        final List<Integer> integers = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            integers.add(i);
+        }
+        return integers;
+    }
+
+    private SessionInfo findSessionInfo(final long sessionId) {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(SessionInfo.class, sessionId);
+        } finally {
+            em.close();
+        }
+    }
+
+    private KieSession reloadSession(final KieSession kieSession, final Environment environment) {
+        final long sessionId = kieSession.getIdentifier();
+        final KieBase kieBase = kieSession.getKieBase();
+        kieSession.dispose();
+        return JPAKnowledgeService.loadStatefulKnowledgeSession(sessionId, kieBase, null, environment);
+    }
+}
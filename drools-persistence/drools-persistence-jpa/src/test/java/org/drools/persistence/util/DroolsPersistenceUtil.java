@@ -31,6 +31,7 @@ public class DroolsPersistenceUtil extends PersistenceUtil {
 
     // Persistence and data source constants
     public static final String DROOLS_PERSISTENCE_UNIT_NAME = "org.drools.persistence.jpa";
+    public static final String DROOLS_INCREMENTAL_PERSISTENCE_UNIT_NAME = "org.drools.persistence.jpa.incremental";
 
     public static String OPTIMISTIC_LOCKING = "optimistic";
     public static String PESSIMISTIC_LOCKING = "pessimistic";
@@ -15,21 +15,29 @@
 package org.drools.serialization.protobuf;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 
-import com.google.protobuf.ExtensionRegistry;
 import org.kie.memorycompiler.resources.ResourceStore;
 import org.drools.compiler.kie.builder.impl.AbstractKieModule;
 import org.drools.compiler.kie.builder.impl.CompilationCacheProvider;
+import org.drools.compiler.kie.builder.impl.FileKieModule;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.kie.builder.impl.InternalKieModule.CompilationCache;
 import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.core.util.Drools;
+import org.drools.core.util.KeyStoreHelper;
 import org.drools.serialization.protobuf.kie.KieModuleCache.CompDataEntry;
 import org.drools.serialization.protobuf.kie.KieModuleCache.CompilationData;
 import org.drools.serialization.protobuf.kie.KieModuleCache.Header;
 import org.drools.serialization.protobuf.kie.KieModuleCache.KModuleCache;
+import org.drools.serialization.protobuf.kie.KieModuleCache.Version;
 import org.drools.serialization.protobuf.kie.KieModuleCacheHelper;
+import org.drools.serialization.protobuf.kie.MappedCompilationCache;
 import org.drools.serialization.protobuf.kie.MarshallingKieMetaInfoBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,38 +51,75 @@ public class CompilationCacheProviderImpl implements CompilationCacheProvider {
         // Map< DIALECT, Map< RESOURCE, List<BYTECODE> > >
         CompilationCache cache = compilationCache.get(kbaseName);
         if (cache == null) {
-            byte[] fileContents = kieModule.getBytes( KieBuilderImpl.getCompilationCachePath(kieModule.getReleaseId(), kbaseName));
-            if (fileContents != null) {
-                ExtensionRegistry registry = KieModuleCacheHelper.buildRegistry();
-                try {
-                    Header header = KieModuleCacheHelper.readFromStreamWithHeaderPreloaded(new ByteArrayInputStream(fileContents), registry);
-
-                    if (!Drools.isCompatible(header.getVersion().getVersionMajor(),
-                            header.getVersion().getVersionMinor(),
-                            header.getVersion().getVersionRevision())) {
-                        // if cache has been built with an incompatible version avoid to use it
-                        log.warn("The compilation cache has been built with an incompatible version. " +
-                                "You should recompile your project in order to use it with current release.");
-                        return null;
+            try {
+                ByteBuffer fileContents = getCacheContents(kieModule, KieBuilderImpl.getCompilationCachePath(kieModule.getReleaseId(), kbaseName));
+                if (fileContents != null) {
+                    cache = readCompilationCache(fileContents);
+                    if (cache != null) {
+                        compilationCache.put(kbaseName, cache);
                     }
+                }
+            } catch (Exception e) {
+                log.error("Unable to load compilation cache... ", e);
+            }
+        }
+        return cache;
+    }
 
-                    KModuleCache kModuleCache = KModuleCache.parseFrom(header.getPayload());
+    private static ByteBuffer getCacheContents(AbstractKieModule kieModule, String path) throws IOException {
+        if (kieModule instanceof FileKieModule) {
+            // map the file instead of reading it, so that only the bytecode actually used gets paged in
+            File file = new File(kieModule.getFile(), path);
+            if (!file.isFile()) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        byte[] bytes = kieModule.getBytes(path);
+        return bytes != null ? ByteBuffer.wrap(bytes) : null;
+    }
 
-                    cache = new CompilationCache();
-                    for (CompilationData _data : kModuleCache.getCompilationDataList()) {
-                        for (CompDataEntry _entry : _data.getEntryList()) {
-                            cache.addEntry(_data.getDialect(), _entry.getId(),  _entry.getData().toByteArray());
-                        }
-                    }
-                    compilationCache.put(kbaseName, cache);
-                } catch (Exception e) {
-                    log.error("Unable to load compilation cache... ", e);
-                }
+    private static CompilationCache readCompilationCache(ByteBuffer fileContents) throws IOException, ClassNotFoundException {
+        if (!KeyStoreHelper.get().isSigned()) {
+            MappedCompilationCache cache = MappedCompilationCache.index(fileContents);
+            if (!cache.isSigned()) {
+                return isCompatible(cache.getVersion()) ? cache : null;
+            }
+        }
+
+        // a signed cache is fully loaded to check its signature
+        byte[] bytes = new byte[fileContents.remaining()];
+        fileContents.duplicate().get(bytes);
+        Header header = KieModuleCacheHelper.readFromStreamWithHeaderPreloaded(new ByteArrayInputStream(bytes), KieModuleCacheHelper.buildRegistry());
+        if (!isCompatible(header.getVersion())) {
+            return null;
+        }
+
+        KModuleCache kModuleCache = KModuleCache.parseFrom(header.getPayload());
+
+        CompilationCache cache = new CompilationCache();
+        for (CompilationData _data : kModuleCache.getCompilationDataList()) {
+            for (CompDataEntry _entry : _data.getEntryList()) {
+                cache.addEntry(_data.getDialect(), _entry.getId(),  _entry.getData().toByteArray());
             }
         }
         return cache;
     }
 
+    private static boolean isCompatible(Version version) {
+        if (!Drools.isCompatible(version.getVersionMajor(),
+                version.getVersionMinor(),
+                version.getVersionRevision())) {
+            // if cache has been built with an incompatible version avoid to use it
+            log.warn("The compilation cache has been built with an incompatible version. " +
+                    "You should recompile your project in order to use it with current release.");
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public void writeKieModuleMetaInfo(InternalKieModule kModule, ResourceStore trgMfs) {
         new MarshallingKieMetaInfoBuilder( kModule ).writeKieModuleMetaInfo( trgMfs );
@@ -16,9 +16,12 @@
 
 package org.drools.serialization.protobuf;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.security.InvalidKeyException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -30,8 +33,11 @@ import java.util.Map.Entry;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.ByteString.Output;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
+import com.google.protobuf.WireFormat;
 import org.drools.tms.beliefsystem.simple.BeliefSystemLogicalCallback;
 import org.drools.core.common.DroolsObjectInputStream;
 import org.drools.core.common.DroolsObjectOutputStream;
@@ -62,6 +68,8 @@ import org.kie.api.marshalling.ObjectMarshallingStrategy.Context;
 
 public class PersisterHelper extends MarshallingHelper {
 
+    private static final int PAYLOAD_TAG = ( Header.PAYLOAD_FIELD_NUMBER << 3 ) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
     public static WorkingMemoryAction readWorkingMemoryAction( MarshallerReaderContext context) throws IOException {
         int type = context.readShort();
         switch ( type ) {
@@ -147,16 +155,43 @@ public class PersisterHelper extends MarshallingHelper {
                         .build();
     }
     
+    /**
+     * Writes the header followed by the payload, without copying the serialized payload in a byte[] unless the
+     * session has to be signed. Note that the payload message itself, e.g. the whole KnowledgeSession, is still
+     * fully built in memory before being written: SessionSegments describes the format that avoids it.
+     */
     public static void writeToStreamWithHeader( MarshallerWriteContext context,
                                                 Message payload ) throws IOException {
+        ProtobufMessages.Header.Builder _header = newHeader( context );
+
+        writeStrategiesIndex( context, _header );
+
+        if ( KeyStoreHelper.get().isSigned() ) {
+            byte[] buff = payload.toByteArray();
+            sign( _header, buff );
+            _header.setPayload( ByteString.copyFrom( buff ) );
+
+            context.write( _header.build().toByteArray() );
+            return;
+        }
+
+        // the payload is streamed as the last field of the header, so that the session is never copied in a byte[]
+        CodedOutputStream output = CodedOutputStream.newInstance( (OutputStream) context );
+        _header.build().writeTo( output );
+        output.writeMessage( Header.PAYLOAD_FIELD_NUMBER, payload );
+        output.flush();
+    }
+
+    /**
+     * Creates a header with the version and the runtime defined classes, but without the strategies.
+     */
+    static ProtobufMessages.Header.Builder newHeader( MarshallerWriteContext context ) {
         ProtobufMessages.Header.Builder _header = ProtobufMessages.Header.newBuilder();
         _header.setVersion( ProtobufMessages.Version.newBuilder()
                                             .setVersionMajor( Drools.getMajorVersion() )
                                             .setVersionMinor( Drools.getMinorVersion() )
                                             .setVersionRevision( Drools.getRevisionVersion() )
                             .build() );
-        
-        writeStrategiesIndex( context, _header );
 
         RuleBase kBase = context.getKnowledgeBase();
         if (kBase != null) {
@@ -165,12 +200,7 @@ public class PersisterHelper extends MarshallingHelper {
                 writeRuntimeDefinedClasses(traitFactory, context, _header);
             }
         }
-
-        byte[] buff = payload.toByteArray();
-        sign( _header, buff );
-        _header.setPayload( ByteString.copyFrom( buff ) );
-
-        context.write( _header.build().toByteArray() );
+        return _header;
     }
 
     private static void writeRuntimeDefinedClasses( TraitFactory traitFactory, MarshallerWriteContext context, ProtobufMessages.Header.Builder _header) {
@@ -233,18 +263,73 @@ public class PersisterHelper extends MarshallingHelper {
     private static ProtobufMessages.Header loadStrategiesCheckSignature( MarshallerReaderContext context, ProtobufMessages.Header _header) throws ClassNotFoundException, IOException {
         loadStrategiesIndex( context, _header );
 
-        byte[] sessionbuff = _header.getPayload().toByteArray();
-
         // should we check version as well here?
-        checkSignature( _header, sessionbuff );
+        checkSignature( _header );
         
         return _header;
     }
 
+    /**
+     * Reads a session written either in the segmented format, see SessionSegments, or with a header whose
+     * payload is the whole KnowledgeSession message.
+     */
+    public static SessionSegments readSessionSegmentsFromStream( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        InputStream stream = (InputStream) context;
+        int first = stream.read();
+        if ( first == SessionSegments.MAGIC ) {
+            return SessionSegments.read( context, stream, registry );
+        }
+        if ( first != -1 ) {
+            stream = new SequenceInputStream( new ByteArrayInputStream( new byte[] { (byte) first } ), stream );
+        }
+        return SessionSegments.of( readSessionFromStreamWithHeader( context, stream, registry ) );
+    }
+
+    /**
+     * Reads the header and parses the session in its payload straight from the stream. Only a signed session,
+     * whose signature has to be checked against the whole payload, is preloaded in memory. The returned
+     * KnowledgeSession is the complete message, for a session that is not parsed segment by segment see
+     * readSessionSegmentsFromStream.
+     */
+    public static ProtobufMessages.KnowledgeSession readSessionFromStreamWithHeader( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        return readSessionFromStreamWithHeader( context, (InputStream) context, registry );
+    }
+
+    private static ProtobufMessages.KnowledgeSession readSessionFromStreamWithHeader( MarshallerReaderContext context, InputStream stream, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        if ( KeyStoreHelper.get().isSigned() ) {
+            ProtobufMessages.Header _header = readFromStreamWithHeaderPreloaded( context, stream, registry );
+            return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
+        }
+
+        CodedInputStream input = CodedInputStream.newInstance( stream );
+        input.setSizeLimit( Integer.MAX_VALUE );
+
+        ByteString.Output headerFields = ByteString.newOutput();
+        CodedOutputStream headerOutput = CodedOutputStream.newInstance( headerFields );
+        ProtobufMessages.KnowledgeSession _session = null;
+        for ( int tag = input.readTag(); tag != 0; tag = input.readTag() ) {
+            if ( tag == PAYLOAD_TAG ) {
+                int oldLimit = input.pushLimit( input.readRawVarint32() );
+                _session = ProtobufMessages.KnowledgeSession.parseFrom( input, registry );
+                input.popLimit( oldLimit );
+            } else {
+                input.skipField( tag, headerOutput );
+            }
+        }
+        headerOutput.flush();
+
+        loadStrategiesCheckSignature( context, ProtobufMessages.Header.parseFrom( headerFields.toByteString(), registry ) );
+        return _session != null ? _session : ProtobufMessages.KnowledgeSession.getDefaultInstance();
+    }
+
     public static ProtobufMessages.Header readFromStreamWithHeaderPreloaded( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        return readFromStreamWithHeaderPreloaded( context, (InputStream) context, registry );
+    }
+
+    private static ProtobufMessages.Header readFromStreamWithHeaderPreloaded( MarshallerReaderContext context, InputStream stream, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
         // we preload the stream into a byte[] to overcome a message size limit
         // imposed by protobuf as per https://issues.jboss.org/browse/DROOLS-25
-        byte[] preloaded = preload((InputStream) context);
+        byte[] preloaded = preload(stream);
         ProtobufMessages.Header _header = ProtobufMessages.Header.parseFrom( preloaded, registry );
 
         return loadStrategiesCheckSignature(context, _header);
@@ -267,25 +352,36 @@ public class PersisterHelper extends MarshallingHelper {
 
 	private static void loadStrategiesIndex( MarshallerReaderContext context, ProtobufMessages.Header _header) throws IOException, ClassNotFoundException {
         for ( ProtobufMessages.Header.StrategyIndex _entry : _header.getStrategyList() ) {
-            ObjectMarshallingStrategy strategyObject = context.getResolverStrategyFactory().getStrategyObject( _entry.getName() );
-            if ( strategyObject == null ) {
-                throw new IllegalStateException( "No strategy of type " + _entry.getName() + " available." );
+            loadStrategy( context, _header, _entry, _entry.getData().newInput() );
+        }
+    }
+
+    /**
+     * Registers the strategy of the given entry and, when the entry has data, reads its context out of the given
+     * stream, since in the segmented format the data is not in the entry itself.
+     */
+    static void loadStrategy( MarshallerReaderContext context,
+                              ProtobufMessages.Header _header,
+                              ProtobufMessages.Header.StrategyIndex _entry,
+                              InputStream data ) throws IOException, ClassNotFoundException {
+        ObjectMarshallingStrategy strategyObject = context.getResolverStrategyFactory().getStrategyObject( _entry.getName() );
+        if ( strategyObject == null ) {
+            throw new IllegalStateException( "No strategy of type " + _entry.getName() + " available." );
+        }
+        context.getUsedStrategies().put( _entry.getId(), strategyObject );
+        Context ctx = strategyObject.createContext();
+        context.getStrategyContexts().put( strategyObject, ctx );
+        if( _entry.hasData() && ctx != null ) {
+            ClassLoader classLoader = null;
+            if (context.getClassLoader() != null ){
+                classLoader = context.getClassLoader();
+            } else if(context.getKnowledgeBase() != null){
+                classLoader = context.getKnowledgeBase().getRootClassLoader();
             }
-            context.getUsedStrategies().put( _entry.getId(), strategyObject );
-            Context ctx = strategyObject.createContext();
-            context.getStrategyContexts().put( strategyObject, ctx );
-            if( _entry.hasData() && ctx != null ) {
-		        ClassLoader classLoader = null;
-                if (context.getClassLoader() != null ){
-                    classLoader = context.getClassLoader();
-                } else if(context.getKnowledgeBase() != null){
-                    classLoader = context.getKnowledgeBase().getRootClassLoader();
-                }
-                if ( classLoader instanceof ProjectClassLoader ) {
-                   readRuntimeDefinedClasses( _header, (ProjectClassLoader) classLoader );
-                }
-                ctx.read( new DroolsObjectInputStream( _entry.getData().newInput(), classLoader) );
+            if ( classLoader instanceof ProjectClassLoader ) {
+               readRuntimeDefinedClasses( _header, (ProjectClassLoader) classLoader );
             }
+            ctx.read( new DroolsObjectInputStream( data, classLoader) );
         }
     }
 
@@ -302,8 +398,7 @@ public class PersisterHelper extends MarshallingHelper {
         }
     }
 
-    private static void checkSignature(Header _header,
-                                       byte[] sessionbuff) {
+    static void checkSignature(Header _header) {
         KeyStoreHelper helper = KeyStoreHelper.get();
         boolean signed = _header.hasSignature();
         if ( helper.isSigned() != signed ) {
@@ -318,7 +413,7 @@ public class PersisterHelper extends MarshallingHelper {
             }
             try {
                 if ( !helper.checkDataWithPublicKey( _header.getSignature().getKeyAlias(),
-                                                     sessionbuff,
+                                                     _header.getPayload().toByteArray(),
                                                      _header.getSignature().getSignature().toByteArray() ) ) {
                     throw new RuntimeException( "Signature does not match serialized package. This is a security violation. Deserialisation aborted." );
                 }
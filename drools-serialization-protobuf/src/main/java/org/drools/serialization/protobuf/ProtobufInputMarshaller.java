@@ -19,6 +19,8 @@ package org.drools.serialization.protobuf;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,6 +31,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.protobuf.ExtensionRegistry;
 import org.drools.core.SessionConfiguration;
@@ -54,6 +57,7 @@ import org.drools.core.impl.EnvironmentFactory;
 import org.drools.core.marshalling.MarshallerReaderContext;
 import org.drools.core.marshalling.TupleKey;
 import org.drools.core.phreak.PhreakTimerNode.Scheduler;
+import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.phreak.RuleExecutor;
 import org.drools.core.process.WorkItem;
@@ -98,6 +102,9 @@ import org.kie.api.runtime.rule.Match;
 public class ProtobufInputMarshaller {
     // NOTE: all variables prefixed with _ (underscore) are protobuf structs
 
+    // below this number of facts decoding them in parallel isn't worth the hand-off to the common pool
+    private static final int MIN_PARALLEL_UNMARSHALLING_SIZE = 256;
+
     private static ProcessMarshaller processMarshaller = createProcessMarshaller();
 
     private static ProcessMarshaller createProcessMarshaller() {
@@ -121,13 +128,13 @@ public class ProtobufInputMarshaller {
                                                     ProtobufMarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
 
-        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
+        SessionSegments segments = loadAndParseSession( context );
 
         InternalAgenda agenda = resetSession( session,
                                              context,
-                                             _session );
+                                             segments );
 
-        readSession( _session,
+        readSession( segments,
                      session,
                      agenda,
                      context );
@@ -156,28 +163,29 @@ public class ProtobufInputMarshaller {
                                                   SessionConfiguration config,
                                                   KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
 
-        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
+        SessionSegments segments = loadAndParseSession( context );
 
         StatefulKnowledgeSessionImpl session = createAndInitializeSession( context,
                                                                            id,
                                                                            environment,
                                                                            config,
-                                                                           _session );
+                                                                           segments );
         // Initialize the session before unmarshalling data
         if (initializer != null) {
             initializer.init( session );
         }
 
-        return new ReadSessionResult(readSession(_session,
+        return new ReadSessionResult(readSession(segments,
                                                  session,
                                                  session.getAgenda(),
                                                  context),
-                                     _session);
+                                     segments.getSession());
     }
 
     private static InternalAgenda resetSession(StatefulKnowledgeSessionImpl session,
                                               ProtobufMarshallerReaderContext context,
-                                              ProtobufMessages.KnowledgeSession _session) {
+                                              SessionSegments segments) throws IOException {
+        ProtobufMessages.KnowledgeSession _session = segments.getSession();
         session.reset( _session.getRuleData().getLastId(),
                        _session.getRuleData().getLastRecency(),
                        1 );
@@ -186,6 +194,8 @@ public class ProtobufInputMarshaller {
         readAgenda( context,
                     _session.getRuleData(),
                     agenda );
+        readMatches( context,
+                     segments );
         return agenda;
     }
 
@@ -193,7 +203,8 @@ public class ProtobufInputMarshaller {
                                                                             int id,
                                                                             Environment environment,
                                                                             SessionConfiguration config,
-                                                                            ProtobufMessages.KnowledgeSession _session) throws IOException {
+                                                                            SessionSegments segments) throws IOException {
+        ProtobufMessages.KnowledgeSession _session = segments.getSession();
         FactHandleFactory handleFactory = context.getKnowledgeBase().newFactHandleFactory( _session.getRuleData().getLastId(),
                                                                                  _session.getRuleData().getLastRecency() );
 
@@ -206,17 +217,16 @@ public class ProtobufInputMarshaller {
 
         agenda.setWorkingMemory( session );
         readAgenda( context, _session.getRuleData(), agenda );
+        readMatches( context, segments );
 
         return session;
     }
 
-    private static ProtobufMessages.KnowledgeSession loadAndParseSession( MarshallerReaderContext context) throws IOException,
-                                                                                                         ClassNotFoundException {
+    private static SessionSegments loadAndParseSession( MarshallerReaderContext context) throws IOException,
+                                                                                       ClassNotFoundException {
         ExtensionRegistry registry = PersisterHelper.buildRegistry( context, processMarshaller );
 
-        ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded( context, registry );
-
-        return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
+        return PersisterHelper.readSessionSegmentsFromStream( context, registry );
     }
 
     public static StatefulKnowledgeSessionImpl readSession( ProtobufMessages.KnowledgeSession _session,
@@ -224,6 +234,20 @@ public class ProtobufInputMarshaller {
                                                             InternalAgenda agenda,
                                                             ProtobufMarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
+        return readSession( SessionSegments.of( _session ),
+                            session,
+                            agenda,
+                            context );
+    }
+
+    private static StatefulKnowledgeSessionImpl readSession( SessionSegments segments,
+                                                             StatefulKnowledgeSessionImpl session,
+                                                             InternalAgenda agenda,
+                                                             ProtobufMarshallerReaderContext context) throws IOException,
+                                                                                     ClassNotFoundException {
+        // each segment is parsed only when it is read, so the whole session message is never in memory
+        ProtobufMessages.KnowledgeSession _session = segments.getSession();
+
         GlobalResolver globalResolver = (GlobalResolver) context.env.get( EnvironmentName.GLOBALS );
         if ( globalResolver != null ) {
             session.setGlobalResolver( globalResolver );
@@ -241,6 +265,9 @@ public class ProtobufInputMarshaller {
         // because this data is required during fact propagation 
         readNodeMemories( context,
                           _session.getRuleData() );
+        for ( int i = 0; i < segments.getNodeMemorySegmentCount(); i++ ) {
+            readNodeMemory( context, segments.readNodeMemory( i ) );
+        }
 
         List<PropagationContext> pctxs = new ArrayList<>();
 
@@ -249,12 +276,19 @@ public class ProtobufInputMarshaller {
             context.getHandles().put( session.getInitialFactHandle().getId(), session.getInitialFactHandle() );
         }
 
-        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+        for ( SessionSegments.EntryPointSegments _eps : segments.getEntryPoints() ) {
+            ProtobufMessages.EntryPoint _ep = _eps.getEntryPoint();
             EntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
             readFactHandles( context,
                              _ep,
                              ((WorkingMemoryEntryPoint) wmep).getObjectStore(),
                              pctxs );
+            for ( int i = 0; i < _eps.getHandlesSegmentCount(); i++ ) {
+                readFactHandles( context,
+                                 segments.readHandles( _eps, i ),
+                                 ((WorkingMemoryEntryPoint) wmep).getObjectStore(),
+                                 pctxs );
+            }
 
             context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
 
@@ -264,6 +298,12 @@ public class ProtobufInputMarshaller {
                                         wmep,
                                         _ep,
                                         pctxs );
+            for ( int i = 0; i < _eps.getTmsSegmentCount(); i++ ) {
+                readTruthMaintenanceSystem( context,
+                                            wmep,
+                                            segments.readTms( _eps, i ),
+                                            pctxs );
+            }
 
             context.getWorkingMemory().getFactHandleFactory().stopRecycleIds();
         }
@@ -298,6 +338,12 @@ public class ProtobufInputMarshaller {
                            _timer );
             }
         }
+        for ( int i = 0; i < segments.getTimersSegmentCount(); i++ ) {
+            for ( ProtobufMessages.Timers.Timer _timer : segments.readTimers( i ) ) {
+                readTimer( context,
+                           _timer );
+            }
+        }
         // need to process any eventual left over timer node timers
         if( ! context.timerNodeSchedulers.isEmpty() ) {
             for( Map<TupleKey, Scheduler> schedulers : context.timerNodeSchedulers.values() ) {
@@ -317,54 +363,59 @@ public class ProtobufInputMarshaller {
     private static void readNodeMemories( ProtobufMarshallerReaderContext context,
                                           RuleData _session) {
         for ( ProtobufMessages.NodeMemory _node : _session.getNodeMemoryList() ) {
-            Object memory = null;
-            switch ( _node.getNodeType() ) {
-                // ACCUMULATE, RIA and FROM memories are no longer serialized, so the following 3 cases are useless for
-                // new serialized session, but are still necessary for sessions serialized before the marshalling refactor
-                case ACCUMULATE : {
-                    Map<TupleKey, ProtobufMessages.FactHandle> map = new HashMap<>();
-                    for ( ProtobufMessages.NodeMemory.AccumulateNodeMemory.AccumulateContext _ctx : _node.getAccumulate().getContextList() ) {
-                        map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), _ctx.getResultHandle() );
-                    }
-                    context.withSerializedNodeMemories();
-                    memory = map;
-                    break;
-                }
-                case RIA : {
-                    Map<TupleKey, ProtobufMessages.FactHandle> map = new HashMap<>();
-                    for ( ProtobufMessages.NodeMemory.RIANodeMemory.RIAContext _ctx : _node.getRia().getContextList() ) {
-                        map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), _ctx.getResultHandle() );
-                    }
-                    context.withSerializedNodeMemories();
-                    memory = map;
-                    break;
+            readNodeMemory( context, _node );
+        }
+    }
+
+    private static void readNodeMemory( ProtobufMarshallerReaderContext context,
+                                        ProtobufMessages.NodeMemory _node ) {
+        Object memory = null;
+        switch ( _node.getNodeType() ) {
+            // ACCUMULATE, RIA and FROM memories are no longer serialized, so the following 3 cases are useless for
+            // new serialized session, but are still necessary for sessions serialized before the marshalling refactor
+            case ACCUMULATE : {
+                Map<TupleKey, ProtobufMessages.FactHandle> map = new HashMap<>();
+                for ( ProtobufMessages.NodeMemory.AccumulateNodeMemory.AccumulateContext _ctx : _node.getAccumulate().getContextList() ) {
+                    map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), _ctx.getResultHandle() );
                 }
-                case FROM : {
-                    Map<TupleKey, List<ProtobufMessages.FactHandle>> map = new HashMap<>();
-                    for ( ProtobufMessages.NodeMemory.FromNodeMemory.FromContext _ctx : _node.getFrom().getContextList() ) {
-                        // have to instantiate a modifiable list
-                        map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), new LinkedList<>(_ctx.getHandleList()) );
-                    }
-                    context.withSerializedNodeMemories();
-                    memory = map;
-                    break;
+                context.withSerializedNodeMemories();
+                memory = map;
+                break;
+            }
+            case RIA : {
+                Map<TupleKey, ProtobufMessages.FactHandle> map = new HashMap<>();
+                for ( ProtobufMessages.NodeMemory.RIANodeMemory.RIAContext _ctx : _node.getRia().getContextList() ) {
+                    map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), _ctx.getResultHandle() );
                 }
-                case QUERY_ELEMENT : {
-                    Map<TupleKey, QueryElementContext> map = new HashMap<>();
-                    for ( ProtobufMessages.NodeMemory.QueryElementNodeMemory.QueryContext _ctx : _node.getQueryElement().getContextList() ) {
-                        // we have to use a "cloned" query element context as we need to write on it during deserialization process and the 
-                        // protobuf one is read-only
-                        map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), new QueryElementContext( _ctx ) );
-                    }
-                    memory = map;
-                    break;
+                context.withSerializedNodeMemories();
+                memory = map;
+                break;
+            }
+            case FROM : {
+                Map<TupleKey, List<ProtobufMessages.FactHandle>> map = new HashMap<>();
+                for ( ProtobufMessages.NodeMemory.FromNodeMemory.FromContext _ctx : _node.getFrom().getContextList() ) {
+                    // have to instantiate a modifiable list
+                    map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), new LinkedList<>(_ctx.getHandleList()) );
                 }
-                default : {
-                    throw new IllegalArgumentException( "Unknown node type " + _node.getNodeType() + " while deserializing session." );
+                context.withSerializedNodeMemories();
+                memory = map;
+                break;
+            }
+            case QUERY_ELEMENT : {
+                Map<TupleKey, QueryElementContext> map = new HashMap<>();
+                for ( ProtobufMessages.NodeMemory.QueryElementNodeMemory.QueryContext _ctx : _node.getQueryElement().getContextList() ) {
+                    // we have to use a "cloned" query element context as we need to write on it during deserialization process and the 
+                    // protobuf one is read-only
+                    map.put( PersisterHelper.createTupleKey( _ctx.getTuple() ), new QueryElementContext( _ctx ) );
                 }
+                memory = map;
+                break;
+            }
+            default : {
+                throw new IllegalArgumentException( "Unknown node type " + _node.getNodeType() + " while deserializing session." );
             }
-            context.getNodeMemories().put( _node.getNodeId(), memory );
         }
+        context.getNodeMemories().put( _node.getNodeId(), memory );
     }
 
     public static class QueryElementContext {
@@ -450,6 +501,15 @@ public class ProtobufInputMarshaller {
         agenda.setActivationsFilter( context.getFilter() );
     }
 
+    private static void readMatches( ProtobufMarshallerReaderContext context,
+                                     SessionSegments segments ) throws IOException {
+        for ( int i = 0; i < segments.getMatchesSegmentCount(); i++ ) {
+            readActivations( context,
+                             segments.readMatches( i ),
+                             Collections.emptyList() );
+        }
+    }
+
     public static void readActionQueue( ProtobufMarshallerReaderContext context,
                                         RuleData _session) throws IOException,
                                                          ClassNotFoundException {
@@ -464,6 +524,11 @@ public class ProtobufInputMarshaller {
                                         ObjectStore objectStore,
                                         List<PropagationContext> pctxs) throws IOException,
                                                                           ClassNotFoundException {
+        if ( Boolean.TRUE.equals( context.env.get( EnvironmentName.USE_PARALLEL_UNMARSHALLING ) ) ) {
+            readFactHandlesInBatches( context, _ep, objectStore, pctxs );
+            return;
+        }
+
         InternalWorkingMemory wm = context.getWorkingMemory();
 
         EntryPoint entryPoint = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
@@ -494,6 +559,113 @@ public class ProtobufInputMarshaller {
 
     }
 
+    /**
+     * Restore mode enabled by EnvironmentName.USE_PARALLEL_UNMARSHALLING: the fact objects are decoded
+     * in parallel when their strategy allows it, then each run of consecutive handles of the same type
+     * is reinserted with a single batch propagation and the network is flushed once per entry point.
+     * Handles are still created and asserted in their original order.
+     */
+    private static void readFactHandlesInBatches( ProtobufMarshallerReaderContext context,
+                                                  ProtobufMessages.EntryPoint _ep,
+                                                  ObjectStore objectStore,
+                                                  List<PropagationContext> pctxs) throws IOException,
+                                                                                    ClassNotFoundException {
+        InternalWorkingMemory wm = context.getWorkingMemory();
+
+        EntryPoint entryPoint = wm.getEntryPoint(_ep.getEntryPointId());
+        List<FactHandle> _handles = _ep.getHandleList();
+        Object[] objects = unmarshalObjects( context, _handles );
+
+        PropagationContextFactory pctxFactory = RuntimeComponentFactory.get().getPropagationContextFactory();
+
+        WorkingMemoryEntryPoint batchEp = null;
+        PropagationEntry.BatchInsert batch = null;
+        for ( int i = 0; i < objects.length; i++ ) {
+            FactHandle _handle = _handles.get( i );
+            InternalFactHandle handle = readFactHandle( context,
+                                                        entryPoint,
+                                                        _handle,
+                                                        objects[i] );
+
+            context.getHandles().put( handle.getId(),
+                                      handle );
+
+            if ( _handle.getIsJustified() ) {
+                // BeliefSystem handles the Object type
+                continue;
+            }
+
+            if ( handle.getObject() != null ) {
+                objectStore.addHandle( handle,
+                                       handle.getObject() );
+            }
+
+            WorkingMemoryEntryPoint ep = handle.getEntryPoint(wm);
+            ObjectTypeConf typeConf = ep.getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( ep.getEntryPoint(), handle.getObject() );
+            if ( batch == null || batch.getObjectTypeConf() != typeConf ) {
+                if ( batch != null ) {
+                    batchEp.getEntryPointNode().assertObjects( batch, wm );
+                }
+                batch = new PropagationEntry.BatchInsert( typeConf );
+                batchEp = ep;
+            }
+
+            PropagationContext propagationContext = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.Type.INSERTION, null, null, handle, ep.getEntryPoint(), context);
+            // keeping this list for a later cleanup is necessary because of the lazy propagations that might occur
+            pctxs.add( propagationContext );
+            batch.add( handle, propagationContext, wm );
+        }
+
+        if ( batch != null ) {
+            batchEp.getEntryPointNode().assertObjects( batch, wm );
+        }
+        wm.flushPropagations();
+    }
+
+    private static Object[] unmarshalObjects( ProtobufMarshallerReaderContext context,
+                                              List<FactHandle> _handles) throws IOException,
+                                                                           ClassNotFoundException {
+        Object[] objects = new Object[_handles.size()];
+        int[] concurrent = new int[objects.length];
+        int concurrentSize = 0;
+        for ( int i = 0; i < objects.length; i++ ) {
+            FactHandle _handle = _handles.get( i );
+            if ( !_handle.hasStrategyIndex() ) {
+                continue;
+            }
+            if ( context.getUsedStrategies().get( _handle.getStrategyIndex() ).isConcurrentUnmarshallingSupported() ) {
+                concurrent[concurrentSize++] = i;
+            } else {
+                objects[i] = unmarshalObject( context, _handle );
+            }
+        }
+
+        if ( concurrentSize < MIN_PARALLEL_UNMARSHALLING_SIZE ) {
+            for ( int j = 0; j < concurrentSize; j++ ) {
+                objects[concurrent[j]] = unmarshalObject( context, _handles.get( concurrent[j] ) );
+            }
+            return objects;
+        }
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Arrays.stream( concurrent, 0, concurrentSize ).parallel().forEach( i -> {
+            try {
+                objects[i] = unmarshalObject( context, _handles.get( i ) );
+            } catch ( IOException | ClassNotFoundException e ) {
+                failure.compareAndSet( null, e );
+            }
+        } );
+
+        Exception e = failure.get();
+        if ( e instanceof IOException ) {
+            throw (IOException) e;
+        }
+        if ( e != null ) {
+            throw (ClassNotFoundException) e;
+        }
+        return objects;
+    }
+
     private static void assertHandleIntoOTN( ProtobufMarshallerReaderContext context,
                                              InternalWorkingMemory wm,
                                              InternalFactHandle handle,
@@ -526,17 +698,29 @@ public class ProtobufInputMarshaller {
                                                      EntryPoint entryPoint,
                                                      FactHandle _handle) throws IOException,
                                                                        ClassNotFoundException {
-        Object object = null;
-        ObjectMarshallingStrategy strategy = null;
-        if ( _handle.hasStrategyIndex() ) {
-            strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
-            object = strategy.unmarshal( context.getStrategyContexts().get( strategy ),
-                                         context,
-                                         _handle.getObject().toByteArray(),
-                                         (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
-        }
+        return readFactHandle( context,
+                               entryPoint,
+                               _handle,
+                               unmarshalObject( context, _handle ) );
+    }
 
+    private static Object unmarshalObject( ProtobufMarshallerReaderContext context,
+                                           FactHandle _handle) throws IOException,
+                                                             ClassNotFoundException {
+        if ( !_handle.hasStrategyIndex() ) {
+            return null;
+        }
+        ObjectMarshallingStrategy strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
+        return strategy.unmarshal( context.getStrategyContexts().get( strategy ),
+                                   context,
+                                   _handle.getObject().toByteArray(),
+                                   (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
+    }
 
+    private static InternalFactHandle readFactHandle( ProtobufMarshallerReaderContext context,
+                                                      EntryPoint entryPoint,
+                                                      FactHandle _handle,
+                                                      Object object) {
         InternalFactHandle handle;
         switch ( _handle.getType() ) {
             case FACT : {
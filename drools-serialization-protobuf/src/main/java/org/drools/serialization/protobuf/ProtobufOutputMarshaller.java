@@ -117,7 +117,14 @@ public class ProtobufOutputMarshaller {
 
     public static void writeSession( ProtobufMarshallerWriteContext context) throws IOException {
 
-        ProtobufMessages.KnowledgeSession _session = serializeSession( context );
+        if ( SessionSegments.isEnabled( context.getEnvironment() ) ) {
+            SessionSegments.Writer segments = new SessionSegments.Writer( context );
+            segments.write( SessionSegments.SESSION, serializeSession( context, segments ) );
+            segments.writeTrailer( context );
+            return;
+        }
+
+        ProtobufMessages.KnowledgeSession _session = serializeSession( context, null );
         
 //        System.out.println("=============================================================================");
 //        System.out.println(_session);
@@ -126,7 +133,12 @@ public class ProtobufOutputMarshaller {
                                                  _session );
     }
 
-    private static ProtobufMessages.KnowledgeSession serializeSession( MarshallerWriteContext context) throws IOException {
+    /**
+     * Serializes the session. When segments is not null, the parts of the session that grow with it are written
+     * there as they are serialized, and the returned message holds only the rest.
+     */
+    private static ProtobufMessages.KnowledgeSession serializeSession( MarshallerWriteContext context,
+                                                                       SessionSegments.Writer segments ) throws IOException {
         StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
 
         try {
@@ -159,9 +171,9 @@ public class ProtobufOutputMarshaller {
                 _ruleData.setInitialFact( _ifh );
             }
 
-            writeAgenda( context, _ruleData );
+            writeAgenda( context, _ruleData, segments );
 
-            writeNodeMemories( context, _ruleData );
+            writeNodeMemories( context, _ruleData, segments );
 
             for ( EntryPoint wmep : wm.getEntryPoints() ) {
                 ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
@@ -171,15 +183,23 @@ public class ProtobufOutputMarshaller {
                                               ((WorkingMemoryEntryPoint)wmep).getObjectTypeConfigurationRegistry(),
                                               _epb );
 
+                if ( segments != null ) {
+                    segments.write( SessionSegments.ENTRY_POINT, _epb.build() );
+                }
+
                 writeFactHandles( context,
                                   _epb,
-                                  ((NamedEntryPoint) wmep).getObjectStore() );
+                                  ((NamedEntryPoint) wmep).getObjectStore(),
+                                  segments );
 
                 writeTruthMaintenanceSystem( context,
                                              wmep,
-                                             _epb );
+                                             _epb,
+                                             segments );
 
-                _ruleData.addEntryPoint( _epb.build() );
+                if ( segments == null ) {
+                    _ruleData.addEntryPoint( _epb.build() );
+                }
             }
 
             writeActionQueue( context,
@@ -210,7 +230,8 @@ public class ProtobufOutputMarshaller {
             }
 
             Timers _timers = writeTimers( context.getWorkingMemory().getTimerJobInstances( context.getWorkingMemory().getIdentifier() ),
-                                          context );
+                                          context,
+                                          segments );
             if ( _timers != null ) {
                 _session.setTimers( _timers );
             }
@@ -278,7 +299,8 @@ public class ProtobufOutputMarshaller {
     }
 
     private static void writeAgenda( MarshallerWriteContext context,
-                                     ProtobufMessages.RuleData.Builder _ksb) throws IOException {
+                                     ProtobufMessages.RuleData.Builder _ksb,
+                                     SessionSegments.Writer segments ) throws IOException {
         InternalWorkingMemory wm = context.getWorkingMemory();
         InternalAgenda agenda = wm.getAgenda();
 
@@ -329,8 +351,16 @@ public class ProtobufOutputMarshaller {
         }
 
         Collections.sort( dormant, ActivationsSorter.INSTANCE );
+        ProtobufMessages.Agenda.Builder _matches = segments == null ? _ab : ProtobufMessages.Agenda.newBuilder();
         for ( Activation activation : dormant ) {
-            _ab.addMatch( writeActivation( context, (AgendaItem) activation, true) );
+            _matches.addMatch( writeActivation( context, (AgendaItem) activation, true) );
+            if ( segments != null && _matches.getMatchCount() == SessionSegments.SEGMENT_SIZE ) {
+                segments.write( SessionSegments.MATCHES, _matches.build() );
+                _matches.clearMatch();
+            }
+        }
+        if ( segments != null && _matches.getMatchCount() > 0 ) {
+            segments.write( SessionSegments.MATCHES, _matches.build() );
         }
 
         // serialize all network evaluator activations
@@ -345,7 +375,8 @@ public class ProtobufOutputMarshaller {
     }
 
     private static void writeNodeMemories( MarshallerWriteContext context,
-                                           ProtobufMessages.RuleData.Builder _ksb) throws IOException {
+                                           ProtobufMessages.RuleData.Builder _ksb,
+                                           SessionSegments.Writer segments ) throws IOException {
         InternalWorkingMemory wm = context.getWorkingMemory();
         NodeMemories memories = wm.getNodeMemories();
         // only some of the node memories require special serialization handling
@@ -360,8 +391,13 @@ public class ProtobufOutputMarshaller {
                         break;
                     }
                 }
-                if ( _node != null ) {
+                if ( _node == null ) {
                     // not all node memories require serialization
+                    continue;
+                }
+                if ( segments != null ) {
+                    segments.write( SessionSegments.NODE_MEMORY, _node );
+                } else {
                     _ksb.addNodeMemory( _node );
                 }
             }
@@ -462,6 +498,13 @@ public class ProtobufOutputMarshaller {
     public static void writeTruthMaintenanceSystem( MarshallerWriteContext context,
                                                     EntryPoint wmep,
                                                     ProtobufMessages.EntryPoint.Builder _epb) throws IOException {
+        writeTruthMaintenanceSystem( context, wmep, _epb, null );
+    }
+
+    private static void writeTruthMaintenanceSystem( MarshallerWriteContext context,
+                                                     EntryPoint wmep,
+                                                     ProtobufMessages.EntryPoint.Builder _epb,
+                                                     SessionSegments.Writer segments ) throws IOException {
         TruthMaintenanceSystem tms = TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem((NamedEntryPoint) wmep);
         ObjectHashMap justifiedMap = tms.getEqualityKeyMap();
 
@@ -498,12 +541,31 @@ public class ProtobufOutputMarshaller {
                 }
 
                 _tms.addKey( _key.build() );
+                if ( segments != null && _tms.getKeyCount() == SessionSegments.SEGMENT_SIZE ) {
+                    writeTmsSegment( segments, _epb, _tms );
+                }
             }
 
-            _epb.setTms( _tms.build() );
+            if ( segments == null ) {
+                _epb.setTms( _tms.build() );
+            } else if ( _tms.getKeyCount() > 0 ) {
+                writeTmsSegment( segments, _epb, _tms );
+            }
         }
     }
 
+    private static void writeTmsSegment( SessionSegments.Writer segments,
+                                         ProtobufMessages.EntryPoint.Builder _epb,
+                                         ProtobufMessages.TruthMaintenanceSystem.Builder _tms ) throws IOException {
+        // the object type configurations are needed to read the keys
+        segments.write( SessionSegments.TMS, ProtobufMessages.EntryPoint.newBuilder()
+                .setEntryPointId( _epb.getEntryPointId() )
+                .addAllOtc( _epb.getOtcList() )
+                .setTms( _tms.build() )
+                .build() );
+        _tms.clearKey();
+    }
+
     private static void writeBeliefSet( MarshallerWriteContext context,
                                         BeliefSet beliefSet,
                                         ProtobufMessages.EqualityKey.Builder _key) throws IOException {
@@ -566,15 +628,27 @@ public class ProtobufOutputMarshaller {
 
     private static void writeFactHandles( MarshallerWriteContext context,
                                           ProtobufMessages.EntryPoint.Builder _epb,
-                                          ObjectStore objectStore) throws IOException {
+                                          ObjectStore objectStore,
+                                          SessionSegments.Writer segments ) throws IOException {
         ObjectMarshallingStrategyStore objectMarshallingStrategyStore = context.getObjectMarshallingStrategyStore();
 
+        ProtobufMessages.EntryPoint.Builder _handles = segments == null ?
+                _epb :
+                ProtobufMessages.EntryPoint.newBuilder().setEntryPointId( _epb.getEntryPointId() );
+
         // Write out FactHandles
         for ( InternalFactHandle handle : orderFacts( objectStore ) ) {
             ProtobufMessages.FactHandle _handle = writeFactHandle( context,
                                                                    objectMarshallingStrategyStore,
                                                                    handle );
-            _epb.addHandle( _handle );
+            _handles.addHandle( _handle );
+            if ( segments != null && _handles.getHandleCount() == SessionSegments.SEGMENT_SIZE ) {
+                segments.write( SessionSegments.HANDLES, _handles.build() );
+                _handles.clearHandle();
+            }
+        }
+        if ( segments != null && _handles.getHandleCount() > 0 ) {
+            segments.write( SessionSegments.HANDLES, _handles.build() );
         }
     }
 
@@ -760,7 +834,8 @@ public class ProtobufOutputMarshaller {
     }
 
     private static ProtobufMessages.Timers writeTimers(Collection<TimerJobInstance> timers,
-                                                       MarshallerWriteContext outCtx) {
+                                                       MarshallerWriteContext outCtx,
+                                                       SessionSegments.Writer segments) throws IOException {
         if ( !timers.isEmpty() ) {
             List<TimerJobInstance> sortedTimers = new ArrayList<>( timers );
             Collections.sort( sortedTimers,
@@ -785,8 +860,18 @@ public class ProtobufOutputMarshaller {
                 Timer _timer = writer.serialize( jctx, outCtx );
                 if ( _timer != null ) {
                     _timers.addTimer( _timer );
+                    if ( segments != null && _timers.getTimerCount() == SessionSegments.SEGMENT_SIZE ) {
+                        segments.write( SessionSegments.TIMERS, _timers.build() );
+                        _timers.clearTimer();
+                    }
                 }
             }
+            if ( segments != null ) {
+                if ( _timers.getTimerCount() > 0 ) {
+                    segments.write( SessionSegments.TIMERS, _timers.build() );
+                }
+                return null;
+            }
             return _timers.build();
         }
         return null;
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.serialization.protobuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.drools.core.common.DroolsObjectOutputStream;
+import org.drools.core.marshalling.MarshallerReaderContext;
+import org.drools.core.marshalling.MarshallerWriteContext;
+import org.drools.core.util.KeyStoreHelper;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.marshalling.ObjectMarshallingStrategy.Context;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
+
+/**
+ * The segmented format of a marshalled session, used when EnvironmentName.USE_SEGMENTED_MARSHALLING is enabled.
+ * Instead of a Header whose payload is the whole KnowledgeSession message, the session is written as a sequence
+ * of length-delimited segments:
+ * <pre>
+ *   session := MAGIC version:varint32 segment* END
+ *   segment := type:varint32 size:varint32 message[size]
+ * </pre>
+ * The dormant matches, the query node memories, the fact handles, the truth maintenance keys and the timers are
+ * written in segments of at most SEGMENT_SIZE entries as soon as they are serialized, and each entry point is
+ * introduced by an ENTRY_POINT segment followed by its HANDLES and TMS segments. What remains of the session,
+ * which only refers to the facts by id, is written in a single SESSION segment. The trailing segments hold the
+ * version, the runtime defined classes and the used strategies, with the data of each strategy split in chunks
+ * of at most STRATEGY_DATA_CHUNK_SIZE bytes, since it is complete only once all the objects have been marshalled.
+ * <p>
+ * The data of a strategy is needed to unmarshal any object, so the reader keeps the serialized segments until it
+ * has read the trailing ones, and then the session is rebuilt parsing one segment at a time: neither side ever
+ * holds the whole KnowledgeSession message nor a copy of the strategy data. A session in the former format
+ * starts with a Header field tag, which is never 0, so the two formats are told apart by their first byte.
+ * A signed session is always written in the former format, since its signature covers the whole payload.
+ */
+public class SessionSegments {
+
+    static final int MAGIC = 0;
+    static final int VERSION = 1;
+
+    static final int END = 0;
+    static final int SESSION = 1;
+    static final int MATCHES = 2;
+    static final int NODE_MEMORY = 3;
+    static final int ENTRY_POINT = 4;
+    static final int HANDLES = 5;
+    static final int TMS = 6;
+    static final int TIMERS = 7;
+    static final int HEADER = 8;
+    static final int STRATEGY = 9;
+    static final int STRATEGY_DATA = 10;
+
+    static final int SEGMENT_SIZE = 1000;
+    static final int STRATEGY_DATA_CHUNK_SIZE = 64 * 1024;
+
+    private final ExtensionRegistry registry;
+
+    private ProtobufMessages.KnowledgeSession session;
+    private final List<ByteString> matches = new ArrayList<>();
+    private final List<ByteString> nodeMemories = new ArrayList<>();
+    private final List<EntryPointSegments> entryPoints = new ArrayList<>();
+    private final List<ByteString> timers = new ArrayList<>();
+
+    private SessionSegments( ExtensionRegistry registry ) {
+        this.registry = registry;
+    }
+
+    /**
+     * Wraps a session read in the former format, where everything is in the KnowledgeSession message.
+     */
+    public static SessionSegments of( ProtobufMessages.KnowledgeSession _session ) {
+        SessionSegments segments = new SessionSegments( null );
+        segments.session = _session;
+        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+            segments.entryPoints.add( new EntryPointSegments( _ep ) );
+        }
+        return segments;
+    }
+
+    public static boolean isEnabled( Environment environment ) {
+        return environment != null &&
+               Boolean.TRUE.equals( environment.get( EnvironmentName.USE_SEGMENTED_MARSHALLING ) ) &&
+               !KeyStoreHelper.get().isSigned();
+    }
+
+    /**
+     * The KnowledgeSession message, which in the segmented format holds neither the parts written in their own
+     * segments nor the entry points.
+     */
+    public ProtobufMessages.KnowledgeSession getSession() {
+        return session;
+    }
+
+    public int getMatchesSegmentCount() {
+        return matches.size();
+    }
+
+    public List<ProtobufMessages.Activation> readMatches( int segment ) throws InvalidProtocolBufferException {
+        return ProtobufMessages.Agenda.parseFrom( matches.get( segment ), registry ).getMatchList();
+    }
+
+    public int getNodeMemorySegmentCount() {
+        return nodeMemories.size();
+    }
+
+    public ProtobufMessages.NodeMemory readNodeMemory( int segment ) throws InvalidProtocolBufferException {
+        return ProtobufMessages.NodeMemory.parseFrom( nodeMemories.get( segment ), registry );
+    }
+
+    public List<EntryPointSegments> getEntryPoints() {
+        return Collections.unmodifiableList( entryPoints );
+    }
+
+    /**
+     * Each segment is an EntryPoint message with the id of the entry point, carrying a part of its handles.
+     */
+    public ProtobufMessages.EntryPoint readHandles( EntryPointSegments entryPoint, int segment ) throws InvalidProtocolBufferException {
+        return ProtobufMessages.EntryPoint.parseFrom( entryPoint.handles.get( segment ), registry );
+    }
+
+    /**
+     * Each segment is an EntryPoint message with the id and the object type configurations of the entry point,
+     * carrying a part of its truth maintenance keys.
+     */
+    public ProtobufMessages.EntryPoint readTms( EntryPointSegments entryPoint, int segment ) throws InvalidProtocolBufferException {
+        return ProtobufMessages.EntryPoint.parseFrom( entryPoint.tms.get( segment ), registry );
+    }
+
+    public int getTimersSegmentCount() {
+        return timers.size();
+    }
+
+    public List<ProtobufMessages.Timers.Timer> readTimers( int segment ) throws InvalidProtocolBufferException {
+        return ProtobufMessages.Timers.parseFrom( timers.get( segment ), registry ).getTimerList();
+    }
+
+    /**
+     * Reads the segments following the MAGIC byte, loading the strategies from the trailing ones.
+     */
+    static SessionSegments read( MarshallerReaderContext context,
+                                 InputStream stream,
+                                 ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        CodedInputStream input = CodedInputStream.newInstance( stream );
+        input.setSizeLimit( Integer.MAX_VALUE );
+
+        int version = input.readUInt32();
+        if ( version != VERSION ) {
+            throw new IllegalStateException( "Unsupported version " + version + " of a segmented session." );
+        }
+
+        SessionSegments segments = new SessionSegments( registry );
+        ByteString _session = null;
+        ProtobufMessages.Header _header = null;
+        for ( int type = input.readUInt32(); type != END; type = input.readUInt32() ) {
+            // the size limit applies to all the bytes read since the last reset, which may exceed 2GB
+            input.resetSizeCounter();
+            switch ( type ) {
+                case SESSION:
+                    _session = input.readBytes();
+                    break;
+                case MATCHES:
+                    segments.matches.add( input.readBytes() );
+                    break;
+                case NODE_MEMORY:
+                    segments.nodeMemories.add( input.readBytes() );
+                    break;
+                case ENTRY_POINT:
+                    segments.entryPoints.add( new EntryPointSegments( ProtobufMessages.EntryPoint.parseFrom( input.readBytes(), registry ) ) );
+                    break;
+                case HANDLES:
+                    segments.lastEntryPoint( type ).handles.add( input.readBytes() );
+                    break;
+                case TMS:
+                    segments.lastEntryPoint( type ).tms.add( input.readBytes() );
+                    break;
+                case TIMERS:
+                    segments.timers.add( input.readBytes() );
+                    break;
+                case HEADER:
+                    _header = ProtobufMessages.Header.parseFrom( input.readBytes(), registry );
+                    break;
+                case STRATEGY:
+                    if ( _header == null ) {
+                        throw new IllegalStateException( "Strategy segment before the header of a segmented session." );
+                    }
+                    ProtobufMessages.Header.StrategyIndex _entry = ProtobufMessages.Header.StrategyIndex.parseFrom( input.readBytes(), registry );
+                    StrategyDataInput data = new StrategyDataInput( input );
+                    PersisterHelper.loadStrategy( context, _header, _entry, data );
+                    if ( _entry.hasData() ) {
+                        // the strategy may have no context, or leave some of its data unread
+                        data.skipRemaining();
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException( "Unknown segment type " + type + " in a segmented session." );
+            }
+        }
+
+        if ( _header == null || _session == null ) {
+            throw new IllegalStateException( "Truncated segmented session." );
+        }
+        PersisterHelper.checkSignature( _header );
+        segments.session = ProtobufMessages.KnowledgeSession.parseFrom( _session, registry );
+        return segments;
+    }
+
+    private EntryPointSegments lastEntryPoint( int type ) {
+        if ( entryPoints.isEmpty() ) {
+            throw new IllegalStateException( "Segment of type " + type + " outside of an entry point in a segmented session." );
+        }
+        return entryPoints.get( entryPoints.size() - 1 );
+    }
+
+    /**
+     * The segments of an entry point. The EntryPoint message itself holds its id and object type configurations,
+     * and in the former format also all its handles and truth maintenance keys.
+     */
+    public static class EntryPointSegments {
+        private final ProtobufMessages.EntryPoint entryPoint;
+        private final List<ByteString> handles = new ArrayList<>();
+        private final List<ByteString> tms = new ArrayList<>();
+
+        private EntryPointSegments( ProtobufMessages.EntryPoint entryPoint ) {
+            this.entryPoint = entryPoint;
+        }
+
+        public ProtobufMessages.EntryPoint getEntryPoint() {
+            return entryPoint;
+        }
+
+        public int getHandlesSegmentCount() {
+            return handles.size();
+        }
+
+        public int getTmsSegmentCount() {
+            return tms.size();
+        }
+    }
+
+    /**
+     * Writes the segments of a session, see SessionSegments for the layout.
+     */
+    static class Writer {
+
+        private final CodedOutputStream output;
+
+        Writer( OutputStream stream ) throws IOException {
+            this.output = CodedOutputStream.newInstance( stream );
+            output.writeRawByte( MAGIC );
+            output.writeUInt32NoTag( VERSION );
+        }
+
+        void write( int type, Message segment ) throws IOException {
+            output.writeUInt32NoTag( type );
+            output.writeMessageNoTag( segment );
+        }
+
+        /**
+         * Writes the version, the runtime defined classes and the strategies with their data, then the END marker.
+         */
+        void writeTrailer( MarshallerWriteContext context ) throws IOException {
+            write( HEADER, PersisterHelper.newHeader( context ).build() );
+
+            for ( Entry<ObjectMarshallingStrategy, Integer> entry : context.getUsedStrategies().entrySet() ) {
+                ProtobufMessages.Header.StrategyIndex.Builder _strat = ProtobufMessages.Header.StrategyIndex.newBuilder()
+                        .setId( entry.getValue().intValue() )
+                        .setName( entry.getKey().getName() );
+
+                Context ctx = context.getStrategyContext().get( entry.getKey() );
+                if ( ctx == null ) {
+                    write( STRATEGY, _strat.build() );
+                    continue;
+                }
+
+                // an empty data only flags that the data follows in STRATEGY_DATA segments
+                write( STRATEGY, _strat.setData( ByteString.EMPTY ).build() );
+                StrategyDataOutput data = new StrategyDataOutput();
+                DroolsObjectOutputStream out = new DroolsObjectOutputStream( data );
+                ctx.write( out );
+                out.flush();
+                data.finish();
+            }
+
+            output.writeUInt32NoTag( END );
+            output.flush();
+        }
+
+        private class StrategyDataOutput extends OutputStream {
+            private final byte[] chunk = new byte[STRATEGY_DATA_CHUNK_SIZE];
+            private int size;
+
+            @Override
+            public void write( int b ) throws IOException {
+                if ( size == chunk.length ) {
+                    writeChunk();
+                }
+                chunk[size++] = (byte) b;
+            }
+
+            @Override
+            public void write( byte[] b, int off, int len ) throws IOException {
+                while ( len > 0 ) {
+                    if ( size == chunk.length ) {
+                        writeChunk();
+                    }
+                    int n = Math.min( len, chunk.length - size );
+                    System.arraycopy( b, off, chunk, size, n );
+                    size += n;
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            private void writeChunk() throws IOException {
+                output.writeUInt32NoTag( STRATEGY_DATA );
+                output.writeUInt32NoTag( size );
+                output.writeRawBytes( chunk, 0, size );
+                size = 0;
+            }
+
+            private void finish() throws IOException {
+                if ( size > 0 ) {
+                    writeChunk();
+                }
+                // an empty chunk ends the data
+                writeChunk();
+            }
+        }
+    }
+
+    /**
+     * Reads the data of a strategy out of the STRATEGY_DATA segments following it, up to the empty one.
+     */
+    private static class StrategyDataInput extends InputStream {
+        private final CodedInputStream input;
+        private int remaining;
+        private boolean finished;
+
+        private StrategyDataInput( CodedInputStream input ) {
+            this.input = input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if ( !nextChunk() ) {
+                return -1;
+            }
+            remaining--;
+            return input.readRawByte() & 0xff;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) throws IOException {
+            if ( len == 0 ) {
+                return 0;
+            }
+            if ( !nextChunk() ) {
+                return -1;
+            }
+            int n = Math.min( len, remaining );
+            System.arraycopy( input.readRawBytes( n ), 0, b, off, n );
+            remaining -= n;
+            return n;
+        }
+
+        private boolean nextChunk() throws IOException {
+            while ( remaining == 0 && !finished ) {
+                int type = input.readUInt32();
+                if ( type != STRATEGY_DATA ) {
+                    throw new IllegalStateException( "Segment of type " + type + " inside the data of a strategy in a segmented session." );
+                }
+                input.resetSizeCounter();
+                remaining = input.readUInt32();
+                finished = remaining == 0;
+            }
+            return remaining > 0;
+        }
+
+        private void skipRemaining() throws IOException {
+            while ( nextChunk() ) {
+                input.skipRawBytes( remaining );
+                remaining = 0;
+            }
+        }
+    }
+}
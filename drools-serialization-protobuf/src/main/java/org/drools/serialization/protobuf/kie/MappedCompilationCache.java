@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.serialization.protobuf.kie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+import org.drools.compiler.kie.builder.impl.InternalKieModule.CompilationCache;
+import org.drools.compiler.kie.builder.impl.InternalKieModule.CompilationCacheEntry;
+import org.drools.serialization.protobuf.kie.KieModuleCache.CompDataEntry;
+import org.drools.serialization.protobuf.kie.KieModuleCache.CompilationData;
+import org.drools.serialization.protobuf.kie.KieModuleCache.Header;
+import org.drools.serialization.protobuf.kie.KieModuleCache.KModuleCache;
+import org.drools.serialization.protobuf.kie.KieModuleCache.Version;
+
+/**
+ * A CompilationCache reading a kbase.cache in place, typically from a read-only mapping of the file.
+ * Loading it only walks the protobuf wire format to find where the bytecode of each class lies,
+ * that bytecode being copied out of the buffer only when its class is looked up. The cache file
+ * must not be rewritten while the buffer is in use.
+ */
+public class MappedCompilationCache extends CompilationCache {
+
+    private static final long serialVersionUID = -4406137262406128123L;
+
+    private final transient ByteBuffer buffer;
+
+    // this is a { DIALECT -> ( RESOURCE, List<Slot> ) } index of the buffer
+    private final transient Map<String, Map<String, List<Slot>>> slots = new HashMap<>();
+
+    private transient Version version;
+    private transient boolean signed;
+
+    private MappedCompilationCache(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public static MappedCompilationCache index(ByteBuffer buffer) throws IOException {
+        MappedCompilationCache cache = new MappedCompilationCache( buffer );
+        CodedInputStream input = CodedInputStream.newInstance( buffer.duplicate() );
+        input.setSizeLimit( Integer.MAX_VALUE );
+        cache.readHeader( input, buffer.position() );
+        return cache;
+    }
+
+    public Version getVersion() {
+        return version != null ? version : Version.getDefaultInstance();
+    }
+
+    /**
+     * A signed cache can only be trusted once its whole payload has been checked, so it
+     * has to be read with KieModuleCacheHelper instead.
+     */
+    public boolean isSigned() {
+        return signed;
+    }
+
+    @Override
+    public Map<String, List<CompilationCacheEntry>> getCacheForDialect(String dialect) {
+        Map<String, List<Slot>> resources = slots.get( dialect );
+        return resources != null ? new LazyEntries( resources ) : super.getCacheForDialect( dialect );
+    }
+
+    private void readHeader(CodedInputStream input, int base) throws IOException {
+        for ( int tag = input.readTag(); tag != 0; tag = input.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Header.VERSION_FIELD_NUMBER:
+                    version = input.readMessage( Version.PARSER, ExtensionRegistryLite.getEmptyRegistry() );
+                    break;
+                case Header.SIGNATURE_FIELD_NUMBER:
+                    signed = true;
+                    input.skipField( tag );
+                    break;
+                case Header.PAYLOAD_FIELD_NUMBER:
+                    int limit = input.pushLimit( input.readRawVarint32() );
+                    readKModuleCache( input, base );
+                    input.popLimit( limit );
+                    break;
+                default:
+                    input.skipField( tag );
+            }
+        }
+    }
+
+    private void readKModuleCache(CodedInputStream input, int base) throws IOException {
+        for ( int tag = input.readTag(); tag != 0; tag = input.readTag() ) {
+            if ( WireFormat.getTagFieldNumber( tag ) == KModuleCache.COMPILATION_DATA_FIELD_NUMBER ) {
+                int limit = input.pushLimit( input.readRawVarint32() );
+                readCompilationData( input, base );
+                input.popLimit( limit );
+            } else {
+                input.skipField( tag );
+            }
+        }
+    }
+
+    private void readCompilationData(CodedInputStream input, int base) throws IOException {
+        String dialect = "";
+        List<Slot> entries = new ArrayList<>();
+        for ( int tag = input.readTag(); tag != 0; tag = input.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case CompilationData.DIALECT_FIELD_NUMBER:
+                    dialect = input.readString();
+                    break;
+                case CompilationData.ENTRY_FIELD_NUMBER:
+                    int limit = input.pushLimit( input.readRawVarint32() );
+                    entries.add( readEntry( input, base ) );
+                    input.popLimit( limit );
+                    break;
+                default:
+                    input.skipField( tag );
+            }
+        }
+
+        Map<String, List<Slot>> resources = slots.computeIfAbsent( dialect, d -> new HashMap<>() );
+        for ( Slot slot : entries ) {
+            resources.computeIfAbsent( getResourceName( slot.className ), r -> new ArrayList<>() ).add( slot );
+        }
+    }
+
+    private static Slot readEntry(CodedInputStream input, int base) throws IOException {
+        String className = "";
+        int offset = 0;
+        int length = 0;
+        for ( int tag = input.readTag(); tag != 0; tag = input.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case CompDataEntry.ID_FIELD_NUMBER:
+                    className = input.readString();
+                    break;
+                case CompDataEntry.DATA_FIELD_NUMBER:
+                    // only remember where the bytecode is, without copying it
+                    length = input.readRawVarint32();
+                    offset = base + input.getTotalBytesRead();
+                    input.skipRawBytes( length );
+                    break;
+                default:
+                    input.skipField( tag );
+            }
+        }
+        return new Slot( className, offset, length );
+    }
+
+    private CompilationCacheEntry load(Slot slot) {
+        byte[] bytecode = new byte[slot.length];
+        ByteBuffer view = buffer.duplicate();
+        view.position( slot.offset );
+        view.get( bytecode );
+        return new CompilationCacheEntry( slot.className, bytecode );
+    }
+
+    private List<CompilationCacheEntry> load(List<Slot> resourceSlots) {
+        List<CompilationCacheEntry> entries = new ArrayList<>( resourceSlots.size() );
+        for ( Slot slot : resourceSlots ) {
+            entries.add( load( slot ) );
+        }
+        return entries;
+    }
+
+    private Object writeReplace() {
+        // the buffer can't be serialized, so the whole cache is loaded in a plain CompilationCache
+        CompilationCache cache = new CompilationCache();
+        for ( Map.Entry<String, Map<String, List<Slot>>> dialect : slots.entrySet() ) {
+            for ( List<Slot> resourceSlots : dialect.getValue().values() ) {
+                for ( Slot slot : resourceSlots ) {
+                    cache.addEntry( dialect.getKey(), slot.className, load( slot ).bytecode );
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static final class Slot {
+        private final String className;
+        private final int offset;
+        private final int length;
+
+        private Slot(String className, int offset, int length) {
+            this.className = className;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private class LazyEntries extends AbstractMap<String, List<CompilationCacheEntry>> {
+
+        private final Map<String, List<Slot>> resources;
+
+        private LazyEntries(Map<String, List<Slot>> resources) {
+            this.resources = resources;
+        }
+
+        @Override
+        public List<CompilationCacheEntry> get(Object resourceName) {
+            List<Slot> resourceSlots = resources.get( resourceName );
+            return resourceSlots != null ? load( resourceSlots ) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object resourceName) {
+            return resources.containsKey( resourceName );
+        }
+
+        @Override
+        public int size() {
+            return resources.size();
+        }
+
+        @Override
+        public Set<Entry<String, List<CompilationCacheEntry>>> entrySet() {
+            Set<Entry<String, List<CompilationCacheEntry>>> entries = new HashSet<>();
+            for ( Entry<String, List<Slot>> resource : resources.entrySet() ) {
+                entries.add( new SimpleImmutableEntry<>( resource.getKey(), load( resource.getValue() ) ) );
+            }
+            return entries;
+        }
+    }
+}
@@ -79,6 +79,12 @@ public class JavaSerializableResolverStrategy
         }
     }
 
+    @Override
+    public boolean isConcurrentUnmarshallingSupported() {
+        // every object is decoded from its own stream
+        return true;
+    }
+
     public Context createContext() {
         // no need for context
         return null;
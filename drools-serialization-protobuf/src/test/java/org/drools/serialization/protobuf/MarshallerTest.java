@@ -92,6 +92,126 @@ public class MarshallerTest {
         }
     }
 
+    @Test
+    public void testLargeSessionRoundTrip() throws Exception {
+        // the session is streamed in and out of the header without being copied in a byte[]
+        String str =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "rule R1 when\n" +
+                "    $p : Person(age > 30)\n" +
+                "then\n" +
+                "end\n";
+
+        KieBase kbase = new KieHelper().addContent(str, ResourceType.DRL).build();
+        KieSession ksession = null;
+        try {
+            ksession = kbase.newKieSession(null, env);
+            int matching = 0;
+            for (int i = 0; i < 20000; i++) {
+                ksession.insert(new Person("Person" + i, i % 60));
+                matching += i % 60 > 30 ? 1 : 0;
+            }
+            assertThat(ksession.fireAllRules()).isEqualTo(matching);
+            for (int i = 0; i < 100; i++) {
+                ksession.insert(new Person("Late" + i, 40));
+            }
+
+            ReadSessionResult result = SerializationHelper.getSerialisedStatefulKnowledgeSessionWithMessage(ksession, kbase, true);
+            ksession = result.getSession();
+
+            assertThat(result.getDeserializedMessage().getRuleData().getEntryPoint(0).getHandleCount()).isEqualTo(20100);
+            assertThat(ksession.getFactCount()).isEqualTo(20100);
+            assertThat(ksession.fireAllRules()).isEqualTo(100);
+        } finally {
+            if (ksession != null) {
+                ksession.dispose();
+            }
+        }
+    }
+
+    @Test
+    public void testParallelUnmarshalling() throws Exception {
+        // facts are decoded in parallel and reinserted in batches of consecutive facts of the same type
+        String str =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "rule R1 when\n" +
+                "    $p : Person(age > 30)\n" +
+                "    String(this == $p.name)\n" +
+                "then\n" +
+                "end\n" +
+                "rule R2 when\n" +
+                "    Integer(intValue > 500)\n" +
+                "then\n" +
+                "end\n";
+
+        env.set(EnvironmentName.USE_PARALLEL_UNMARSHALLING, true);
+
+        KieBase kbase = new KieHelper().addContent(str, ResourceType.DRL).build();
+        KieSession ksession = null;
+        try {
+            ksession = kbase.newKieSession(null, env);
+            int matching = 0;
+            for (int i = 0; i < 1000; i++) {
+                ksession.insert(new Person("Person" + i, i % 60));
+                if (i % 3 == 0) {
+                    ksession.insert("Person" + i);
+                    matching += i % 60 > 30 ? 1 : 0;
+                }
+                ksession.insert(i);
+                matching += i > 500 ? 1 : 0;
+            }
+
+            ksession = SerializationHelper.getSerialisedStatefulKnowledgeSession(ksession, true);
+
+            assertThat(ksession.getFactCount()).isEqualTo(2334);
+            assertThat(ksession.fireAllRules()).isEqualTo(matching);
+        } finally {
+            if (ksession != null) {
+                ksession.dispose();
+            }
+        }
+    }
+
+    @Test
+    public void testSegmentedSessionRoundTrip() throws Exception {
+        // facts, matches and strategy data are written in several segments, and read back one segment at a time
+        String str =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "rule R1 when\n" +
+                "    $p : Person(age > 30)\n" +
+                "then\n" +
+                "end\n";
+
+        env.set(EnvironmentName.USE_SEGMENTED_MARSHALLING, true);
+
+        KieBase kbase = new KieHelper().addContent(str, ResourceType.DRL).build();
+        KieSession ksession = null;
+        try {
+            ksession = kbase.newKieSession(null, env);
+            int matching = 0;
+            for (int i = 0; i < 5000; i++) {
+                ksession.insert(new Person("Person" + i, i % 60));
+                matching += i % 60 > 30 ? 1 : 0;
+            }
+            assertThat(ksession.fireAllRules()).isEqualTo(matching);
+            for (int i = 0; i < 2500; i++) {
+                ksession.insert(new Person("Late" + i, 40));
+            }
+
+            ReadSessionResult result = SerializationHelper.getSerialisedStatefulKnowledgeSessionWithMessage(ksession, kbase, true);
+            ksession = result.getSession();
+
+            // the handles are not in the session message, but in their own segments
+            assertThat(result.getDeserializedMessage().getRuleData().getEntryPointCount()).isZero();
+            assertThat(ksession.getFactCount()).isEqualTo(7500);
+            assertThat(ksession.fireAllRules()).isEqualTo(2500);
+        } finally {
+            if (ksession != null) {
+                ksession.dispose();
+            }
+        }
+    }
+
     @Test
     public void testFromWithFireBeforeSerialization() throws Exception {
         String str =
@@ -740,6 +740,61 @@ public class TruthMaintenanceTest extends CommonTestMethodBase {
         }
     }
 
+    @Test(timeout=10000)
+    public void testLogicalInsertionsRefireReusesJustifications() throws Exception {
+        // enough justifications to look up the previous ones through an index when the rule fires again,
+        // each string being justified twice by the same match
+        String str =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "rule R when\n" +
+                "    $p : Person()\n" +
+                "then\n" +
+                "    for (int i = 0; i < $p.getAge(); i++) {\n" +
+                "        insertLogical( \"S\" + i );\n" +
+                "        insertLogical( \"S\" + i );\n" +
+                "    }\n" +
+                "end\n";
+
+        KieBase kbase = loadKnowledgeBaseFromString( str );
+        KieSession ksession = createKnowledgeSession( kbase );
+        try {
+            Person person = new Person( "mark", 50 );
+            FactHandle personHandle = ksession.insert( person );
+            ksession.fireAllRules();
+
+            Map<Object, Long> ids = getJustifiedIds( ksession );
+            assertThat(ids).hasSize(50);
+
+            ksession = getSerialisedStatefulKnowledgeSession( ksession, true );
+
+            person.setAge( 30 );
+            personHandle = getFactHandle( personHandle, ksession );
+            ksession.update( personHandle, person );
+            ksession.fireAllRules();
+
+            // the strings still justified keep their handles, the others are retracted
+            Map<Object, Long> refired = getJustifiedIds( ksession );
+            assertThat(refired).hasSize(30);
+            for ( int i = 0; i < 30; i++ ) {
+                assertThat(refired.get( "S" + i )).isEqualTo(ids.get( "S" + i ));
+            }
+
+            ksession.delete( personHandle );
+            ksession.fireAllRules();
+            assertThat(ksession.getObjects( new ClassObjectFilter( String.class ) )).isEmpty();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static Map<Object, Long> getJustifiedIds(KieSession ksession) {
+        Map<Object, Long> ids = new HashMap<>();
+        for ( FactHandle fh : ksession.getFactHandles( new ClassObjectFilter( String.class ) ) ) {
+            ids.put( ((InternalFactHandle) fh).getObject(), ((InternalFactHandle) fh).getId() );
+        }
+        return ids;
+    }
+
     public InternalFactHandle getFactHandle(FactHandle factHandle,
                                             StatefulKnowledgeSessionImpl session) {
         Map<Long, FactHandle> handles = new HashMap<>();
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.serialization.protobuf.kie;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.ByteString;
+import org.drools.compiler.kie.builder.impl.InternalKieModule.CompilationCache;
+import org.drools.compiler.kie.builder.impl.InternalKieModule.CompilationCacheEntry;
+import org.drools.core.util.Drools;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedCompilationCacheTest {
+
+    @Test
+    public void testLookupFromMappedFile() throws Exception {
+        Path path = Files.createTempFile("kbase", ".cache");
+        try {
+            Files.write(path, writeCache());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                assertCacheContent(MappedCompilationCache.index(buffer));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testLookupFromHeapBuffer() throws Exception {
+        MappedCompilationCache cache = MappedCompilationCache.index(ByteBuffer.wrap(writeCache()));
+
+        assertThat(cache.isSigned()).isFalse();
+        assertThat(cache.getVersion().getVersionMajor()).isEqualTo(Drools.getMajorVersion());
+        assertThat(cache.getVersion().getVersionMinor()).isEqualTo(Drools.getMinorVersion());
+        assertCacheContent(cache);
+    }
+
+    @Test
+    public void testSerializedAsPlainCache() throws Exception {
+        MappedCompilationCache cache = MappedCompilationCache.index(ByteBuffer.wrap(writeCache()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cache);
+        }
+        Object read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = in.readObject();
+        }
+
+        assertThat(read).isExactlyInstanceOf(CompilationCache.class);
+        assertCacheContent((CompilationCache) read);
+    }
+
+    private static void assertCacheContent(CompilationCache cache) {
+        assertThat(cache.getCacheForDialect("mvel")).isNull();
+
+        Map<String, List<CompilationCacheEntry>> java = cache.getCacheForDialect("java");
+        assertThat(java).hasSize(2);
+        assertThat(java.get("org/test/Missing.class")).isNull();
+
+        List<CompilationCacheEntry> rule = java.get("org/test/Rule_R1.class");
+        assertThat(rule).extracting(e -> e.className)
+                .containsExactly("org/test/Rule_R1.class", "org/test/Rule_R1$Inner.class");
+        assertThat(rule.get(0).bytecode).containsExactly(1, 2, 3);
+        assertThat(rule.get(1).bytecode).containsExactly(4, 5);
+
+        List<CompilationCacheEntry> empty = java.get("org/test/Empty.class");
+        assertThat(empty).hasSize(1);
+        assertThat(empty.get(0).bytecode).isEmpty();
+    }
+
+    private static byte[] writeCache() throws Exception {
+        KieModuleCache.CompilationData data = KieModuleCache.CompilationData.newBuilder()
+                .setDialect("java")
+                .addEntry(entry("org/test/Rule_R1.class", new byte[] { 1, 2, 3 }))
+                .addEntry(entry("org/test/Rule_R1$Inner.class", new byte[] { 4, 5 }))
+                .addEntry(entry("org/test/Empty.class", new byte[0]))
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        KieModuleCacheHelper.writeToStreamWithHeader(out, KieModuleCache.KModuleCache.newBuilder().addCompilationData(data).build());
+        return out.toByteArray();
+    }
+
+    private static KieModuleCache.CompDataEntry entry(String className, byte[] bytecode) {
+        return KieModuleCache.CompDataEntry.newBuilder().setId(className).setData(ByteString.copyFrom(bytecode)).build();
+    }
+}
@@ -3813,4 +3813,42 @@ public class AccumulateTest {
             kieSession.dispose();
         }
     }
+
+    @Test
+    public void testReverseMinMaxOfPrimitiveExpression() {
+        final String drl = "package org.drools.compiler.integrationtests;\n" +
+                "import " + Cheese.class.getCanonicalName() + ";\n" +
+                "global java.util.List results;\n" +
+                "rule R when\n" +
+                "    accumulate( Cheese( $price : price ); $min : min( $price ), $max : max( $price ) )\n" +
+                "then\n" +
+                "    results.add( $min + \"-\" + $max );\n" +
+                "end";
+
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("accumulate-test", kieBaseTestConfiguration, drl);
+        final KieSession kieSession = kbase.newKieSession();
+        try {
+            final List<String> results = new ArrayList<>();
+            kieSession.setGlobal("results", results);
+
+            final FactHandle cheap = kieSession.insert(new Cheese("brie", 3));
+            kieSession.insert(new Cheese("stilton", 7));
+            final FactHandle expensive = kieSession.insert(new Cheese("provolone", 12));
+            kieSession.insert(new Cheese("gorgonzola", 3));
+            kieSession.fireAllRules();
+            assertThat(results).containsExactly("3-12");
+
+            // removing the current minimum and maximum
+            kieSession.delete(cheap);
+            kieSession.delete(expensive);
+            kieSession.fireAllRules();
+            assertThat(results).containsExactly("3-12", "3-7");
+
+            kieSession.insert(new Cheese("cheddar", -1));
+            kieSession.fireAllRules();
+            assertThat(results).containsExactly("3-12", "3-7", "-1-7");
+        } finally {
+            kieSession.dispose();
+        }
+    }
 }
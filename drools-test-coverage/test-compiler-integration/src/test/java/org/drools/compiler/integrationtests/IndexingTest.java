@@ -45,6 +45,7 @@ import org.drools.core.reteoo.ReteDumper;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.index.TupleIndexHashTable;
+import org.drools.core.util.index.TupleIndexIntHashTable;
 import org.drools.core.util.index.TupleList;
 import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
 import org.drools.testcoverage.common.model.Cheese;
@@ -245,6 +246,51 @@ public class IndexingTest {
         }
     }
 
+    @Test(timeout = 10000)
+    public void testBuildsPrimitiveIndexedMemory() {
+        final String drl =
+                "package org.drools.compiler.test\n" +
+                        "import " + Person.class.getCanonicalName() + "\n" +
+                        "global java.util.List list\n" +
+                        "rule test1\n" +
+                        "when\n" +
+                        "   $p1 : Person( $age : age )\n" +
+                        "   $p2 : Person( this != $p1, age == $age )\n" +
+                        "then\n" +
+                        "   list.add( $p1.getName() + \"-\" + $p2.getName() );\n" +
+                        "end\n";
+
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("indexing-test", kieBaseTestConfiguration, drl);
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            final ObjectTypeNode node = KieUtil.getObjectTypeNode(kbase, Person.class);
+            final LeftInputAdapterNode liaNode = (LeftInputAdapterNode) node.getObjectSinkPropagator().getSinks()[0];
+            final JoinNode j2 = (JoinNode) liaNode.getSinkPropagator().getSinks()[0];
+
+            final BetaMemory bm = (BetaMemory) ((InternalWorkingMemory) ksession).getNodeMemory(j2);
+            assertThat(bm.getLeftTupleMemory()).isInstanceOf(TupleIndexIntHashTable.class);
+            assertThat(bm.getRightTupleMemory()).isInstanceOf(TupleIndexIntHashTable.class);
+
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            final Person mario = new Person("Mario", 40);
+            final FactHandle marioFh = ksession.insert(mario);
+            ksession.insert(new Person("Mark", 40));
+            ksession.insert(new Person("Edson", 35));
+            ksession.fireAllRules();
+            assertThat(list).containsExactlyInAnyOrder("Mario-Mark", "Mark-Mario");
+
+            list.clear();
+            mario.setAge(35);
+            ksession.update(marioFh, mario);
+            ksession.fireAllRules();
+            assertThat(list).containsExactlyInAnyOrder("Mario-Edson", "Edson-Mario");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
     @Test(timeout = 10000)
     public void testIndexingOnQueryUnification() {
         final String drl =
@@ -27,10 +27,13 @@ import java.util.Set;
 
 import org.drools.ancompiler.CompiledNetwork;
 import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.ObjectSink;
 import org.drools.core.reteoo.ObjectSinkPropagator;
 import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.util.index.TupleIndexHashRBTree;
 import org.drools.testcoverage.common.model.Cheese;
 import org.drools.testcoverage.common.model.Person;
 import org.drools.testcoverage.common.model.Pet;
@@ -47,6 +50,7 @@ import org.kie.api.KieBase;
 import org.kie.api.builder.KieModule;
 import org.kie.api.conf.BetaRangeIndexOption;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -528,4 +532,92 @@ public class JoinNodeRangeIndexingTest {
             ksession.dispose();
         }
     }
+
+    @Test
+    public void testCompositeEqualityAndRangeIndexForJoin() {
+        final String drl = "import " + Person.class.getCanonicalName() + ";\n" +
+                           "import " + Cheese.class.getCanonicalName() + ";\n" +
+                           "global java.util.List result;\n" +
+                           "rule R1\n" +
+                           "when\n" +
+                           "   $cheese : Cheese( $type : type )\n" +
+                           "   $person : Person( likes == $type, age > $cheese.price )\n" +
+                           "then\n" +
+                           "   result.add( $person.getName() + \":\" + $cheese.getType() );\n" +
+                           "end\n";
+
+        final KieBase kbase = getKieBaseWithRangeIndexOption(drl);
+
+        final JoinNode joinNode = getJoinNode(kbase, Person.class);
+        assertThat(joinNode.getRawConstraints().getIndexCount()).isEqualTo(2);
+
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            final BetaMemory bm = (BetaMemory) ((InternalWorkingMemory) ksession).getNodeMemory(joinNode);
+            assertThat(bm.getLeftTupleMemory()).isInstanceOf(TupleIndexHashRBTree.class);
+            assertThat(bm.getRightTupleMemory()).isInstanceOf(TupleIndexHashRBTree.class);
+
+            final List<String> result = new ArrayList<>();
+            ksession.setGlobal("result", result);
+
+            final Cheese stilton = new Cheese("stilton", 10);
+            final FactHandle stiltonFh = ksession.insert(stilton);
+            ksession.insert(new Cheese("brie", 20));
+
+            ksession.insert(new Person("John", "stilton", 15));
+            final Person paul = new Person("Paul", "brie", 15);
+            final FactHandle paulFh = ksession.insert(paul);
+            final FactHandle georgeFh = ksession.insert(new Person("George", "brie", 25));
+            final Person ringo = new Person("Ringo", "stilton", 5);
+            final FactHandle ringoFh = ksession.insert(ringo);
+
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            assertThat(result).containsExactlyInAnyOrder("John:stilton", "George:brie");
+
+            // moves Paul to another bucket
+            result.clear();
+            paul.setLikes("stilton");
+            ksession.update(paulFh, paul);
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(result).containsExactly("Paul:stilton");
+
+            // moves Ringo inside the same bucket
+            result.clear();
+            ringo.setAge(30);
+            ksession.update(ringoFh, ringo);
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(result).containsExactly("Ringo:stilton");
+
+            // only Ringo is still older than the new price
+            result.clear();
+            stilton.setPrice(20);
+            ksession.update(stiltonFh, stilton);
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(result).containsExactly("Ringo:stilton");
+
+            result.clear();
+            ksession.delete(georgeFh);
+            ksession.insert(new Person("Mick", "brie", 21));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(result).containsExactly("Mick:brie");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private JoinNode getJoinNode(KieBase kbase, Class<?> factClass) {
+        final ObjectTypeNode otn = KieUtil.getObjectTypeNode(kbase, factClass);
+        assertThat(otn).isNotNull();
+
+        ObjectSinkPropagator objectSinkPropagator = otn.getObjectSinkPropagator();
+        if (this.kieBaseTestConfiguration.useAlphaNetworkCompiler()) {
+            objectSinkPropagator = ((CompiledNetwork) objectSinkPropagator).getOriginalSinkPropagator();
+        }
+        for (ObjectSink sink : objectSinkPropagator.getSinks()) {
+            if (sink instanceof JoinNode) {
+                return (JoinNode) sink;
+            }
+        }
+        throw new IllegalStateException("No JoinNode found for " + factClass);
+    }
 }
@@ -37,7 +37,10 @@ import org.kie.internal.conf.IndexPrecedenceOption;
 import org.kie.internal.conf.IndexRightBetaMemoryOption;
 import org.kie.internal.conf.MaxThreadsOption;
 import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.conf.ObjectStoreOption;
+import org.kie.internal.conf.ParallelEvaluationModeOption;
 import org.kie.internal.conf.PermGenThresholdOption;
+import org.kie.internal.conf.PropagationListOption;
 import org.kie.internal.conf.SequentialAgendaOption;
 import org.kie.internal.conf.ShareAlphaNodesOption;
 import org.kie.internal.conf.ShareBetaNodesOption;
@@ -406,6 +409,66 @@ public class KnowledgeBaseConfigurationTest {
         // checking the string based getProperty() method
         assertThat(config.getProperty(MaxThreadsOption.PROPERTY_NAME)).isEqualTo("8");
     }
+
+    @Test
+    public void testParallelEvaluationModeConfiguration() {
+        // setting the option using the type safe method
+        config.setOption( ParallelEvaluationModeOption.WORK_STEALING );
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(ParallelEvaluationModeOption.class)).isEqualTo(ParallelEvaluationModeOption.WORK_STEALING);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(ParallelEvaluationModeOption.PROPERTY_NAME)).isEqualTo("workstealing");
+
+        // setting the options using the string based setProperty() method
+        config.setProperty( ParallelEvaluationModeOption.PROPERTY_NAME,
+                            "partitioned" );
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(ParallelEvaluationModeOption.class)).isEqualTo(ParallelEvaluationModeOption.PARTITIONED);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(ParallelEvaluationModeOption.PROPERTY_NAME)).isEqualTo("partitioned");
+    }
+
+    @Test
+    public void testPropagationListConfiguration() {
+        // setting the option using the type safe method
+        config.setOption( PropagationListOption.LOCK_FREE );
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(PropagationListOption.class)).isEqualTo(PropagationListOption.LOCK_FREE);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(PropagationListOption.PROPERTY_NAME)).isEqualTo("lockfree");
+
+        // setting the options using the string based setProperty() method
+        config.setProperty( PropagationListOption.PROPERTY_NAME,
+                            "synchronized" );
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(PropagationListOption.class)).isEqualTo(PropagationListOption.SYNCHRONIZED);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(PropagationListOption.PROPERTY_NAME)).isEqualTo("synchronized");
+    }
+
+    @Test
+    public void testObjectStoreConfiguration() {
+        // setting the option using the type safe method
+        config.setOption( ObjectStoreOption.FLAT );
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(ObjectStoreOption.class)).isEqualTo(ObjectStoreOption.FLAT);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(ObjectStoreOption.PROPERTY_NAME)).isEqualTo("flat");
+
+        // setting the options using the string based setProperty() method
+        config.setProperty( ObjectStoreOption.PROPERTY_NAME,
+                            "default" );
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(ObjectStoreOption.class)).isEqualTo(ObjectStoreOption.DEFAULT);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(ObjectStoreOption.PROPERTY_NAME)).isEqualTo("default");
+    }
     
     @Test
     public void testMultithreadEvaluationConfiguration() {
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.mvel.integrationtests;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.drools.core.jfr.AgendaGroupFocusEvent;
+import org.drools.core.jfr.BetaMemorySizeEvent;
+import org.drools.core.jfr.FireBatchEvent;
+import org.drools.core.jfr.NetworkEvaluationEvent;
+import org.drools.core.jfr.PropagationFlushEvent;
+import org.drools.testcoverage.common.model.Cheese;
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.runtime.conf.FlightRecorderOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class FlightRecorderTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 agenda-group \"cheese\" when\n" +
+            "  $p : Person()\n" +
+            "  $c : Cheese( type == $p.likes )\n" +
+            "then\n" +
+            "  list.add( $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public FlightRecorderTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession createSession(KieBase kbase, FlightRecorderOption option) {
+        KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption(option);
+        return kbase.newKieSession(conf, null);
+    }
+
+    @Test
+    public void testSessionEvents() throws Exception {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final List<RecordedEvent> events = record(kbase, FlightRecorderOption.YES);
+
+        assertThat(eventNames(events)).contains("org.drools.NetworkEvaluation",
+                                                "org.drools.FireBatch",
+                                                "org.drools.PropagationFlush",
+                                                "org.drools.AgendaGroupFocus",
+                                                "org.drools.BetaMemorySize");
+
+        final RecordedEvent fireBatch = events.stream().filter(e -> e.getEventType().getName().equals("org.drools.FireBatch")).findFirst().get();
+        assertThat(fireBatch.getString("rule")).endsWith("R1");
+        assertThat(fireBatch.getInt("fired")).isEqualTo(1);
+
+        final RecordedEvent focus = events.stream().filter(e -> e.getEventType().getName().equals("org.drools.AgendaGroupFocus")).findFirst().get();
+        assertThat(focus.getString("agendaGroup")).isEqualTo("cheese");
+
+        final RecordedEvent betaMemory = events.stream().filter(e -> e.getEventType().getName().equals("org.drools.BetaMemorySize")).findFirst().get();
+        assertThat(betaMemory.getInt("leftTuples")).isEqualTo(1);
+        assertThat(betaMemory.getInt("rightTuples")).isEqualTo(1);
+    }
+
+    @Test
+    public void testNoEventsWhenDisabled() throws Exception {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final List<RecordedEvent> events = record(kbase, FlightRecorderOption.NO);
+
+        assertThat(eventNames(events)).noneMatch(name -> name.startsWith("org.drools."));
+    }
+
+    private List<RecordedEvent> record(KieBase kbase, FlightRecorderOption option) throws Exception {
+        final Path dump = Files.createTempFile("drools", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(NetworkEvaluationEvent.class);
+            recording.enable(FireBatchEvent.class);
+            recording.enable(PropagationFlushEvent.class);
+            recording.enable(AgendaGroupFocusEvent.class);
+            // emitted once when the recording stops, while the session is still alive
+            recording.enable(BetaMemorySizeEvent.class).with("period", "endChunk");
+            recording.start();
+
+            final KieSession ksession = createSession(kbase, option);
+            try {
+                final List<String> list = new ArrayList<>();
+                ksession.setGlobal("list", list);
+                ksession.insert(new Person("mario", "stilton", 40));
+                ksession.insert(new Cheese("stilton", 5));
+                ksession.getAgenda().getAgendaGroup("cheese").setFocus();
+                assertThat(ksession.fireAllRules()).isEqualTo(1);
+                assertThat(list).containsExactly("mario:stilton");
+
+                recording.stop();
+            } finally {
+                ksession.dispose();
+            }
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    private static List<String> eventNames(List<RecordedEvent> events) {
+        return events.stream().map(e -> e.getEventType().getName()).distinct().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.commands.runtime.rule.InsertElementsCommand;
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.testcoverage.common.model.Cheese;
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.event.rule.DefaultRuleRuntimeEventListener;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.command.CommandFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class InsertAllTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "  $c : Cheese( price > 10 )\n" +
+            "  $p : Person( likes == $c.type )\n" +
+            "then\n" +
+            "  list.add( $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n" +
+            "rule R2 when\n" +
+            "  $p : Person( age >= 18 )\n" +
+            "then\n" +
+            "  list.add( $p.getName() );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public InsertAllTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private List<Object> createFacts() {
+        List<Object> facts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            facts.add(new Cheese("cheese" + i, i * 3));
+            facts.add(new Person("person" + i, "cheese" + i, 12 + i));
+        }
+        return facts;
+    }
+
+    @Test
+    public void testInsertAllMatchesSingleInserts() {
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+
+        List<String> expected = new ArrayList<>();
+        KieSession ksession = kbase.newKieSession();
+        try {
+            ksession.setGlobal("list", expected);
+            for (Object fact : createFacts()) {
+                ksession.insert(fact);
+            }
+            ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+
+        List<String> list = new ArrayList<>();
+        ksession = kbase.newKieSession();
+        try {
+            ksession.setGlobal("list", list);
+            List<Object> facts = createFacts();
+            List<FactHandle> handles = ((WorkingMemoryEntryPoint) ksession).insertAll(facts);
+
+            assertThat(handles).hasSize(facts.size());
+            for (int i = 0; i < facts.size(); i++) {
+                assertThat(ksession.getObject(handles.get(i))).isSameAs(facts.get(i));
+            }
+            assertThat(ksession.getFactCount()).isEqualTo(facts.size());
+
+            assertThat(ksession.fireAllRules()).isEqualTo(expected.size());
+            assertThat(list).containsExactlyInAnyOrderElementsOf(expected);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testInsertAllKeepsOrderAcrossTypes() {
+        final String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "import " + Cheese.class.getCanonicalName() + ";\n" +
+                "import java.util.List;\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "  $l : List( size == 4 ) from accumulate( $o : Object( this instanceof Cheese || this instanceof Person ), collectList( $o ) )\n" +
+                "then\n" +
+                "  list.addAll( $l );\n" +
+                "end\n";
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<Object> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            // the Object node must see the facts in iteration order, not grouped by type
+            List<Object> facts = Arrays.asList(new Cheese("cheddar", 5), new Person("mario", "cheddar", 40),
+                                               new Cheese("brie", 7), new Person("luca", "brie", 30));
+            ((WorkingMemoryEntryPoint) ksession).insertAll(facts);
+
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactlyElementsOf(facts);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testInsertAllWithNullAndDuplicates() {
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            Person mark = new Person("mark", 37);
+            FactHandle markHandle = ksession.insert(mark);
+            Person edson = new Person("edson", 35);
+
+            List<FactHandle> handles = ((WorkingMemoryEntryPoint) ksession).insertAll(Arrays.asList(mark, null, edson, edson));
+
+            assertThat(handles).hasSize(4);
+            assertThat(handles.get(0)).isSameAs(markHandle);
+            assertThat(handles.get(1)).isNull();
+            assertThat(handles.get(3)).isSameAs(handles.get(2));
+            assertThat(ksession.getFactCount()).isEqualTo(2);
+
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            assertThat(list).containsExactlyInAnyOrder("mark", "edson");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testInsertAllFiresInsertionEvents() {
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        KieSession ksession = kbase.newKieSession();
+        try {
+            ksession.setGlobal("list", new ArrayList<>());
+
+            List<Object> inserted = new ArrayList<>();
+            ksession.addEventListener(new DefaultRuleRuntimeEventListener() {
+                @Override
+                public void objectInserted(ObjectInsertedEvent event) {
+                    inserted.add(event.getObject());
+                }
+            });
+
+            List<Object> facts = createFacts();
+            ((WorkingMemoryEntryPoint) ksession).insertAll(facts);
+            assertThat(inserted).containsExactlyElementsOf(facts);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testInsertAllBatchesThroughAlphaAndBetaNodes() {
+        final String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "import " + Cheese.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule Join when\n" +
+                "  $c : Cheese( price > 10 )\n" +
+                "  $p : Person( likes == $c.type, age >= 18 )\n" +
+                "then\n" +
+                "  list.add( \"join:\" + $p.getName() + \":\" + $c.getType() );\n" +
+                "end\n" +
+                "rule Not when\n" +
+                "  $p : Person()\n" +
+                "  not Cheese( type == $p.likes )\n" +
+                "then\n" +
+                "  list.add( \"not:\" + $p.getName() );\n" +
+                "end\n" +
+                "rule Alpha when\n" +
+                "  $c : Cheese( price < 6 )\n" +
+                "then\n" +
+                "  list.add( \"alpha:\" + $c.getType() );\n" +
+                "end\n";
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+
+        // long runs of the same type, so each node below the ObjectTypeNodes receives whole batches
+        List<Object> facts = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            facts.add(new Cheese("cheese" + i, i));
+        }
+        for (int i = 0; i < 40; i++) {
+            facts.add(new Person("person" + i, "cheese" + i, 10 + i));
+        }
+
+        List<String> expected = new ArrayList<>();
+        KieSession ksession = kbase.newKieSession();
+        try {
+            ksession.setGlobal("list", expected);
+            facts.forEach(ksession::insert);
+            ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+
+        List<String> list = new ArrayList<>();
+        ksession = kbase.newKieSession();
+        try {
+            ksession.setGlobal("list", list);
+            ((WorkingMemoryEntryPoint) ksession).insertAll(facts);
+            assertThat(ksession.fireAllRules()).isEqualTo(expected.size());
+            assertThat(list).containsExactlyInAnyOrderElementsOf(expected);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testInsertElementsCommand() {
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            List<Object> facts = createFacts();
+            InsertElementsCommand command = (InsertElementsCommand) CommandFactory.newInsertElements(facts);
+            command.setBatched(true);
+            Collection<FactHandle> handles = ksession.execute(command);
+            assertThat(handles).hasSize(facts.size());
+
+            // 6 cheeses cost more than 10 and 4 persons are adults
+            assertThat(ksession.fireAllRules()).isEqualTo(10);
+            assertThat(list).hasSize(10);
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
@@ -19,13 +19,17 @@ import java.util.Collection;
 
 import org.drools.compiler.compiler.io.File;
 import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.FileKieModule;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.mvel.compiler.Message;
+import org.drools.serialization.protobuf.kie.MappedCompilationCache;
 import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
 import org.drools.testcoverage.common.util.KieUtil;
 import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.kie.api.KieBase;
@@ -51,6 +55,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 @RunWith(Parameterized.class)
 public class KieCompilationCacheTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private final KieBaseTestConfiguration kieBaseTestConfiguration;
 
     public KieCompilationCacheTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
@@ -103,6 +110,44 @@ public class KieCompilationCacheTest {
         assertThat(count).isEqualTo(1);
     }
 
+    @Test
+    public void testCompilationCacheFromDirectory() throws Exception {
+        // the compilation cache of a kjar exploded in a directory is memory mapped
+        String drl = "package org.drools.compiler\n" +
+                "import " + Message.class.getCanonicalName() + "\n" +
+                "rule R1 when\n" +
+                "   $m : Message( message == \"Hello World\" )\n" +
+                "then\n" +
+                "    $m.setMessage( \"Goodbye\" );\n" +
+                "end\n";
+
+        KieServices ks = KieServices.Factory.get();
+
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "cache-directory", "1.0");
+
+        KieFileSystem kfs = ks.newKieFileSystem()
+                .generateAndWritePomXML(releaseId)
+                .write("src/main/resources/r1.drl", drl);
+        KieUtil.getKieBuilderFromKieFileSystem(kieBaseTestConfiguration, kfs, false);
+
+        InternalKieModule kieModule = (InternalKieModule) ks.getRepository().getKieModule( releaseId );
+        java.io.File dir = temporaryFolder.newFolder();
+        MemoryFileSystem.readFromJar( kieModule.getBytes() ).writeAsFs( dir );
+        ks.getRepository().removeKieModule( releaseId );
+
+        KieModule km = ks.getRepository().addKieModule( ks.getResources().newFileSystemResource( dir ) );
+        if (!kieBaseTestConfiguration.isExecutableModel()) {
+            assertThat(km).isInstanceOf(FileKieModule.class);
+            assertThat(((InternalKieModule) km).getCompilationCache("defaultKieBase")).isInstanceOf(MappedCompilationCache.class);
+        }
+
+        KieSession ksession = ks.newKieContainer( km.getReleaseId() ).newKieSession();
+        Message message = new Message("Hello World");
+        ksession.insert(message);
+        assertThat(ksession.fireAllRules()).isEqualTo(1);
+        assertThat(message.getMessage()).isEqualTo("Goodbye");
+    }
+
     @Test
     public void testHelloWorldWithPackagesAnd2KieBases() throws Exception {
         String drl1 = "package org.pkg1\n" +
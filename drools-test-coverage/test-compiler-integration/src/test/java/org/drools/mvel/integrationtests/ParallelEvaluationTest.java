@@ -32,13 +32,19 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.core.ClockType;
 import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalAgenda;
 import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.RuleBasePartitionId;
+import org.drools.kiesession.agenda.CompositeDefaultAgenda;
+import org.drools.kiesession.agenda.WorkStealingPartitionsEvaluator;
 import org.drools.kiesession.rulebase.InternalKnowledgeBase;
 import org.drools.core.impl.RuleBaseFactory;
 import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
 import org.drools.core.reteoo.CompositePartitionAwareObjectSinkAdapter;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.PartitionsBalancer;
+import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.time.impl.PseudoClockScheduler;
 import org.drools.mvel.compiler.util.debug.DebugList;
@@ -57,8 +63,10 @@ import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.conf.ClockTypeOption;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.conf.ParallelEvaluationModeOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @RunWith(Parameterized.class)
 public class ParallelEvaluationTest {
@@ -134,6 +142,117 @@ public class ParallelEvaluationTest {
         assertThat(list.size()).isEqualTo(ruleNr);
     }
 
+    @Test(timeout = 40000L)
+    public void testWithInsertionsUsingWorkStealing() {
+        StringBuilder sb = new StringBuilder( 4000 );
+        sb.append( "global java.util.List list;\n" );
+        int ruleNr = 200;
+
+        for (int i = 0; i < ruleNr; i++) {
+            sb.append( getRule( i, "insert( $i + 10 );\ninsert( \"\" + ($i + 10) );\n" ) );
+        }
+
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, sb.toString());
+        final KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration,
+                                                                                      MultithreadEvaluationOption.YES, ParallelEvaluationModeOption.WORK_STEALING );
+        KieSession ksession = kbase.newKieSession();
+
+        InternalAgenda agenda = ((InternalWorkingMemory) ksession).getAgenda();
+        assertThat(agenda.isParallelAgenda()).isTrue();
+        WorkStealingPartitionsEvaluator evaluator = ((CompositeDefaultAgenda) agenda).getWorkStealingEvaluator();
+        assertThat(evaluator).isNotNull();
+
+        List<Integer> list = new DebugList<Integer>();
+        ksession.setGlobal( "list", list );
+
+        for (int i = 0; i < 10; i++) {
+            ksession.insert( i );
+            ksession.insert( "" + i );
+        }
+
+        ksession.fireAllRules();
+
+        assertThat(list.size()).isEqualTo(ruleNr);
+
+        long evaluations = 0;
+        for (int i = 0; i < RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER; i++) {
+            evaluations += evaluator.getEvaluationsCount( i );
+        }
+        assertThat(evaluations).isGreaterThanOrEqualTo(RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER);
+    }
+
+    @Test(timeout = 40000L)
+    public void testRebalancePartitions() {
+        StringBuilder sb = new StringBuilder( 4000 );
+        sb.append( "global java.util.List list;\n" );
+        int ruleNr = 20;
+
+        for (int i = 0; i < ruleNr; i++) {
+            sb.append( getRule( i, "insert( $i + 10 );\ninsert( \"\" + ($i + 10) );\n" ) );
+        }
+
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, sb.toString());
+        final KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, MultithreadEvaluationOption.YES );
+
+        InternalKnowledgeBase internalKBase = (InternalKnowledgeBase) kbase;
+        PartitionsBalancer balancer = internalKBase.getReteooBuilder().getPartitionsBalancer();
+        balancer.startProfiling();
+
+        KieSession ksession = kbase.newKieSession();
+        List<Integer> list = new DebugList<Integer>();
+        ksession.setGlobal( "list", list );
+        for (int i = 0; i < 10; i++) {
+            ksession.insert( i );
+            ksession.insert( "" + i );
+        }
+        ksession.fireAllRules();
+        assertThat(list.size()).isEqualTo(ruleNr);
+
+        balancer.stopProfiling();
+        assertThat(balancer.getRuleCost( "defaultpkg.R0" ).getEvaluations()).isGreaterThan(0);
+        assertThat(balancer.getRuleCost( "defaultpkg.R0" ).getFiredTuples()).isEqualTo(1);
+
+        // partitions cannot be rebalanced while a session is alive
+        assertThatThrownBy(internalKBase::rebalancePartitions).isInstanceOf(IllegalStateException.class);
+
+        ksession.dispose();
+        long[] costsBefore = balancer.getSlotCosts();
+        internalKBase.rebalancePartitions();
+        long[] costsAfter = balancer.getSlotCosts();
+
+        // the greedy assignment keeps each slot within the cost of one partition from the average
+        long maxPartitionCost = 0;
+        for (int i = 0; i < ruleNr; i++) {
+            for (TerminalNode terminalNode : internalKBase.getReteooBuilder().getTerminalNodes( "defaultpkg.R" + i )) {
+                maxPartitionCost = Math.max(maxPartitionCost, balancer.getPartitionCost( terminalNode.getPartitionId() ));
+            }
+        }
+        long totalCost = Arrays.stream(costsAfter).sum();
+        assertThat(totalCost).isEqualTo(Arrays.stream(costsBefore).sum());
+        assertThat(Arrays.stream(costsAfter).max().getAsLong())
+                .isLessThanOrEqualTo(Arrays.stream(costsBefore).max().getAsLong())
+                .isLessThanOrEqualTo(totalCost / costsAfter.length + maxPartitionCost);
+
+        EntryPointNode epn = internalKBase.getRete().getEntryPointNode( EntryPointId.DEFAULT );
+        ObjectTypeNode otn = epn.getObjectTypeNodes().get( new ClassObjectType( Integer.class ) );
+        assertThat(((CompositePartitionAwareObjectSinkAdapter) otn.getObjectSinkPropagator()).getUsedPartitionsCount()).isGreaterThan(1);
+
+        ksession = kbase.newKieSession();
+        assertThat(((InternalWorkingMemory) ksession).getAgenda().isParallelAgenda()).isTrue();
+        list = new DebugList<Integer>();
+        ksession.setGlobal( "list", list );
+        for (int i = 0; i < 10; i++) {
+            ksession.insert( i );
+            ksession.insert( "" + i );
+        }
+        ksession.fireAllRules();
+        assertThat(list.size()).isEqualTo(ruleNr);
+        ksession.dispose();
+
+        // nothing is recorded once the profiling has been stopped
+        assertThat(balancer.getRuleCost( "defaultpkg.R0" ).getFiredTuples()).isEqualTo(1);
+    }
+
     @Test(timeout = 40000L)
     public void testWithDeletes() {
         StringBuilder sb = new StringBuilder( 400 );
@@ -1874,4 +1874,57 @@ public class PropertyReactivityTest {
 
         assertThat(ksession.fireAllRules()).isEqualTo(2);
     }
+
+    @Test(timeout=20000)
+    public void testWideTypes() {
+        // masks of types with more than 64 properties use fixed width two and four words implementations
+        checkWideType(100);
+        checkWideType(200);
+        checkWideType(300);
+    }
+
+    private void checkWideType(int fieldsNr) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("package org.drools.test;\n")
+          .append("global java.util.List list;\n")
+          .append("declare Wide\n");
+        for (int i = 0; i < fieldsNr; i++) {
+            sb.append("  f").append(i).append(" : int\n");
+        }
+        final int last = fieldsNr - 1;
+        sb.append("end\n")
+          .append("rule Init when\n")
+          .append("then\n")
+          .append("  insert( new Wide() );\n")
+          .append("end\n")
+          .append("rule R1 when\n")
+          .append("  $w : Wide( f" + last + " == 0 )\n")
+          .append("then\n")
+          .append("  list.add( \"R1\" );\n")
+          .append("  modify( $w ) { setF1( 1 ) }\n")
+          .append("end\n")
+          .append("rule R2 when\n")
+          .append("  $w : Wide( f1 == 1 )\n")
+          .append("then\n")
+          .append("  list.add( \"R2\" );\n")
+          .append("  modify( $w ) { setF70( 1 ) }\n")
+          .append("end\n")
+          .append("rule R3 when\n")
+          .append("  $w : Wide( f70 == 1, f" + last + " == 0 )\n")
+          .append("then\n")
+          .append("  list.add( \"R3\" );\n")
+          .append("  modify( $w ) { setF" + last + "( 1 ) }\n")
+          .append("end\n");
+
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, sb.toString());
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            assertThat(ksession.fireAllRules()).isEqualTo(4);
+            assertThat(list).containsExactly("R1", "R2", "R3");
+        } finally {
+            ksession.dispose();
+        }
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.RuleBase;
+import org.drools.core.reteoo.LeftInputAdapterNode;
+import org.drools.core.reteoo.LeftInputAdapterNode.LiaNodeMemory;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSource;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.testcoverage.common.model.Cheese;
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.runtime.conf.SegmentMemoryEvictionOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class SegmentMemoryEvictionTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "  $p : Person()\n" +
+            "  $c : Cheese( type == $p.likes )\n" +
+            "then\n" +
+            "  list.add( $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n" +
+            "rule R2 when\n" +
+            "  $s : String( length > 3 )\n" +
+            "  $p : Person( name == $s )\n" +
+            "then\n" +
+            "  list.add( $s );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public SegmentMemoryEvictionTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession createSession(KieBase kbase, long idleTime) {
+        KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption(ClockTypeOption.PSEUDO);
+        conf.setOption(SegmentMemoryEvictionOption.get(idleTime));
+        return kbase.newKieSession(conf, null);
+    }
+
+    @Test
+    public void testEvictIdleSegments() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = createSession(kbase, 1000);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            final SessionPseudoClock clock = ksession.getSessionClock();
+            final InternalWorkingMemory wm = (InternalWorkingMemory) ksession;
+
+            final LeftInputAdapterNode personLia = findLia(kbase, Person.class);
+            final LeftInputAdapterNode stringLia = findLia(kbase, String.class);
+
+            final FactHandle p = ksession.insert(new Person("mario", "stilton", 40));
+            final FactHandle c1 = ksession.insert(new Cheese("stilton", 5));
+            ksession.insert("brie");
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("mario:stilton");
+
+            ksession.delete(p);
+            ksession.delete(c1);
+            ksession.fireAllRules();
+            assertThat(wm.getNodeMemories().peekNodeMemory(personLia)).isNotNull();
+
+            // the first sweep marks the empty segment as candidate, the second one evicts it
+            clock.advanceTime(1, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(wm.getNodeMemories().peekNodeMemory(personLia)).isNotNull();
+            clock.advanceTime(1, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+
+            assertThat(wm.getNodeMemories().peekNodeMemory(personLia)).isNull();
+            // R2 still holds a left tuple, so its segment must be retained
+            final LiaNodeMemory stringMemory = (LiaNodeMemory) wm.getNodeMemories().peekNodeMemory(stringLia);
+            assertThat(stringMemory).isNotNull();
+            assertThat(stringMemory.getSegmentMemory()).isNotNull();
+
+            // the evicted segment is rebuilt as soon as a fact reaches it again
+            list.clear();
+            ksession.insert(new Person("luca", "brie", 35));
+            ksession.insert(new Cheese("brie", 15));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("luca:brie");
+            assertThat(wm.getNodeMemories().peekNodeMemory(personLia)).isNotNull();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testSegmentNotEvictedWhenActivityBetweenSweeps() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = createSession(kbase, 1000);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            final SessionPseudoClock clock = ksession.getSessionClock();
+            final InternalWorkingMemory wm = (InternalWorkingMemory) ksession;
+            final LeftInputAdapterNode personLia = findLia(kbase, Person.class);
+
+            for (int i = 0; i < 5; i++) {
+                final FactHandle p = ksession.insert(new Person("mario" + i, "stilton", 40));
+                final FactHandle c = ksession.insert(new Cheese("stilton", 5));
+                ksession.fireAllRules();
+                ksession.delete(p);
+                ksession.delete(c);
+                ksession.fireAllRules();
+                clock.advanceTime(1, TimeUnit.SECONDS);
+                ksession.fireAllRules();
+                assertThat(wm.getNodeMemories().peekNodeMemory(personLia)).isNotNull();
+            }
+            assertThat(list).hasSize(5);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static LeftInputAdapterNode findLia(KieBase kbase, Class<?> type) {
+        for (ObjectTypeNode otn : ((RuleBase) kbase).getRete().getObjectTypeNodes()) {
+            if (otn.getObjectType().getClassName().equals(type.getName())) {
+                LeftInputAdapterNode lia = findLia(otn);
+                if (lia != null) {
+                    return lia;
+                }
+            }
+        }
+        throw new IllegalStateException("No LeftInputAdapterNode for " + type);
+    }
+
+    private static LeftInputAdapterNode findLia(ObjectSource source) {
+        for (ObjectSink sink : source.getObjectSinkPropagator().getSinks()) {
+            if (sink instanceof LeftInputAdapterNode) {
+                return (LeftInputAdapterNode) sink;
+            }
+            if (sink instanceof ObjectSource) {
+                LeftInputAdapterNode lia = findLia((ObjectSource) sink);
+                if (lia != null) {
+                    return lia;
+                }
+            }
+        }
+        return null;
+    }
+}
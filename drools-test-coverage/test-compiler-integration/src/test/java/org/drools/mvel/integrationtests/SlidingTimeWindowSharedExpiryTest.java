@@ -0,0 +1,194 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.mvel.integrationtests;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.reteoo.ReteDumper;
+import org.drools.core.reteoo.WindowNode;
+import org.drools.core.rule.SlidingTimeWindow;
+import org.drools.core.rule.SlidingTimeWindow.SlidingTimeWindowContext;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class SlidingTimeWindowSharedExpiryTest {
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public SlidingTimeWindowSharedExpiryTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseStreamConfigurations(true);
+    }
+
+    private static final String DRL =
+            "package org.drools.mvel.integrationtests;\n" +
+            "import " + Tick.class.getCanonicalName() + ";\n" +
+            "declare Tick\n" +
+            "    @role( event )\n" +
+            "    @timestamp( time )\n" +
+            "end\n" +
+            "query countA\n" +
+            "    Number( $count : longValue ) from accumulate( Tick( symbol == \"A\" ) over window:time( 10s ), count() )\n" +
+            "end\n" +
+            "query countB\n" +
+            "    Number( $count : longValue ) from accumulate( Tick( symbol == \"B\" ) over window:time( 10s ), count() )\n" +
+            "end\n" +
+            "query countAll\n" +
+            "    Number( $count : longValue ) from accumulate( Tick( ) over window:time( 20s ), count() )\n" +
+            "end\n";
+
+    private KieSession ksession;
+
+    private SessionPseudoClock clock;
+
+    @Before
+    public void initialization() {
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        KieSessionConfiguration ksconfig = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconfig.setOption(ClockTypeOption.PSEUDO);
+        ksession = kbase.newKieSession(ksconfig, null);
+        clock = ksession.getSessionClock();
+    }
+
+    @After
+    public void clean() {
+        ksession.dispose();
+    }
+
+    @Test
+    public void testWindowsOfSameSizeShareTheQueue() {
+        List<WindowNode> windows = ReteDumper.collectRete(ksession).stream()
+                .filter(WindowNode.class::isInstance)
+                .map(WindowNode.class::cast)
+                .collect(Collectors.toList());
+        assertThat(windows).hasSize(3);
+
+        List<WindowNode> small = windows.stream().filter(w -> windowSize(w) == 10_000).collect(Collectors.toList());
+        WindowNode large = windows.stream().filter(w -> windowSize(w) == 20_000).findFirst().get();
+        assertThat(small).hasSize(2);
+
+        assertThat(windowContext(small.get(0)).getQueue()).isSameAs(windowContext(small.get(1)).getQueue());
+        assertThat(windowContext(large).getQueue()).isNotSameAs(windowContext(small.get(0)).getQueue());
+    }
+
+    @Test
+    public void testSharedExpiry() {
+        // inserted out of timestamp order
+        ksession.insert(new Tick("A", 4000));
+        ksession.insert(new Tick("B", 3000));
+        ksession.insert(new Tick("A", 0));
+        ksession.insert(new Tick("B", 1000));
+        ksession.insert(new Tick("A", 2000));
+        assertCounts(3, 2, 5);
+
+        clock.advanceTime(10500, TimeUnit.MILLISECONDS);
+        assertCounts(2, 2, 5);
+
+        clock.advanceTime(3000, TimeUnit.MILLISECONDS);
+        assertCounts(1, 0, 5);
+
+        clock.advanceTime(1000, TimeUnit.MILLISECONDS);
+        assertCounts(0, 0, 5);
+
+        clock.advanceTime(10000, TimeUnit.MILLISECONDS);
+        assertCounts(0, 0, 0);
+    }
+
+    @Test
+    public void testDeleteBeforeExpiration() {
+        ksession.insert(new Tick("A", 0));
+        FactHandle b = ksession.insert(new Tick("B", 1000));
+        FactHandle a = ksession.insert(new Tick("A", 2000));
+        ksession.insert(new Tick("B", 3000));
+        assertCounts(2, 2, 4);
+
+        ksession.delete(a);
+        ksession.delete(b);
+        assertCounts(1, 1, 2);
+
+        clock.advanceTime(12000, TimeUnit.MILLISECONDS);
+        assertCounts(0, 1, 2);
+
+        clock.advanceTime(1000, TimeUnit.MILLISECONDS);
+        assertCounts(0, 0, 2);
+
+        clock.advanceTime(10000, TimeUnit.MILLISECONDS);
+        assertCounts(0, 0, 0);
+    }
+
+    private void assertCounts(long a, long b, long all) {
+        assertThat(count("countA")).isEqualTo(a);
+        assertThat(count("countB")).isEqualTo(b);
+        assertThat(count("countAll")).isEqualTo(all);
+    }
+
+    private long count(String query) {
+        return ((Number) ksession.getQueryResults(query).iterator().next().get("$count")).longValue();
+    }
+
+    private static long windowSize(WindowNode window) {
+        return ((SlidingTimeWindow) window.getBehaviors()[0]).getSize();
+    }
+
+    private SlidingTimeWindowContext windowContext(WindowNode window) {
+        return (SlidingTimeWindowContext) ((InternalWorkingMemory) ksession).getNodeMemory(window).behaviorContext[0];
+    }
+
+    public static class Tick {
+
+        private final String symbol;
+        private final long time;
+
+        public Tick(String symbol, long time) {
+            this.symbol = symbol;
+            this.time = time;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public long getTime() {
+            return time;
+        }
+    }
+}
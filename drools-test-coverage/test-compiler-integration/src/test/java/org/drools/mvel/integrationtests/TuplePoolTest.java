@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.JoinNode;
+import org.drools.core.reteoo.ReteDumper;
+import org.drools.core.reteoo.RightTuplePool;
+import org.drools.testcoverage.common.model.Cheese;
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.conf.TuplePoolSizeOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class TuplePoolTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "  $p : Person()\n" +
+            "  $c : Cheese( type == $p.likes )\n" +
+            "then\n" +
+            "  list.add( $p.getName() + \":\" + $c.getType() + \":\" + $c.getPrice() );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public TuplePoolTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession createSession(KieBase kbase, int tuplePoolSize) {
+        KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption(TuplePoolSizeOption.get(tuplePoolSize));
+        return kbase.newKieSession(conf, null);
+    }
+
+    @Test
+    public void testRecycleRetractedRightTuples() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = createSession(kbase, 2);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            ksession.insert(new Person("Mario", "stilton"));
+            final FactHandle c1 = ksession.insert(new Cheese("brie", 1));
+            final FactHandle c2 = ksession.insert(new Cheese("brie", 2));
+            final FactHandle c3 = ksession.insert(new Cheese("brie", 3));
+            assertThat(ksession.fireAllRules()).isZero();
+
+            ksession.delete(c1);
+            ksession.delete(c2);
+            ksession.delete(c3);
+            ksession.fireAllRules();
+
+            // the pool keeps at most 2 of the 3 deleted tuples
+            final RightTuplePool pool = getCheeseJoinPool(ksession);
+            assertThat(pool.size()).isEqualTo(2);
+
+            // the insertions are propagated, and then take a tuple from the pool, only when the rules are fired
+            list.clear();
+            ksession.insert(new Cheese("stilton", 4));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(pool.size()).isEqualTo(1);
+
+            ksession.insert(new Cheese("stilton", 5));
+            ksession.insert(new Cheese("brie", 6));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(pool.size()).isZero();
+
+            assertThat(list).containsExactly("Mario:stilton:4", "Mario:stilton:5");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testRightTuplesWithChildrenAreNotRecycled() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = createSession(kbase, 2);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            ksession.insert(new Person("Mario", "stilton"));
+            final FactHandle c1 = ksession.insert(new Cheese("stilton", 1));
+            final FactHandle c2 = ksession.insert(new Cheese("stilton", 2));
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+
+            // the deleted children are still staged downstream when the right tuples are deleted
+            ksession.delete(c1);
+            ksession.delete(c2);
+            ksession.fireAllRules();
+            assertThat(getCheeseJoinPool(ksession).size()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testSameResultsWithAndWithoutPool() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        assertThat(runModifyAndDeleteCycles(kbase, 16)).isEqualTo(runModifyAndDeleteCycles(kbase, 0));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            assertThat(getCheeseJoinPool(ksession)).isNull();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private List<String> runModifyAndDeleteCycles(KieBase kbase, int tuplePoolSize) {
+        final KieSession ksession = createSession(kbase, tuplePoolSize);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            final Person mario = new Person("Mario", "stilton");
+            final FactHandle marioFh = ksession.insert(mario);
+            final List<FactHandle> cheeses = new ArrayList<>();
+            for (int cycle = 0; cycle < 5; cycle++) {
+                for (int i = 0; i < 4; i++) {
+                    cheeses.add(ksession.insert(new Cheese(i % 2 == 0 ? "stilton" : "brie", cycle * 10 + i)));
+                }
+                ksession.fireAllRules();
+
+                // modifying the likes deletes the left tuple, modifying a cheese type may delete its right tuple
+                mario.setLikes(cycle % 2 == 0 ? "brie" : "stilton");
+                ksession.update(marioFh, mario);
+                final FactHandle first = cheeses.remove(0);
+                final Cheese cheese = (Cheese) ksession.getObject(first);
+                cheese.setType("brie");
+                ksession.update(first, cheese);
+                ksession.fireAllRules();
+
+                ksession.delete(first);
+                ksession.delete(cheeses.remove(0));
+                ksession.fireAllRules();
+            }
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static RightTuplePool getCheeseJoinPool(KieSession ksession) {
+        final JoinNode joinNode = ReteDumper.collectRete(ksession).stream()
+                .filter(JoinNode.class::isInstance)
+                .map(JoinNode.class::cast)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        return ((BetaMemory) ((InternalWorkingMemory) ksession).getNodeMemory(joinNode)).getRightTuplePool();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.mvel.integrationtests.concurrency;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.drools.core.concurrent.ExecutorProviderImpl;
+import org.drools.core.concurrent.VirtualThreads;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.concurrent.KieExecutors;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs only when the executor provider has been configured to use virtual threads, i.e. on Java 21 or later with
+ * -Ddrools.virtualThreads=true, as done by the virtual-threads execution of the java21-virtual-threads profile.
+ */
+@RunWith(Parameterized.class)
+public class VirtualThreadsFireUntilHaltTest {
+
+    private static final int SESSIONS_NR = 10_000;
+
+    private static final String VIRTUAL_THREAD_PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public VirtualThreadsFireUntilHaltTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    @Test(timeout = 600000)
+    public void testConcurrentFireUntilHaltOnVirtualThreads() throws Exception {
+        final KieExecutors executors = ExecutorProviderFactory.getExecutorProvider();
+        assumeTrue("Virtual threads not enabled with -D" + ExecutorProviderImpl.VIRTUAL_THREADS_PROPERTY,
+                   executors instanceof ExecutorProviderImpl && ((ExecutorProviderImpl) executors).isUsingVirtualThreads());
+
+        final String drl =
+                "global java.util.concurrent.atomic.AtomicInteger counter\n" +
+                "rule R when\n" +
+                "  String()\n" +
+                "then\n" +
+                "  counter.incrementAndGet();\n" +
+                "  drools.halt();\n" +
+                "end\n";
+
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+        final AtomicInteger counter = new AtomicInteger();
+        final AtomicInteger virtualThreads = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(SESSIONS_NR);
+
+        final List<KieSession> sessions = new ArrayList<>(SESSIONS_NR);
+        final List<Future<?>> futures = new ArrayList<>(SESSIONS_NR);
+        final ExecutorService executor = executors.getExecutor();
+        final Path recordingFile = Files.createTempFile("fire-until-halt", ".jfr");
+        try (Recording recording = new Recording()) {
+            // a virtual thread blocked for longer than the threshold while holding a monitor (or in Object.wait) is reported
+            recording.enable(VIRTUAL_THREAD_PINNED_EVENT).withThreshold(Duration.ofMillis(20)).withStackTrace();
+            recording.start();
+
+            // all the sessions are parked in fireUntilHalt at the same time, each one on its own virtual thread
+            for (int i = 0; i < SESSIONS_NR; i++) {
+                final KieSession ksession = kbase.newKieSession();
+                ksession.setGlobal("counter", counter);
+                sessions.add(ksession);
+                futures.add(executor.submit(() -> {
+                    if (VirtualThreads.isVirtual(Thread.currentThread())) {
+                        virtualThreads.incrementAndGet();
+                    }
+                    started.countDown();
+                    ksession.fireUntilHalt();
+                }));
+            }
+
+            // let the sessions idle well beyond the pinning threshold before waking them up
+            assertThat(started.await(60, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(500);
+
+            for (KieSession ksession : sessions) {
+                ksession.insert("test");
+            }
+
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+
+            recording.stop();
+            recording.dump(recordingFile);
+
+            final List<RecordedEvent> pinnedEvents = RecordingFile.readAllEvents(recordingFile).stream()
+                    .filter(event -> event.getEventType().getName().equals(VIRTUAL_THREAD_PINNED_EVENT))
+                    .collect(Collectors.toList());
+            assertThat(pinnedEvents).as("Virtual threads pinned while idle in fireUntilHalt: %s", pinnedEvents).isEmpty();
+        } finally {
+            sessions.forEach(KieSession::dispose);
+            Files.deleteIfExists(recordingFile);
+        }
+
+        assertThat(counter.get()).isEqualTo(SESSIONS_NR);
+        assertThat(virtualThreads.get()).isEqualTo(SESSIONS_NR);
+    }
+}
@@ -17,6 +17,7 @@
 package org.drools.mvel.integrationtests.session;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletionService;
@@ -24,9 +25,11 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.core.common.EventSupport;
+import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.event.DefaultAgendaEventListener;
 import org.drools.core.event.DefaultRuleRuntimeEventListener;
 import org.drools.mvel.compiler.FactA;
@@ -49,8 +52,12 @@ import org.kie.api.conf.SessionsPoolOption;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieContainerSessionsPool;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.KieSessionsPool;
 import org.kie.api.runtime.StatelessKieSession;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
 import org.kie.internal.command.CommandFactory;
 import org.kie.internal.event.rule.RuleEventListener;
 import org.kie.internal.event.rule.RuleEventManager;
@@ -451,4 +458,139 @@ public class SessionsPoolTest {
             ksession.dispose();
         }
     }
+
+    private static final String REFERENCE_FACTS_DRL =
+            "global java.util.List list\n" +
+            "rule R1 when\n" +
+            "  $s : String()\n" +
+            "  $i : Integer( this == $s.length() )\n" +
+            "then\n" +
+            "  list.add($s + \":\" + $i);\n" +
+            "end";
+
+    @Test
+    public void testStatelessWithReferenceFacts() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, REFERENCE_FACTS_DRL);
+        final KieSessionsPool pool = kbase.newKieSessionsPool( 1 );
+        pool.setReferenceFacts( Arrays.asList( 3, 4, 5 ) );
+
+        final StatelessKieSession ksession = pool.newStatelessKieSession();
+
+        final List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.execute( Arrays.asList( "abc", "abcdef" ) );
+        assertThat(list).containsExactly( "abc:3" );
+
+        list.clear();
+        ksession.execute( Arrays.asList( "abcd", "ab" ) );
+        assertThat(list).containsExactly( "abcd:4" );
+
+        pool.shutdown();
+    }
+
+    @Test
+    public void testReferenceFactsRetainedAcrossResets() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, REFERENCE_FACTS_DRL);
+        final KieSessionsPool pool = kbase.newKieSessionsPool( 1 );
+        pool.setReferenceFacts( Arrays.asList( 3, 4, 5 ) );
+
+        KieSession ksession = pool.newKieSession();
+        final Collection<FactHandle> referenceHandles = ksession.getFactHandles();
+        assertThat(referenceHandles).hasSize(3);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal( "list", list );
+            ksession.insert( "abcde" );
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly( "abcde:5" );
+        } finally {
+            ksession.dispose();
+        }
+
+        // the same handles are retained, only the request facts have been deleted
+        final KieSession ksession2 = pool.newKieSession();
+        assertThat(ksession2).isSameAs(ksession);
+        assertThat(ksession2.getFactHandles()).containsExactlyInAnyOrderElementsOf(referenceHandles);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession2.setGlobal( "list", list );
+            ksession2.insert( "abcde" );
+            assertThat(ksession2.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly( "abcde:5" );
+
+            // deleting a reference fact forces a full reload when the session is released
+            ksession2.delete( referenceHandles.iterator().next() );
+        } finally {
+            ksession2.dispose();
+        }
+
+        final KieSession ksession3 = pool.newKieSession();
+        try {
+            assertThat(new ArrayList<Object>(ksession3.getObjects())).containsExactlyInAnyOrder( 3, 4, 5 );
+        } finally {
+            ksession3.dispose();
+        }
+
+        // removing the reference facts
+        pool.setReferenceFacts( null );
+        final KieSession ksession4 = pool.newKieSession();
+        try {
+            assertThat(ksession4.getObjects()).isEmpty();
+        } finally {
+            ksession4.dispose();
+        }
+
+        pool.shutdown();
+    }
+
+    @Test
+    public void testReferenceFactsRestoreStartsWithACleanClock() {
+        final String drl = REFERENCE_FACTS_DRL + "\n" +
+                "rule T timer (int: 10s) when\n" +
+                "  $s : String( this == \"timer\" )\n" +
+                "then\n" +
+                "  list.add(\"timer\");\n" +
+                "end";
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+        final KieSessionsPool pool = kbase.newKieSessionsPool( 1 );
+        pool.setReferenceFacts( Arrays.asList( 3, 4, 5 ) );
+
+        final KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption( ClockTypeOption.PSEUDO );
+
+        KieSession ksession = pool.newKieSession( conf );
+        final Collection<FactHandle> referenceHandles = ksession.getFactHandles();
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal( "list", list );
+            ksession.insert( "timer" );
+            ksession.fireAllRules();
+            ksession.<SessionPseudoClock>getSessionClock().advanceTime( 5, TimeUnit.SECONDS );
+            ksession.fireAllRules();
+            assertThat(list).containsExactly( "timer:5" );
+            assertThat(((InternalWorkingMemory) ksession).getTimerService().getTimeToNextJob()).isGreaterThanOrEqualTo(0);
+        } finally {
+            ksession.dispose();
+        }
+
+        // the session is restored from its reference facts, without the clock time and the jobs of the previous request
+        final KieSession ksession2 = pool.newKieSession( conf );
+        assertThat(ksession2).isSameAs(ksession);
+        assertThat(ksession2.getFactHandles()).containsExactlyInAnyOrderElementsOf(referenceHandles);
+        try {
+            assertThat(ksession2.<SessionPseudoClock>getSessionClock().getCurrentTime()).isEqualTo(0);
+            assertThat(((InternalWorkingMemory) ksession2).getTimerService().getTimeToNextJob()).isEqualTo(-1);
+
+            final List<String> list = new ArrayList<>();
+            ksession2.setGlobal( "list", list );
+            ksession2.<SessionPseudoClock>getSessionClock().advanceTime( 10, TimeUnit.SECONDS );
+            ksession2.insert( "abcde" );
+            assertThat(ksession2.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly( "abcde:5" );
+        } finally {
+            ksession2.dispose();
+        }
+
+        pool.shutdown();
+    }
 }
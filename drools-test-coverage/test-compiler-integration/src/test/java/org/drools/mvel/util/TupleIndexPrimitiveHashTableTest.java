@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.util;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.base.ClassFieldAccessorCache;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.reteoo.LeftTupleImpl;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleImpl;
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.Pattern;
+import org.drools.core.rule.accessor.ReadAccessor;
+import org.drools.core.test.model.Cheese;
+import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.index.AbstractTupleIndexPrimitiveHashTable;
+import org.drools.core.util.index.TupleIndexDoubleHashTable;
+import org.drools.core.util.index.TupleIndexIntHashTable;
+import org.drools.core.util.index.TupleIndexLongHashTable;
+import org.drools.mvel.accessors.ClassFieldAccessorStore;
+import org.drools.mvel.compiler.Primitives;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TupleIndexPrimitiveHashTableTest {
+
+    ClassFieldAccessorStore store = new ClassFieldAccessorStore();
+
+    @Before
+    public void setUp() throws Exception {
+        store.setClassFieldAccessorCache( new ClassFieldAccessorCache( Thread.currentThread().getContextClassLoader() ) );
+        store.setEagerWire( true );
+    }
+
+    private FieldIndex fieldIndex( Class<?> clazz, String fieldName ) {
+        final ReadAccessor extractor = store.getReader( clazz, fieldName );
+        final Pattern pattern = new Pattern( 0, new ClassObjectType( clazz ) );
+        final Declaration declaration = new Declaration( fieldName, extractor, pattern );
+        return new FieldIndex( extractor, declaration );
+    }
+
+    @Test
+    public void testIntIndex() {
+        final TupleIndexIntHashTable map = new TupleIndexIntHashTable( fieldIndex( Cheese.class, "price" ), false );
+
+        final RightTuple stilton = new RightTupleImpl( new DefaultFactHandle( 1, new Cheese( "stilton", 10 ) ), null );
+        final RightTuple brie = new RightTupleImpl( new DefaultFactHandle( 2, new Cheese( "brie", 10 ) ), null );
+        final RightTuple cheddar = new RightTupleImpl( new DefaultFactHandle( 3, new Cheese( "cheddar", 20 ) ), null );
+        map.add( stilton );
+        map.add( brie );
+        map.add( cheddar );
+        assertThat(map.size()).isEqualTo(3);
+
+        Tuple first = map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 4, new Cheese( "gouda", 10 ) ), null, true ) );
+        assertThat(first).isSameAs(stilton);
+        assertThat(first.getNext()).isSameAs(brie);
+        assertThat(brie.getNext()).isNull();
+        assertThat(map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 5, new Cheese( "gouda", 30 ) ), null, true ) )).isNull();
+
+        // moving a tuple to another bucket
+        ((Cheese) brie.getFactHandle().getObject()).setPrice( 20 );
+        map.removeAdd( brie );
+        first = map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 6, new Cheese( "gouda", 20 ) ), null, true ) );
+        assertThat(first).isSameAs(cheddar);
+        assertThat(first.getNext()).isSameAs(brie);
+        assertThat(map.size()).isEqualTo(3);
+
+        map.remove( stilton );
+        assertThat(map.contains( stilton )).isFalse();
+        assertThat(map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 7, new Cheese( "gouda", 10 ) ), null, true ) )).isNull();
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.toArray()).containsExactlyInAnyOrder(cheddar, brie);
+    }
+
+    @Test
+    public void testLongIndex() {
+        final TupleIndexLongHashTable map = new TupleIndexLongHashTable( fieldIndex( Primitives.class, "longPrimitive" ), false );
+
+        final Primitives p1 = new Primitives();
+        p1.setLongPrimitive( Long.MAX_VALUE );
+        final Primitives p2 = new Primitives();
+        p2.setLongPrimitive( 1L );
+        final RightTuple rt1 = new RightTupleImpl( new DefaultFactHandle( 1, p1 ), null );
+        map.add( rt1 );
+        map.add( new RightTupleImpl( new DefaultFactHandle( 2, p2 ), null ) );
+
+        final Primitives probe = new Primitives();
+        probe.setLongPrimitive( Long.MAX_VALUE );
+        assertThat(map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 3, probe ), null, true ) )).isSameAs(rt1);
+        probe.setLongPrimitive( Integer.MAX_VALUE );
+        assertThat(map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 4, probe ), null, true ) )).isNull();
+    }
+
+    @Test
+    public void testDoubleIndex() {
+        final TupleIndexDoubleHashTable map = new TupleIndexDoubleHashTable( fieldIndex( Primitives.class, "doublePrimitive" ), false );
+
+        final Primitives p1 = new Primitives();
+        p1.setDoublePrimitive( 1.5 );
+        final RightTuple rt1 = new RightTupleImpl( new DefaultFactHandle( 1, p1 ), null );
+        map.add( rt1 );
+
+        final Primitives probe = new Primitives();
+        probe.setDoublePrimitive( 1.5 );
+        assertThat(map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 2, probe ), null, true ) )).isSameAs(rt1);
+        probe.setDoublePrimitive( 1.25 );
+        assertThat(map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 3, probe ), null, true ) )).isNull();
+    }
+
+    @Test
+    public void testGrowAndReuseRemovedSlots() {
+        final TupleIndexIntHashTable map = new TupleIndexIntHashTable( fieldIndex( Cheese.class, "price" ), false );
+
+        final List<RightTuple> tuples = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ ) {
+            final RightTuple rightTuple = new RightTupleImpl( new DefaultFactHandle( i, new Cheese( "c" + i, i ) ), null );
+            tuples.add( rightTuple );
+            map.add( rightTuple );
+        }
+        for ( int i = 0; i < 1000; i += 2 ) {
+            map.remove( tuples.get( i ) );
+        }
+        for ( int i = 0; i < 1000; i += 2 ) {
+            map.add( tuples.get( i ) );
+        }
+        for ( int i = 0; i < 1000; i += 3 ) {
+            map.remove( tuples.get( i ) );
+        }
+
+        int expected = 0;
+        for ( int i = 0; i < 1000; i++ ) {
+            final Tuple first = map.getFirst( new LeftTupleImpl( new DefaultFactHandle( 2000 + i, new Cheese( "probe", i ) ), null, true ) );
+            if ( i % 3 == 0 ) {
+                assertThat(first).isNull();
+            } else {
+                assertThat(first).isSameAs(tuples.get( i ));
+                expected++;
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected);
+        assertThat(iterateAll( map )).isEqualTo(expected);
+    }
+
+    private int iterateAll( AbstractTupleIndexPrimitiveHashTable map ) {
+        int count = 0;
+        final FastIterator it = map.fullFastIterator();
+        for ( Tuple tuple = (Tuple) it.next( null ); tuple != null; tuple = (Tuple) it.next( tuple ) ) {
+            count++;
+        }
+        return count;
+    }
+}
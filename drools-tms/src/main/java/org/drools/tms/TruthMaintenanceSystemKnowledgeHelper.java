@@ -14,6 +14,9 @@
 
 package org.drools.tms;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.drools.core.common.EqualityKey;
 import org.drools.core.common.InternalAgenda;
 import org.drools.core.common.InternalFactHandle;
@@ -42,8 +45,16 @@ import org.kie.api.runtime.rule.Match;
 
 public class TruthMaintenanceSystemKnowledgeHelper<T extends ModedAssertion<T>> extends DefaultKnowledgeHelper {
 
+    // above this number of previous justifications they are looked up through a map instead of being scanned,
+    // so that a match logically inserting many facts doesn't become quadratic when it fires again
+    private static final int PREVIOUS_JUSTIFIED_INDEX_THRESHOLD = 8;
+
     private LinkedList<LogicalDependency<T>> previousJustified;
 
+    private Map<Object, LogicalDependency<T>> previousJustifiedIndex;
+
+    private boolean previousJustifiedHasEqualObjects;
+
     private LinkedList<LogicalDependency<SimpleMode>> previousBlocked;
 
     public TruthMaintenanceSystemKnowledgeHelper() { }
@@ -56,6 +67,7 @@ public class TruthMaintenanceSystemKnowledgeHelper<T extends ModedAssertion<T>>
     public void setActivation(final Activation agendaItem) {
         TruthMaintenanceSystemActivation tmsActivation = (TruthMaintenanceSystemActivation)agendaItem;
         this.previousJustified = tmsActivation.getLogicalDependencies();
+        this.previousJustifiedIndex = null;
         this.previousBlocked = tmsActivation.getBlocked();
         super.setActivation(agendaItem);
         tmsActivation.setLogicalDependencies( null );
@@ -67,6 +79,7 @@ public class TruthMaintenanceSystemKnowledgeHelper<T extends ModedAssertion<T>>
         cancelRemainingPreviousLogicalDependencies();
         super.reset();
         this.previousJustified = null;
+        this.previousJustifiedIndex = null;
         this.previousBlocked = null;
     }
 
@@ -89,16 +102,7 @@ public class TruthMaintenanceSystemKnowledgeHelper<T extends ModedAssertion<T>>
             // Activation is already unmatched, can't do logical insertions against it
             return null;
         }
-        // iterate to find previous equal logical insertion
-        LogicalDependency<T> dep = null;
-        if ( this.previousJustified != null ) {
-            for ( dep = this.previousJustified.getFirst(); dep != null; dep = dep.getNext() ) {
-                if ( object.equals( ((BeliefSet)dep.getJustified()).getFactHandle().getObject() ) ) {
-                    this.previousJustified.remove( dep );
-                    break;
-                }
-            }
-        }
+        LogicalDependency<T> dep = removePreviousJustified( object );
 
         if ( dep != null ) {
             // Add the previous matching logical dependency back into the list
@@ -110,6 +114,57 @@ public class TruthMaintenanceSystemKnowledgeHelper<T extends ModedAssertion<T>>
         }
     }
 
+    private LogicalDependency<T> removePreviousJustified(Object object) {
+        if ( this.previousJustified == null ) {
+            return null;
+        }
+
+        if ( this.previousJustifiedIndex == null ) {
+            if ( this.previousJustified.size() < PREVIOUS_JUSTIFIED_INDEX_THRESHOLD ) {
+                // iterate to find previous equal logical insertion
+                for ( LogicalDependency<T> dep = this.previousJustified.getFirst(); dep != null; dep = dep.getNext() ) {
+                    if ( object.equals( getJustifiedObject( dep ) ) ) {
+                        this.previousJustified.remove( dep );
+                        return dep;
+                    }
+                }
+                return null;
+            }
+            indexPreviousJustified();
+        }
+
+        LogicalDependency<T> dep = this.previousJustifiedIndex.remove( object );
+        if ( dep == null ) {
+            return null;
+        }
+
+        if ( this.previousJustifiedHasEqualObjects ) {
+            // the next previous justification of an equal object, if any, takes the place of the removed one
+            for ( LogicalDependency<T> next = dep.getNext(); next != null; next = next.getNext() ) {
+                if ( object.equals( getJustifiedObject( next ) ) ) {
+                    this.previousJustifiedIndex.put( object, next );
+                    break;
+                }
+            }
+        }
+        this.previousJustified.remove( dep );
+        return dep;
+    }
+
+    private void indexPreviousJustified() {
+        this.previousJustifiedIndex = new HashMap<>( this.previousJustified.size() * 4 / 3 + 1 );
+        this.previousJustifiedHasEqualObjects = false;
+        for ( LogicalDependency<T> dep = this.previousJustified.getFirst(); dep != null; dep = dep.getNext() ) {
+            if ( this.previousJustifiedIndex.putIfAbsent( getJustifiedObject( dep ), dep ) != null ) {
+                this.previousJustifiedHasEqualObjects = true;
+            }
+        }
+    }
+
+    private static Object getJustifiedObject(LogicalDependency<?> dep) {
+        return ((BeliefSet) dep.getJustified()).getFactHandle().getObject();
+    }
+
     public void cancelRemainingPreviousLogicalDependencies() {
         if ( this.previousJustified != null ) {
             for ( LogicalDependency<T> dep = this.previousJustified.getFirst(); dep != null; dep = dep.getNext() ) {
@@ -65,6 +65,15 @@ public interface ObjectMarshallingStrategy {
                              byte[] object,
                              ClassLoader classloader ) throws IOException, ClassNotFoundException;
 
+    /**
+     * Returns true if #unmarshal() can be invoked concurrently from several threads with the same
+     * context. Such a strategy must not read from the given input stream, which is shared and
+     * positioned on the session being restored.
+     */
+    default boolean isConcurrentUnmarshallingSupported() {
+        return false;
+    }
+
     /**
      * Creates a new marshalling context
      */
@@ -29,8 +29,22 @@ public class EnvironmentName {
     public static final String TASK_PERSISTENCE_CONTEXT_MANAGER     = "org.kie.api.persistence.TaskPersistenceContextManager";
     public static final String USE_PESSIMISTIC_LOCKING              = "org.kie.api.persistence.pessimistic";
     public static final String USE_PESSIMISTIC_LOCKING_MODE         = "org.kie.api.persistence.pessimistic.mode";
+    /**
+     * When true, a persisted session keeps its last full snapshot and each commit appends only a delta from the
+     * snapshot of the previous commit. The session is still fully marshalled on each commit to compute the delta.
+     * Once the deltas add up to more than a quarter of the full snapshot, the session is written in full again as
+     * the new base and the deltas are dropped. Hibernate only skips rewriting the unchanged base snapshot when
+     * SessionInfo is mapped with META-INF/SessionInfo.hbm.xml, other JPA providers rewrite it on each commit.
+     */
+    public static final String USE_INCREMENTAL_SNAPSHOTS            = "org.kie.api.persistence.incremental";
 
     public static final String OBJECT_MARSHALLING_STRATEGIES        = "org.kie.api.marshalling.ObjectMarshallingStrategies";
+    public static final String USE_PARALLEL_UNMARSHALLING           = "org.kie.api.marshalling.parallel";
+    /**
+     * When true, a session is marshalled as a sequence of length-delimited segments, so that neither the writer
+     * nor the reader ever builds the whole session message. Sessions written in either format can always be read.
+     */
+    public static final String USE_SEGMENTED_MARSHALLING            = "org.kie.api.marshalling.segmented";
     public static final String GLOBALS                              = "org.kie.Globals";
     public static final String CALENDARS                            = "org.kie.api.time.Calendars";
     public static final String DATE_FORMATS                         = "org.kie.build.DateFormats";
@@ -16,6 +16,8 @@
 
 package org.kie.api.runtime;
 
+import java.util.Collection;
+
 import org.kie.api.command.Command;
 
 /**
@@ -61,6 +63,19 @@ public interface KieSessionsPool {
      */
     StatelessKieSession newStatelessKieSession( KieSessionConfiguration conf );
 
+    /**
+     * Sets the reference facts, i.e. the static data like rates or a product catalog used by all the requests, that
+     * each session of this pool inserts only once. The rules activated by these facts alone are fired when they are
+     * inserted, before the session is returned to the caller, so without any global or listener. The resulting state
+     * is retained when the session goes back to the pool: only the facts inserted later are deleted, and the next
+     * request starts from that state instead of inserting the reference facts again.
+     * The reference facts are shared by all the sessions of this pool, so they must not be modified or deleted.
+     * If this happens, the session is fully reset and the reference facts are inserted again.
+     *
+     * @param facts the reference facts, or null to remove them
+     */
+    void setReferenceFacts(Collection<?> facts);
+
     /**
      * Shutdown this pool and clean up all the resources
      */
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for the ObjectStore option.
+ *
+ * drools.objectStore = &lt;default|flat&gt;
+ *
+ * Selects the store used by the entry points of the sessions to keep the inserted facts
+ * and their handles. The flat store keeps them in open addressing tables made of plain
+ * arrays, without allocating any entry object per fact, and takes less heap than the
+ * default store for very large working memories. The fact handles themselves are
+ * allocated on the heap as with the default store.
+ *
+ * DEFAULT = default
+ */
+public enum ObjectStoreOption implements SingleValueKieBaseOption {
+
+    DEFAULT("default"),
+    FLAT("flat");
+
+    /**
+     * The property name for the object store option
+     */
+    public static final String PROPERTY_NAME = "drools.objectStore";
+
+    private String             string;
+
+    ObjectStoreOption(String mode) {
+        this.string = mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getValue() {
+        return string;
+    }
+
+    public String toString() {
+        return "ObjectStoreOption( "+string+ " )";
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public static ObjectStoreOption determineObjectStore(String mode) {
+        if ( DEFAULT.getValue().equalsIgnoreCase( mode ) ) {
+            return DEFAULT;
+        } else if ( FLAT.getValue().equalsIgnoreCase( mode ) ) {
+            return FLAT;
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + mode + "' for ObjectStore" );
+    }
+
+}
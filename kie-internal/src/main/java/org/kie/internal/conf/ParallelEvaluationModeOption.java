@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for the parallel evaluation mode option.
+ *
+ * drools.parallelEvaluationMode = &lt;partitioned|workstealing&gt;
+ *
+ * Only meaningful when multithread evaluation is enabled. With the partitioned mode
+ * each partition of the rule base is fired by its own thread at every evaluation round.
+ * With the workstealing mode a pool of at most drools.maxThreads workers repeatedly claims
+ * any partition with pending work, so threads left idle by a cheap partition can go on
+ * with the work produced by a busy one. In both cases a partition is never evaluated by
+ * two threads at the same time.
+ *
+ * DEFAULT = partitioned
+ */
+public enum ParallelEvaluationModeOption implements SingleValueKieBaseOption {
+
+    PARTITIONED("partitioned"),
+    WORK_STEALING("workstealing");
+
+    /**
+     * The property name for the parallel evaluation mode option
+     */
+    public static final String PROPERTY_NAME = "drools.parallelEvaluationMode";
+
+    private String             string;
+
+    ParallelEvaluationModeOption(String mode) {
+        this.string = mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getValue() {
+        return string;
+    }
+
+    public String toString() {
+        return "ParallelEvaluationModeOption( "+string+ " )";
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public static ParallelEvaluationModeOption determineParallelEvaluationMode(String mode) {
+        if ( PARTITIONED.getValue().equalsIgnoreCase( mode ) ) {
+            return PARTITIONED;
+        } else if ( WORK_STEALING.getValue().equalsIgnoreCase( mode ) ) {
+            return WORK_STEALING;
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + mode + "' for ParallelEvaluationMode" );
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for the PropagationList option.
+ *
+ * drools.propagationList = &lt;synchronized|lockfree&gt;
+ *
+ * Selects the queue used by thread safe sessions to collect the propagations
+ * (inserts, updates, deletes, timers ...) coming from other threads. The lockfree
+ * implementation lets the producers append without contending on a monitor and
+ * it is meant for sessions fed by many threads concurrently.
+ *
+ * DEFAULT = synchronized
+ */
+public enum PropagationListOption implements SingleValueKieBaseOption {
+
+    SYNCHRONIZED("synchronized"),
+    LOCK_FREE("lockfree");
+
+    /**
+     * The property name for the propagation list option
+     */
+    public static final String PROPERTY_NAME = "drools.propagationList";
+
+    private String             string;
+
+    PropagationListOption(String mode) {
+        this.string = mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getValue() {
+        return string;
+    }
+
+    public String toString() {
+        return "PropagationListOption( "+string+ " )";
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public static PropagationListOption determinePropagationList(String mode) {
+        if ( SYNCHRONIZED.getValue().equalsIgnoreCase( mode ) ) {
+            return SYNCHRONIZED;
+        } else if ( LOCK_FREE.getValue().equalsIgnoreCase( mode ) ) {
+            return LOCK_FREE;
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + mode + "' for PropagationList" );
+    }
+
+}
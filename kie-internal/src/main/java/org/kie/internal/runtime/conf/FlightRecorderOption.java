@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * An option to make the KieSession emit JDK Flight Recorder events for the evaluation of the rule network,
+ * the firing of the rules, the flushes of the propagation list, the agenda group focus changes and the sizes
+ * of the beta memories. The events are only recorded while a recording enabling them is running, but the
+ * instrumentation is skipped altogether when this option is disabled.
+ *
+ * drools.flightRecorder = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum FlightRecorderOption implements SingleValueKieSessionOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the flight recorder configuration
+     */
+    public static final String PROPERTY_NAME = "drools.flightRecorder";
+
+    private final boolean enabled;
+
+    FlightRecorderOption( final boolean enabled ) {
+        this.enabled = enabled;
+    }
+
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * Option to re-accumulate the groups of a groupBy in parallel. When enabled the groups invalidated
+ * by the deletes and modifies staged on a groupBy node are re-accumulated once per batch, and they
+ * are split among fork-join tasks when there are at least as many of them as the given threshold.
+ */
+public class GroupByParallelThresholdOption implements SingleValueKieSessionOption {
+
+    private static final long serialVersionUID = 510l;
+
+    public static final String PROPERTY_NAME = "drools.groupByParallelThreshold";
+
+    /**
+     * The default value for this option: groups are re-accumulated one at the time as soon as they are invalidated
+     */
+    public static final int DEFAULT_VALUE = 0;
+
+    public static final GroupByParallelThresholdOption DISABLED = new GroupByParallelThresholdOption( DEFAULT_VALUE );
+
+    /**
+     * The minimum number of groups to be re-accumulated in the same batch in order to do it in parallel.
+     * A value lower or equal to 0 disables the option.
+     */
+    private final int threshold;
+
+    private GroupByParallelThresholdOption( int threshold ) {
+        this.threshold = threshold;
+    }
+
+    public static GroupByParallelThresholdOption get( int threshold ) {
+        return threshold <= 0 ? DISABLED : new GroupByParallelThresholdOption( threshold );
+    }
+
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public boolean isEnabled() {
+        return threshold > 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return threshold;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) { return true; }
+        if ( obj == null || getClass() != obj.getClass() ) { return false; }
+        return threshold == ((GroupByParallelThresholdOption) obj).threshold;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * Option to reclaim the segment and node memories of rules that have been idle, i.e. with
+ * empty memories and no pending activations, for longer than the given period. The reclaimed
+ * memories are lazily rebuilt when new facts reach those rules again.
+ */
+public class SegmentMemoryEvictionOption implements SingleValueKieSessionOption {
+
+    private static final long serialVersionUID = 510l;
+
+    public static final String PROPERTY_NAME = "drools.segmentMemoryEvictionIdleTime";
+
+    /**
+     * The default value for this option: eviction is disabled
+     */
+    public static final long DEFAULT_VALUE = 0;
+
+    public static final SegmentMemoryEvictionOption DISABLED = new SegmentMemoryEvictionOption( DEFAULT_VALUE );
+
+    /**
+     * The idle period in milliseconds, measured with the session clock, after which the memories
+     * of an idle rule are reclaimed. A value lower or equal to 0 disables the eviction.
+     */
+    private final long idleTime;
+
+    private SegmentMemoryEvictionOption( long idleTime ) {
+        this.idleTime = idleTime;
+    }
+
+    public static SegmentMemoryEvictionOption get( long idleTime ) {
+        return idleTime <= 0 ? DISABLED : new SegmentMemoryEvictionOption( idleTime );
+    }
+
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public long getIdleTime() {
+        return idleTime;
+    }
+
+    public boolean isEnabled() {
+        return idleTime > 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode( idleTime );
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) { return true; }
+        if ( obj == null || getClass() != obj.getClass() ) { return false; }
+        return idleTime == ((SegmentMemoryEvictionOption) obj).idleTime;
+    }
+}
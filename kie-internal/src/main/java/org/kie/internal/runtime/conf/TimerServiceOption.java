@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * An option to select the implementation of the timer service used by the KieSession for the clock
+ * configured with the ClockTypeOption. The timing wheel services keep the pending timers in a hashed
+ * hierarchical timing wheel, so scheduling and cancelling a timer is O(1) regardless of how many
+ * timers are pending. A class name configured with drools.timerService still takes precedence for
+ * the realtime clock.
+ *
+ * drools.timerServiceType = &lt;default|timingwheel&gt;
+ *
+ * DEFAULT = default
+ */
+public enum TimerServiceOption implements SingleValueKieSessionOption {
+
+    DEFAULT("default"),
+    TIMING_WHEEL("timingwheel");
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the timer service type configuration
+     */
+    public static final String PROPERTY_NAME = "drools.timerServiceType";
+
+    private final String id;
+
+    TimerServiceOption( final String id ) {
+        this.id = id;
+    }
+
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public static TimerServiceOption resolve( String id ) {
+        for ( TimerServiceOption option : values() ) {
+            if ( option.id.equalsIgnoreCase( id ) ) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + id + "' for TimerServiceOption" );
+    }
+}
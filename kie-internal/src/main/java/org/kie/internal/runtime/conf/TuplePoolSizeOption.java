@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * Option to recycle the right tuples of the join nodes. When enabled each join node memory of the session
+ * keeps up to the given number of the right tuples deleted by the retraction or modification of a fact,
+ * and reuses them for the facts inserted later instead of allocating new ones.
+ */
+public class TuplePoolSizeOption implements SingleValueKieSessionOption {
+
+    private static final long serialVersionUID = 510l;
+
+    public static final String PROPERTY_NAME = "drools.tuplePoolSize";
+
+    /**
+     * The default value for this option: tuples are never recycled
+     */
+    public static final int DEFAULT_VALUE = 0;
+
+    public static final TuplePoolSizeOption DISABLED = new TuplePoolSizeOption( DEFAULT_VALUE );
+
+    /**
+     * The maximum number of tuples kept by each join node memory. A value lower or equal to 0 disables the option.
+     */
+    private final int size;
+
+    private TuplePoolSizeOption( int size ) {
+        this.size = size;
+    }
+
+    public static TuplePoolSizeOption get( int size ) {
+        return size <= 0 ? DISABLED : new TuplePoolSizeOption( size );
+    }
+
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) { return true; }
+        if ( obj == null || getClass() != obj.getClass() ) { return false; }
+        return size == ((TuplePoolSizeOption) obj).size;
+    }
+}